@@ -0,0 +1,98 @@
+package org.cryptimeleon.craco.accumulator.nguyen;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NguyenAccumulatorSchemeBenchmark {
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.BN})
+    public String group;
+
+    /**
+     * Number of accumulated values, which is also the capacity of the accumulator.
+     */
+    @Param({"10", "100", "1000"})
+    public int numberOfValues;
+
+    private NguyenAccumulatorScheme scheme;
+    private Set<Zn.ZnElement> values;
+    private Zn.ZnElement value;
+    private NguyenDigest digest;
+    private NguyenWitness witness;
+    private List<Zn.ZnElement> valueList;
+    private List<NguyenWitness> witnesses;
+
+    @Setup
+    public void setup() {
+        BilinearGroup bilinearGroup = BenchmarkUtil.createBilinearGroup(group);
+        scheme = NguyenAccumulatorScheme.setup(bilinearGroup, numberOfValues);
+        values = new LinkedHashSet<>();
+        while (values.size() < numberOfValues) {
+            values.add(bilinearGroup.getZn().getUniformlyRandomElement());
+        }
+        value = values.iterator().next();
+        digest = computeSync(scheme.createDigest(values));
+        witness = computeSync(scheme.createWitness(digest, values, value));
+        Map<Zn.ZnElement, NguyenWitness> allWitnesses = scheme.createAllWitnesses(values);
+        valueList = new ArrayList<>(allWitnesses.keySet());
+        witnesses = new ArrayList<>(allWitnesses.values());
+        witnesses.forEach(NguyenAccumulatorSchemeBenchmark::computeSync);
+    }
+
+    @Benchmark
+    public NguyenDigest createDigest() {
+        return computeSync(scheme.createDigest(values));
+    }
+
+    @Benchmark
+    public NguyenWitness createWitness() {
+        return computeSync(scheme.createWitness(digest, values, value));
+    }
+
+    @Benchmark
+    public Map<Zn.ZnElement, NguyenWitness> createAllWitnesses() {
+        Map<Zn.ZnElement, NguyenWitness> witnesses = scheme.createAllWitnesses(values);
+        witnesses.values().forEach(NguyenAccumulatorSchemeBenchmark::computeSync);
+        return witnesses;
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return scheme.verify(digest, value, witness);
+    }
+
+    /**
+     * Verifies the witnesses of all accumulated values at once.
+     */
+    @Benchmark
+    public List<Integer> verifyBatch() {
+        return scheme.verifyBatch(digest, valueList, witnesses);
+    }
+
+    /**
+     * Waits until the group element of the given digest has been computed.
+     */
+    private static NguyenDigest computeSync(NguyenDigest digest) {
+        digest.getDigest().computeSync();
+        return digest;
+    }
+
+    /**
+     * Waits until the group element of the given witness has been computed.
+     */
+    private static NguyenWitness computeSync(NguyenWitness witness) {
+        witness.getWitness().computeSync();
+        return witness;
+    }
+}
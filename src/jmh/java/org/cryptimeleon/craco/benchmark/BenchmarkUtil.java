@@ -0,0 +1,70 @@
+package org.cryptimeleon.craco.benchmark;
+
+import org.cryptimeleon.math.structures.groups.debug.DebugBilinearGroup;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+import org.cryptimeleon.math.structures.groups.elliptic.type1.supersingular.SupersingularBilinearGroup;
+import org.cryptimeleon.math.structures.groups.elliptic.type3.bn.BarretoNaehrigBilinearGroup;
+
+/**
+ * Shared setup for the benchmarks.
+ * <p>
+ * Benchmarks of group-based schemes take the name of the bilinear group to run against as a JMH parameter:
+ * <ul>
+ *     <li>{@link #DEBUG}: the counting {@link DebugBilinearGroup}. Its group operations are cheap, so results reflect
+ *     the overhead of the scheme implementation rather than that of the underlying curve arithmetic.</li>
+ *     <li>{@link #BN}: a type 3 Barreto-Naehrig curve, as used in practice.</li>
+ *     <li>{@link #SUPERSINGULAR}: a type 1 supersingular curve, for schemes that need a homomorphism
+ *     from \(\mathbb{G}_2\) to \(\mathbb{G}_1\).</li>
+ * </ul>
+ */
+public final class BenchmarkUtil {
+    public static final String DEBUG = "debug";
+    public static final String BN = "bn";
+    public static final String SUPERSINGULAR = "supersingular";
+
+    /**
+     * Security parameter used for all groups; for {@link #BN}, this yields a 256 bit curve.
+     */
+    public static final int SECURITY_PARAMETER = 100;
+
+    /**
+     * Hidden constructor.
+     */
+    private BenchmarkUtil() {
+
+    }
+
+    /**
+     * Creates the type 3 bilinear group with the given name.
+     *
+     * @param name either {@link #DEBUG} or {@link #BN}
+     * @return the bilinear group
+     */
+    public static BilinearGroup createBilinearGroup(String name) {
+        switch (name) {
+            case DEBUG:
+                return new DebugBilinearGroup(SECURITY_PARAMETER, BilinearGroup.Type.TYPE_3);
+            case BN:
+                return new BarretoNaehrigBilinearGroup(SECURITY_PARAMETER);
+            default:
+                throw new IllegalArgumentException("Unknown type 3 bilinear group: " + name);
+        }
+    }
+
+    /**
+     * Creates the type 1 bilinear group with the given name.
+     *
+     * @param name either {@link #DEBUG} or {@link #SUPERSINGULAR}
+     * @return the bilinear group
+     */
+    public static BilinearGroup createType1BilinearGroup(String name) {
+        switch (name) {
+            case DEBUG:
+                return new DebugBilinearGroup(SECURITY_PARAMETER, BilinearGroup.Type.TYPE_1);
+            case SUPERSINGULAR:
+                return new SupersingularBilinearGroup(SECURITY_PARAMETER);
+            default:
+                throw new IllegalArgumentException("Unknown type 1 bilinear group: " + name);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Contains utilities shared by the JMH benchmarks.
+ * The benchmarks themselves are placed in the packages of the classes they benchmark.
+ */
+package org.cryptimeleon.craco.benchmark;
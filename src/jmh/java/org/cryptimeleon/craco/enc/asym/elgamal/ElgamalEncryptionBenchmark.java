@@ -0,0 +1,89 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.enc.CipherText;
+import org.cryptimeleon.craco.enc.EncryptionKeyPair;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs Elgamal in the first group of the selected bilinear group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ElgamalEncryptionBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.BN})
+    public String group;
+
+    private ElgamalEncryption scheme;
+    private EncryptionKeyPair keyPair;
+    private PrecomputedElgamalPublicKey precomputedPk;
+    private PlainText plainText;
+    private CipherText cipherText;
+    private List<CipherText> cipherTexts;
+
+    @Setup
+    public void setup() {
+        Group groupG = BenchmarkUtil.createBilinearGroup(group).getG1();
+        scheme = new ElgamalEncryption(groupG);
+        keyPair = scheme.generateKeyPair();
+        precomputedPk = new PrecomputedElgamalPublicKey((ElgamalPublicKey) keyPair.getPk());
+        plainText = new GroupElementPlainText(groupG.getUniformlyRandomElement().computeSync());
+        cipherText = computeSync(scheme.encrypt(plainText, keyPair.getPk()));
+        cipherTexts = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            cipherTexts.add(computeSync(scheme.encrypt(plainText, precomputedPk)));
+        }
+    }
+
+    @Benchmark
+    public CipherText encrypt() {
+        return computeSync(scheme.encrypt(plainText, keyPair.getPk()));
+    }
+
+    @Benchmark
+    public CipherText encryptPrecomputed() {
+        return computeSync(scheme.encrypt(plainText, precomputedPk));
+    }
+
+    @Benchmark
+    public PlainText decrypt() {
+        return computeSync(scheme.decrypt(cipherText, keyPair.getSk()));
+    }
+
+    /**
+     * Decrypts {@value #BATCH_SIZE} ciphertexts at once; the score is the time per decryption.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<PlainText> decryptAll() {
+        return scheme.decryptAll(cipherTexts, keyPair.getSk());
+    }
+
+    /**
+     * Waits until the group elements of the given ciphertext have been computed.
+     */
+    private static CipherText computeSync(CipherText cipherText) {
+        ElgamalCipherText elgamalCipherText = (ElgamalCipherText) cipherText;
+        elgamalCipherText.getC1().computeSync();
+        elgamalCipherText.getC2().computeSync();
+        return cipherText;
+    }
+
+    /**
+     * Waits until the group element of the given plaintext has been computed.
+     */
+    private static PlainText computeSync(PlainText plainText) {
+        ((GroupElementPlainText) plainText).get().computeSync();
+        return plainText;
+    }
+}
@@ -0,0 +1,103 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.attributes.StringAttribute;
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.common.policies.Policy;
+import org.cryptimeleon.craco.common.policies.ThresholdPolicy;
+import org.cryptimeleon.craco.enc.CipherText;
+import org.cryptimeleon.craco.enc.EncryptionKeyPair;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
+import org.cryptimeleon.craco.secretsharing.shamir.ShamirSecretSharing;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs threshold Elgamal decryption in the first group of the selected bilinear group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ThresholdElgamalDecryptionBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.BN})
+    public String group;
+
+    /**
+     * Number of nodes holding key shares; the threshold is a majority of them.
+     */
+    @Param({"5", "20"})
+    public int numberOfNodes;
+
+    private ThresholdElgamalDecryption thresholdDecryption;
+    private ElgamalPrivateKey keyShare;
+    private List<CipherText> cipherTexts;
+    private Map<Integer, List<GroupElement>> partialDecryptions;
+
+    @Setup
+    public void setup() throws WrongAccessStructureException {
+        Group groupG = BenchmarkUtil.createBilinearGroup(group).getG1();
+        ElgamalEncryption scheme = new ElgamalEncryption(groupG);
+        EncryptionKeyPair keyPair = scheme.generateKeyPair();
+        List<Policy> nodes = new ArrayList<>();
+        for (int i = 0; i < numberOfNodes; i++) {
+            nodes.add(new StringAttribute("node" + i));
+        }
+        int threshold = numberOfNodes / 2 + 1;
+        thresholdDecryption = new ThresholdElgamalDecryption(scheme,
+                new ShamirSecretSharing(new ThresholdPolicy(threshold, nodes), new Zp(groupG.size())));
+        Map<Integer, ElgamalPrivateKey> keyShares = thresholdDecryption.shareKey((ElgamalPrivateKey) keyPair.getSk());
+        keyShare = keyShares.get(1);
+
+        PlainText plainText = new GroupElementPlainText(groupG.getUniformlyRandomElement().computeSync());
+        cipherTexts = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            cipherTexts.add(computeSync(scheme.encrypt(plainText, keyPair.getPk())));
+        }
+        partialDecryptions = new HashMap<>();
+        for (int i = 1; i <= threshold; i++) {
+            partialDecryptions.put(i, thresholdDecryption.partialDecryptAll(cipherTexts, keyShares.get(i)));
+        }
+    }
+
+    /**
+     * Computes the partial decryptions of one node for {@value #BATCH_SIZE} ciphertexts; the score is the time per
+     * ciphertext.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<GroupElement> partialDecryptAll() {
+        return thresholdDecryption.partialDecryptAll(cipherTexts, keyShare);
+    }
+
+    /**
+     * Combines the partial decryptions of a qualified set of nodes for {@value #BATCH_SIZE} ciphertexts; the score is
+     * the time per ciphertext.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<PlainText> combineAll() throws NoSatisfyingSet, WrongAccessStructureException {
+        return thresholdDecryption.combineAll(cipherTexts, partialDecryptions);
+    }
+
+    /**
+     * Waits until the group elements of the given ciphertext have been computed.
+     */
+    private static CipherText computeSync(CipherText cipherText) {
+        ElgamalCipherText elgamalCipherText = (ElgamalCipherText) cipherText;
+        elgamalCipherText.getC1().computeSync();
+        elgamalCipherText.getC2().computeSync();
+        return cipherText;
+    }
+}
@@ -0,0 +1,103 @@
+package org.cryptimeleon.craco.enc.sym.streaming.aes;
+
+import org.cryptimeleon.craco.common.ByteArrayImplementation;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the garbage produced per packet by {@link StreamingGCMAESPacketMode}.
+ * <p>
+ * Each operation processes exactly one packet using long-lived streams, so running the benchmark with the GC
+ * profiler, e.g. via {@code ./gradlew jmh -PjmhIncludes=StreamingGCMAESPacketModeAllocation -PjmhProfilers=gc},
+ * reports the bytes allocated per packet as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamingGCMAESPacketModeAllocationBenchmark {
+    private static final int PACKET_SIZE = StreamingGCMAESPacketMode.DEFAULT_PACKET_SIZE;
+
+    private byte[] packet;
+    private byte[] buffer;
+    private OutputStream encryptor;
+    private InputStream encryptingStream;
+    private GCMPacketCipher packetCipher;
+    private byte[] cipherPacket;
+
+    @Setup
+    public void setup() throws IOException, GeneralSecurityException {
+        StreamingGCMAESPacketMode scheme = new StreamingGCMAESPacketMode(PACKET_SIZE);
+        ByteArrayImplementation key = (ByteArrayImplementation) scheme.generateSymmetricKey();
+        packet = new byte[PACKET_SIZE];
+        new Random(0).nextBytes(packet);
+        buffer = new byte[PACKET_SIZE + 16];
+
+        encryptor = scheme.createEncryptor(new DiscardingOutputStream(), key);
+        encryptingStream = scheme.encrypt(new EndlessInputStream(), key);
+        // skip the IV
+        encryptingStream.read(buffer, 0, 12);
+
+        packetCipher = new GCMPacketCipher(new SecretKeySpec(key.getData(), "AES"), new byte[12], 128,
+                "AES/GCM/NoPadding");
+        cipherPacket = new byte[PACKET_SIZE + 16];
+        packetCipher.encryptPacket(0, packet, 0, PACKET_SIZE, cipherPacket, 0);
+    }
+
+    /**
+     * Writes one packet into an encrypting output stream.
+     */
+    @Benchmark
+    public void encryptorWritePacket() throws IOException {
+        encryptor.write(packet);
+    }
+
+    /**
+     * Reads one encrypted packet from an encrypting input stream.
+     */
+    @Benchmark
+    public byte[] encryptingStreamReadPacket() throws IOException {
+        int read = 0;
+        while (read < buffer.length) {
+            read += encryptingStream.read(buffer, read, buffer.length - read);
+        }
+        return buffer;
+    }
+
+    /**
+     * Decrypts one packet into a preallocated buffer, as done by the decrypting streams.
+     */
+    @Benchmark
+    public byte[] decryptPacket() throws GeneralSecurityException {
+        packetCipher.decryptPacket(0, cipherPacket, 0, cipherPacket.length, buffer, 0);
+        return buffer;
+    }
+
+    private static class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    private static class EndlessInputStream extends InputStream {
+        @Override
+        public int read() {
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return len;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.cryptimeleon.craco.enc.sym.streaming.aes;
+
+import org.cryptimeleon.craco.enc.SymmetricKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StreamingGCMAESPacketModeBenchmark {
+    /**
+     * Number of plaintext bytes processed per operation.
+     */
+    @Param({"1024", "1048576"})
+    public int size;
+
+    private StreamingGCMAESPacketMode scheme;
+    private SymmetricKey key;
+    private byte[] plainText;
+    private byte[] cipherText;
+    private ExecutorService executor;
+    private int maxInFlightPackets;
+
+    @Setup
+    public void setup() throws IOException {
+        scheme = new StreamingGCMAESPacketMode();
+        key = scheme.generateSymmetricKey();
+        plainText = new byte[size];
+        new Random(0).nextBytes(plainText);
+
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        scheme.encrypt(new ByteArrayInputStream(plainText), cipherOut, key);
+        cipherText = cipherOut.toByteArray();
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(threads);
+        maxInFlightPackets = 2 * threads;
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws IOException {
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream(cipherText.length);
+        scheme.encrypt(new ByteArrayInputStream(plainText), cipherOut, key);
+        return cipherOut.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws IOException {
+        ByteArrayOutputStream plainOut = new ByteArrayOutputStream(plainText.length);
+        scheme.decrypt(new ByteArrayInputStream(cipherText), plainOut, key);
+        return plainOut.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encryptParallel() throws IOException {
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream(cipherText.length);
+        scheme.encryptParallel(new ByteArrayInputStream(plainText), cipherOut, key, executor, maxInFlightPackets);
+        return cipherOut.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] decryptParallel() throws IOException {
+        ByteArrayOutputStream plainOut = new ByteArrayOutputStream(plainText.length);
+        scheme.decryptParallel(new ByteArrayInputStream(cipherText), plainOut, key, executor, maxInFlightPackets);
+        return plainOut.toByteArray();
+    }
+}
@@ -0,0 +1,72 @@
+package org.cryptimeleon.craco.kem.asym.elgamal;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.ByteArrayImplementation;
+import org.cryptimeleon.craco.enc.CipherText;
+import org.cryptimeleon.craco.enc.EncryptionKeyPair;
+import org.cryptimeleon.craco.enc.SymmetricKey;
+import org.cryptimeleon.craco.kem.KeyEncapsulationMechanism;
+import org.cryptimeleon.math.hash.impl.SHA256HashFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the Elgamal KEM in the first group of the selected bilinear group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ElgamalKEMBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.BN})
+    public String group;
+
+    private ElgamalKEM kem;
+    private EncryptionKeyPair keyPair;
+    private KeyEncapsulationMechanism.KeyAndCiphertext<SymmetricKey> keyAndCiphertext;
+    private List<CipherText> encapsulatedKeys;
+
+    @Setup
+    public void setup() {
+        kem = new ElgamalKEM(BenchmarkUtil.createBilinearGroup(group).getG1(), new SHA256HashFunction());
+        keyPair = kem.generateKeyPair();
+        keyAndCiphertext = kem.encaps(keyPair.getPk());
+        encapsulatedKeys = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            encapsulatedKeys.add(kem.encaps(keyPair.getPk()).encapsulatedKey);
+        }
+    }
+
+    @Benchmark
+    public KeyEncapsulationMechanism.KeyAndCiphertext<SymmetricKey> encaps() {
+        // the key is derived from the hash of the encapsulated group element, so it is computed synchronously
+        return kem.encaps(keyPair.getPk());
+    }
+
+    @Benchmark
+    public ByteArrayImplementation decaps() {
+        return kem.decaps(keyAndCiphertext.encapsulatedKey, keyPair.getSk());
+    }
+
+    /**
+     * Encapsulates {@value #BATCH_SIZE} keys at once; the score is the time per encapsulation.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<KeyEncapsulationMechanism.KeyAndCiphertext<SymmetricKey>> encapsBatch() {
+        return kem.encapsBatch(keyPair.getPk(), BATCH_SIZE);
+    }
+
+    /**
+     * Decapsulates {@value #BATCH_SIZE} keys at once; the score is the time per decapsulation.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<ByteArrayImplementation> decapsBatch() {
+        return kem.decapsBatch(encapsulatedKeys, keyPair.getSk());
+    }
+}
@@ -0,0 +1,89 @@
+package org.cryptimeleon.craco.protocols.arguments.fiatshamir;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.protocols.CommonInput;
+import org.cryptimeleon.craco.protocols.SecretInput;
+import org.cryptimeleon.craco.protocols.arguments.sigma.ZnChallengeSpace;
+import org.cryptimeleon.craco.protocols.arguments.sigma.schnorr.DelegateProtocol;
+import org.cryptimeleon.craco.protocols.arguments.sigma.schnorr.LinearStatementFragment;
+import org.cryptimeleon.craco.protocols.arguments.sigma.schnorr.SendThenDelegateFragment;
+import org.cryptimeleon.craco.protocols.arguments.sigma.schnorr.variables.SchnorrZnVariable;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a non-interactive Schnorr proof of knowledge of \(x\) with \(h = g^x\) in the first group of the
+ * selected bilinear group.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FiatShamirProofSystemBenchmark {
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.BN})
+    public String group;
+
+    private FiatShamirProofSystem proofSystem;
+    private SecretInput witness;
+    private FiatShamirProof proof;
+
+    @Setup
+    public void setup() {
+        Group groupG = BenchmarkUtil.createBilinearGroup(group).getG1();
+        GroupElement g = groupG.getGenerator().computeSync();
+        Zn.ZnElement x = groupG.getUniformlyRandomExponent();
+        proofSystem = new FiatShamirProofSystem(new SchnorrProof(g, g.pow(x).computeSync()));
+        witness = new SchnorrProof.SchnorrWitness(x);
+        proof = proofSystem.createProof(CommonInput.EMPTY, witness);
+    }
+
+    @Benchmark
+    public FiatShamirProof createProof() {
+        return proofSystem.createProof(CommonInput.EMPTY, witness);
+    }
+
+    @Benchmark
+    public boolean checkProof() {
+        return proofSystem.checkProof(CommonInput.EMPTY, proof);
+    }
+
+    private static class SchnorrProof extends DelegateProtocol {
+        private final GroupElement g, h;
+
+        SchnorrProof(GroupElement g, GroupElement h) {
+            this.g = g;
+            this.h = h;
+        }
+
+        @Override
+        protected SendThenDelegateFragment.ProverSpec provideProverSpecWithNoSendFirst(CommonInput commonInput,
+                SecretInput secretInput, SendThenDelegateFragment.ProverSpecBuilder builder) {
+            builder.putWitnessValue("x", ((SchnorrWitness) secretInput).x);
+            return builder.build();
+        }
+
+        @Override
+        protected SendThenDelegateFragment.SubprotocolSpec provideSubprotocolSpec(CommonInput commonInput,
+                SendThenDelegateFragment.SubprotocolSpecBuilder builder) {
+            SchnorrZnVariable dlog = builder.addZnVariable("x", g.getStructure().getZn());
+            builder.addSubprotocol("schnorr", new LinearStatementFragment(g.pow(dlog).isEqualTo(h)));
+            return builder.build();
+        }
+
+        @Override
+        public ZnChallengeSpace getChallengeSpace(CommonInput commonInput) {
+            return new ZnChallengeSpace(g.getStructure().size());
+        }
+
+        private static class SchnorrWitness implements SecretInput {
+            private final Zn.ZnElement x;
+
+            SchnorrWitness(Zn.ZnElement x) {
+                this.x = x;
+            }
+        }
+    }
+}
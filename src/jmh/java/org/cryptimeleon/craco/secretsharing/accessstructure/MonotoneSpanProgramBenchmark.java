@@ -0,0 +1,91 @@
+package org.cryptimeleon.craco.secretsharing.accessstructure;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.attributes.StringAttribute;
+import org.cryptimeleon.craco.common.policies.Policy;
+import org.cryptimeleon.craco.common.policies.ThresholdPolicy;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a two-level policy: the attributes are split into groups of five, each group requires three of its
+ * attributes, and a majority of the groups is required.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MonotoneSpanProgramBenchmark {
+    private static final int GROUP_SIZE = 5;
+    private static final int GROUP_THRESHOLD = 3;
+
+    /**
+     * Number of attributes in the policy; must be a multiple of five.
+     */
+    @Param({"10", "50"})
+    public int numberOfAttributes;
+
+    private Policy policy;
+    private Zp zp;
+    private MonotoneSpanProgram msp;
+    private Zp.ZpElement secret;
+    private Set<StringAttribute> attributes;
+
+    @Setup
+    public void setup() {
+        List<Policy> groups = new ArrayList<>();
+        attributes = new HashSet<>();
+        for (int i = 0; i < numberOfAttributes / GROUP_SIZE; i++) {
+            List<Policy> groupAttributes = new ArrayList<>();
+            for (int j = 0; j < GROUP_SIZE; j++) {
+                StringAttribute attribute = new StringAttribute("A" + (i * GROUP_SIZE + j));
+                groupAttributes.add(attribute);
+                attributes.add(attribute);
+            }
+            groups.add(new ThresholdPolicy(GROUP_THRESHOLD, groupAttributes));
+        }
+        zp = new Zp(RandomGenerator.getRandomPrime(2 * BenchmarkUtil.SECURITY_PARAMETER));
+        policy = new ThresholdPolicy(groups.size() / 2 + 1, groups);
+        msp = new MonotoneSpanProgram(policy, zp);
+        secret = zp.getUniformlyRandomElement();
+    }
+
+    @Benchmark
+    public Map<Integer, Zp.ZpElement> share() throws WrongAccessStructureException {
+        return msp.getShares(secret);
+    }
+
+    @Benchmark
+    public Map<Integer, Zp.ZpElement> getSolvingVector() throws NoSatisfyingSet, WrongAccessStructureException {
+        return msp.getSolvingVector(attributes);
+    }
+
+    @Benchmark
+    public Map<Integer, Zp.ZpElement> getSolvingVectorUncached(UncachedState state) throws NoSatisfyingSet,
+            WrongAccessStructureException {
+        return state.msp.getSolvingVector(attributes);
+    }
+
+    /**
+     * Holds a monotone span program without cached solving vectors, but with its matrix already generated.
+     */
+    @State(Scope.Thread)
+    public static class UncachedState {
+        private MonotoneSpanProgram msp;
+
+        @Setup(Level.Invocation)
+        public void setup(MonotoneSpanProgramBenchmark benchmark) throws WrongAccessStructureException {
+            msp = new MonotoneSpanProgram(benchmark.policy, benchmark.zp);
+            msp.getMatrix();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.cryptimeleon.craco.secretsharing.shamir;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.attributes.StringAttribute;
+import org.cryptimeleon.craco.common.policies.Policy;
+import org.cryptimeleon.craco.common.policies.ThresholdPolicy;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ShamirSecretSharingBenchmark {
+    /**
+     * Number of shares; the threshold is a majority of them.
+     */
+    @Param({"10", "100"})
+    public int numberOfShares;
+
+    private ShamirSecretSharing secretSharing;
+    private Zp.ZpElement secret;
+    private Map<Integer, Zp.ZpElement> qualifiedShares;
+
+    @Setup
+    public void setup() throws WrongAccessStructureException {
+        List<Policy> shareReceivers = new ArrayList<>();
+        for (int i = 0; i < numberOfShares; i++) {
+            shareReceivers.add(new StringAttribute("A" + i));
+        }
+        int threshold = numberOfShares / 2 + 1;
+        Zp zp = new Zp(RandomGenerator.getRandomPrime(2 * BenchmarkUtil.SECURITY_PARAMETER));
+        secretSharing = new ShamirSecretSharing(new ThresholdPolicy(threshold, shareReceivers), zp);
+        secret = zp.getUniformlyRandomElement();
+
+        Map<Integer, Zp.ZpElement> shares = secretSharing.getShares(secret);
+        qualifiedShares = new HashMap<>();
+        shares.entrySet().stream().limit(threshold).forEach(e -> qualifiedShares.put(e.getKey(), e.getValue()));
+    }
+
+    @Benchmark
+    public Map<Integer, Zp.ZpElement> share() throws WrongAccessStructureException {
+        return secretSharing.getShares(secret);
+    }
+
+    @Benchmark
+    public Zp.ZpElement reconstruct() throws NoSatisfyingSet, WrongAccessStructureException {
+        return secretSharing.reconstruct(qualifiedShares);
+    }
+}
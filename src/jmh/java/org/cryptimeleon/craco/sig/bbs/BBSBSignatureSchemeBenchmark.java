@@ -0,0 +1,61 @@
+package org.cryptimeleon.craco.sig.bbs;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.common.plaintexts.RingElementPlainText;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BBS needs a homomorphism from \(\mathbb{G}_2\) to \(\mathbb{G}_1\), so it runs against type 1 groups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BBSBSignatureSchemeBenchmark {
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.SUPERSINGULAR})
+    public String group;
+
+    @Param({"1", "10"})
+    public int numberOfMessages;
+
+    private BBSBSignatureScheme scheme;
+    private SignatureKeyPair<BBSBVerificationKey, BBSBSigningKey> keyPair;
+    private MessageBlock messageBlock;
+    private Signature signature;
+
+    @Setup
+    public void setup() {
+        BBSBPublicParameter pp = new BBSBKeyGen().doKeyGen(BenchmarkUtil.createType1BilinearGroup(group));
+        scheme = new BBSBSignatureScheme(pp);
+        keyPair = scheme.generateKeyPair(numberOfMessages);
+
+        RingElementPlainText[] messages = new RingElementPlainText[numberOfMessages];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new RingElementPlainText(pp.getZp().getUniformlyRandomElement());
+        }
+        messageBlock = new MessageBlock(messages);
+        signature = computeSync(scheme.sign(messageBlock, keyPair.getSigningKey()));
+    }
+
+    @Benchmark
+    public Signature sign() {
+        return computeSync(scheme.sign(messageBlock, keyPair.getSigningKey()));
+    }
+
+    @Benchmark
+    public Boolean verify() {
+        return scheme.verify(messageBlock, signature, keyPair.getVerificationKey());
+    }
+
+    /**
+     * Waits until the group elements of the given signature have been computed.
+     */
+    private static Signature computeSync(Signature signature) {
+        ((BBSABSignature) signature).getElementA().computeSync();
+        return signature;
+    }
+}
@@ -0,0 +1,75 @@
+package org.cryptimeleon.craco.sig.ps;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.common.plaintexts.RingElementPlainText;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PSSignatureSchemeBenchmark {
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.BN})
+    public String group;
+
+    @Param({"1", "10"})
+    public int numberOfMessages;
+
+    @Param({"16"})
+    public int batchSize;
+
+    private PSSignatureScheme scheme;
+    private SignatureKeyPair<? extends PSVerificationKey, ? extends PSSigningKey> keyPair;
+    private MessageBlock messageBlock;
+    private Signature signature;
+    private List<MessageBlock> batchMessages;
+    private List<Signature> batchSignatures;
+
+    @Setup
+    public void setup() {
+        PSPublicParameters pp = new PSPublicParameters(BenchmarkUtil.createBilinearGroup(group));
+        scheme = new PSSignatureScheme(pp);
+        keyPair = scheme.generateKeyPair(numberOfMessages);
+
+        RingElementPlainText[] messages = new RingElementPlainText[numberOfMessages];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new RingElementPlainText(pp.getZp().getUniformlyRandomElement());
+        }
+        messageBlock = new MessageBlock(messages);
+        signature = computeSync(scheme.sign(messageBlock, keyPair.getSigningKey()));
+
+        batchMessages = Collections.nCopies(batchSize, messageBlock);
+        batchSignatures = Collections.nCopies(batchSize, signature);
+    }
+
+    @Benchmark
+    public Signature sign() {
+        return computeSync(scheme.sign(messageBlock, keyPair.getSigningKey()));
+    }
+
+    @Benchmark
+    public Boolean verify() {
+        return scheme.verify(messageBlock, signature, keyPair.getVerificationKey());
+    }
+
+    @Benchmark
+    public List<Integer> verifyBatch() {
+        return scheme.verifyBatch(batchMessages, batchSignatures, keyPair.getVerificationKey());
+    }
+
+    /**
+     * Waits until the group elements of the given signature have been computed.
+     */
+    private static Signature computeSync(Signature signature) {
+        PSSignature psSignature = (PSSignature) signature;
+        psSignature.getGroup1ElementSigma1().computeSync();
+        psSignature.getGroup1ElementSigma2().computeSync();
+        return signature;
+    }
+}
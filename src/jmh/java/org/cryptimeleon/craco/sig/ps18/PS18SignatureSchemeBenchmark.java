@@ -0,0 +1,61 @@
+package org.cryptimeleon.craco.sig.ps18;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.common.plaintexts.RingElementPlainText;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.craco.sig.ps.PSPublicParameters;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PS18SignatureSchemeBenchmark {
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.BN})
+    public String group;
+
+    @Param({"1", "10"})
+    public int numberOfMessages;
+
+    private PS18SignatureScheme scheme;
+    private SignatureKeyPair<PS18VerificationKey, PS18SigningKey> keyPair;
+    private MessageBlock messageBlock;
+    private Signature signature;
+
+    @Setup
+    public void setup() {
+        PSPublicParameters pp = new PSPublicParameters(BenchmarkUtil.createBilinearGroup(group));
+        scheme = new PS18SignatureScheme(pp);
+        keyPair = scheme.generateKeyPair(numberOfMessages);
+
+        RingElementPlainText[] messages = new RingElementPlainText[numberOfMessages];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new RingElementPlainText(pp.getZp().getUniformlyRandomElement());
+        }
+        messageBlock = new MessageBlock(messages);
+        signature = computeSync(scheme.sign(messageBlock, keyPair.getSigningKey()));
+    }
+
+    @Benchmark
+    public Signature sign() {
+        return computeSync(scheme.sign(messageBlock, keyPair.getSigningKey()));
+    }
+
+    @Benchmark
+    public Boolean verify() {
+        return scheme.verify(messageBlock, signature, keyPair.getVerificationKey());
+    }
+
+    /**
+     * Waits until the group elements of the given signature have been computed.
+     */
+    private static Signature computeSync(Signature signature) {
+        PS18Signature ps18Signature = (PS18Signature) signature;
+        ps18Signature.getGroup1ElementSigma1().computeSync();
+        ps18Signature.getGroup1ElementSigma2().computeSync();
+        return signature;
+    }
+}
@@ -0,0 +1,85 @@
+package org.cryptimeleon.craco.sig.sps.eq;
+
+import org.cryptimeleon.craco.benchmark.BenchmarkUtil;
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SPSEQSignatureSchemeBenchmark {
+    @Param({BenchmarkUtil.DEBUG, BenchmarkUtil.BN})
+    public String group;
+
+    @Param({"2", "10"})
+    public int numberOfMessages;
+
+    @Param({"16"})
+    public int batchSize;
+
+    private SPSEQSignatureScheme scheme;
+    private SignatureKeyPair<SPSEQVerificationKey, SPSEQSigningKey> keyPair;
+    private MessageBlock messageBlock;
+    private Signature signature;
+    private Zp.ZpElement mu;
+    private List<MessageBlock> batchMessages;
+    private List<Signature> batchSignatures;
+
+    @Setup
+    public void setup() {
+        SPSEQPublicParameters pp = new SPSEQPublicParameters(BenchmarkUtil.createBilinearGroup(group));
+        scheme = new SPSEQSignatureScheme(pp);
+        keyPair = scheme.generateKeyPair(numberOfMessages);
+
+        GroupElementPlainText[] messages = new GroupElementPlainText[numberOfMessages];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = new GroupElementPlainText(
+                    pp.getBilinearMap().getG1().getUniformlyRandomElement().computeSync());
+        }
+        messageBlock = new MessageBlock(messages);
+        signature = computeSync(scheme.sign(messageBlock, keyPair.getSigningKey()));
+        mu = pp.getZp().getUniformlyRandomUnit();
+
+        batchMessages = Collections.nCopies(batchSize, messageBlock);
+        batchSignatures = Collections.nCopies(batchSize, signature);
+    }
+
+    @Benchmark
+    public Signature sign() {
+        return computeSync(scheme.sign(messageBlock, keyPair.getSigningKey()));
+    }
+
+    @Benchmark
+    public Boolean verify() {
+        return scheme.verify(messageBlock, signature, keyPair.getVerificationKey());
+    }
+
+    @Benchmark
+    public List<Integer> verifyBatch() {
+        return scheme.verifyBatch(batchMessages, batchSignatures, keyPair.getVerificationKey());
+    }
+
+    @Benchmark
+    public Signature chgRep() {
+        return computeSync(scheme.chgRep(signature, mu, keyPair.getVerificationKey()));
+    }
+
+    /**
+     * Waits until the group elements of the given signature have been computed.
+     */
+    private static Signature computeSync(Signature signature) {
+        SPSEQSignature spseqSignature = (SPSEQSignature) signature;
+        spseqSignature.getGroup1ElementSigma1Z().computeSync();
+        spseqSignature.getGroup1ElementSigma2Y().computeSync();
+        spseqSignature.getGroup1ElementSigma3HatY().computeSync();
+        return signature;
+    }
+}
@@ -3,6 +3,11 @@ package org.cryptimeleon.craco.accumulator.nguyen;
 import org.cryptimeleon.craco.accumulator.AccumulatorDigest;
 import org.cryptimeleon.craco.accumulator.AccumulatorScheme;
 import org.cryptimeleon.craco.accumulator.AccumulatorWitness;
+import org.cryptimeleon.craco.common.utils.BatchVerificationUtil;
+import org.cryptimeleon.craco.common.utils.ParallelUtil;
+import org.cryptimeleon.craco.common.utils.PolynomialUtil;
+import org.cryptimeleon.craco.common.utils.ZnUtil;
+import org.cryptimeleon.craco.sig.PairingProductEquation;
 import org.cryptimeleon.math.hash.ByteAccumulator;
 import org.cryptimeleon.math.hash.UniqueByteRepresentable;
 import org.cryptimeleon.math.hash.annotations.AnnotatedUbrUtil;
@@ -15,12 +20,12 @@ import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
 import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
 import org.cryptimeleon.math.structures.groups.elliptic.BilinearMap;
 import org.cryptimeleon.math.structures.groups.elliptic.type3.bn.BarretoNaehrigBilinearGroup;
-import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
-import org.cryptimeleon.math.structures.rings.polynomial.PolynomialRing;
 import org.cryptimeleon.math.structures.rings.zn.Zn;
 
-import java.util.Collection;
-import java.util.Objects;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -29,6 +34,11 @@ import java.util.stream.Stream;
  * the {@linkplain Representation} of the resulting {@linkplain NguyenAccumulatorScheme} to other parties.
  */
 public class NguyenAccumulatorScheme implements AccumulatorScheme<Zn.ZnElement>, UniqueByteRepresentable {
+    /**
+     * Maximal number of terms per multi-exponentiation that is computed as one task.
+     */
+    private static final int MAX_MULTIEXP_CHUNK_SIZE = 4096;
+
     @Represented
     private BilinearGroup bilinearGroup;
 
@@ -64,15 +74,28 @@ public class NguyenAccumulatorScheme implements AccumulatorScheme<Zn.ZnElement>,
     }
 
     public static NguyenAccumulatorScheme setup(BilinearGroup bilinearGroup, int size) {
+        return setup(bilinearGroup, size, bilinearGroup.getZn().getUniformlyRandomElement());
+    }
+
+    /**
+     * Sets up the scheme with the given trapdoor s.
+     * <p>
+     * A party that knows the trapdoor can update digests with a single exponentiation each, see
+     * {@link NguyenAccumulatorState}. The trapdoor must be chosen uniformly at random and kept secret.
+     *
+     * @param bilinearGroup the bilinear group to use
+     * @param size          the maximal number of accumulated values
+     * @param s             the trapdoor
+     * @return the scheme
+     */
+    public static NguyenAccumulatorScheme setup(BilinearGroup bilinearGroup, int size, Zn.ZnElement s) {
         // Generate public parameters
         GroupElement g = bilinearGroup.getG1().getUniformlyRandomNonNeutral().compute();
         GroupElement g_Tilde = bilinearGroup.getG2().getUniformlyRandomNonNeutral().compute();
-        Zn zn = bilinearGroup.getZn();
-        Zn.ZnElement s = zn.getUniformlyRandomElement();
         GroupElement g_Tilde_Power_S = g_Tilde.pow(s).compute();
 
-        //t.get(i) = g^(s^i)
-        GroupElementVector t = GroupElementVector.iterate(g, h -> h.pow(s), size+1);
+        //t.get(i) = g^(s^i), computed right away so that digests and witnesses can share it across threads
+        GroupElementVector t = GroupElementVector.iterate(g, h -> h.pow(s).computeSync(), size+1);
 
         return new NguyenAccumulatorScheme(bilinearGroup, g, g_Tilde, g_Tilde_Power_S, t);
     }
@@ -86,18 +109,54 @@ public class NguyenAccumulatorScheme implements AccumulatorScheme<Zn.ZnElement>,
      * Computes g^{poly}, where poly = prod_[i in inverseOfRootsOfPolynomial] (x+i)
      */
     private GroupElement computeGPowPoly(Stream<? extends Zn.ZnElement> inverseOfRootsOfPolynomial) {
-        // create Polynomial
-        PolynomialRing polynomialRing = new PolynomialRing(bilinearGroup.getZn());
+        BigInteger[] values = inverseOfRootsOfPolynomial.map(Zn.ZnElement::getInteger).toArray(BigInteger[]::new);
+        return computeGPowPoly(PolynomialUtil.productOfLinearFactors(values, bilinearGroup.getZn().size()));
+    }
 
-        PolynomialRing.Polynomial polynomial = inverseOfRootsOfPolynomial
-                .map(rootInverse -> polynomialRing.getX().add(rootInverse))
-                .reduce(polynomialRing.getOneElement(), PolynomialRing.Polynomial::mul);
+    /**
+     * Computes g^{poly(s)} = prod_i t_i^{coefficients_i} as a multi-exponentiation, split into chunks that are
+     * computed in parallel.
+     */
+    GroupElement computeGPowPoly(BigInteger[] coefficients) {
+        return computeGPowPoly(coefficients, 0);
+    }
 
-        // get coefficients
-        RingElementVector coefficients = polynomial.getCoefficientVector().pad(bilinearGroup.getZn().getZeroElement(), t.length());
+    /**
+     * Returns true if s is the trapdoor of this scheme.
+     */
+    boolean isTrapdoor(Zn.ZnElement s) {
+        return g_Tilde.pow(s).equals(g_Tilde_Power_S);
+    }
 
-        // calculate product
-        return t.innerProduct(coefficients);
+    /**
+     * Computes g^{poly(s) * s^shift} = prod_i t_{i + shift}^{coefficients_i}.
+     */
+    private GroupElement computeGPowPoly(BigInteger[] coefficients, int shift) {
+        if (coefficients.length + shift > t.length()) {
+            throw new IllegalArgumentException("Too many values for this accumulator.");
+        }
+        // one chunk per core, as larger multi-exponentiations need fewer group operations per term
+        int chunkSize = Math.min(MAX_MULTIEXP_CHUNK_SIZE,
+                Math.max(1, (coefficients.length + ForkJoinPool.getCommonPoolParallelism() - 1)
+                        / ForkJoinPool.getCommonPoolParallelism()));
+        int numberOfChunks = (coefficients.length + chunkSize - 1) / chunkSize;
+        List<GroupElement> chunks = ParallelUtil.map(ForkJoinPool.commonPool(), numberOfChunks, chunk -> {
+            int from = chunk * chunkSize;
+            return innerProduct(coefficients, shift, from, Math.min(coefficients.length, from + chunkSize))
+                    .computeSync();
+        });
+        return chunks.stream().reduce(bilinearGroup.getG1().getNeutralElement(), GroupElement::op).compute();
+    }
+
+    /**
+     * Returns prod_{from <= i < to} t_{i + shift}^{coefficients_i} as a balanced expression, so that evaluating it
+     * as one multi-exponentiation does not recurse deeper than log(to - from).
+     */
+    private GroupElement innerProduct(BigInteger[] coefficients, int shift, int from, int to) {
+        if (to - from == 1)
+            return t.get(from + shift).pow(coefficients[from]);
+        int middle = (from + to) >>> 1;
+        return innerProduct(coefficients, shift, from, middle).op(innerProduct(coefficients, shift, middle, to));
     }
 
     /**
@@ -125,6 +184,33 @@ public class NguyenAccumulatorScheme implements AccumulatorScheme<Zn.ZnElement>,
         return new NguyenWitness(computeGPowPoly(setOfAccumulatedValues.stream().filter(v -> !v.equals(valueToComputeWitnessFor))));
     }
 
+    /**
+     * Computes the witnesses for all accumulated values at once.
+     * <p>
+     * Instead of computing each witness from scratch, this shares intermediate results between witnesses
+     * (see {@link WitnessTree}), so that it takes \(O(n^{1.59})\) instead of \(n^2\) exponentiations in total.
+     * The computation runs in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param setOfAccumulatedValues the accumulated values, which must be distinct
+     * @return a map from each accumulated value to its witness, in the iteration order of the given values
+     */
+    public Map<Zn.ZnElement, NguyenWitness> createAllWitnesses(Collection<? extends Zn.ZnElement> setOfAccumulatedValues) {
+        if (setOfAccumulatedValues.size() > getMaxNumAccumulatedValues()) {
+            throw new IllegalArgumentException("Too many values for this accumulator.");
+        }
+        BigInteger[] values = setOfAccumulatedValues.stream().map(Zn.ZnElement::getInteger).toArray(BigInteger[]::new);
+        GroupElement[] witnesses = WitnessTree.computeAll(t, values, bilinearGroup.getZn().size());
+
+        Map<Zn.ZnElement, NguyenWitness> result = new LinkedHashMap<>();
+        int i = 0;
+        for (Zn.ZnElement value : setOfAccumulatedValues) {
+            if (result.put(value, new NguyenWitness(witnesses[i++])) != null) {
+                throw new IllegalArgumentException("Accumulated values must be distinct");
+            }
+        }
+        return result;
+    }
+
     @Override
     public boolean verify(AccumulatorDigest accumulatorDigest, Zn.ZnElement singleValue, AccumulatorWitness witnessForSingleValue) {
         BilinearMap e = bilinearGroup.getBilinearMap();
@@ -132,26 +218,235 @@ public class NguyenAccumulatorScheme implements AccumulatorScheme<Zn.ZnElement>,
                 .equals(e.apply(((NguyenWitness) witnessForSingleValue).getWitness(), g_Tilde_Power_S.op(g_Tilde.pow(singleValue))));
     }
 
+    /**
+     * Verifies that each of the given values is accumulated in the digest, where the i-th witness belongs to the
+     * i-th value.
+     * <p>
+     * The verification equations \(e(D, \tilde{g}) = e(w_i, \tilde{g}^{s} \tilde{g}^{v_i})\) are combined with
+     * random small exponents \(\delta_i\) (cf. {@link BatchVerificationUtil}) into the single equation
+     * \(e(D^{\sum_i \delta_i} \prod_i w_i^{-\delta_i v_i}, \tilde{g}) \cdot e(\prod_i w_i^{-\delta_i}, \tilde{g}^s) = 1\),
+     * so a batch costs two pairings plus two multi-exponentiations in \(\mathbb{G}_1\), independent of the number
+     * of values.
+     * <p>
+     * If the combined check fails, the batch is bisected to determine which witnesses are invalid.
+     *
+     * @param accumulatorDigest the digest to verify against
+     * @param values            the values whose membership to verify
+     * @param witnesses         the witnesses for the values
+     * @return the ascending indices of the values whose witness is invalid; empty if all witnesses are valid
+     */
+    public List<Integer> verifyBatch(AccumulatorDigest accumulatorDigest, List<? extends Zn.ZnElement> values,
+                                     List<? extends AccumulatorWitness> witnesses) {
+        if (values.size() != witnesses.size()) {
+            throw new IllegalArgumentException("Number of values and witnesses must match");
+        }
+        GroupElement digest = ((NguyenDigest) accumulatorDigest).getDigest();
+        List<GroupElement> witnessElements = witnesses.stream()
+                .map(witness -> ((NguyenWitness) witness).getWitness())
+                .collect(Collectors.toList());
+        List<Integer> indices = new ArrayList<>(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            indices.add(i);
+        }
+        return BatchVerificationUtil.findInvalidIndices(indices,
+                batch -> checkBatchVerificationEquation(batch, digest, values, witnessElements));
+    }
+
+    /**
+     * Checks the combined verification equation for the witnesses at the given indices.
+     */
+    private boolean checkBatchVerificationEquation(List<Integer> indices, GroupElement digest,
+                                                   List<? extends Zn.ZnElement> values,
+                                                   List<GroupElement> witnesses) {
+        Zn zn = bilinearGroup.getZn();
+        Zn.ZnElement deltaSum = zn.getZeroElement();
+        List<GroupElement> witnessPowDelta = new ArrayList<>(indices.size());
+        List<GroupElement> witnessPowDeltaValue = new ArrayList<>(indices.size());
+        for (Integer i : indices) {
+            Zn.ZnElement delta = BatchVerificationUtil.getRandomBatchExponent(zn);
+            deltaSum = deltaSum.add(delta);
+            witnessPowDelta.add(witnesses.get(i).pow(delta));
+            witnessPowDeltaValue.add(witnesses.get(i).pow(delta.mul(values.get(i))));
+        }
+
+        // e(D, g~)^{sum delta_i} * prod_i e(w_i, g~^s * g~^{v_i})^{-delta_i}, the terms with g~ are merged
+        return new PairingProductEquation(bilinearGroup.getBilinearMap())
+                .multiply(digest, g_Tilde, deltaSum)
+                .divide(product(witnessPowDeltaValue, 0, indices.size()), g_Tilde)
+                .divide(product(witnessPowDelta, 0, indices.size()), g_Tilde_Power_S)
+                .isSatisfied();
+    }
+
+    /**
+     * Returns the product of the given elements as a balanced expression, which is evaluated as one
+     * multi-exponentiation without deep recursion.
+     */
+    private static GroupElement product(List<GroupElement> elements, int from, int to) {
+        if (to - from == 1)
+            return elements.get(from);
+        int middle = (from + to) >>> 1;
+        return product(elements, from, middle).op(product(elements, middle, to));
+    }
+
 
     @Override
     public NguyenWitness updateWitness(AccumulatorDigest oldDigest, AccumulatorDigest newDigest, Collection<? extends Zn.ZnElement> oldAccumulatedSet, Collection<? extends Zn.ZnElement> newAccumulatedSet, Zn.ZnElement valueToComputeWitnessFor, AccumulatorWitness oldWitnessToBeUpdated) {
-        if (!newAccumulatedSet.contains(valueToComputeWitnessFor)) {
+        Set<Zn.ZnElement> oldSet = new HashSet<>(oldAccumulatedSet);
+        Set<Zn.ZnElement> newSet = new HashSet<>(newAccumulatedSet);
+        if (!newSet.contains(valueToComputeWitnessFor)) {
             throw new IllegalArgumentException("Desired value is not contained in the current accumulated set");
         }
 
+        List<Zn.ZnElement> addedValues = newSet.stream().filter(x -> !oldSet.contains(x)).collect(Collectors.toList());
+        List<Zn.ZnElement> removedValues = oldSet.stream().filter(x -> !newSet.contains(x)).collect(Collectors.toList());
+
         GroupElement oldAcc = ((NguyenDigest) oldDigest).getDigest();
         GroupElement newAcc = ((NguyenDigest) newDigest).getDigest();
+
+        if (!oldSet.contains(valueToComputeWitnessFor)) {
+            // if only the value itself has been inserted, the old digest is its witness
+            if (addedValues.size() == 1 && removedValues.isEmpty()) {
+                return new NguyenWitness(oldAcc);
+            }
+            return createWitness(newAccumulatedSet, valueToComputeWitnessFor);
+        }
+
         GroupElement oldWitness = ((NguyenWitness) oldWitnessToBeUpdated).getWitness();
 
-        if (newAccumulatedSet.size() == oldAccumulatedSet.size() + 1 && newAccumulatedSet.containsAll(oldAccumulatedSet)) {
-            Zn.ZnElement insertedElement = newAccumulatedSet.stream().filter(x -> !oldAccumulatedSet.contains(x)).findAny().get();
+        if (addedValues.size() == 1 && removedValues.isEmpty()) {
+            Zn.ZnElement insertedElement = addedValues.get(0);
             return new NguyenWitness(oldAcc.op(oldWitness.pow(insertedElement.sub(valueToComputeWitnessFor))).compute());
-        } else if (newAccumulatedSet.size() == oldAccumulatedSet.size() - 1 && oldAccumulatedSet.containsAll(newAccumulatedSet)) {
-            Zn.ZnElement deletedElement = oldAccumulatedSet.stream().filter(x -> !newAccumulatedSet.contains(x)).findAny().get();
+        } else if (addedValues.isEmpty() && removedValues.size() == 1) {
+            Zn.ZnElement deletedElement = removedValues.get(0);
             return new NguyenWitness(oldWitness.op(newAcc.inv()).pow(deletedElement.sub(valueToComputeWitnessFor).inv()).compute());
+        } else if (Math.max(addedValues.size(), removedValues.size()) > 1) {
+            // the update takes one multi-exponentiation over the remaining set per changed value, which only pays off
+            // if many witnesses share them, see updateWitnesses(...)
+            return createWitness(newAccumulatedSet, valueToComputeWitnessFor);
+        }
+
+        return updateWitness(oldAccumulatedSet, addedValues, removedValues, valueToComputeWitnessFor, oldWitnessToBeUpdated);
+    }
+
+    /**
+     * Updates a witness after adding and removing several values at once.
+     * <p>
+     * See {@link #updateWitnesses(Collection, Collection, Collection, List, List)}; to update many witnesses for the
+     * same change, use that method instead.
+     *
+     * @param oldAccumulatedSet        the accumulated set before the change
+     * @param addedValues              the values added to the set, none of which may be contained in the old set
+     * @param removedValues            the values removed from the set, all of which must be contained in the old set
+     * @param valueToComputeWitnessFor the value to update the witness for, which must be contained in both sets
+     * @param oldWitnessToBeUpdated    the witness for the value with respect to the old set
+     * @return the witness for the value with respect to the new set
+     */
+    public NguyenWitness updateWitness(Collection<? extends Zn.ZnElement> oldAccumulatedSet,
+                                       Collection<? extends Zn.ZnElement> addedValues,
+                                       Collection<? extends Zn.ZnElement> removedValues,
+                                       Zn.ZnElement valueToComputeWitnessFor,
+                                       AccumulatorWitness oldWitnessToBeUpdated) {
+        return updateWitnesses(oldAccumulatedSet, addedValues, removedValues,
+                Collections.singletonList(valueToComputeWitnessFor),
+                Collections.singletonList(oldWitnessToBeUpdated)).get(0);
+    }
+
+    /**
+     * Updates witnesses after adding the values in \(A\) to and removing the values in \(D\) from the accumulated set.
+     * <p>
+     * Let \(C\) be the product of \((X + x)\) over the values \(x\) that stay in the set and
+     * \(m = \max(|A|, |D|)\). This method first computes \(V_k = g^{C(s) s^k}\) for \(k < m\), which takes
+     * \(m\) multi-exponentiations with the public parameters. Then each witness is updated with a single
+     * multi-exponentiation of \(m + 1\) terms: with the delta polynomials \(Q_A = \prod_{a \in A} (X + a)\) and
+     * \(Q_D = \prod_{d \in D} (X + d)\) written as \(Q(X) = Q(-y) + (X + y) U(X)\) for the value \(y\), the new
+     * witness is \(w' = w^r \cdot \prod_k V_k^{u_{A,k} - r \cdot u_{D,k}}\) with \(r = Q_A(-y) / Q_D(-y)\).
+     * The witnesses are updated in parallel.
+     *
+     * @param oldAccumulatedSet the accumulated set before the change
+     * @param addedValues       the values added to the set, none of which may be contained in the old set
+     * @param removedValues     the values removed from the set, all of which must be contained in the old set
+     * @param values            the values to update witnesses for, which must be contained in both sets
+     * @param oldWitnesses      the witnesses for the values with respect to the old set
+     * @return the witnesses for the values with respect to the new set, in the same order
+     */
+    public List<NguyenWitness> updateWitnesses(Collection<? extends Zn.ZnElement> oldAccumulatedSet,
+                                               Collection<? extends Zn.ZnElement> addedValues,
+                                               Collection<? extends Zn.ZnElement> removedValues,
+                                               List<? extends Zn.ZnElement> values,
+                                               List<? extends AccumulatorWitness> oldWitnesses) {
+        if (values.size() != oldWitnesses.size()) {
+            throw new IllegalArgumentException("Number of values and witnesses must match");
+        }
+        Set<Zn.ZnElement> oldSet = new HashSet<>(oldAccumulatedSet);
+        Set<Zn.ZnElement> added = new HashSet<>(addedValues);
+        Set<Zn.ZnElement> removed = new HashSet<>(removedValues);
+        if (added.stream().anyMatch(oldSet::contains)) {
+            throw new IllegalArgumentException("Added values must not be contained in the old accumulated set");
+        }
+        if (!oldSet.containsAll(removed)) {
+            throw new IllegalArgumentException("Removed values must be contained in the old accumulated set");
+        }
+        if (oldSet.size() - removed.size() + added.size() > getMaxNumAccumulatedValues()) {
+            throw new IllegalArgumentException("Too many values for this accumulator.");
+        }
+        for (Zn.ZnElement value : values) {
+            if (!oldSet.contains(value) || removed.contains(value)) {
+                throw new IllegalArgumentException("Desired value is not contained in the current accumulated set");
+            }
+        }
+
+        int m = Math.max(added.size(), removed.size());
+        if (m == 0) {
+            return oldWitnesses.stream().map(witness -> (NguyenWitness) witness).collect(Collectors.toList());
         }
 
-        return createWitness(newAccumulatedSet, valueToComputeWitnessFor);
+        Zn zn = bilinearGroup.getZn();
+        BigInteger modulus = zn.size();
+        BigInteger[] remaining = oldSet.stream().filter(x -> !removed.contains(x))
+                .map(Zn.ZnElement::getInteger).toArray(BigInteger[]::new);
+        BigInteger[] remainingPolynomial = PolynomialUtil.productOfLinearFactors(remaining, modulus);
+        GroupElement[] v = new GroupElement[m];
+        for (int k = 0; k < m; k++) {
+            v[k] = computeGPowPoly(remainingPolynomial, k).computeSync();
+        }
+
+        BigInteger[] addedPolynomial = PolynomialUtil.productOfLinearFactors(
+                added.stream().map(Zn.ZnElement::getInteger).toArray(BigInteger[]::new), modulus);
+        BigInteger[] removedPolynomial = PolynomialUtil.productOfLinearFactors(
+                removed.stream().map(Zn.ZnElement::getInteger).toArray(BigInteger[]::new), modulus);
+
+        // r = Q_A(-y) / Q_D(-y) for all values at once
+        Zn.ZnElement[] removedAtValues = new Zn.ZnElement[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            removedAtValues[i] = zn.valueOf(
+                    PolynomialUtil.evaluate(removedPolynomial, values.get(i).neg().getInteger(), modulus));
+        }
+        Zn.ZnElement[] ratios = ZnUtil.batchInvert(removedAtValues);
+        for (int i = 0; i < values.size(); i++) {
+            ratios[i] = ratios[i].mul(
+                    PolynomialUtil.evaluate(addedPolynomial, values.get(i).neg().getInteger(), modulus));
+        }
+
+        return ParallelUtil.map(ForkJoinPool.commonPool(), values.size(), i -> {
+            BigInteger y = values.get(i).getInteger();
+            BigInteger r = ratios[i].getInteger();
+            BigInteger[] addedQuotient = PolynomialUtil.divideByLinearFactor(addedPolynomial, y, modulus);
+            BigInteger[] removedQuotient = PolynomialUtil.divideByLinearFactor(removedPolynomial, y, modulus);
+
+            GroupElement witness = ((NguyenWitness) oldWitnesses.get(i)).getWitness().pow(r);
+            for (int k = 0; k < m; k++) {
+                BigInteger exponent = k < addedQuotient.length ? addedQuotient[k] : BigInteger.ZERO;
+                if (k < removedQuotient.length) {
+                    exponent = exponent.subtract(r.multiply(removedQuotient[k]));
+                }
+                witness = witness.op(v[k].pow(exponent.mod(modulus)));
+            }
+            return new NguyenWitness(witness.computeSync());
+        });
+    }
+
+    public BilinearGroup getBilinearGroup() {
+        return bilinearGroup;
     }
 
     @Override
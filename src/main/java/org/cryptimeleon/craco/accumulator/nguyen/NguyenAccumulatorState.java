@@ -0,0 +1,222 @@
+package org.cryptimeleon.craco.accumulator.nguyen;
+
+import org.cryptimeleon.craco.common.utils.PolynomialUtil;
+import org.cryptimeleon.math.serialization.ByteArrayRepresentation;
+import org.cryptimeleon.math.serialization.ObjectRepresentation;
+import org.cryptimeleon.math.serialization.Representable;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * The current digest of a {@link NguyenAccumulatorScheme} together with the set of accumulated values, which is kept
+ * up to date incrementally as values are added and removed.
+ * <p>
+ * If the state is created with the trapdoor \(s\) of the scheme (see
+ * {@link NguyenAccumulatorScheme#setup(org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup, int, Zn.ZnElement)}),
+ * adding a value \(v\) computes the new digest as \(D^{s + v}\) and removing it as \(D^{1 / (s + v)}\), i.e. with one
+ * exponentiation each.
+ * <p>
+ * Without the trapdoor, the new digest cannot be derived from the old one with few exponentiations. Instead, the state
+ * keeps the coefficients of \(P = \prod_i (X + v_i)\) and updates them with \(O(n)\) multiplications in
+ * \(\mathbb{Z}_p\) per change. The digest \(g^{P(s)}\) is only recomputed, with one multi-exponentiation, when it is
+ * requested via {@link #getDigest()}, so any number of changes between two requests costs one multi-exponentiation.
+ * <p>
+ * The {@linkplain #getRepresentation() representation} contains the digest and the accumulated values as fixed-width
+ * byte strings, but not the trapdoor. Instances are not thread-safe.
+ */
+public class NguyenAccumulatorState implements Representable {
+    private final NguyenAccumulatorScheme scheme;
+
+    private final Zn.ZnElement trapdoor;
+
+    private final Set<Zn.ZnElement> values;
+
+    /**
+     * Coefficients of prod (X + v_i), only maintained without trapdoor.
+     */
+    private BigInteger[] polynomial;
+
+    /**
+     * The current digest, or null if it has to be recomputed from the polynomial.
+     */
+    private NguyenDigest digest;
+
+    /**
+     * Creates a state for the empty set without trapdoor.
+     *
+     * @param scheme the accumulator scheme
+     */
+    public NguyenAccumulatorState(NguyenAccumulatorScheme scheme) {
+        this(scheme, Collections.emptySet(), null);
+    }
+
+    /**
+     * Creates a state for the given set.
+     *
+     * @param scheme   the accumulator scheme
+     * @param values   the accumulated values
+     * @param trapdoor the trapdoor of the scheme, or null to update the digest without trapdoor
+     */
+    public NguyenAccumulatorState(NguyenAccumulatorScheme scheme, Collection<? extends Zn.ZnElement> values,
+                                  Zn.ZnElement trapdoor) {
+        this(scheme, new LinkedHashSet<>(values), null, trapdoor);
+    }
+
+    /**
+     * Restores a state from its representation.
+     *
+     * @param scheme   the accumulator scheme
+     * @param repr     the representation of the state
+     * @param trapdoor the trapdoor of the scheme, or null to update the digest without trapdoor
+     */
+    public NguyenAccumulatorState(NguyenAccumulatorScheme scheme, Representation repr, Zn.ZnElement trapdoor) {
+        this(scheme, restoreValues(scheme, repr.obj().get("values").bytes().get()),
+                (NguyenDigest) scheme.restoreDigest(repr.obj().get("digest")), trapdoor);
+    }
+
+    private NguyenAccumulatorState(NguyenAccumulatorScheme scheme, Set<Zn.ZnElement> values, NguyenDigest digest,
+                                   Zn.ZnElement trapdoor) {
+        if (trapdoor != null && !scheme.isTrapdoor(trapdoor)) {
+            throw new IllegalArgumentException("The specified trapdoor does not belong to the scheme");
+        }
+        if (values.size() > scheme.getMaxNumAccumulatedValues()) {
+            throw new IllegalArgumentException("Too many values for this accumulator.");
+        }
+        this.scheme = scheme;
+        this.trapdoor = trapdoor;
+        this.values = values;
+        if (trapdoor == null || digest == null) {
+            this.polynomial = PolynomialUtil.productOfLinearFactors(
+                    values.stream().map(Zn.ZnElement::getInteger).toArray(BigInteger[]::new), getModulus());
+        }
+        this.digest = digest;
+        if (trapdoor != null) {
+            this.digest = getDigest();
+            this.polynomial = null;
+        }
+    }
+
+    /**
+     * Adds a value to the accumulated set.
+     *
+     * @param value the value to add
+     * @return true if the value has been added, false if it was already contained in the set
+     */
+    public boolean add(Zn.ZnElement value) {
+        if (values.contains(value))
+            return false;
+        if (values.size() >= scheme.getMaxNumAccumulatedValues()) {
+            throw new IllegalArgumentException("Too many values for this accumulator.");
+        }
+        values.add(value);
+
+        if (trapdoor != null) {
+            digest = new NguyenDigest(digest.getDigest().pow(trapdoor.add(value)).compute());
+        } else {
+            // P * (X + v)
+            BigInteger v = value.getInteger();
+            BigInteger[] product = new BigInteger[polynomial.length + 1];
+            product[polynomial.length] = BigInteger.ONE;
+            for (int i = polynomial.length - 1; i >= 0; i--) {
+                product[i] = i == 0 ? polynomial[0].multiply(v).mod(getModulus())
+                        : polynomial[i].multiply(v).add(polynomial[i - 1]).mod(getModulus());
+            }
+            polynomial = product;
+            digest = null;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a value from the accumulated set.
+     *
+     * @param value the value to remove
+     * @return true if the value has been removed, false if it was not contained in the set
+     */
+    public boolean remove(Zn.ZnElement value) {
+        if (!values.remove(value))
+            return false;
+
+        if (trapdoor != null) {
+            digest = new NguyenDigest(digest.getDigest().pow(trapdoor.add(value).inv()).compute());
+        } else {
+            polynomial = PolynomialUtil.divideByLinearFactor(polynomial, value.getInteger(), getModulus());
+            digest = null;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the digest of the current set.
+     */
+    public NguyenDigest getDigest() {
+        if (digest == null) {
+            digest = new NguyenDigest(scheme.computeGPowPoly(polynomial));
+        }
+        return digest;
+    }
+
+    /**
+     * Returns an unmodifiable view of the current set.
+     */
+    public Set<Zn.ZnElement> getValues() {
+        return Collections.unmodifiableSet(values);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    private BigInteger getModulus() {
+        return scheme.getBilinearGroup().getZn().size();
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        int length = getValueLength(scheme);
+        byte[] bytes = new byte[values.size() * length];
+        int offset = 0;
+        for (Zn.ZnElement value : values) {
+            byte[] valueBytes = value.getInteger().toByteArray();
+            int valueLength = Math.min(valueBytes.length, length); // drops the sign byte
+            System.arraycopy(valueBytes, valueBytes.length - valueLength, bytes, offset + length - valueLength,
+                    valueLength);
+            offset += length;
+        }
+        return new ObjectRepresentation("values", new ByteArrayRepresentation(bytes),
+                "digest", getDigest().getRepresentation());
+    }
+
+    private static int getValueLength(NguyenAccumulatorScheme scheme) {
+        return (scheme.getBilinearGroup().getZn().size().bitLength() + 7) / 8;
+    }
+
+    private static Set<Zn.ZnElement> restoreValues(NguyenAccumulatorScheme scheme, byte[] bytes) {
+        int length = getValueLength(scheme);
+        if (bytes.length % length != 0) {
+            throw new IllegalArgumentException("The specified representation is invalid.");
+        }
+        Zn zn = scheme.getBilinearGroup().getZn();
+        Set<Zn.ZnElement> values = new LinkedHashSet<>();
+        for (int offset = 0; offset < bytes.length; offset += length) {
+            values.add(zn.valueOf(new BigInteger(1, Arrays.copyOfRange(bytes, offset, offset + length))));
+        }
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NguyenAccumulatorState that = (NguyenAccumulatorState) o;
+        return scheme.equals(that.scheme) && values.equals(that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(values);
+    }
+}
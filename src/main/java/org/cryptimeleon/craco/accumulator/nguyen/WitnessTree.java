@@ -0,0 +1,310 @@
+package org.cryptimeleon.craco.accumulator.nguyen;
+
+import org.cryptimeleon.craco.common.utils.PolynomialUtil;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the witnesses \(g^{P(s) / (s + v_i)}\) for all values \(v_i\) of a set at once, where
+ * \(P = \prod_i (X + v_i)\).
+ * <p>
+ * The values are arranged in a product tree, where the node for a subset \(S\) stores \(M_S = \prod_{i \in S}
+ * (X + v_i)\). Going down the tree, each node gets the group elements \(A_S[k] = g^{(P / M_S)(s) \cdot s^k}\) for
+ * \(0 \leq k < |S|\); at the root, these are just \(t_k = g^{s^k}\). For children \(S = L \cup R\), we have
+ * \(A_L[k] = \prod_j A_S[k + j]^{m_j}\), where \(m_j\) are the coefficients of \(M_R\), and vice versa. At the leaves,
+ * \(A_{\{i\}}[0]\) is the witness for \(v_i\).
+ * <p>
+ * The products are middle products of group element polynomials and scalar polynomials, which are computed with
+ * Karatsuba's method. So computing all witnesses takes \(O(n^{1.59})\) exponentiations instead of the \(n^2\)
+ * exponentiations of computing each witness individually. Subtrees and the Karatsuba subproducts are computed in
+ * parallel on the common {@link ForkJoinPool}.
+ */
+final class WitnessTree {
+    /**
+     * Length up to which products are computed as one multi-exponentiation per coefficient.
+     */
+    private static final int SCHOOLBOOK_THRESHOLD = 16;
+
+    /**
+     * Length from which Karatsuba subproducts are computed as separate tasks.
+     */
+    private static final int PARALLEL_THRESHOLD = 128;
+
+    private final Group group;
+
+    private final BigInteger modulus;
+
+    private WitnessTree(Group group, BigInteger modulus) {
+        this.group = group;
+        this.modulus = modulus;
+    }
+
+    /**
+     * Computes the witnesses for all values.
+     *
+     * @param t       the elements \(g^{s^k}\) for \(0 \leq k < n\) (or more)
+     * @param values  the \(n\) accumulated values
+     * @param modulus the group order
+     * @return the witness for {@code values[i]} at position i
+     */
+    static GroupElement[] computeAll(GroupElementVector t, BigInteger[] values, BigInteger modulus) {
+        GroupElement[] witnesses = new GroupElement[values.length];
+        if (values.length == 0)
+            return witnesses;
+        WitnessTree tree = new WitnessTree(t.get(0).getStructure(), modulus);
+        GroupElement[] root = new GroupElement[values.length];
+        for (int k = 0; k < root.length; k++) {
+            root[k] = t.get(k).computeSync();
+        }
+        Node node = ForkJoinPool.commonPool().invoke(new ProductTreeTask(values, 0, values.length, modulus));
+        ForkJoinPool.commonPool().invoke(tree.new PushDownTask(node, root, witnesses));
+        return witnesses;
+    }
+
+    /**
+     * Node of the product tree for the values at indices \([from, to)\).
+     */
+    private static final class Node {
+        final int from;
+        final int to;
+        final BigInteger[] polynomial;
+        final Node left;
+        final Node right;
+
+        Node(int from, int to, BigInteger[] polynomial, Node left, Node right) {
+            this.from = from;
+            this.to = to;
+            this.polynomial = polynomial;
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    private static final class ProductTreeTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 7509554737825046504L;
+
+        private final BigInteger[] values;
+        private final int from;
+        private final int to;
+        private final BigInteger modulus;
+
+        ProductTreeTask(BigInteger[] values, int from, int to, BigInteger modulus) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.modulus = modulus;
+        }
+
+        @Override
+        protected Node compute() {
+            if (to - from == 1)
+                return new Node(from, to, new BigInteger[]{values[from].mod(modulus), BigInteger.ONE}, null, null);
+            int middle = (from + to) >>> 1;
+            ProductTreeTask leftTask = new ProductTreeTask(values, from, middle, modulus);
+            leftTask.fork();
+            Node right = new ProductTreeTask(values, middle, to, modulus).compute();
+            Node left = leftTask.join();
+            return new Node(from, to, PolynomialUtil.multiply(left.polynomial, right.polynomial, modulus), left, right);
+        }
+    }
+
+    /**
+     * Computes the witnesses for the leaves below a node, given \(A_S\) for the node.
+     */
+    private final class PushDownTask extends RecursiveAction {
+        private static final long serialVersionUID = 4284554981040552013L;
+
+        private final Node node;
+        private final GroupElement[] elements;
+        private final GroupElement[] witnesses;
+
+        PushDownTask(Node node, GroupElement[] elements, GroupElement[] witnesses) {
+            this.node = node;
+            this.elements = elements;
+            this.witnesses = witnesses;
+        }
+
+        @Override
+        protected void compute() {
+            if (node.left == null) {
+                witnesses[node.from] = elements[0];
+                return;
+            }
+            int leftSize = node.left.to - node.left.from;
+            int rightSize = node.right.to - node.right.from;
+            PushDownTask leftTask = new PushDownTask(node.left,
+                    middleProduct(elements, node.right.polynomial, leftSize), witnesses);
+            leftTask.fork();
+            new PushDownTask(node.right, middleProduct(elements, node.left.polynomial, rightSize), witnesses).compute();
+            leftTask.join();
+        }
+    }
+
+    /**
+     * Computes \(c_k = \prod_j a_{k + j}^{m_j}\) for \(0 \leq k < n\).
+     */
+    private GroupElement[] middleProduct(GroupElement[] a, BigInteger[] m, int n) {
+        if (m.length <= SCHOOLBOOK_THRESHOLD) {
+            GroupElement[] result = new GroupElement[n];
+            for (int k = 0; k < n; k++) {
+                GroupElement product = group.getNeutralElement();
+                for (int j = 0; j < m.length; j++) {
+                    product = product.op(a[k + j].pow(m[j]));
+                }
+                result[k] = product.computeSync();
+            }
+            return detach(result);
+        }
+        // c_k is the coefficient of X^(k + |m| - 1) in a * reverse(m)
+        BigInteger[] reversed = new BigInteger[m.length];
+        for (int j = 0; j < m.length; j++) {
+            reversed[j] = m[m.length - 1 - j];
+        }
+        GroupElement[] product = multiply(Arrays.copyOf(a, n + m.length - 1), reversed);
+        return detach(Arrays.copyOfRange(product, m.length - 1, m.length - 1 + n));
+    }
+
+    /**
+     * Replaces the elements by elements restored from their representations.
+     * <p>
+     * Computed (lazy) group elements keep references to the elements they have been computed from, so without this,
+     * the witnesses would keep all intermediate results of the tree from being garbage collected.
+     */
+    private GroupElement[] detach(GroupElement[] a) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] = group.restoreElement(a[i].getRepresentation());
+        }
+        return a;
+    }
+
+    /**
+     * Multiplies the group element polynomial a with the scalar polynomial b, i.e. computes
+     * \(c_k = \prod_{i + j = k} a_i^{b_j}\).
+     */
+    private GroupElement[] multiply(GroupElement[] a, BigInteger[] b) {
+        if (a.length == 0 || b.length == 0)
+            return new GroupElement[0];
+        if (Math.min(a.length, b.length) <= SCHOOLBOOK_THRESHOLD)
+            return multiplySchoolbook(a, b);
+        if (a.length >= 2 * b.length || b.length >= 2 * a.length)
+            return multiplyUnbalanced(a, b);
+
+        int half = (Math.max(a.length, b.length) + 1) / 2;
+        GroupElement[] a0 = Arrays.copyOf(a, half);
+        GroupElement[] a1 = Arrays.copyOfRange(a, half, a.length);
+        BigInteger[] b0 = Arrays.copyOf(b, half);
+        BigInteger[] b1 = Arrays.copyOfRange(b, half, b.length);
+
+        // z1 = (a0 + a1) * (b0 + b1) - z0 - z2
+        GroupElement[] aSum = add(a0, a1);
+        BigInteger[] bSum = new BigInteger[half];
+        for (int i = 0; i < half; i++) {
+            bSum[i] = i < b1.length ? b0[i].add(b1[i]).mod(modulus) : b0[i];
+        }
+
+        GroupElement[] z0, z1, z2;
+        if (Math.max(a.length, b.length) >= PARALLEL_THRESHOLD) {
+            ForkJoinTask<GroupElement[]> z0Task = ForkJoinTask.adapt(() -> multiply(a0, b0)).fork();
+            ForkJoinTask<GroupElement[]> z2Task = ForkJoinTask.adapt(() -> multiply(a1, b1)).fork();
+            z1 = multiply(aSum, bSum);
+            z2 = z2Task.join();
+            z0 = z0Task.join();
+        } else {
+            z0 = multiply(a0, b0);
+            z2 = multiply(a1, b1);
+            z1 = multiply(aSum, bSum);
+        }
+        z1 = add(z1, invert(add(z0, z2)));
+
+        GroupElement[] result = new GroupElement[a.length + b.length - 1];
+        fillNeutral(result);
+        addShifted(result, z0, 0);
+        addShifted(result, z1, half);
+        addShifted(result, z2, 2 * half);
+        return computeAll(result);
+    }
+
+    /**
+     * Multiplies polynomials whose lengths differ by at least a factor of 2 by splitting the longer one into pieces
+     * of the length of the shorter one.
+     */
+    private GroupElement[] multiplyUnbalanced(GroupElement[] a, BigInteger[] b) {
+        GroupElement[] result = new GroupElement[a.length + b.length - 1];
+        fillNeutral(result);
+        if (a.length >= b.length) {
+            for (int offset = 0; offset < a.length; offset += b.length) {
+                GroupElement[] piece = Arrays.copyOfRange(a, offset, Math.min(a.length, offset + b.length));
+                addShifted(result, multiply(piece, b), offset);
+            }
+        } else {
+            for (int offset = 0; offset < b.length; offset += a.length) {
+                BigInteger[] piece = Arrays.copyOfRange(b, offset, Math.min(b.length, offset + a.length));
+                addShifted(result, multiply(a, piece), offset);
+            }
+        }
+        return computeAll(result);
+    }
+
+    private GroupElement[] multiplySchoolbook(GroupElement[] a, BigInteger[] b) {
+        GroupElement[] result = new GroupElement[a.length + b.length - 1];
+        for (int k = 0; k < result.length; k++) {
+            int from = Math.max(0, k - b.length + 1);
+            int to = Math.min(a.length - 1, k);
+            GroupElement product = group.getNeutralElement();
+            for (int i = from; i <= to; i++) {
+                product = product.op(a[i].pow(b[k - i]));
+            }
+            result[k] = product.computeSync();
+        }
+        return result;
+    }
+
+    private GroupElement[] add(GroupElement[] a, GroupElement[] b) {
+        GroupElement[] result = new GroupElement[Math.max(a.length, b.length)];
+        for (int i = 0; i < result.length; i++) {
+            if (i >= a.length)
+                result[i] = b[i];
+            else if (i >= b.length)
+                result[i] = a[i];
+            else
+                result[i] = a[i].op(b[i]).computeSync();
+        }
+        return result;
+    }
+
+    private GroupElement[] invert(GroupElement[] a) {
+        GroupElement[] result = new GroupElement[a.length];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = a[i].inv();
+        }
+        return result;
+    }
+
+    private static void addShifted(GroupElement[] result, GroupElement[] a, int shift) {
+        for (int i = 0; i < a.length && shift + i < result.length; i++) {
+            result[shift + i] = result[shift + i].op(a[i]);
+        }
+    }
+
+    private static GroupElement[] computeAll(GroupElement[] a) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] = a[i].computeSync();
+        }
+        return a;
+    }
+
+    private void fillNeutral(GroupElement[] a) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == null)
+                a[i] = group.getNeutralElement();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.cryptimeleon.craco.common.metrics;
+
+import org.cryptimeleon.math.structures.groups.debug.DebugBilinearGroup;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts group operations using the counters of {@link DebugGroup} and {@link DebugBilinearGroup}.
+ * <p>
+ * The counters of the debug groups are global to each group, so counts of operations running concurrently on
+ * the same groups are mixed up.
+ */
+public class DebugGroupOperationCounter implements GroupOperationCounter {
+    private final DebugBilinearGroup bilinearGroup;
+    private final List<DebugGroup> groups;
+
+    /**
+     * Creates a counter for the pairings and the group operations in all groups of the given bilinear group.
+     *
+     * @param bilinearGroup the bilinear group to count operations for
+     */
+    public DebugGroupOperationCounter(DebugBilinearGroup bilinearGroup) {
+        this.bilinearGroup = bilinearGroup;
+        this.groups = Arrays.asList((DebugGroup) bilinearGroup.getG1(), (DebugGroup) bilinearGroup.getG2(),
+                (DebugGroup) bilinearGroup.getGT());
+    }
+
+    /**
+     * Creates a counter for the group operations in the given group.
+     *
+     * @param group the group to count operations for
+     */
+    public DebugGroupOperationCounter(DebugGroup group) {
+        this.bilinearGroup = null;
+        this.groups = Collections.singletonList(group);
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        if (bilinearGroup != null) {
+            counts.put(OperationMetrics.PAIRINGS, bilinearGroup.getNumPairings());
+        }
+        for (DebugGroup group : groups) {
+            counts.merge(OperationMetrics.EXPONENTIATIONS, group.getNumExps(), Long::sum);
+            counts.merge(OperationMetrics.MULTI_EXPONENTIATIONS, (long) group.getMultiExpTermNumbers().size(),
+                    Long::sum);
+            counts.merge(OperationMetrics.GROUP_OPERATIONS, group.getNumOpsTotal(), Long::sum);
+            counts.merge(OperationMetrics.SQUARINGS, group.getNumSquaringsTotal(), Long::sum);
+            counts.merge(OperationMetrics.INVERSIONS, group.getNumInversionsTotal(), Long::sum);
+            counts.merge(OperationMetrics.RETRIEVED_REPRESENTATIONS, group.getNumRetrievedRepresentations(),
+                    Long::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,16 @@
+package org.cryptimeleon.craco.common.metrics;
+
+import java.util.Map;
+
+/**
+ * Source of group operation counts for an {@link OperationMetricsRegistry}.
+ * <p>
+ * The registry reads the counts before and after each operation and attributes the difference to the operation.
+ */
+public interface GroupOperationCounter {
+    /**
+     * Returns the total number of group operations counted so far, keyed by the constants of
+     * {@link OperationMetrics} (e.g. {@link OperationMetrics#PAIRINGS}).
+     */
+    Map<String, Long> getCounts();
+}
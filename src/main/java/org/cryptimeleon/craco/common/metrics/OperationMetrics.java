@@ -0,0 +1,108 @@
+package org.cryptimeleon.craco.common.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Metrics recorded for a single high-level operation, e.g. a single call to
+ * {@link org.cryptimeleon.craco.sig.SignatureScheme#verify}.
+ * <p>
+ * Besides the duration, this contains the number of group operations done during the operation, keyed by
+ * the constants of this class (e.g. {@link #PAIRINGS}). Counts are only available if a
+ * {@link GroupOperationCounter} for the groups in use has been added to the
+ * {@link OperationMetricsRegistry}; otherwise, the map of counts is empty.
+ */
+public class OperationMetrics {
+    /**
+     * Number of pairings.
+     */
+    public static final String PAIRINGS = "pairings";
+    /**
+     * Number of exponentiations, not counting those done as part of multi-exponentiations.
+     */
+    public static final String EXPONENTIATIONS = "exponentiations";
+    /**
+     * Number of multi-exponentiations.
+     */
+    public static final String MULTI_EXPONENTIATIONS = "multiExponentiations";
+    /**
+     * Number of group operations, including those done within (multi-)exponentiations.
+     */
+    public static final String GROUP_OPERATIONS = "groupOperations";
+    /**
+     * Number of squarings, including those done within (multi-)exponentiations.
+     */
+    public static final String SQUARINGS = "squarings";
+    /**
+     * Number of inversions, including those done within (multi-)exponentiations.
+     */
+    public static final String INVERSIONS = "inversions";
+    /**
+     * Number of group elements whose representation was retrieved, e.g. for serialization or hashing.
+     */
+    public static final String RETRIEVED_REPRESENTATIONS = "retrievedRepresentations";
+
+    private final Object source;
+    private final String operation;
+    private final long durationNanos;
+    private final Map<String, Long> counts;
+
+    /**
+     * Creates new operation metrics.
+     *
+     * @param source        the object (e.g. the scheme) the operation was called on
+     * @param operation     the name of the operation, e.g. "verify"
+     * @param durationNanos the wall-clock duration of the operation in nanoseconds
+     * @param counts        the number of group operations done, keyed by the constants of this class
+     */
+    public OperationMetrics(Object source, String operation, long durationNanos, Map<String, Long> counts) {
+        this.source = source;
+        this.operation = operation;
+        this.durationNanos = durationNanos;
+        this.counts = Collections.unmodifiableMap(new LinkedHashMap<>(counts));
+    }
+
+    /**
+     * Returns the object (e.g. the scheme) the operation was called on.
+     */
+    public Object getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the name of the operation, e.g. "verify".
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the wall-clock duration of the operation in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Returns the number of group operations done, keyed by the constants of this class.
+     * Empty if no {@link GroupOperationCounter} was available.
+     */
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    /**
+     * Returns the count for the given key, or 0 if it was not recorded.
+     *
+     * @param key one of the constants of this class, e.g. {@link #PAIRINGS}
+     */
+    public long getCount(String key) {
+        return counts.getOrDefault(key, 0L);
+    }
+
+    @Override
+    public String toString() {
+        return source.getClass().getSimpleName() + "." + operation + ": " + durationNanos + "ns " + counts;
+    }
+}
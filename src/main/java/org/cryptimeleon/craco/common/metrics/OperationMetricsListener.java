@@ -0,0 +1,17 @@
+package org.cryptimeleon.craco.common.metrics;
+
+/**
+ * Receives the {@link OperationMetrics} of every operation recorded by an {@link OperationMetricsRegistry}.
+ * <p>
+ * Listeners are called synchronously on the thread that executed the operation, so they should return quickly,
+ * e.g. by handing the metrics to a metrics library.
+ */
+@FunctionalInterface
+public interface OperationMetricsListener {
+    /**
+     * Called after an operation has completed.
+     *
+     * @param metrics the metrics recorded for the operation
+     */
+    void operationCompleted(OperationMetrics metrics);
+}
@@ -0,0 +1,200 @@
+package org.cryptimeleon.craco.common.metrics;
+
+import org.cryptimeleon.math.structures.cartesian.Vector;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Records {@link OperationMetrics} for high-level operations and passes them to registered listeners.
+ * <p>
+ * Schemes are instrumented by wrapping them via
+ * {@link org.cryptimeleon.craco.sig.SignatureScheme#instrument},
+ * {@link org.cryptimeleon.craco.enc.EncryptionScheme#instrument},
+ * {@link org.cryptimeleon.craco.kem.KeyEncapsulationMechanism#instrument} or
+ * {@link org.cryptimeleon.craco.protocols.arguments.sigma.SigmaProtocol#instrument};
+ * each call to an instrumented operation is measured via {@link #measure(Object, String, Supplier, Consumer)}.
+ * The duration of every operation is recorded. Group operation counts are recorded for groups that have a
+ * {@link GroupOperationCounter} added via {@link #addCounter(GroupOperationCounter)}, e.g. a
+ * {@link DebugGroupOperationCounter} for the debug groups of the math library.
+ * <p>
+ * Example, checking for an unexpected number of pairings in signature verification:
+ * <pre>
+ * DebugBilinearGroup group = new DebugBilinearGroup(128, BilinearGroup.Type.TYPE_3);
+ * OperationMetricsRegistry registry = new OperationMetricsRegistry();
+ * registry.addCounter(new DebugGroupOperationCounter(group));
+ * registry.addListener(metrics -&gt; System.out.println(metrics));
+ * SignatureScheme scheme = SignatureScheme.instrument(new PSSignatureScheme(new PSPublicParameters(group)),
+ *         registry);
+ * </pre>
+ * If no listener is registered, operations are executed without any measurements.
+ */
+public class OperationMetricsRegistry {
+    private static final OperationMetricsRegistry DEFAULT = new OperationMetricsRegistry();
+
+    private final List<OperationMetricsListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<GroupOperationCounter> counters = new CopyOnWriteArrayList<>();
+
+    /**
+     * Returns a shared registry, for applications that want to collect all metrics in one place.
+     */
+    public static OperationMetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Registers a listener to be notified of every recorded operation.
+     */
+    public void addListener(OperationMetricsListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     */
+    public void removeListener(OperationMetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds a source of group operation counts.
+     */
+    public void addCounter(GroupOperationCounter counter) {
+        counters.add(counter);
+    }
+
+    /**
+     * Removes a previously added source of group operation counts.
+     */
+    public void removeCounter(GroupOperationCounter counter) {
+        counters.remove(counter);
+    }
+
+    /**
+     * Returns whether any listener is registered, i.e. whether operations are measured at all.
+     */
+    public boolean isEnabled() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Executes the given operation, whose result is complete when it is returned, e.g. a {@code Boolean}, and, if
+     * any listener is registered, reports its metrics to all listeners.
+     *
+     * @param source    the object the operation is called on
+     * @param operation the name of the operation
+     * @param execution executes the operation
+     * @param <T>       the result type of the operation
+     * @return the result of the operation
+     * @see #measure(Object, String, Supplier, Consumer)
+     */
+    public <T> T measure(Object source, String operation, Supplier<T> execution) {
+        return measure(source, operation, execution, result -> {});
+    }
+
+    /**
+     * Executes the given operation and, if any listener is registered, reports its metrics to all listeners.
+     * <p>
+     * Group elements may still be computed in the background when an operation returns them.
+     * To attribute this work to the operation, {@code forceComputation} is applied to the result before the
+     * operation is considered complete. It has to wait for the computation of all group elements of the result,
+     * e.g. via {@link #computeSync(Object)}.
+     *
+     * @param source           the object the operation is called on
+     * @param operation        the name of the operation
+     * @param execution        executes the operation
+     * @param forceComputation waits for the computation of the result, only called if the operation is measured
+     * @param <T>              the result type of the operation
+     * @return the result of the operation
+     */
+    public <T> T measure(Object source, String operation, Supplier<T> execution,
+                         Consumer<? super T> forceComputation) {
+        if (!isEnabled()) {
+            return execution.get();
+        }
+
+        Map<String, Long> countsBefore = getCounts();
+        long start = System.nanoTime();
+        T result = execution.get();
+        if (result != null) {
+            forceComputation.accept(result);
+        }
+        long duration = System.nanoTime() - start;
+        Map<String, Long> counts = getCounts();
+        counts.replaceAll((key, count) -> count - countsBefore.getOrDefault(key, 0L));
+
+        OperationMetrics metrics = new OperationMetrics(source, operation, duration, counts);
+        for (OperationMetricsListener listener : listeners) {
+            listener.operationCompleted(metrics);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for the computation of all group elements the given result of an operation consists of.
+     * <p>
+     * The group elements are found by following the fields of objects of craco classes and the entries of arrays,
+     * collections, maps and vectors; other objects are not inspected. All of them are computed in parallel via
+     * {@link GroupElement#compute()} before waiting for each of them. Unlike hashing or representing the result, this
+     * does not do any work besides the computation of the group elements.
+     *
+     * @param result the result to wait for, e.g. a signature or ciphertext
+     */
+    public static void computeSync(Object result) {
+        List<GroupElement> elements = new ArrayList<>();
+        collectGroupElements(result, elements, Collections.newSetFromMap(new IdentityHashMap<>()));
+        elements.forEach(GroupElement::compute);
+        elements.forEach(GroupElement::computeSync);
+    }
+
+    private static void collectGroupElements(Object object, List<GroupElement> elements, Set<Object> visited) {
+        if (object == null || !visited.add(object)) {
+            return;
+        }
+        if (object instanceof GroupElement) {
+            elements.add((GroupElement) object);
+        } else if (object instanceof Vector) {
+            ((Vector<?>) object).stream().forEach(entry -> collectGroupElements(entry, elements, visited));
+        } else if (object instanceof Object[]) {
+            for (Object entry : (Object[]) object) {
+                collectGroupElements(entry, elements, visited);
+            }
+        } else if (object instanceof Iterable) {
+            for (Object entry : (Iterable<?>) object) {
+                collectGroupElements(entry, elements, visited);
+            }
+        } else if (object instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                collectGroupElements(entry.getKey(), elements, visited);
+                collectGroupElements(entry.getValue(), elements, visited);
+            }
+        } else if (object.getClass().getName().startsWith("org.cryptimeleon.craco.")) {
+            for (Class<?> c = object.getClass(); c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    try {
+                        collectGroupElements(field.get(object), elements, visited);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, Long> getCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (GroupOperationCounter counter : counters) {
+            counter.getCounts().forEach((key, count) -> counts.merge(key, count, Long::sum));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Contains facilities for recording the duration and group operation counts of high-level operations such as
+ * signing, verifying, encrypting or proving.
+ *
+ * @see org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry
+ */
+package org.cryptimeleon.craco.common.metrics;
@@ -0,0 +1,81 @@
+package org.cryptimeleon.craco.common.utils;
+
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Helper methods for batch verification via the small-exponent test.
+ * <p>
+ * A batch of verification equations is combined into a single equation by raising each one to a random
+ * exponent \(\delta_i\) of bit length \(\ell\) = {@link #BATCH_EXPONENT_BITS}. If all equations hold, the combined
+ * one does, too. If at least one does not hold, the combined equation holds with probability at most \(2^{-\ell}\).
+ */
+public final class BatchVerificationUtil {
+    /**
+     * Bit length of the random exponents used to combine verification equations.
+     */
+    public static final int BATCH_EXPONENT_BITS = 128;
+
+    /**
+     * Hidden constructor.
+     */
+    private BatchVerificationUtil() {
+
+    }
+
+    /**
+     * Returns a random nonzero exponent of bit length at most {@link #BATCH_EXPONENT_BITS}, embedded into {@code zn}.
+     *
+     * @param zn the ring the exponent should live in
+     * @return a random small exponent
+     */
+    public static Zn.ZnElement getRandomBatchExponent(Zn zn) {
+        return zn.valueOf(RandomGenerator.getRandomNonZeroNumber(BigInteger.ONE.shiftLeft(BATCH_EXPONENT_BITS)));
+    }
+
+    /**
+     * Determines the indices for which verification fails using bisection.
+     * <p>
+     * The {@code batchCheck} is first applied to all indices.
+     * If it fails, the indices are split in half and each half is checked recursively until the invalid indices
+     * are isolated. If the left half of a failed batch passes, the right half is known to fail and is split
+     * without checking it again.
+     * For k invalid items among n, this needs \(O(k \log n)\) batch checks.
+     *
+     * @param indices    the indices to check
+     * @param batchCheck returns true iff the verification equations of all given indices hold
+     * @return the indices (in the order of {@code indices}) for which verification fails
+     */
+    public static List<Integer> findInvalidIndices(List<Integer> indices, Predicate<List<Integer>> batchCheck) {
+        if (indices.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> invalid = new ArrayList<>();
+        bisect(indices, batchCheck, false, invalid);
+        return invalid;
+    }
+
+    private static void bisect(List<Integer> indices, Predicate<List<Integer>> batchCheck, boolean knownToFail,
+                               List<Integer> invalid) {
+        if (!knownToFail && batchCheck.test(indices)) {
+            return;
+        }
+        if (indices.size() == 1) {
+            invalid.add(indices.get(0));
+            return;
+        }
+        int middle = indices.size() / 2;
+        List<Integer> left = indices.subList(0, middle);
+        List<Integer> right = indices.subList(middle, indices.size());
+        int invalidBefore = invalid.size();
+        bisect(left, batchCheck, false, invalid);
+        // if the left half is fine, the failure must be in the right half
+        bisect(right, batchCheck, invalid.size() == invalidBefore, invalid);
+    }
+}
@@ -0,0 +1,110 @@
+package org.cryptimeleon.craco.common.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe cache that evicts its least recently used entries once their total weight exceeds a capacity.
+ * <p>
+ * The weight of an entry is given by a weigher, e.g. 1 to bound the number of entries or an estimate of the memory
+ * taken up by the value. Eviction keeps at least the most recently used entry, even if its weight alone exceeds the
+ * capacity.
+ * <p>
+ * Values are meant to be computed outside of the cache and added via {@link #putIfAbsent(Object, Object)}, so an
+ * expensive computation does not block other threads. If two threads compute the value for the same key, the value
+ * added first is kept.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class LruCache<K, V> {
+
+    private final long capacity;
+
+    private final ToLongFunction<? super V> weigher;
+
+    /**
+     * Entries in access order, the least recently used first.
+     */
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight = 0;
+
+    /**
+     * Creates a cache holding at most {@code maxSize} entries.
+     *
+     * @param maxSize the maximal number of entries
+     */
+    public LruCache(int maxSize) {
+        this(maxSize, value -> 1);
+    }
+
+    /**
+     * Creates a cache whose entries may weigh at most {@code capacity} in total.
+     *
+     * @param capacity the maximal total weight of the entries
+     * @param weigher  returns the weight of a value, which must not change while the value is cached
+     */
+    public LruCache(long capacity, ToLongFunction<? super V> weigher) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the value cached for the given key and marks it as most recently used.
+     *
+     * @param key the key to look up
+     * @return the cached value, or {@code null} if there is none
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches the given value for the key unless a value is cached for it already, evicting least recently used
+     * entries if the capacity is exceeded.
+     *
+     * @param key   the key
+     * @param value the value to cache
+     * @return the value now cached for the key, which is {@code value} unless another value was cached before
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        V cached = entries.putIfAbsent(key, value);
+        if (cached != null) {
+            return cached;
+        }
+        weight += weigher.applyAsLong(value);
+        Iterator<V> eldest = entries.values().iterator();
+        while (weight > capacity && entries.size() > 1) {
+            weight -= weigher.applyAsLong(eldest.next());
+            eldest.remove();
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of cached entries.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total weight of the cached entries.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+}
@@ -0,0 +1,57 @@
+package org.cryptimeleon.craco.common.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Util methods for running batches of independent operations in parallel.
+ */
+public final class ParallelUtil {
+    /**
+     * Hidden constructor.
+     */
+    private ParallelUtil() {
+
+    }
+
+    /**
+     * Runs {@code task} for all indices in \([0, n)\) on the given executor and returns the results in order.
+     * <p>
+     * If a task fails, the remaining tasks are cancelled and its exception is rethrown; checked exceptions are
+     * wrapped into a {@link RuntimeException}.
+     *
+     * @param executor the executor to run the tasks on
+     * @param n        the number of tasks
+     * @param task     computes the result for an index
+     * @param <T>      the type of results
+     * @return the results, where the \(i\)-th result is the result of {@code task} for index \(i\)
+     */
+    public static <T> List<T> map(ExecutorService executor, int n, IntFunction<T> task) {
+        List<Future<T>> futures = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> task.apply(index)));
+        }
+
+        List<T> results = new ArrayList<>(n);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for batch", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        }
+        return results;
+    }
+}
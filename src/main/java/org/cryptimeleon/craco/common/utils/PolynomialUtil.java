@@ -0,0 +1,252 @@
+package org.cryptimeleon.craco.common.utils;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Helper methods for polynomials over \(\mathbb{Z}_p\).
+ * <p>
+ * Polynomials are given as arrays of coefficients in \([0, p)\), where the coefficient of \(X^i\) is at position i.
+ * Results never have leading zero coefficients unless they are the zero polynomial, which is represented by an
+ * empty array.
+ */
+public final class PolynomialUtil {
+    /**
+     * Degree up to which polynomials are multiplied with the schoolbook method.
+     */
+    private static final int SCHOOLBOOK_THRESHOLD = 32;
+
+    /**
+     * Number of linear factors up to which a product is computed without forking.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    /**
+     * Hidden constructor.
+     */
+    private PolynomialUtil() {
+
+    }
+
+    /**
+     * Multiplies two polynomials.
+     * <p>
+     * Large polynomials are multiplied via Kronecker substitution, i.e. they are packed into a single integer each,
+     * multiplied with {@link BigInteger#multiply(BigInteger)} (which uses subquadratic algorithms for large numbers)
+     * and unpacked again.
+     *
+     * @param a       the first polynomial
+     * @param b       the second polynomial
+     * @param modulus the modulus p
+     * @return the product \(a \cdot b\)
+     */
+    public static BigInteger[] multiply(BigInteger[] a, BigInteger[] b, BigInteger modulus) {
+        if (a.length == 0 || b.length == 0)
+            return new BigInteger[0];
+        if (Math.min(a.length, b.length) <= SCHOOLBOOK_THRESHOLD)
+            return multiplySchoolbook(a, b, modulus);
+        return multiplyKronecker(a, b, modulus);
+    }
+
+    private static BigInteger[] multiplySchoolbook(BigInteger[] a, BigInteger[] b, BigInteger modulus) {
+        BigInteger[] result = new BigInteger[a.length + b.length - 1];
+        Arrays.fill(result, BigInteger.ZERO);
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].signum() == 0)
+                continue;
+            for (int j = 0; j < b.length; j++) {
+                result[i + j] = result[i + j].add(a[i].multiply(b[j]));
+            }
+        }
+        for (int i = 0; i < result.length; i++) {
+            result[i] = result[i].mod(modulus);
+        }
+        return trim(result);
+    }
+
+    private static BigInteger[] multiplyKronecker(BigInteger[] a, BigInteger[] b, BigInteger modulus) {
+        // every coefficient of the product is less than min(|a|, |b|) * p^2, so it fits into a slot of this many bytes
+        int slotBits = 2 * modulus.bitLength() + 32 - Integer.numberOfLeadingZeros(Math.min(a.length, b.length));
+        int slotBytes = (slotBits + 7) / 8;
+
+        BigInteger product = pack(a, slotBytes).multiply(pack(b, slotBytes));
+        return unpack(product, slotBytes, a.length + b.length - 1, modulus);
+    }
+
+    /**
+     * Returns \(\sum_i a_i 2^{8 \cdot slotBytes \cdot i}\).
+     */
+    private static BigInteger pack(BigInteger[] a, int slotBytes) {
+        byte[] packed = new byte[a.length * slotBytes + 1]; // leading zero byte keeps the number positive
+        for (int i = 0; i < a.length; i++) {
+            byte[] coefficient = a[i].toByteArray();
+            int length = Math.min(coefficient.length, slotBytes); // drops the sign byte
+            System.arraycopy(coefficient, coefficient.length - length,
+                    packed, packed.length - i * slotBytes - length, length);
+        }
+        return new BigInteger(packed);
+    }
+
+    private static BigInteger[] unpack(BigInteger packed, int slotBytes, int numberOfSlots, BigInteger modulus) {
+        byte[] bytes = packed.toByteArray();
+        BigInteger[] result = new BigInteger[numberOfSlots];
+        byte[] slot = new byte[slotBytes + 1];
+        for (int i = 0; i < numberOfSlots; i++) {
+            int end = bytes.length - i * slotBytes;
+            int start = Math.max(0, end - slotBytes);
+            Arrays.fill(slot, (byte) 0);
+            if (end > 0) {
+                System.arraycopy(bytes, start, slot, slot.length - (end - start), end - start);
+            }
+            result[i] = new BigInteger(slot).mod(modulus);
+        }
+        return trim(result);
+    }
+
+    /**
+     * Computes \(\prod_i (X + v_i)\).
+     * <p>
+     * The product is computed as a product tree, i.e. the two halves of the factors are multiplied recursively
+     * (in parallel on the common {@link ForkJoinPool}) and the results are multiplied with
+     * {@link #multiply(BigInteger[], BigInteger[], BigInteger)}. This takes quasi-linear time instead of the
+     * quadratic time of multiplying in one factor after the other.
+     *
+     * @param values  the values \(v_i\)
+     * @param modulus the modulus p
+     * @return the coefficients of \(\prod_i (X + v_i)\), a polynomial of degree {@code values.length}
+     */
+    public static BigInteger[] productOfLinearFactors(BigInteger[] values, BigInteger modulus) {
+        return ForkJoinPool.commonPool().invoke(new LinearFactorProduct(values, 0, values.length, modulus));
+    }
+
+    private static BigInteger[] productOfLinearFactors(BigInteger[] values, int from, int to, BigInteger modulus) {
+        if (to - from == 1)
+            return new BigInteger[]{values[from].mod(modulus), BigInteger.ONE};
+        if (to - from == 0)
+            return new BigInteger[]{BigInteger.ONE};
+        int middle = (from + to) >>> 1;
+        return multiply(productOfLinearFactors(values, from, middle, modulus),
+                productOfLinearFactors(values, middle, to, modulus), modulus);
+    }
+
+    /**
+     * Evaluates the polynomial at the given point using Horner's method.
+     *
+     * @param polynomial the polynomial
+     * @param x          the point
+     * @param modulus    the modulus p
+     * @return the value of the polynomial at x
+     */
+    public static BigInteger evaluate(BigInteger[] polynomial, BigInteger x, BigInteger modulus) {
+        BigInteger result = BigInteger.ZERO;
+        for (int i = polynomial.length - 1; i >= 0; i--) {
+            result = result.multiply(x).add(polynomial[i]).mod(modulus);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the polynomial at the consecutive points \(x_0, x_0 + 1, \dots, x_0 + count - 1\).
+     * <p>
+     * For a polynomial of degree d, only the first d + 1 points are evaluated with Horner's method. The remaining
+     * values are obtained from the table of finite differences, whose d-th differences are constant, with d
+     * additions each. This takes \(O(d^2)\) multiplications and \(O(count \cdot d)\) additions instead of
+     * \(O(count \cdot d)\) multiplications.
+     *
+     * @param polynomial the polynomial
+     * @param start      the first point \(x_0\)
+     * @param count      the number of points
+     * @param modulus    the modulus p
+     * @return an array containing the value of the polynomial at \(x_0 + k\) at position k
+     */
+    public static BigInteger[] evaluateAtConsecutivePoints(BigInteger[] polynomial, long start, int count,
+                                                           BigInteger modulus) {
+        BigInteger[] result = new BigInteger[count];
+        int degree = Math.max(0, polynomial.length - 1);
+        int numberOfInitialPoints = Math.min(count, degree + 1);
+        for (int k = 0; k < numberOfInitialPoints; k++) {
+            result[k] = evaluate(polynomial, BigInteger.valueOf(start + k).mod(modulus), modulus);
+        }
+        if (count <= numberOfInitialPoints)
+            return result;
+
+        // differences[degree - j] = j-th backward difference at the last point evaluated so far
+        BigInteger[] differences = Arrays.copyOf(result, degree + 1);
+        for (int j = 1; j <= degree; j++) {
+            for (int k = 0; k <= degree - j; k++) {
+                differences[k] = differences[k + 1].subtract(differences[k]);
+                if (differences[k].signum() < 0)
+                    differences[k] = differences[k].add(modulus);
+            }
+        }
+        // the degree-th difference (at position 0) is constant
+        for (int k = numberOfInitialPoints; k < count; k++) {
+            for (int i = 1; i <= degree; i++) {
+                differences[i] = differences[i].add(differences[i - 1]);
+                if (differences[i].compareTo(modulus) >= 0)
+                    differences[i] = differences[i].subtract(modulus);
+            }
+            result[k] = differences[degree];
+        }
+        return result;
+    }
+
+    /**
+     * Divides the polynomial by \(X + v\) using synthetic division, discarding the remainder.
+     * <p>
+     * The remainder is the value of the polynomial at \(-v\), see
+     * {@link #evaluate(BigInteger[], BigInteger, BigInteger)}.
+     *
+     * @param polynomial the polynomial
+     * @param value      the value v
+     * @param modulus    the modulus p
+     * @return the quotient of the polynomial and \(X + v\)
+     */
+    public static BigInteger[] divideByLinearFactor(BigInteger[] polynomial, BigInteger value, BigInteger modulus) {
+        if (polynomial.length <= 1)
+            return new BigInteger[0];
+        BigInteger[] quotient = new BigInteger[polynomial.length - 1];
+        quotient[quotient.length - 1] = polynomial[polynomial.length - 1];
+        for (int i = quotient.length - 1; i > 0; i--) {
+            quotient[i - 1] = polynomial[i].subtract(value.multiply(quotient[i])).mod(modulus);
+        }
+        return trim(quotient);
+    }
+
+    private static BigInteger[] trim(BigInteger[] polynomial) {
+        int length = polynomial.length;
+        while (length > 0 && polynomial[length - 1].signum() == 0) {
+            length--;
+        }
+        return length == polynomial.length ? polynomial : Arrays.copyOf(polynomial, length);
+    }
+
+    private static class LinearFactorProduct extends RecursiveTask<BigInteger[]> {
+        private static final long serialVersionUID = 6484824274524346824L;
+
+        private final BigInteger[] values;
+        private final int from;
+        private final int to;
+        private final BigInteger modulus;
+
+        LinearFactorProduct(BigInteger[] values, int from, int to, BigInteger modulus) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.modulus = modulus;
+        }
+
+        @Override
+        protected BigInteger[] compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD)
+                return productOfLinearFactors(values, from, to, modulus);
+            int middle = (from + to) >>> 1;
+            LinearFactorProduct left = new LinearFactorProduct(values, from, middle, modulus);
+            left.fork();
+            BigInteger[] right = new LinearFactorProduct(values, middle, to, modulus).compute();
+            return multiply(left.join(), right, modulus);
+        }
+    }
+}
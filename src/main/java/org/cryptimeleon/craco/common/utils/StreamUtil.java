@@ -10,6 +10,12 @@ import java.io.OutputStream;
  *
  */
 public final class StreamUtil {
+    /**
+     * Size of the buffer used by {@link #copy(InputStream, OutputStream)} and
+     * {@link #copyAsync(InputStream, OutputStream)}.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
     /**
      * hidden constructor.
      */
@@ -29,7 +35,7 @@ public final class StreamUtil {
             @Override
             public void run() {
                 try {
-                    byte[] data = new byte[8];
+                    byte[] data = new byte[DEFAULT_BUFFER_SIZE];
                     int length = readFrom.read(data);
                     while (length != -1) {
                         writeTo.write(data, 0, length);
@@ -68,13 +74,13 @@ public final class StreamUtil {
     }
 
     /**
-     * Copy all bytes from in to out using a static buffer size of 1024 bytes.
+     * Copy all bytes from in to out using a buffer of {@link #DEFAULT_BUFFER_SIZE} bytes.
      *
      * @param in the stream to copy bytes from
      * @param out the stream to copy bytes to
      * @throws IOException if something goes wrong during writing/reading
      */
     public static void copy(InputStream in, OutputStream out) throws IOException {
-        copy(in, out, 1024);
+        copy(in, out, DEFAULT_BUFFER_SIZE);
     }
 }
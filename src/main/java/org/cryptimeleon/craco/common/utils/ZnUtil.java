@@ -0,0 +1,54 @@
+package org.cryptimeleon.craco.common.utils;
+
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+
+/**
+ * Helper methods for computations with {@link Zn} elements.
+ */
+public final class ZnUtil {
+    /**
+     * Hidden constructor.
+     */
+    private ZnUtil() {
+
+    }
+
+    /**
+     * Inverts all given elements using a single inversion (Montgomery's trick).
+     * <p>
+     * Computes the prefix products \(p_i = a_0 \cdots a_i\), inverts \(p_{n-1}\) and then recovers
+     * \(a_i^{-1} = p_{i-1} \cdot p_i^{-1}\) from the back. This costs one inversion and \(3(n-1)\) multiplications
+     * instead of n inversions.
+     *
+     * @param elements the units to invert
+     * @return an array containing the inverse of {@code elements[i]} at position i
+     * @throws IllegalArgumentException if one of the elements is not invertible
+     */
+    public static Zn.ZnElement[] batchInvert(Zn.ZnElement[] elements) {
+        int n = elements.length;
+        Zn.ZnElement[] inverses = new Zn.ZnElement[n];
+        if (n == 0) {
+            return inverses;
+        }
+
+        // inverses[i] temporarily holds the prefix product a_0 * ... * a_i
+        inverses[0] = elements[0];
+        for (int i = 1; i < n; i++) {
+            inverses[i] = inverses[i - 1].mul(elements[i]);
+        }
+
+        Zn.ZnElement inverseOfPrefix;
+        try {
+            inverseOfPrefix = inverses[n - 1].inv(); // (a_0 * ... * a_i)^{-1} for i = n - 1
+        } catch (UnsupportedOperationException e) {
+            throw new IllegalArgumentException("Cannot invert non-units", e);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            Zn.ZnElement inverse = inverseOfPrefix.mul(inverses[i - 1]);
+            inverseOfPrefix = inverseOfPrefix.mul(elements[i]);
+            inverses[i] = inverse;
+        }
+        inverses[0] = inverseOfPrefix;
+        return inverses;
+    }
+}
@@ -1,4 +1,4 @@
 /**
- * Contains byte array and stream utilities.
+ * Contains byte array, stream, batch verification and \(\mathbb{Z}_n\) utilities.
  */
 package org.cryptimeleon.craco.common.utils;
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.cryptimeleon.craco.enc;
 
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.StandaloneRepresentable;
@@ -25,6 +26,21 @@ import java.lang.reflect.Type;
  *
  */
 public interface EncryptionScheme extends StandaloneRepresentable, RepresentationRestorer {
+    /**
+     * Wraps the given scheme such that metrics of each call to {@code encrypt} and {@code decrypt} are recorded
+     * by the given registry.
+     * <p>
+     * The returned scheme only implements {@code EncryptionScheme}, even if {@code scheme} implements
+     * sub-interfaces. It is restored from its representation with {@link OperationMetricsRegistry#getDefault()}.
+     *
+     * @param scheme   the scheme to instrument
+     * @param registry the registry to report to
+     * @return the instrumented scheme
+     */
+    static EncryptionScheme instrument(EncryptionScheme scheme, OperationMetricsRegistry registry) {
+        return new InstrumentedEncryptionScheme(scheme, registry);
+    }
+
 
     /**
      * Encrypts the given plain text using the given encryption key.
@@ -0,0 +1,82 @@
+package org.cryptimeleon.craco.enc;
+
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
+import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.serialization.annotations.ReprUtil;
+import org.cryptimeleon.math.serialization.annotations.Represented;
+
+/**
+ * Wraps an {@link EncryptionScheme} and records metrics for {@code encrypt} and {@code decrypt}.
+ * <p>
+ * The representation contains the wrapped scheme. As the registry cannot be represented, a restored instance
+ * reports to {@link OperationMetricsRegistry#getDefault()}.
+ *
+ * @see EncryptionScheme#instrument(EncryptionScheme, OperationMetricsRegistry)
+ */
+public class InstrumentedEncryptionScheme implements EncryptionScheme {
+    @Represented
+    private EncryptionScheme scheme;
+
+    private OperationMetricsRegistry registry;
+
+    InstrumentedEncryptionScheme(EncryptionScheme scheme, OperationMetricsRegistry registry) {
+        this.scheme = scheme;
+        this.registry = registry;
+    }
+
+    public InstrumentedEncryptionScheme(Representation repr) {
+        new ReprUtil(this).deserialize(repr);
+        registry = OperationMetricsRegistry.getDefault();
+    }
+
+    @Override
+    public CipherText encrypt(PlainText plainText, EncryptionKey publicKey) {
+        return registry.measure(scheme, "encrypt", () -> scheme.encrypt(plainText, publicKey),
+                OperationMetricsRegistry::computeSync);
+    }
+
+    @Override
+    public PlainText decrypt(CipherText cipherText, DecryptionKey privateKey) {
+        return registry.measure(scheme, "decrypt", () -> scheme.decrypt(cipherText, privateKey),
+                OperationMetricsRegistry::computeSync);
+    }
+
+    @Override
+    public PlainText restorePlainText(Representation repr) {
+        return scheme.restorePlainText(repr);
+    }
+
+    @Override
+    public CipherText restoreCipherText(Representation repr) {
+        return scheme.restoreCipherText(repr);
+    }
+
+    @Override
+    public EncryptionKey restoreEncryptionKey(Representation repr) {
+        return scheme.restoreEncryptionKey(repr);
+    }
+
+    @Override
+    public DecryptionKey restoreDecryptionKey(Representation repr) {
+        return scheme.restoreDecryptionKey(repr);
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        return ReprUtil.serialize(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InstrumentedEncryptionScheme that = (InstrumentedEncryptionScheme) o;
+        return scheme.equals(that.scheme);
+    }
+
+    @Override
+    public int hashCode() {
+        return scheme.hashCode();
+    }
+}
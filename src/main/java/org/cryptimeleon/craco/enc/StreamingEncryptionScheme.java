@@ -2,9 +2,12 @@ package org.cryptimeleon.craco.enc;
 
 import org.cryptimeleon.craco.common.utils.StreamUtil;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * An encryption scheme with the added ability to encrypt data from streams.
@@ -63,6 +66,104 @@ public interface StreamingEncryptionScheme extends EncryptionScheme {
         StreamUtil.copy(plainTextIn, plainTextOut);
     }
 
+    /**
+     * Encrypts the file <code>plainTextFile</code> and writes the ciphertext
+     * to <code>cipherTextFile</code>, replacing its content if it exists.
+     *
+     * @throws IOException if reading or writing one of the files fails.
+     */
+    default void encrypt(Path plainTextFile, Path cipherTextFile, EncryptionKey publicKey) throws IOException {
+        try (FileChannel plainTextIn = FileChannel.open(plainTextFile, StandardOpenOption.READ);
+             FileChannel cipherTextOut = FileChannel.open(cipherTextFile, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            encrypt(plainTextIn, cipherTextOut, publicKey);
+        }
+    }
+
+    /**
+     * Decrypts the file <code>cipherTextFile</code> and writes the plaintext
+     * to <code>plainTextFile</code>, replacing its content if it exists.
+     *
+     * @throws IOException if reading or writing one of the files fails.
+     */
+    default void decrypt(Path cipherTextFile, Path plainTextFile, DecryptionKey privateKey) throws IOException {
+        try (FileChannel cipherTextIn = FileChannel.open(cipherTextFile, StandardOpenOption.READ);
+             FileChannel plainTextOut = FileChannel.open(plainTextFile, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            decrypt(cipherTextIn, plainTextOut, privateKey);
+        }
+    }
+
+    /**
+     * Encrypts the bytes of plainTextIn from its current position to its end
+     * and writes the ciphertext to cipherTextOut at its current position.
+     * <p>
+     * The default implementation uses the stream based methods;
+     * implementations may memory-map the files instead.
+     *
+     * @throws IOException if any of the channels throw an exception while reading/writing bytes.
+     */
+    default void encrypt(FileChannel plainTextIn, FileChannel cipherTextOut, EncryptionKey publicKey)
+            throws IOException {
+        encrypt(Channels.newInputStream(plainTextIn), Channels.newOutputStream(cipherTextOut), publicKey);
+    }
+
+    /**
+     * Decrypts the bytes of cipherTextIn from its current position to its end
+     * and writes the plaintext to plainTextOut at its current position.
+     * <p>
+     * The default implementation uses the stream based methods;
+     * implementations may memory-map the files instead.
+     *
+     * @throws IOException if any of the channels throw an exception while reading/writing bytes.
+     */
+    default void decrypt(FileChannel cipherTextIn, FileChannel plainTextOut, DecryptionKey privateKey)
+            throws IOException {
+        decrypt(Channels.newInputStream(cipherTextIn), Channels.newOutputStream(plainTextOut), privateKey);
+    }
+
+    /**
+     * Encrypts the remaining bytes of plainText and puts the ciphertext
+     * into cipherText.
+     * <p>
+     * The default implementation copies the buffers through the stream based
+     * methods; implementations may encrypt (direct) buffers without copying.
+     *
+     * @throws java.nio.BufferOverflowException if cipherText has not enough space remaining.
+     */
+    default void encrypt(ByteBuffer plainText, ByteBuffer cipherText, EncryptionKey publicKey) {
+        byte[] plainBytes = new byte[plainText.remaining()];
+        plainText.get(plainBytes);
+        ByteArrayOutputStream cipherBytesOut = new ByteArrayOutputStream();
+        try {
+            encrypt(new ByteArrayInputStream(plainBytes), cipherBytesOut, publicKey);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        cipherText.put(cipherBytesOut.toByteArray());
+    }
+
+    /**
+     * Decrypts the remaining bytes of cipherText and puts the plaintext
+     * into plainText.
+     * <p>
+     * The default implementation copies the buffers through the stream based
+     * methods; implementations may decrypt (direct) buffers without copying.
+     *
+     * @throws java.nio.BufferOverflowException if plainText has not enough space remaining.
+     */
+    default void decrypt(ByteBuffer cipherText, ByteBuffer plainText, DecryptionKey privateKey) {
+        byte[] cipherBytes = new byte[cipherText.remaining()];
+        cipherText.get(cipherBytes);
+        ByteArrayOutputStream plainBytesOut = new ByteArrayOutputStream();
+        try {
+            decrypt(new ByteArrayInputStream(cipherBytes), plainBytesOut, privateKey);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        plainText.put(plainBytesOut.toByteArray());
+    }
+
     /**
      * Returns an InputStream containing the ciphertext obtained
      * by encrypting the content of in.
@@ -2,6 +2,7 @@ package org.cryptimeleon.craco.enc.asym.elgamal;
 
 import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.common.utils.ParallelUtil;
 import org.cryptimeleon.craco.enc.*;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
@@ -12,7 +13,11 @@ import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.cryptimeleon.math.structures.rings.zn.Zn.ZnElement;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Encryption scheme originally presented by Elgamal in [1]. The key generation, encryption and decryption algorithm can
@@ -37,9 +42,22 @@ import java.util.Objects;
  */
 public class ElgamalEncryption implements AsymmetricEncryptionScheme {
 
+    /**
+     * Smallest number of exponentiations per base for which {@link #getPrecomputedKey(ElgamalPublicKey, int)}
+     * precomputes tables for a key that is not cached yet. Computing the tables for the window size chosen for
+     * {@link ElgamalPublicKeyCache#DEFAULT_KEY_MEMORY_BUDGET} takes about as many group operations as this many
+     * table-based exponentiations save over plain ones.
+     */
+    public static final int PRECOMPUTATION_THRESHOLD = 32;
+
     @Represented
     Group groupG;
 
+    /**
+     * Public keys precomputed for batch operations of this scheme. Not part of the representation.
+     */
+    private final ElgamalPublicKeyCache keyCache = new ElgamalPublicKeyCache();
+
     public ElgamalEncryption(Group groupG) {
         this.groupG = groupG;
     }
@@ -85,14 +103,22 @@ public class ElgamalEncryption implements AsymmetricEncryptionScheme {
             throw new IllegalArgumentException("The specified plaintext is invalid.");
 
         GroupElement groupElementPlaintext = ((GroupElementPlainText) plainText).get();
-        GroupElement g = ((ElgamalPublicKey) publicKey).getG();
-        GroupElement h = ((ElgamalPublicKey) publicKey).getH();
+        GroupElement c1;
+        GroupElement c2;
+        if (publicKey instanceof PrecomputedElgamalPublicKey) {
+            PrecomputedElgamalPublicKey precomputedKey = (PrecomputedElgamalPublicKey) publicKey;
+            c1 = precomputedKey.powG(random);
+            c2 = precomputedKey.powH(random).op(groupElementPlaintext);
+        } else {
+            GroupElement g = ((ElgamalPublicKey) publicKey).getG();
+            GroupElement h = ((ElgamalPublicKey) publicKey).getH();
 
-        //c1 = g^r
-        GroupElement c1 = g.pow(random);
+            //c1 = g^r
+            c1 = g.pow(random);
 
-        //c2 = h^r * plaintext
-        GroupElement c2 = h.pow(random).op(groupElementPlaintext);
+            //c2 = h^r * plaintext
+            c2 = h.pow(random).op(groupElementPlaintext);
+        }
 
         return new ElgamalCipherText(c1.compute(), c2.compute());
     }
@@ -113,6 +139,151 @@ public class ElgamalEncryption implements AsymmetricEncryptionScheme {
         return new GroupElementPlainText(m.compute());
     }
 
+    /**
+     * Decrypts all of the given ciphertexts using the common {@link ForkJoinPool}.
+     *
+     * @see #decryptAll(List, DecryptionKey, ExecutorService)
+     */
+    public List<PlainText> decryptAll(List<? extends CipherText> cipherTexts, DecryptionKey privateKey) {
+        return decryptAll(cipherTexts, privateKey, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Decrypts all of the given ciphertexts in parallel on the given executor.
+     * <p>
+     * The inversion of \(c_1^a\) is folded into the exponent, i.e. each message is computed as
+     * \(m = c_1^{-a} \cdot c_2\) with \(-a\) computed once for the batch.
+     *
+     * @param cipherTexts the ciphertexts to decrypt
+     * @param privateKey  the key to decrypt with
+     * @param executor    the executor to run the decryptions on
+     * @return the plaintexts, in the order of {@code cipherTexts}
+     */
+    public List<PlainText> decryptAll(List<? extends CipherText> cipherTexts, DecryptionKey privateKey,
+                                      ExecutorService executor) {
+        if (privateKey == null || cipherTexts == null)
+            throw new IllegalArgumentException("The arguments must not be null.");
+        if (!(privateKey instanceof ElgamalPrivateKey))
+            throw new IllegalArgumentException("The specified private key is invalid.");
+        List<ElgamalCipherText> elgamalCipherTexts = toElgamalCipherTexts(cipherTexts);
+
+        ZnElement negatedA = ((ElgamalPrivateKey) privateKey).getA().neg();
+        return ParallelUtil.map(executor, elgamalCipherTexts.size(), i -> {
+            ElgamalCipherText cipherText = elgamalCipherTexts.get(i);
+            return new GroupElementPlainText(cipherText.getC1().pow(negatedA).op(cipherText.getC2()).computeSync());
+        });
+    }
+
+    /**
+     * Multiplies the given lists of ciphertexts pairwise using the common {@link ForkJoinPool}.
+     *
+     * @see #multiplyCiphertexts(List, List, ExecutorService)
+     */
+    public List<CipherText> multiplyCiphertexts(List<? extends CipherText> first, List<? extends CipherText> second) {
+        return multiplyCiphertexts(first, second, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies the given lists of ciphertexts pairwise in parallel on the given executor.
+     * <p>
+     * The \(i\)-th result \((c_1 \cdot c_1', c_2 \cdot c_2')\) encrypts the product of the messages of the \(i\)-th
+     * ciphertexts \((c_1, c_2)\) of {@code first} and \((c_1', c_2')\) of {@code second}.
+     *
+     * @param first    the first factors
+     * @param second   the second factors, as many as {@code first}
+     * @param executor the executor to run the multiplications on
+     * @return the products, in order
+     */
+    public List<CipherText> multiplyCiphertexts(List<? extends CipherText> first, List<? extends CipherText> second,
+                                                ExecutorService executor) {
+        if (first == null || second == null)
+            throw new IllegalArgumentException("The arguments must not be null.");
+        if (first.size() != second.size())
+            throw new IllegalArgumentException("The lists of ciphertexts must have the same size.");
+        List<ElgamalCipherText> firstFactors = toElgamalCipherTexts(first);
+        List<ElgamalCipherText> secondFactors = toElgamalCipherTexts(second);
+
+        return ParallelUtil.map(executor, firstFactors.size(), i -> new ElgamalCipherText(
+                firstFactors.get(i).getC1().op(secondFactors.get(i).getC1()).computeSync(),
+                firstFactors.get(i).getC2().op(secondFactors.get(i).getC2()).computeSync()
+        ));
+    }
+
+    /**
+     * Rerandomizes all of the given ciphertexts using the common {@link ForkJoinPool}.
+     *
+     * @see #rerandomize(List, EncryptionKey, ExecutorService)
+     */
+    public List<CipherText> rerandomize(List<? extends CipherText> cipherTexts, EncryptionKey publicKey) {
+        return rerandomize(cipherTexts, publicKey, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Rerandomizes all of the given ciphertexts in parallel on the given executor.
+     * <p>
+     * Each ciphertext \((c_1, c_2)\) is mapped to \((c_1 \cdot g^r, c_2 \cdot h^r)\) for fresh uniformly random
+     * \(r\), which encrypts the same message and is distributed like a fresh encryption of it.
+     * The exponentiations use the key returned by {@link #getPrecomputedKey(ElgamalPublicKey, int)}, so large
+     * batches share the cached tables of the key and rerandomizing a few ciphertexts uses plain exponentiations.
+     *
+     * @param cipherTexts the ciphertexts to rerandomize
+     * @param publicKey   the key the ciphertexts are encrypted under
+     * @param executor    the executor to run the rerandomizations on
+     * @return the rerandomized ciphertexts, in order
+     */
+    public List<CipherText> rerandomize(List<? extends CipherText> cipherTexts, EncryptionKey publicKey,
+                                        ExecutorService executor) {
+        if (publicKey == null || cipherTexts == null)
+            throw new IllegalArgumentException("The arguments must not be null.");
+        if (!(publicKey instanceof ElgamalPublicKey))
+            throw new IllegalArgumentException("The specified public key is invalid.");
+        List<ElgamalCipherText> elgamalCipherTexts = toElgamalCipherTexts(cipherTexts);
+        PrecomputedElgamalPublicKey precomputedKey =
+                getPrecomputedKey((ElgamalPublicKey) publicKey, elgamalCipherTexts.size());
+
+        Zn zn = groupG.getZn();
+        return ParallelUtil.map(executor, elgamalCipherTexts.size(), i -> {
+            BigInteger random = zn.getUniformlyRandomElement().getInteger();
+            ElgamalCipherText cipherText = elgamalCipherTexts.get(i);
+            return new ElgamalCipherText(
+                    cipherText.getC1().op(precomputedKey.powG(random)).computeSync(),
+                    cipherText.getC2().op(precomputedKey.powH(random)).computeSync()
+            );
+        });
+    }
+
+    /**
+     * Returns a key for computing {@code exponentiations} powers of each base of the given key.
+     * <p>
+     * If {@code publicKey} is a {@link PrecomputedElgamalPublicKey}, it is returned. Otherwise, the precomputed key
+     * is taken from the cache of this scheme, where it is added if at least {@link #PRECOMPUTATION_THRESHOLD}
+     * exponentiations are to be computed. Below that, a key without tables is returned, so the exponentiations are
+     * computed without precomputation.
+     * Tables are only computed for the bases that are actually raised to a power.
+     *
+     * @param publicKey       the key
+     * @param exponentiations the number of exponentiations per base to be computed using the returned key
+     * @return a precomputed key equal to {@code publicKey}
+     */
+    public PrecomputedElgamalPublicKey getPrecomputedKey(ElgamalPublicKey publicKey, int exponentiations) {
+        if (publicKey instanceof PrecomputedElgamalPublicKey)
+            return (PrecomputedElgamalPublicKey) publicKey;
+        if (exponentiations >= PRECOMPUTATION_THRESHOLD)
+            return keyCache.get(publicKey);
+        PrecomputedElgamalPublicKey cached = keyCache.getIfPresent(publicKey);
+        return cached != null ? cached : new PrecomputedElgamalPublicKey(publicKey, 0);
+    }
+
+    static List<ElgamalCipherText> toElgamalCipherTexts(List<? extends CipherText> cipherTexts) {
+        List<ElgamalCipherText> result = new ArrayList<>(cipherTexts.size());
+        for (CipherText cipherText : cipherTexts) {
+            if (!(cipherText instanceof ElgamalCipherText))
+                throw new IllegalArgumentException("The specified ciphertext is invalid.");
+            result.add((ElgamalCipherText) cipherText);
+        }
+        return result;
+    }
+
     /**
      * Generates a public/private-key pair for the specified group.
      *
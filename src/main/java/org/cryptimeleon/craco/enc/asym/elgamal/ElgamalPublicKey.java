@@ -73,9 +73,8 @@ public class ElgamalPublicKey implements EncryptionKey {
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
+        // precomputed keys are equal to the key they have been created from
+        if (!(obj instanceof ElgamalPublicKey))
             return false;
         ElgamalPublicKey other = (ElgamalPublicKey) obj;
         return Objects.equals(g, other.g)
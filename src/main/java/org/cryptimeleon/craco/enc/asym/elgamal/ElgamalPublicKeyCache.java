@@ -0,0 +1,122 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.craco.common.ByteArrayImplementation;
+import org.cryptimeleon.craco.common.utils.LruCache;
+import org.cryptimeleon.math.serialization.Representation;
+
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache of {@link PrecomputedElgamalPublicKey}s bounded by the memory taken up by their tables.
+ * <p>
+ * Keys are found via their unique byte representation, so a key restored from a {@link Representation} is mapped
+ * to the precomputed key created for an equal key before.
+ * Each key is precomputed with tables fitting into the per key memory budget.
+ * If the estimated memory of all cached tables exceeds the total memory budget, the least recently used keys are
+ * evicted.
+ */
+public class ElgamalPublicKeyCache {
+    /**
+     * Default memory budget for all keys of a cache.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    /**
+     * Default memory budget for the tables of a single key.
+     */
+    public static final long DEFAULT_KEY_MEMORY_BUDGET = 1024 * 1024;
+
+    private final long keyMemoryBudget;
+
+    /**
+     * Precomputed keys indexed by their unique byte representation, weighted by the memory estimate of their tables.
+     */
+    private final LruCache<ByteArrayImplementation, PrecomputedElgamalPublicKey> keys;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param memoryBudget    the number of bytes the tables of all cached keys may take up
+     * @param keyMemoryBudget the number of bytes the tables of a single key may take up
+     */
+    public ElgamalPublicKeyCache(long memoryBudget, long keyMemoryBudget) {
+        if (memoryBudget <= 0 || keyMemoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        this.keyMemoryBudget = Math.min(keyMemoryBudget, memoryBudget);
+        this.keys = new LruCache<>(memoryBudget, PrecomputedElgamalPublicKey::getMemoryEstimate);
+    }
+
+    /**
+     * Creates a new cache with memory budgets {@link #DEFAULT_MEMORY_BUDGET} and {@link #DEFAULT_KEY_MEMORY_BUDGET}.
+     */
+    public ElgamalPublicKeyCache() {
+        this(DEFAULT_MEMORY_BUDGET, DEFAULT_KEY_MEMORY_BUDGET);
+    }
+
+    /**
+     * Returns the precomputed version of the given key.
+     * If a key with the same unique byte representation has been precomputed before, the cached key is returned.
+     * Otherwise, the given key is precomputed and cached.
+     *
+     * @param key the key to look up
+     * @return a precomputed key equal to {@code key}
+     */
+    public PrecomputedElgamalPublicKey get(ElgamalPublicKey key) {
+        ByteArrayImplementation uniqueBytes = new ByteArrayImplementation(key.getUniqueByteRepresentation());
+        PrecomputedElgamalPublicKey cached = keys.get(uniqueBytes);
+        if (cached != null) {
+            return cached;
+        }
+        PrecomputedElgamalPublicKey precomputed = key instanceof PrecomputedElgamalPublicKey
+                && ((PrecomputedElgamalPublicKey) key).getMemoryEstimate() <= keyMemoryBudget
+                ? (PrecomputedElgamalPublicKey) key
+                : new PrecomputedElgamalPublicKey(key, keyMemoryBudget);
+        return keys.putIfAbsent(uniqueBytes, precomputed);
+    }
+
+    /**
+     * Returns the precomputed version of the given key if it is cached, and {@code null} otherwise.
+     * Unlike {@link #get(ElgamalPublicKey)}, this never precomputes a key.
+     *
+     * @param key the key to look up
+     * @return a cached precomputed key equal to {@code key}, or {@code null}
+     */
+    public PrecomputedElgamalPublicKey getIfPresent(ElgamalPublicKey key) {
+        return keys.get(new ByteArrayImplementation(key.getUniqueByteRepresentation()));
+    }
+
+    /**
+     * Restores the key with the given representation using {@code restorer} and returns its precomputed version.
+     *
+     * @param repr     the representation of the key
+     * @param restorer restores a key from its representation,
+     *                 e.g. {@link ElgamalEncryption#restoreEncryptionKey(Representation)}
+     * @return the precomputed key
+     */
+    public PrecomputedElgamalPublicKey restore(Representation repr,
+                                               Function<Representation, ? extends ElgamalPublicKey> restorer) {
+        return get(restorer.apply(repr));
+    }
+
+    /**
+     * Returns the number of keys currently held by this cache.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * Returns the estimated number of bytes taken up by the tables of all cached keys.
+     */
+    public long getMemoryUsed() {
+        return keys.getWeight();
+    }
+
+    /**
+     * Removes all keys from this cache.
+     */
+    public void clear() {
+        keys.clear();
+    }
+}
@@ -0,0 +1,84 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.math.structures.groups.GroupElement;
+
+import java.math.BigInteger;
+
+/**
+ * Fixed-base windowed exponentiation table for a group element \(g\).
+ * <p>
+ * For window size \(w\), the table contains \(g^{d \cdot 2^{wi}}\) for all digits \(1 \leq d < 2^w\) and windows
+ * \(0 \leq i < \lceil \ell / w \rceil\), where \(\ell\) is the bit length of the group order. Then \(g^x\) is the
+ * product of one table entry per non-zero base \(2^w\) digit of \(x\), so it takes \(\lceil \ell / w \rceil\) group
+ * operations and no squarings.
+ * <p>
+ * Instances are immutable and thread-safe.
+ */
+final class FixedBaseTable {
+
+    private final GroupElement base;
+
+    private final BigInteger groupOrder;
+
+    private final int windowSize;
+
+    /** table[i][d - 1] = g^(d * 2^(w * i)) */
+    private final GroupElement[][] table;
+
+    /**
+     * Computes the table for the given base.
+     *
+     * @param base       the base
+     * @param windowSize the window size \(w \geq 1\)
+     */
+    FixedBaseTable(GroupElement base, int windowSize) {
+        this.base = base;
+        this.groupOrder = base.getStructure().size();
+        this.windowSize = windowSize;
+        this.table = new GroupElement[getNumberOfWindows(groupOrder, windowSize)][(1 << windowSize) - 1];
+
+        GroupElement windowBase = base.computeSync();
+        for (int i = 0; i < table.length; i++) {
+            table[i][0] = windowBase;
+            for (int d = 1; d < table[i].length; d++) {
+                table[i][d] = table[i][d - 1].op(windowBase).computeSync();
+            }
+            // g^(2^(w * (i + 1))) = g^((2^w - 1) * 2^(w * i)) * g^(2^(w * i))
+            windowBase = table[i][table[i].length - 1].op(windowBase).computeSync();
+        }
+    }
+
+    /**
+     * Returns the number of windows for the given group order and window size.
+     */
+    static int getNumberOfWindows(BigInteger groupOrder, int windowSize) {
+        return (groupOrder.bitLength() + windowSize - 1) / windowSize;
+    }
+
+    /**
+     * Returns the number of group elements stored for the given group order and window size.
+     */
+    static long getNumberOfElements(BigInteger groupOrder, int windowSize) {
+        return getNumberOfWindows(groupOrder, windowSize) * ((1L << windowSize) - 1);
+    }
+
+    /**
+     * Computes \(g^x\).
+     *
+     * @param exponent the exponent \(x\), which may be negative or exceed the group order
+     * @return \(g^x\)
+     */
+    GroupElement pow(BigInteger exponent) {
+        BigInteger x = exponent.mod(groupOrder);
+        GroupElement result = base.getStructure().getNeutralElement();
+        int mask = (1 << windowSize) - 1;
+        for (int i = 0; i < table.length && x.signum() != 0; i++) {
+            int digit = x.intValue() & mask;
+            if (digit != 0) {
+                result = result.op(table[i][digit - 1]);
+            }
+            x = x.shiftRight(windowSize);
+        }
+        return result;
+    }
+}
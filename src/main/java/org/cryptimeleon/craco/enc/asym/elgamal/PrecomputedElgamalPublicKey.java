@@ -0,0 +1,161 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.math.structures.groups.GroupElement;
+
+import java.math.BigInteger;
+
+/**
+ * An {@link ElgamalPublicKey} with fixed-base exponentiation tables for \(g\) and \(h\).
+ * <p>
+ * Encryption computes \(g^r\) and \(h^r\) for fresh \(r\), so precomputing tables for both bases pays off for keys
+ * that are used to encrypt many times. With window size \(w\), each exponentiation takes \(\lceil \ell / w \rceil\)
+ * group operations instead of roughly \(\ell\) squarings and \(\ell / (w+1)\) group operations, where \(\ell\) is the
+ * bit length of the group order. The tables take up \(\lceil \ell / w \rceil (2^w - 1)\) group elements per base.
+ * <p>
+ * Each table is computed on the first exponentiation of its base, so a key that is only used to compute powers of
+ * \(h\), as in the re-encryption check of a decapsulation, never computes the table for \(g\).
+ * <p>
+ * Precomputed keys can be used wherever an {@link ElgamalPublicKey} is expected and are equal to the key they have
+ * been created from; {@link ElgamalEncryption} uses their tables. The tables are not part of the representation, so
+ * a restored key is a plain {@link ElgamalPublicKey} again; use an {@link ElgamalPublicKeyCache} to keep precomputed
+ * keys across restores.
+ */
+public class PrecomputedElgamalPublicKey extends ElgamalPublicKey {
+    /**
+     * Window size used if no memory budget is given.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 6;
+
+    /**
+     * Largest window size chosen for a memory budget.
+     */
+    public static final int MAX_WINDOW_SIZE = 12;
+
+    private final int windowSize;
+
+    private final LazyTable gTable;
+
+    private final LazyTable hTable;
+
+    private final long memoryEstimate;
+
+    /**
+     * Precomputes tables for the given key using {@link #DEFAULT_WINDOW_SIZE}.
+     *
+     * @param publicKey the key to precompute tables for
+     */
+    public PrecomputedElgamalPublicKey(ElgamalPublicKey publicKey) {
+        this(DEFAULT_WINDOW_SIZE, publicKey);
+    }
+
+    /**
+     * Precomputes tables for the given key using the largest window size whose tables fit into the given
+     * memory budget, see {@link #getWindowSize(ElgamalPublicKey, long)}.
+     *
+     * @param publicKey    the key to precompute tables for
+     * @param memoryBudget the number of bytes the tables may take up
+     */
+    public PrecomputedElgamalPublicKey(ElgamalPublicKey publicKey, long memoryBudget) {
+        this(getWindowSize(publicKey, memoryBudget), publicKey);
+    }
+
+    private PrecomputedElgamalPublicKey(int windowSize, ElgamalPublicKey publicKey) {
+        super(publicKey.getG(), publicKey.getH());
+        this.windowSize = windowSize;
+        this.gTable = new LazyTable(publicKey.getG());
+        this.hTable = new LazyTable(publicKey.getH());
+        this.memoryEstimate = estimateMemory(publicKey, windowSize);
+    }
+
+    /**
+     * Returns the largest window size (at most {@link #MAX_WINDOW_SIZE}) such that the tables for the given key
+     * fit into the given memory budget, or 0 if not even the smallest tables fit.
+     *
+     * @param publicKey    the key to precompute tables for
+     * @param memoryBudget the number of bytes the tables may take up
+     * @return the window size
+     */
+    public static int getWindowSize(ElgamalPublicKey publicKey, long memoryBudget) {
+        int windowSize = 0;
+        while (windowSize < MAX_WINDOW_SIZE && estimateMemory(publicKey, windowSize + 1) <= memoryBudget) {
+            windowSize++;
+        }
+        return windowSize;
+    }
+
+    /**
+     * Estimates the memory taken up by the tables for the given key and window size, measuring each group element
+     * by the length of the unique byte representation of its base.
+     */
+    private static long estimateMemory(ElgamalPublicKey publicKey, int windowSize) {
+        if (windowSize == 0)
+            return 0;
+        BigInteger groupOrder = publicKey.getG().getStructure().size();
+        long elementSize = publicKey.getG().getUniqueByteRepresentation().length
+                + publicKey.getH().getUniqueByteRepresentation().length;
+        return FixedBaseTable.getNumberOfElements(groupOrder, windowSize) * elementSize;
+    }
+
+    /**
+     * Computes \(g^x\) using the precomputed table.
+     *
+     * @param exponent the exponent \(x\)
+     * @return \(g^x\), not yet computed
+     */
+    public GroupElement powG(BigInteger exponent) {
+        return gTable.pow(exponent);
+    }
+
+    /**
+     * Computes \(h^x\) using the precomputed table.
+     *
+     * @param exponent the exponent \(x\)
+     * @return \(h^x\), not yet computed
+     */
+    public GroupElement powH(BigInteger exponent) {
+        return hTable.pow(exponent);
+    }
+
+    /**
+     * Returns the window size of the precomputed tables, where 0 means that nothing has been precomputed.
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Returns the estimated number of bytes taken up by the precomputed tables once both of them have been computed.
+     */
+    public long getMemoryEstimate() {
+        return memoryEstimate;
+    }
+
+    /**
+     * Table for a base of the key that is computed on its first use.
+     */
+    private final class LazyTable {
+        private final GroupElement base;
+
+        private volatile FixedBaseTable table;
+
+        LazyTable(GroupElement base) {
+            this.base = base;
+        }
+
+        GroupElement pow(BigInteger exponent) {
+            if (windowSize == 0)
+                return base.pow(exponent);
+            FixedBaseTable result = table;
+            if (result == null) {
+                synchronized (this) {
+                    result = table;
+                    if (result == null) {
+                        result = new FixedBaseTable(base, windowSize);
+                        table = result;
+                    }
+                }
+            }
+            return result.pow(exponent);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.common.policies.Policy;
+import org.cryptimeleon.craco.common.utils.ParallelUtil;
+import org.cryptimeleon.craco.enc.CipherText;
+import org.cryptimeleon.craco.secretsharing.LinearSecretSharing;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Distributed decryption for {@link ElgamalEncryption}, where the private exponent a is shared among several nodes
+ * with a {@link LinearSecretSharing} scheme, e.g.
+ * {@link org.cryptimeleon.craco.secretsharing.shamir.ShamirSecretSharing}.
+ * <p>
+ * Each node holds a key share \(a_i\) (see {@link #shareKey(ElgamalPrivateKey)}) and computes partial decryptions
+ * \(d_i = c_1^{a_i}\) of a ciphertext \((c_1, c_2)\). Given the partial decryptions of a qualified set of nodes and
+ * the solving vector \(\lambda_i\) of the secret sharing scheme, which satisfies \(\sum_i \lambda_i a_i = a\), the
+ * message is recovered as \(m = c_2 \cdot \prod_i d_i^{-\lambda_i}\) with a single multi-exponentiation.
+ * <p>
+ * The secret sharing scheme must be defined over \(\mathbb{Z}_p\) with p the order of the group of the encryption
+ * scheme. Partial decryptions are not verified, i.e. a node that sends wrong partial decryptions causes wrong
+ * messages to be output.
+ */
+public class ThresholdElgamalDecryption {
+    private final ElgamalEncryption scheme;
+
+    private final LinearSecretSharing<Policy> secretSharing;
+
+    /**
+     * Creates a new threshold decryption component.
+     *
+     * @param scheme        the encryption scheme the ciphertexts belong to
+     * @param secretSharing the secret sharing scheme the private exponent is shared with
+     */
+    public ThresholdElgamalDecryption(ElgamalEncryption scheme, LinearSecretSharing<Policy> secretSharing) {
+        if (!scheme.getGroup().size().equals(secretSharing.getSharedRing().size()))
+            throw new IllegalArgumentException("The secret sharing scheme must share over Zp with p the group order.");
+        this.scheme = scheme;
+        this.secretSharing = secretSharing;
+    }
+
+    /**
+     * Splits the given private key into key shares.
+     * <p>
+     * This is done by a trusted dealer, who then gives the i-th key share to the receiver of the i-th share of the
+     * secret sharing scheme. Each key share contains the original public key.
+     *
+     * @param privateKey the private key to share
+     * @return a mapping from share index i to the key share with exponent \(a_i\)
+     */
+    public Map<Integer, ElgamalPrivateKey> shareKey(ElgamalPrivateKey privateKey)
+            throws WrongAccessStructureException {
+        Zp field = secretSharing.getSharedRing();
+        Map<Integer, Zp.ZpElement> shares =
+                secretSharing.getShares(field.createZnElement(privateKey.getA().getInteger()));
+        Zn zn = scheme.getGroup().getZn();
+        Map<Integer, ElgamalPrivateKey> keyShares = new HashMap<>(shares.size());
+        shares.forEach((i, share) -> keyShares.put(i,
+                new ElgamalPrivateKey(privateKey.getPublicKey(), zn.valueOf(share.getInteger()))));
+        return keyShares;
+    }
+
+    /**
+     * Computes the partial decryption \(c_1^{a_i}\) of the given ciphertext.
+     *
+     * @param cipherText the ciphertext to decrypt
+     * @param keyShare   the key share with exponent \(a_i\)
+     * @return the partial decryption
+     */
+    public GroupElement partialDecrypt(CipherText cipherText, ElgamalPrivateKey keyShare) {
+        return partialDecryptAll(Collections.singletonList(cipherText), keyShare, ForkJoinPool.commonPool()).get(0);
+    }
+
+    /**
+     * Computes the partial decryptions of all of the given ciphertexts using the common {@link ForkJoinPool}.
+     *
+     * @see #partialDecryptAll(List, ElgamalPrivateKey, ExecutorService)
+     */
+    public List<GroupElement> partialDecryptAll(List<? extends CipherText> cipherTexts, ElgamalPrivateKey keyShare) {
+        return partialDecryptAll(cipherTexts, keyShare, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the partial decryptions \(c_1^{a_i}\) of all of the given ciphertexts in parallel on the given
+     * executor.
+     *
+     * @param cipherTexts the ciphertexts to decrypt
+     * @param keyShare    the key share with exponent \(a_i\)
+     * @param executor    the executor to run the exponentiations on
+     * @return the partial decryptions, in the order of {@code cipherTexts}
+     */
+    public List<GroupElement> partialDecryptAll(List<? extends CipherText> cipherTexts, ElgamalPrivateKey keyShare,
+                                                ExecutorService executor) {
+        if (keyShare == null || cipherTexts == null)
+            throw new IllegalArgumentException("The arguments must not be null.");
+        List<ElgamalCipherText> elgamalCipherTexts = ElgamalEncryption.toElgamalCipherTexts(cipherTexts);
+        Zn.ZnElement a = keyShare.getA();
+        return ParallelUtil.map(executor, elgamalCipherTexts.size(),
+                i -> elgamalCipherTexts.get(i).getC1().pow(a).computeSync());
+    }
+
+    /**
+     * Recovers the message of the given ciphertext from partial decryptions.
+     *
+     * @param cipherText         the ciphertext to decrypt
+     * @param partialDecryptions a mapping from share index i to the partial decryption with the i-th key share
+     * @return the decrypted message
+     * @throws NoSatisfyingSet if the given partial decryptions do not belong to a qualified set of share receivers
+     */
+    public PlainText combine(CipherText cipherText, Map<Integer, GroupElement> partialDecryptions)
+            throws NoSatisfyingSet, WrongAccessStructureException {
+        Map<Integer, List<GroupElement>> partialDecryptionLists = new HashMap<>();
+        partialDecryptions.forEach((i, partialDecryption) ->
+                partialDecryptionLists.put(i, Collections.singletonList(partialDecryption)));
+        return combineAll(Collections.singletonList(cipherText), partialDecryptionLists, ForkJoinPool.commonPool())
+                .get(0);
+    }
+
+    /**
+     * Recovers the messages of all of the given ciphertexts using the common {@link ForkJoinPool}.
+     *
+     * @see #combineAll(List, Map, ExecutorService)
+     */
+    public List<PlainText> combineAll(List<? extends CipherText> cipherTexts,
+                                      Map<Integer, ? extends List<GroupElement>> partialDecryptions)
+            throws NoSatisfyingSet, WrongAccessStructureException {
+        return combineAll(cipherTexts, partialDecryptions, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Recovers the messages of all of the given ciphertexts from partial decryptions in parallel on the given
+     * executor.
+     * <p>
+     * The solving vector is computed once for the batch and its entries are negated once, so each message costs one
+     * multi-exponentiation \(c_2 \cdot \prod_i d_i^{-\lambda_i}\).
+     *
+     * @param cipherTexts        the ciphertexts to decrypt
+     * @param partialDecryptions a mapping from share index i to the partial decryptions of all ciphertexts with the
+     *                           i-th key share, in the order of {@code cipherTexts}
+     * @param executor           the executor to run the multi-exponentiations on
+     * @return the decrypted messages, in the order of {@code cipherTexts}
+     * @throws NoSatisfyingSet if the given partial decryptions do not belong to a qualified set of share receivers
+     */
+    public List<PlainText> combineAll(List<? extends CipherText> cipherTexts,
+                                      Map<Integer, ? extends List<GroupElement>> partialDecryptions,
+                                      ExecutorService executor)
+            throws NoSatisfyingSet, WrongAccessStructureException {
+        if (partialDecryptions == null || cipherTexts == null)
+            throw new IllegalArgumentException("The arguments must not be null.");
+        List<ElgamalCipherText> elgamalCipherTexts = ElgamalEncryption.toElgamalCipherTexts(cipherTexts);
+        for (List<GroupElement> partialDecryptionsOfShare : partialDecryptions.values()) {
+            if (partialDecryptionsOfShare.size() != elgamalCipherTexts.size())
+                throw new IllegalArgumentException("Number of ciphertexts and partial decryptions must match");
+        }
+
+        Set<Policy> shareReceivers = new HashSet<>();
+        for (Integer i : partialDecryptions.keySet()) {
+            shareReceivers.add(secretSharing.getShareReceiver(i));
+        }
+        Map<Integer, Zp.ZpElement> solvingVector = secretSharing.getSolvingVector(shareReceivers);
+
+        Zn zn = scheme.getGroup().getZn();
+        List<Integer> indices = new ArrayList<>();
+        List<Zn.ZnElement> negatedCoefficients = new ArrayList<>();
+        for (Map.Entry<Integer, Zp.ZpElement> entry : solvingVector.entrySet()) {
+            if (entry.getValue().isZero())
+                continue;
+            if (!partialDecryptions.containsKey(entry.getKey()))
+                throw new IllegalArgumentException("Missing partial decryptions for share " + entry.getKey());
+            indices.add(entry.getKey());
+            negatedCoefficients.add(zn.valueOf(entry.getValue().getInteger()).neg());
+        }
+
+        return ParallelUtil.map(executor, elgamalCipherTexts.size(), k -> {
+            GroupElement message = elgamalCipherTexts.get(k).getC2();
+            for (int j = 0; j < indices.size(); j++) {
+                message = message.op(partialDecryptions.get(indices.get(j)).get(k).pow(negatedCoefficients.get(j)));
+            }
+            return new GroupElementPlainText(message.computeSync());
+        });
+    }
+}
@@ -13,10 +13,13 @@ import javax.crypto.CipherInputStream;
 import javax.crypto.CipherOutputStream;
 import javax.crypto.NoSuchPaddingException;
 import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.GeneralSecurityException;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
 
 abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionScheme {
 
@@ -46,8 +49,6 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
 
     private final int initialVectorLength; // in bit
 
-    protected byte[] initialVector;
-
     private final String transformation;
 
     public AbstractStreamingSymmetricScheme(String transformation, int initialVectorLength) {
@@ -57,11 +58,18 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
     public AbstractStreamingSymmetricScheme(String transformation, int initialVectorLength, int symmetricKeyLength) {
         this.transformation = transformation;
         this.initialVectorLength = initialVectorLength;
-        initialVector = new byte[initialVectorLength / 8];
         this.symmetricKeyLength = symmetricKeyLength;
     }
 
-    public abstract void initCipher(Cipher cipher, ByteArrayImplementation symmetricKey, int mode)
+    /**
+     * Initializes the given cipher with the key and IV for the given mode.
+     *
+     * @param cipher       the cipher to initialize
+     * @param symmetricKey the symmetric key, already truncated to the key length of this scheme
+     * @param mode         {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}
+     * @param iv           the IV of the ciphertext
+     */
+    public abstract void initCipher(Cipher cipher, ByteArrayImplementation symmetricKey, int mode, byte[] iv)
             throws InvalidAlgorithmParameterException, InvalidKeyException;
 
     @Override
@@ -71,13 +79,13 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
 
         ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
         symmetricKey = updateKeyToLength(symmetricKey, symmetricKeyLength);
-        createRandomIV();
+        byte[] iv = createRandomIV();
         try {
-            ByteArrayInputStream ivStream = new ByteArrayInputStream(initialVector);
+            ByteArrayInputStream ivStream = new ByteArrayInputStream(iv);
 
             Cipher cipher = Cipher.getInstance(transformation);
             // Get the cipher
-            initCipher(cipher, symmetricKey, Cipher.ENCRYPT_MODE);
+            initCipher(cipher, symmetricKey, Cipher.ENCRYPT_MODE, iv);
 
             // return a stream that concatenates IV || ciphertext
             @SuppressWarnings("resource")
@@ -98,14 +106,15 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
         symmetricKey = updateKeyToLength(symmetricKey, symmetricKeyLength);
         try {
             // Try reading the IV from the stream.
-            int amount = in.read(initialVector, 0, initialVectorLength / 8);
+            byte[] iv = new byte[initialVectorLength / 8];
+            int amount = in.read(iv, 0, iv.length);
             // check if the correct amount of bytes were read
-            if (amount != initialVectorLength / 8)
+            if (amount != iv.length)
                 throw new IllegalArgumentException(IO_IV);
             // Get the cipher
             Cipher cipher = Cipher.getInstance(transformation);
             // Get the cipher
-            initCipher(cipher, symmetricKey, Cipher.DECRYPT_MODE);
+            initCipher(cipher, symmetricKey, Cipher.DECRYPT_MODE, iv);
 
             return new CipherInputStream(in, cipher);
         } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
@@ -136,13 +145,13 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
             throw new IllegalArgumentException(INVALID_SYMMETRIC_KEY);
         ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
         symmetricKey = updateKeyToLength(symmetricKey, symmetricKeyLength);
-        createRandomIV();
-        out.write(initialVector);
+        byte[] iv = createRandomIV();
+        out.write(iv);
         try {
             // Get the cipher
             Cipher cipher = Cipher.getInstance(transformation);
             // Get the cipher
-            initCipher(cipher, symmetricKey, Cipher.ENCRYPT_MODE);
+            initCipher(cipher, symmetricKey, Cipher.ENCRYPT_MODE, iv);
 
             return new CipherOutputStream(out, cipher);
         } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
@@ -171,10 +180,10 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
         ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
         symmetricKey = updateKeyToLength(symmetricKey, symmetricKeyLength);
         // randomize the IV
-        createRandomIV();
+        byte[] iv = createRandomIV();
         // write the IV into the stream
-        cipherTextOut.write(initialVector);
-        streamHelper(plainTextIn, cipherTextOut, symmetricKey, Cipher.ENCRYPT_MODE);
+        cipherTextOut.write(iv);
+        streamHelper(plainTextIn, cipherTextOut, symmetricKey, Cipher.ENCRYPT_MODE, iv);
     }
 
     @Override
@@ -186,12 +195,13 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
         ByteArrayImplementation symmetricKey = (ByteArrayImplementation) privateKey;
         symmetricKey = updateKeyToLength(symmetricKey, symmetricKeyLength);
         // try to read the IV from the stream
-        int amount = cipherTextIn.read(initialVector, 0, initialVectorLength / 8);
+        byte[] iv = new byte[initialVectorLength / 8];
+        int amount = cipherTextIn.read(iv, 0, iv.length);
         // check if the correct amount of bytes were read
-        if (amount != initialVectorLength / 8)
+        if (amount != iv.length)
             throw new IllegalArgumentException(IO_IV);
         // start the decryption process
-        streamHelper(cipherTextIn, plainTextOut, symmetricKey, Cipher.DECRYPT_MODE);
+        streamHelper(cipherTextIn, plainTextOut, symmetricKey, Cipher.DECRYPT_MODE, iv);
     }
 
     @Override
@@ -241,8 +251,134 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
         return new ByteArrayImplementation(plainBytesOut.toByteArray());
     }
 
-    private void streamHelper(InputStream inputStream, OutputStream outputStream, SymmetricKey key, final int mode)
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Memory-maps <code>plainTextIn</code> in chunks and encrypts them via
+     * {@link Cipher#update(ByteBuffer, ByteBuffer)}.
+     */
+    @Override
+    public void encrypt(FileChannel plainTextIn, FileChannel cipherTextOut, EncryptionKey publicKey)
+            throws IOException {
+        if (!(publicKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException(INVALID_SYMMETRIC_KEY);
+        ByteArrayImplementation symmetricKey = updateKeyToLength((ByteArrayImplementation) publicKey,
+                symmetricKeyLength);
+        byte[] iv = createRandomIV();
+        Cipher cipher = createCipher(symmetricKey, Cipher.ENCRYPT_MODE, iv);
+        ChannelUtil.writeFully(cipherTextOut, ByteBuffer.wrap(iv));
+        try {
+            ChannelUtil.transform(cipher, plainTextIn, cipherTextOut);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException(INVALID_PT, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Memory-maps <code>cipherTextIn</code> in chunks and decrypts them via
+     * {@link Cipher#update(ByteBuffer, ByteBuffer)}. If the cipher {@linkplain #buffersDecryption() holds back} the
+     * plaintext until the end, the ciphertext is instead decrypted at once and must not exceed
+     * {@value ChannelUtil#MAX_BUFFERED_LENGTH} bytes.
+     *
+     * @throws IllegalArgumentException if the cipher holds back the plaintext and the ciphertext is too large
+     */
+    @Override
+    public void decrypt(FileChannel cipherTextIn, FileChannel plainTextOut, DecryptionKey privateKey)
             throws IOException {
+        if (!(privateKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException(INVALID_SYMMETRIC_KEY);
+        ByteArrayImplementation symmetricKey = updateKeyToLength((ByteArrayImplementation) privateKey,
+                symmetricKeyLength);
+        byte[] iv = new byte[initialVectorLength / 8];
+        if (ChannelUtil.readFully(cipherTextIn, ByteBuffer.wrap(iv)) != iv.length)
+            throw new IllegalArgumentException(IO_IV);
+        Cipher cipher = createCipher(symmetricKey, Cipher.DECRYPT_MODE, iv);
+        try {
+            if (buffersDecryption())
+                ChannelUtil.transformAtOnce(cipher, cipherTextIn, plainTextOut);
+            else
+                ChannelUtil.transform(cipher, cipherTextIn, plainTextOut);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException(INVALID_CT, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Encrypts the buffer via {@link Cipher#doFinal(ByteBuffer, ByteBuffer)}.
+     */
+    @Override
+    public void encrypt(ByteBuffer plainText, ByteBuffer cipherText, EncryptionKey publicKey) {
+        if (!(publicKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException(INVALID_SYMMETRIC_KEY);
+        ByteArrayImplementation symmetricKey = updateKeyToLength((ByteArrayImplementation) publicKey,
+                symmetricKeyLength);
+        byte[] iv = createRandomIV();
+        Cipher cipher = createCipher(symmetricKey, Cipher.ENCRYPT_MODE, iv);
+        if (cipherText.remaining() < iv.length + cipher.getOutputSize(plainText.remaining()))
+            throw new BufferOverflowException();
+        cipherText.put(iv);
+        try {
+            cipher.doFinal(plainText, cipherText);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException(INVALID_PT, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Decrypts the buffer via {@link Cipher#doFinal(ByteBuffer, ByteBuffer)}.
+     */
+    @Override
+    public void decrypt(ByteBuffer cipherText, ByteBuffer plainText, DecryptionKey privateKey) {
+        if (!(privateKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException(INVALID_SYMMETRIC_KEY);
+        ByteArrayImplementation symmetricKey = updateKeyToLength((ByteArrayImplementation) privateKey,
+                symmetricKeyLength);
+        byte[] iv = new byte[initialVectorLength / 8];
+        if (cipherText.remaining() < iv.length)
+            throw new IllegalArgumentException(IO_IV);
+        cipherText.get(iv);
+        Cipher cipher = createCipher(symmetricKey, Cipher.DECRYPT_MODE, iv);
+        if (plainText.remaining() < cipher.getOutputSize(cipherText.remaining()))
+            throw new BufferOverflowException();
+        try {
+            cipher.doFinal(cipherText, plainText);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException(INVALID_CT, e);
+        }
+    }
+
+    /**
+     * Returns whether the cipher of this scheme holds back all plaintext until the decryption is finished, as
+     * authenticated modes do until the tag is verified.
+     */
+    boolean buffersDecryption() {
+        return false;
+    }
+
+    /**
+     * Creates a cipher initialized with the given IV.
+     */
+    private Cipher createCipher(ByteArrayImplementation symmetricKey, int mode, byte[] iv) {
+        try {
+            Cipher cipher = Cipher.getInstance(transformation);
+            initCipher(cipher, symmetricKey, mode, iv);
+            return cipher;
+        } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
+            throw new IllegalArgumentException(mode == Cipher.ENCRYPT_MODE ? ENC_INVALID_TRANSFORMATION
+                    : DEC_INVALID_TRANSFORMATION, e);
+        } catch (InvalidKeyException e) {
+            throw new IllegalArgumentException(mode == Cipher.ENCRYPT_MODE ? ENC_INVALID_KEY : DEC_INVALID_KEY, e);
+        }
+    }
+
+    private void streamHelper(InputStream inputStream, OutputStream outputStream, SymmetricKey key, final int mode,
+                              byte[] iv) throws IOException {
         if (!(key instanceof ByteArrayImplementation))
             throw new IllegalArgumentException(INVALID_SYMMETRIC_KEY);
         ByteArrayImplementation symmetricKey = (ByteArrayImplementation) key;
@@ -257,7 +393,7 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
             // Get the cipher
             Cipher cipher = Cipher.getInstance(transformation);
             // Get the cipher
-            initCipher(cipher, symmetricKey, mode);
+            initCipher(cipher, symmetricKey, mode, iv);
 
             // read the data from the input stream and write them
             // into the PipedOutputstream
@@ -299,8 +435,8 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
         }
     }
 
-    private void createRandomIV() {
-        initialVector = RandomGenerator.getRandomBytes(initialVectorLength / 8);
+    private byte[] createRandomIV() {
+        return RandomGenerator.getRandomBytes(initialVectorLength / 8);
     }
 
     /**
@@ -342,7 +478,6 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + Arrays.hashCode(initialVector);
         result = prime * result + ((transformation == null) ? 0 : transformation.hashCode());
         return result;
     }
@@ -356,8 +491,6 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
         if (getClass() != obj.getClass())
             return false;
         AbstractStreamingSymmetricScheme other = (AbstractStreamingSymmetricScheme) obj;
-        if (!Arrays.equals(initialVector, other.initialVector))
-            return false;
         if (transformation == null) {
             if (other.transformation != null)
                 return false;
@@ -370,6 +503,8 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
 
         private ByteArrayImplementation symmetricKey;
 
+        private final byte[] iv = new byte[initialVectorLength / 8];
+
         public StreamingOutputstream(ByteArrayImplementation symmetricKey, OutputStream out) {
             super(out, initialVectorLength);
             this.symmetricKey = symmetricKey;
@@ -382,7 +517,7 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
                 // Get the cipher
                 Cipher cipher = Cipher.getInstance(transformation);
                 // Get the cipher
-                initCipher(cipher, symmetricKey, Cipher.DECRYPT_MODE);
+                initCipher(cipher, symmetricKey, Cipher.DECRYPT_MODE, iv);
 
                 decryptedOut = new CipherOutputStream(out, cipher);
             } catch (NoSuchPaddingException | NoSuchAlgorithmException | InvalidAlgorithmParameterException e) {
@@ -394,7 +529,7 @@ abstract class AbstractStreamingSymmetricScheme implements StreamingEncryptionSc
 
         @Override
         protected void setIV(int index, byte b) {
-            initialVector[index] = b;
+            iv[index] = b;
         }
     }
 }
@@ -0,0 +1,127 @@
+package org.cryptimeleon.craco.enc.sym.streaming.aes;
+
+import javax.crypto.Cipher;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.GeneralSecurityException;
+
+/**
+ * Util methods for encrypting and decrypting via channels and buffers.
+ */
+final class ChannelUtil {
+
+    /**
+     * Number of bytes of a file mapped into memory at once.
+     */
+    static final int MAPPED_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Maximal number of bytes {@link #transformAtOnce(Cipher, FileChannel, FileChannel)} accepts.
+     */
+    static final int MAX_BUFFERED_LENGTH = 1024 * 1024 * 1024;
+
+    /**
+     * Hidden constructor.
+     */
+    private ChannelUtil() {
+
+    }
+
+    /**
+     * Reads from <code>in</code> until <code>dst</code> is full or the channel ended.
+     *
+     * @return the number of bytes read
+     */
+    static int readFully(ReadableByteChannel in, ByteBuffer dst) throws IOException {
+        int read = 0;
+        while (dst.hasRemaining()) {
+            int amount = in.read(dst);
+            if (amount == -1)
+                break;
+            read += amount;
+        }
+        return read;
+    }
+
+    /**
+     * Writes all remaining bytes of <code>src</code> to <code>out</code>.
+     */
+    static void writeFully(WritableByteChannel out, ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            out.write(src);
+        }
+    }
+
+    /**
+     * Maps the given region of <code>in</code> into memory.
+     */
+    static MappedByteBuffer map(FileChannel in, long position, int length) throws IOException {
+        return in.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    /**
+     * Feeds the bytes of <code>in</code> from its current position to its end through the given initialized cipher
+     * and writes the result to <code>out</code>. The input is memory-mapped in chunks of {@link #MAPPED_CHUNK_SIZE}
+     * bytes and the output is collected in a direct buffer, so the data is not copied through heap arrays.
+     */
+    static void transform(Cipher cipher, FileChannel in, FileChannel out) throws IOException,
+            GeneralSecurityException {
+        long position = in.position();
+        long size = in.size();
+        ByteBuffer output = ByteBuffer.allocateDirect(cipher.getOutputSize(MAPPED_CHUNK_SIZE));
+        while (position < size) {
+            int length = (int) Math.min(MAPPED_CHUNK_SIZE, size - position);
+            MappedByteBuffer input = map(in, position, length);
+            output = ensureCapacity(output, cipher.getOutputSize(length));
+            cipher.update(input, output);
+            output.flip();
+            writeFully(out, output);
+            output.clear();
+            position += length;
+        }
+        in.position(position);
+        output = ensureCapacity(output, cipher.getOutputSize(0));
+        cipher.doFinal(ByteBuffer.allocate(0), output);
+        output.flip();
+        writeFully(out, output);
+    }
+
+    /**
+     * Feeds the bytes of <code>in</code> from its current position to its end through the given initialized cipher
+     * in a single {@link Cipher#doFinal(ByteBuffer, ByteBuffer)} call and writes the result to <code>out</code>.
+     * <p>
+     * This is meant for ciphers that hold back their output until the end, e.g. GCM decryption, which only releases
+     * the plaintext once the tag is verified. Feeding those through
+     * {@link #transform(Cipher, FileChannel, FileChannel)} would reallocate the output buffer for every chunk.
+     *
+     * @throws IllegalArgumentException if more than {@link #MAX_BUFFERED_LENGTH} bytes remain in <code>in</code>
+     */
+    static void transformAtOnce(Cipher cipher, FileChannel in, FileChannel out) throws IOException,
+            GeneralSecurityException {
+        long position = in.position();
+        long size = in.size();
+        if (size - position > MAX_BUFFERED_LENGTH)
+            throw new IllegalArgumentException("The input of " + (size - position) + " bytes exceeds the maximum of "
+                    + MAX_BUFFERED_LENGTH + " bytes that can be transformed at once");
+        int length = (int) Math.max(0, size - position);
+        ByteBuffer output = ByteBuffer.allocateDirect(cipher.getOutputSize(length));
+        cipher.doFinal(map(in, position, length), output);
+        in.position(position + length);
+        output.flip();
+        writeFully(out, output);
+    }
+
+    /**
+     * Returns a cleared direct buffer with at least the given capacity, reusing <code>buffer</code> if it is large
+     * enough.
+     */
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        if (buffer.capacity() >= capacity)
+            return buffer;
+        return ByteBuffer.allocateDirect(capacity);
+    }
+}
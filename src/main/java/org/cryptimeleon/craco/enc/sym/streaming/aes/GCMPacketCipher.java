@@ -0,0 +1,189 @@
+package org.cryptimeleon.craco.enc.sym.streaming.aes;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Encrypts and decrypts single packets of a {@link StreamingGCMAESPacketMode} ciphertext.
+ * <p>
+ * Packet \(i\) is encrypted using the IV \(iv + i\) and authenticated together with the additional data
+ * \(iv || i\), where \(iv\) is the initial vector of the ciphertext. Hence, packets do not depend on each other and
+ * can be processed in any order.
+ * <p>
+ * Both \(iv + i\) and \(i\) are encoded as minimal big-endian two's complement numbers, as done by
+ * {@link java.math.BigInteger#toByteArray()}. They are computed in scratch buffers of the instance, so processing a
+ * packet into a caller-supplied buffer does not allocate any arrays besides those allocated by the {@link Cipher}
+ * itself.
+ * <p>
+ * Instances are not thread-safe. Each stream owns its instance, and streams that process packets in parallel use one
+ * instance per packet being processed at the same time.
+ */
+final class GCMPacketCipher {
+
+    private final SecretKeySpec keySpec;
+
+    private final byte[] initialVector;
+
+    private final int tagLength;
+
+    private final Cipher cipher;
+
+    /** iv + i, sign-extended by one byte such that the sum cannot overflow */
+    private final byte[] packetIV;
+
+    /** iv || i */
+    private final byte[] aad;
+
+    /**
+     * Creates a packet cipher.
+     *
+     * @param keySpec        the AES key
+     * @param initialVector  the initial vector of the ciphertext
+     * @param tagLength      the GCM tag length in bit
+     * @param transformation the transformation to instantiate ciphers with
+     */
+    GCMPacketCipher(SecretKeySpec keySpec, byte[] initialVector, int tagLength, String transformation) {
+        this.keySpec = keySpec;
+        this.initialVector = initialVector.clone();
+        this.tagLength = tagLength;
+        try {
+            this.cipher = Cipher.getInstance(transformation);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new RuntimeException(e);
+        }
+        this.packetIV = new byte[initialVector.length + 1];
+        this.aad = new byte[initialVector.length + Long.BYTES];
+    }
+
+    /**
+     * Encrypts the plaintext of packet {@code packetIndex}.
+     *
+     * @param packetIndex the index of the packet in the ciphertext
+     * @param plainText   array containing the plaintext of the packet
+     * @param length      the length of the plaintext
+     * @return the encrypted packet including its tag
+     */
+    byte[] encryptPacket(long packetIndex, byte[] plainText, int length) throws GeneralSecurityException {
+        return init(Cipher.ENCRYPT_MODE, packetIndex).doFinal(plainText, 0, length);
+    }
+
+    /**
+     * Encrypts the plaintext of packet {@code packetIndex} into the given array.
+     *
+     * @param packetIndex  the index of the packet in the ciphertext
+     * @param plainText    array containing the plaintext of the packet
+     * @param offset       the offset of the plaintext in {@code plainText}
+     * @param length       the length of the plaintext
+     * @param cipherText   the array to write the encrypted packet including its tag to
+     * @param cipherOffset the offset in {@code cipherText} to write to
+     * @return the length of the encrypted packet
+     */
+    int encryptPacket(long packetIndex, byte[] plainText, int offset, int length, byte[] cipherText,
+                      int cipherOffset) throws GeneralSecurityException {
+        return init(Cipher.ENCRYPT_MODE, packetIndex).doFinal(plainText, offset, length, cipherText, cipherOffset);
+    }
+
+    /**
+     * Decrypts and verifies packet {@code packetIndex}.
+     *
+     * @param packetIndex the index of the packet in the ciphertext
+     * @param cipherText  array containing the encrypted packet including its tag
+     * @param length      the length of the encrypted packet
+     * @return the plaintext of the packet
+     * @throws GeneralSecurityException if the packet is not authentic
+     */
+    byte[] decryptPacket(long packetIndex, byte[] cipherText, int length) throws GeneralSecurityException {
+        return init(Cipher.DECRYPT_MODE, packetIndex).doFinal(cipherText, 0, length);
+    }
+
+    /**
+     * Decrypts and verifies packet {@code packetIndex} into the given array.
+     *
+     * @param packetIndex the index of the packet in the ciphertext
+     * @param cipherText  array containing the encrypted packet including its tag
+     * @param offset      the offset of the encrypted packet in {@code cipherText}
+     * @param length      the length of the encrypted packet
+     * @param plainText   the array to write the plaintext to
+     * @param plainOffset the offset in {@code plainText} to write to
+     * @return the length of the plaintext
+     * @throws GeneralSecurityException if the packet is not authentic
+     */
+    int decryptPacket(long packetIndex, byte[] cipherText, int offset, int length, byte[] plainText,
+                      int plainOffset) throws GeneralSecurityException {
+        return init(Cipher.DECRYPT_MODE, packetIndex).doFinal(cipherText, offset, length, plainText, plainOffset);
+    }
+
+    /**
+     * Encrypts the remaining bytes of {@code plainText} as packet {@code packetIndex} into {@code cipherText}.
+     *
+     * @param packetIndex the index of the packet in the ciphertext
+     * @param plainText   buffer containing the plaintext of the packet
+     * @param cipherText  buffer to put the encrypted packet including its tag into
+     * @return the length of the encrypted packet
+     */
+    int encryptPacket(long packetIndex, ByteBuffer plainText, ByteBuffer cipherText)
+            throws GeneralSecurityException {
+        return init(Cipher.ENCRYPT_MODE, packetIndex).doFinal(plainText, cipherText);
+    }
+
+    /**
+     * Decrypts and verifies the remaining bytes of {@code cipherText} as packet {@code packetIndex} into
+     * {@code plainText}.
+     *
+     * @param packetIndex the index of the packet in the ciphertext
+     * @param cipherText  buffer containing the encrypted packet including its tag
+     * @param plainText   buffer to put the plaintext into
+     * @return the length of the plaintext
+     * @throws GeneralSecurityException if the packet is not authentic
+     */
+    int decryptPacket(long packetIndex, ByteBuffer cipherText, ByteBuffer plainText)
+            throws GeneralSecurityException {
+        return init(Cipher.DECRYPT_MODE, packetIndex).doFinal(cipherText, plainText);
+    }
+
+    private Cipher init(int mode, long packetIndex) throws GeneralSecurityException {
+        // iv_i = iv + i
+        packetIV[0] = initialVector[0] < 0 ? (byte) -1 : 0;
+        System.arraycopy(initialVector, 0, packetIV, 1, initialVector.length);
+        long summand = packetIndex;
+        int carry = 0;
+        for (int j = packetIV.length - 1; j >= 0; j--) {
+            int sum = (packetIV[j] & 0xff) + (int) (summand & 0xff) + carry;
+            packetIV[j] = (byte) sum;
+            carry = sum >>> 8;
+            summand >>>= 8;
+        }
+        int ivOffset = minimalTwosComplementOffset(packetIV, packetIV.length);
+        cipher.init(mode, keySpec,
+                new GCMParameterSpec(tagLength, packetIV, ivOffset, packetIV.length - ivOffset));
+
+        // aad = iv || i
+        System.arraycopy(initialVector, 0, aad, 0, initialVector.length);
+        for (int j = 0; j < Long.BYTES; j++) {
+            aad[aad.length - 1 - j] = (byte) (packetIndex >>> (8 * j));
+        }
+        int indexOffset = minimalTwosComplementOffset(aad, Long.BYTES);
+        System.arraycopy(aad, indexOffset, aad, initialVector.length, aad.length - indexOffset);
+        cipher.updateAAD(aad, 0, aad.length - (indexOffset - initialVector.length));
+        return cipher;
+    }
+
+    /**
+     * Returns the offset of the minimal two's complement encoding of the number encoded in the last {@code length}
+     * bytes of {@code bytes}, i.e. skips redundant sign bytes.
+     */
+    private static int minimalTwosComplementOffset(byte[] bytes, int length) {
+        int offset = bytes.length - length;
+        while (offset < bytes.length - 1
+                && ((bytes[offset] == 0 && bytes[offset + 1] >= 0)
+                || (bytes[offset] == -1 && bytes[offset + 1] < 0))) {
+            offset++;
+        }
+        return offset;
+    }
+}
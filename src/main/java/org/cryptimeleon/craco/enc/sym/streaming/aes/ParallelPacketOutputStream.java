@@ -0,0 +1,196 @@
+package org.cryptimeleon.craco.enc.sym.streaming.aes;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * An {@link OutputStream} that splits the written bytes into packets, transforms the packets on an
+ * {@link ExecutorService} and writes the transformed packets to the underlying stream in their original order.
+ * <p>
+ * The stream optionally starts with a header of fixed length (e.g. the IV of a ciphertext), which is used to set up
+ * the packet transformations once it was received completely. Packet transformations need not be thread-safe: a
+ * transformation is only used by one task at a time, and the stream creates at most one per packet in flight.
+ * <p>
+ * At most {@code maxInFlightPackets} packets are buffered or transformed at any time; writing blocks until the oldest
+ * packet has been transformed and written if this limit is reached.
+ */
+final class ParallelPacketOutputStream extends OutputStream {
+
+    /**
+     * Transforms a single packet, e.g. by encrypting it.
+     */
+    @FunctionalInterface
+    interface PacketTransformation {
+        byte[] apply(long packetIndex, byte[] packet, int length) throws GeneralSecurityException;
+    }
+
+    private final OutputStream out;
+
+    private final ExecutorService executor;
+
+    private final int maxInFlightPackets;
+
+    private final int packetLength;
+
+    private final byte[] header;
+
+    private int headerOffset = 0;
+
+    private final Function<byte[], PacketTransformation> transformationFactory;
+
+    /**
+     * Transformations that are currently not used by any task.
+     */
+    private final Queue<PacketTransformation> idleTransformations = new ConcurrentLinkedQueue<>();
+
+    private byte[] bufferedData;
+
+    private int bufferedDataOffset = 0;
+
+    private long packetIndex = 0;
+
+    private final Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+
+    /**
+     * Creates a stream.
+     *
+     * @param out                   the stream to write the transformed packets to
+     * @param packetLength          the length of the untransformed packets; only the last packet may be shorter
+     * @param headerLength          the length of the header preceding the packets
+     * @param transformationFactory creates a packet transformation from the complete header, once per packet
+     *                              transformed concurrently
+     * @param executor              the executor to transform the packets on
+     * @param maxInFlightPackets    the maximal number of packets in flight
+     */
+    ParallelPacketOutputStream(OutputStream out, int packetLength, int headerLength,
+                               Function<byte[], PacketTransformation> transformationFactory,
+                               ExecutorService executor, int maxInFlightPackets) {
+        if (maxInFlightPackets <= 0) {
+            throw new IllegalArgumentException("Number of packets in flight must be positive");
+        }
+        this.out = out;
+        this.packetLength = packetLength;
+        this.header = new byte[headerLength];
+        this.transformationFactory = transformationFactory;
+        this.executor = executor;
+        this.maxInFlightPackets = maxInFlightPackets;
+        this.bufferedData = new byte[packetLength];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (headerOffset < header.length) {
+                int headerBytes = Math.min(header.length - headerOffset, len);
+                System.arraycopy(b, off, header, headerOffset, headerBytes);
+                headerOffset += headerBytes;
+                off += headerBytes;
+                len -= headerBytes;
+            } else {
+                int dataBytes = Math.min(packetLength - bufferedDataOffset, len);
+                System.arraycopy(b, off, bufferedData, bufferedDataOffset, dataBytes);
+                bufferedDataOffset += dataBytes;
+                off += dataBytes;
+                len -= dataBytes;
+                if (bufferedDataOffset == packetLength) {
+                    submitPacket();
+                }
+            }
+        }
+    }
+
+    /**
+     * Submits the currently buffered data as a packet, waiting for the oldest packet in flight if necessary.
+     */
+    private void submitPacket() throws IOException {
+        if (inFlight.size() >= maxInFlightPackets) {
+            writeOldestPacket();
+        }
+        final byte[] packet = bufferedData;
+        final int length = bufferedDataOffset;
+        final long index = packetIndex;
+        inFlight.addLast(executor.submit(() -> transformPacket(index, packet, length)));
+        packetIndex++;
+        bufferedData = new byte[packetLength];
+        bufferedDataOffset = 0;
+    }
+
+    /**
+     * Transforms the packet with an idle transformation, or a new one if all existing transformations are in use.
+     */
+    private byte[] transformPacket(long index, byte[] packet, int length) throws GeneralSecurityException {
+        PacketTransformation transformation = idleTransformations.poll();
+        if (transformation == null) {
+            transformation = transformationFactory.apply(header);
+        }
+        try {
+            return transformation.apply(index, packet, length);
+        } finally {
+            idleTransformations.offer(transformation);
+        }
+    }
+
+    private void writeOldestPacket() throws IOException {
+        Future<byte[]> packet = inFlight.removeFirst();
+        try {
+            out.write(packet.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelPackets();
+            throw new InterruptedIOException("Interrupted while waiting for packet");
+        } catch (ExecutionException e) {
+            cancelPackets();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private void cancelPackets() {
+        for (Future<byte[]> packet : inFlight) {
+            packet.cancel(true);
+        }
+        inFlight.clear();
+    }
+
+    /**
+     * Transforms the buffered data as a (possibly shorter) packet and waits until all packets have been written
+     * to the underlying stream. Does not flush or close the underlying stream.
+     */
+    void finish() throws IOException {
+        if (bufferedDataOffset > 0) {
+            submitPacket();
+        }
+        while (!inFlight.isEmpty()) {
+            writeOldestPacket();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        finish();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        out.close();
+    }
+}
@@ -0,0 +1,166 @@
+package org.cryptimeleon.craco.enc.sym.streaming.aes;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.security.GeneralSecurityException;
+import java.util.function.Function;
+
+/**
+ * A read-only {@link SeekableByteChannel} over the plaintext of a {@link StreamingGCMAESPacketMode} ciphertext.
+ * <p>
+ * Reading at some position only reads and decrypts the packet containing that position. The most recently
+ * decrypted packet is kept, so sequential reads decrypt each packet once.
+ */
+final class SeekableDecryptingChannel implements SeekableByteChannel {
+
+    private final SeekableByteChannel cipherText;
+
+    private final GCMPacketCipher packetCipher;
+
+    private final int packetSize;
+
+    private final int cipherPacketSize;
+
+    private final int ivLength;
+
+    private final long size;
+
+    private long position = 0;
+
+    /** Index of the packet in plainTextPacket, or -1 if no packet is buffered */
+    private long bufferedPacketIndex = -1;
+
+    private byte[] plainTextPacket;
+
+    private final byte[] cipherTextPacket;
+
+    /**
+     * Creates the channel, reading the IV from the start of the ciphertext.
+     *
+     * @param cipherText          the channel containing the ciphertext
+     * @param packetSize          the plaintext size of a packet
+     * @param tagLength           the GCM tag length in bit
+     * @param ivLength            the IV length in bit
+     * @param packetCipherFactory creates the packet cipher from the IV
+     */
+    SeekableDecryptingChannel(SeekableByteChannel cipherText, int packetSize, int tagLength, int ivLength,
+                              Function<byte[], GCMPacketCipher> packetCipherFactory) throws IOException {
+        this.cipherText = cipherText;
+        this.packetSize = packetSize;
+        this.cipherPacketSize = packetSize + tagLength / 8;
+        this.ivLength = ivLength / 8;
+        this.cipherTextPacket = new byte[cipherPacketSize];
+
+        byte[] initialVector = new byte[this.ivLength];
+        cipherText.position(0);
+        if (readFully(ByteBuffer.wrap(initialVector)) != initialVector.length)
+            throw new IllegalArgumentException("Unable to read the IV from the channel");
+        this.packetCipher = packetCipherFactory.apply(initialVector);
+
+        long packetBytes = cipherText.size() - this.ivLength;
+        long lastPacketSize = packetBytes % cipherPacketSize;
+        if (lastPacketSize != 0 && lastPacketSize < tagLength / 8)
+            throw new IllegalArgumentException("Not a valid cipher text for this scheme");
+        this.size = packetBytes / cipherPacketSize * packetSize
+                + (lastPacketSize == 0 ? 0 : lastPacketSize - tagLength / 8);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (position >= size)
+            return -1;
+        int read = 0;
+        while (dst.hasRemaining() && position < size) {
+            long packetIndex = position / packetSize;
+            int offsetInPacket = (int) (position % packetSize);
+            bufferPacket(packetIndex);
+            int length = Math.min(dst.remaining(), plainTextPacket.length - offsetInPacket);
+            dst.put(plainTextPacket, offsetInPacket, length);
+            position += length;
+            read += length;
+        }
+        return read;
+    }
+
+    /**
+     * Reads and decrypts the packet with the given index unless it is already buffered.
+     */
+    private void bufferPacket(long packetIndex) throws IOException {
+        if (packetIndex == bufferedPacketIndex)
+            return;
+        cipherText.position(ivLength + packetIndex * cipherPacketSize);
+        ByteBuffer packet = ByteBuffer.wrap(cipherTextPacket);
+        int length = readFully(packet);
+        try {
+            plainTextPacket = packetCipher.decryptPacket(packetIndex, cipherTextPacket, length);
+        } catch (GeneralSecurityException e) {
+            bufferedPacketIndex = -1;
+            throw new RuntimeException(e);
+        }
+        bufferedPacketIndex = packetIndex;
+    }
+
+    private int readFully(ByteBuffer dst) throws IOException {
+        int read = 0;
+        while (dst.hasRemaining()) {
+            int amount = cipherText.read(dst);
+            if (amount == -1)
+                break;
+            read += amount;
+        }
+        return read;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0)
+            throw new IllegalArgumentException("Position must not be negative");
+        position = newPosition;
+        return this;
+    }
+
+    /**
+     * Returns the size of the plaintext.
+     */
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return cipherText.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        cipherText.close();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!isOpen())
+            throw new ClosedChannelException();
+    }
+}
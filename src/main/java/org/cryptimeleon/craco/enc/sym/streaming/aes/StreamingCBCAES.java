@@ -31,9 +31,9 @@ public class StreamingCBCAES extends AbstractStreamingSymmetricScheme {
     }
 
     @Override
-    public void initCipher(Cipher cipher, ByteArrayImplementation symmetricKey, int mode)
+    public void initCipher(Cipher cipher, ByteArrayImplementation symmetricKey, int mode, byte[] iv)
             throws InvalidAlgorithmParameterException, InvalidKeyException {
         SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
-        cipher.init(mode, keySpec, new IvParameterSpec(initialVector));
+        cipher.init(mode, keySpec, new IvParameterSpec(iv));
     }
 }
@@ -13,6 +13,8 @@ import java.security.InvalidKeyException;
  * An implementation of AES with GCM as the mode of operation.
  * <p>
  * For difference between this and {@link StreamingGCMAESPacketMode}, see the latter's documentation.
+ * Since the whole ciphertext is held in memory while decrypting, decrypting a {@code FileChannel} or file rejects
+ * ciphertexts larger than 1 GiB; use {@link StreamingGCMAESPacketMode} for large files instead.
  */
 public class StreamingGCMAES extends AbstractStreamingSymmetricScheme {
 
@@ -35,14 +37,19 @@ public class StreamingGCMAES extends AbstractStreamingSymmetricScheme {
     }
 
     @Override
-    public void initCipher(Cipher cipher, ByteArrayImplementation symmetricKey, int mode)
+    public void initCipher(Cipher cipher, ByteArrayImplementation symmetricKey, int mode, byte[] iv)
             throws InvalidAlgorithmParameterException, InvalidKeyException {
 
         SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
 
         // GCM setup
-        GCMParameterSpec gcmSpec = new GCMParameterSpec(tagLength, initialVector);
+        GCMParameterSpec gcmSpec = new GCMParameterSpec(tagLength, iv);
         // initialize the cipher
         cipher.init(mode, keySpec, gcmSpec);
     }
+
+    @Override
+    boolean buffersDecryption() {
+        return true;
+    }
 }
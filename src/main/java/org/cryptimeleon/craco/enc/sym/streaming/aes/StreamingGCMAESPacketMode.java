@@ -2,24 +2,21 @@ package org.cryptimeleon.craco.enc.sym.streaming.aes;
 
 import org.cryptimeleon.craco.common.ByteArrayImplementation;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.common.utils.StreamUtil;
 import org.cryptimeleon.craco.enc.*;
 import org.cryptimeleon.math.random.RandomGenerator;
 import org.cryptimeleon.math.serialization.BigIntegerRepresentation;
 import org.cryptimeleon.math.serialization.ObjectRepresentation;
 import org.cryptimeleon.math.serialization.Representation;
 
-import javax.crypto.BadPaddingException;
-import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
-import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.*;
-import java.math.BigInteger;
-import java.security.InvalidAlgorithmParameterException;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * An implementation of AES with GCM as the mode of operation. The difference
@@ -36,6 +33,12 @@ import java.util.Arrays;
  * stream and read the decrypted ciphertext in the other stream since the
  * decrypted ciphertext will be written when you finished writing your cipher
  * text (and close the stream).
+ * <p>
+ * Since the packets do not depend on each other, they can also be encrypted and decrypted in parallel, see
+ * {@link #createParallelEncryptor(OutputStream, EncryptionKey, ExecutorService, int)} and
+ * {@link #createParallelDecryptor(OutputStream, DecryptionKey, ExecutorService, int)}.
+ * For the same reason, arbitrary ranges of the plaintext can be decrypted without decrypting the preceding packets,
+ * see {@link #createSeekableDecryptor(SeekableByteChannel, DecryptionKey)}.
  *
  *
  */
@@ -50,8 +53,6 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
 
     private final int tagLength = 128; // in bit, needed for GCM
 
-    private byte[] initialVector = new byte[initialVectorLength / 8];
-
     private final String transformation = "AES/GCM/NoPadding";
     
     private final int packetSize;
@@ -167,182 +168,104 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
         ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
         symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
 
-        // set up the scheme
-        Cipher cipher;
-        try {
-            cipher = Cipher.getInstance(transformation);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException e1) {
-            throw new RuntimeException(e1);
-        }
         // init the key
         SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
 
         return new InputStream() {
+            /** Used to read the plaintext of a packet */
+            final byte[] plainText = new byte[packetSize];
             /** Used to buffer the data between two read calls */
-            byte[] bufferedCipherText;
+            final byte[] bufferedCipherText = new byte[packetSize + tagLength / 8];
             /** Amount of currently buffered data */
             int bufferedCipherTextSize = 0;
             /** Offset in the bufferedCipherText */
             int bufferedCipherTextOffset = 0;
 
-            int initialVectorLengthInBytes = initialVectorLength / 8;
+            final int initialVectorLengthInBytes = initialVectorLength / 8;
             /**
-             * Indicates how many bytes are already read, needed for
+             * Indicates how many bytes of the IV are already read, needed for
              * transmitting the IV
              */
             int byteOffset = 0;
             /** The packet round */
-            BigInteger packetRound = BigInteger.valueOf(0);
-            /** InitalVector as BigInteger */
-            BigInteger initV;
+            long packetRound = 0;
+            /** The IV of this ciphertext */
+            byte[] iv;
+            GCMPacketCipher packetCipher;
+
+            private void initIV() {
+                iv = createRandomIV();
+                packetCipher = new GCMPacketCipher(keySpec, iv, tagLength, transformation);
+            }
 
             @Override
             public int read() throws IOException {
                 if (byteOffset == 0) {
-                    // init the IV
-                    createRandomIV();
-                    initV = new BigInteger(initialVector);
+                    initIV();
                 }
-                if (byteOffset < (initialVectorLengthInBytes)) {
+                if (byteOffset < initialVectorLengthInBytes) {
                     // the IV was not fully read yet
-                    // cast it to an unsigned int
-                    byteOffset++;
-                    return Byte.toUnsignedInt(initialVector[byteOffset++]);
-                } else {
-                    // the iv was read
-                    if (bufferedCipherTextOffset == bufferedCipherTextSize) {
-                        int read = bufferPacket();
-                        if (read == -1) {
-                            // the underlying stream didnt give us any data
-                            return -1;
-                        }
-                    }
-                    // we have data now
-                    byte toReturn = bufferedCipherText[bufferedCipherTextOffset];
-                    bufferedCipherTextOffset++;
-                    // 04.11.2016 mirkoj this causes an integer overflow
-                    // byteOffset++;
-                    // cast it to an unsigned int
-                    return Byte.toUnsignedInt(toReturn);
+                    return Byte.toUnsignedInt(iv[byteOffset++]);
+                }
+                // the iv was read
+                if (bufferedCipherTextOffset == bufferedCipherTextSize && bufferPacket() == -1) {
+                    // the underlying stream didnt give us any data
+                    return -1;
                 }
+                // cast it to an unsigned int
+                return Byte.toUnsignedInt(bufferedCipherText[bufferedCipherTextOffset++]);
             }
 
             /**
-             * Writes a new packet in the bufferedCipherText.
+             * Encrypts a new packet into the bufferedCipherText.
              *
              * @return the length of the ciphertext or -1 if the plaintext
              *         inputstream could not provide any data
              */
-            public int bufferPacket() {
+            private int bufferPacket() throws IOException {
+                // read a full packet unless the plaintext ends before
+                int read = readFully(in, plainText, 0, packetSize);
+                if (read == 0) {
+                    // we couldn't read any plaintext data
+                    return -1;
+                }
                 try {
-                    // we don't have any buffered data
-                    // start an encryption run
-                    byte[] plainText = new byte[packetSize];
-                    int read = in.read(plainText);
-                    if (read == -1) {
-                        // we couldn't read any plaintext data
-                        return -1;
-                    }
-                    // 16.09 mirkoj : we dont the packet to be filled
-                    // up with 0's
-                    if (read != packetSize) {
-                        byte[] tempPlaintext = new byte[packetSize];
-                        System.arraycopy(plainText, 0, tempPlaintext, 0, read);
-                        plainText = new byte[read];
-                        System.arraycopy(tempPlaintext, 0, plainText, 0, read);
-                    }
-                    BigInteger initV_i = initV.add(packetRound);
-                    // iv_i = iv + i
-                    byte[] initialVector_i = initV_i.toByteArray();
-                    // GCM iv
-                    GCMParameterSpec gcmSpec = new GCMParameterSpec(tagLength, initialVector_i);
-                    // reinit the cipher
-                    cipher.init(Cipher.ENCRYPT_MODE, keySpec, gcmSpec);
-                    // calculate the additional authenticated data
-                    byte[] packetRoundBytes = packetRound.toByteArray();
-                    byte[] aad = new byte[initialVector.length + packetRoundBytes.length];
-                    System.arraycopy(initialVector, 0, aad, 0, initialVector.length);
-                    System.arraycopy(packetRoundBytes, 0, aad, initialVector.length, packetRoundBytes.length);
-                    // init the cipher with aad before encrypting!
-                    cipher.updateAAD(aad);
-                    // encrypt
-                    bufferedCipherText = cipher.doFinal(plainText);
-                    bufferedCipherTextSize = bufferedCipherText.length;
-                    bufferedCipherTextOffset = 0;
-                    packetRound = packetRound.add(BigInteger.ONE);
-                    return bufferedCipherTextSize;
-                } catch (IOException | InvalidKeyException | InvalidAlgorithmParameterException
-                        | IllegalBlockSizeException | BadPaddingException e) {
+                    bufferedCipherTextSize =
+                            packetCipher.encryptPacket(packetRound, plainText, 0, read, bufferedCipherText, 0);
+                } catch (GeneralSecurityException e) {
                     throw new RuntimeException(e);
                 }
-
+                bufferedCipherTextOffset = 0;
+                packetRound++;
+                return bufferedCipherTextSize;
             }
 
             @Override
             public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                int written = 0;
                 if (byteOffset < initialVectorLengthInBytes) {
                     if (byteOffset == 0) {
-                        // init the IV
-                        createRandomIV();
-                        initV = new BigInteger(initialVector);
-                    }
-                    int remainingIVBytes = initialVectorLengthInBytes - byteOffset;
-
-                    if (remainingIVBytes < len) {
-                        // we can read the rest of the IV
-
-                        System.arraycopy(initialVector, byteOffset, b, off, remainingIVBytes);
-
-                        byteOffset = byteOffset + remainingIVBytes;
-                        // IV is finished
-                        int read = read(b, off + remainingIVBytes, len - remainingIVBytes);
-                        if (read == -1) {
-                            return remainingIVBytes;
-                        } else {
-                            return remainingIVBytes + read;
-                        }
-                    } else {
-                        // write as much of the IV as possible
-                        System.arraycopy(initialVector, byteOffset, b, off, len);
-                        byteOffset = byteOffset + len;
-                        return len;
+                        initIV();
                     }
-
-                } else {
-                    // the IV was written
-                    int remainingBytes = bufferedCipherTextSize - bufferedCipherTextOffset;
-                    if (remainingBytes < len) {
-                        // we go not enough buffered bytes
-                        if (remainingBytes > 0) {
-                            // write the rest of the buffer
-                            System.arraycopy(bufferedCipherText, bufferedCipherTextOffset, b, off, remainingBytes);
-                            // 04.11.2016 mirkoj this causes the byteOffset
-                            // integer to overflow
-                            // byteOffset = byteOffset + remainingBytes;
-                            bufferedCipherTextOffset = bufferedCipherTextOffset + remainingBytes;
-                        }
-                        // encrypt a new package
-                        int read = bufferPacket();
-                        if (remainingBytes == 0 && read == -1) {
-                            // no data available and we didnt write anything
-                            return -1;
-                        }
-                        if (read == -1) {
-                            // no new data available but we wrote something
-                            return remainingBytes;
-                        }
-                        return remainingBytes + read(b, off + remainingBytes, len - remainingBytes);
-
-                    } else {
-                        // got enough buffered bytes
-                        System.arraycopy(bufferedCipherText, bufferedCipherTextOffset, b, off, len);
-                        // 04.11.2016 mirkoj this causes the byteOffset integer
-                        // overflow
-                        // byteOffset = byteOffset + len;
-                        bufferedCipherTextOffset = bufferedCipherTextOffset + len;
-                        return len;
+                    // write as much of the IV as possible
+                    written = Math.min(initialVectorLengthInBytes - byteOffset, len);
+                    System.arraycopy(iv, byteOffset, b, off, written);
+                    byteOffset += written;
+                }
+                while (written < len) {
+                    if (bufferedCipherTextOffset == bufferedCipherTextSize && bufferPacket() == -1) {
+                        // no new data available
+                        break;
                     }
+                    int amount = Math.min(bufferedCipherTextSize - bufferedCipherTextOffset, len - written);
+                    System.arraycopy(bufferedCipherText, bufferedCipherTextOffset, b, off + written, amount);
+                    bufferedCipherTextOffset += amount;
+                    written += amount;
                 }
+                return written == 0 ? -1 : written;
             }
 
         };
@@ -371,54 +294,52 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
         ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
         symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
 
-        createRandomIV();
-        out.write(initialVector, 0, initialVector.length);
-        SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
-        Cipher cipher;
-        try {
-            cipher = Cipher.getInstance(transformation);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
-            throw new RuntimeException(e);
-        }
-        OutputStream toReturn = new OutputStream() {
+        return createEncryptor(out, symmetricKey, createRandomIV());
+    }
+
+    /**
+     * Returns an {@link OutputStream} that encrypts any bytes written to it using the given initial vector.
+     *
+     * @param out           the stream to write the ciphertext to
+     * @param symmetricKey  the key to encrypt with, already updated to the key length of this scheme
+     * @param iv            the initial vector to use
+     * @return a stream that encrypts any input and writes the ciphertext to out
+     */
+    OutputStream createEncryptor(OutputStream out, ByteArrayImplementation symmetricKey, byte[] iv)
+            throws IOException {
+        out.write(iv, 0, iv.length);
+        GCMPacketCipher packetCipher = new GCMPacketCipher(new SecretKeySpec(symmetricKey.getData(), "AES"),
+                iv, tagLength, transformation);
+
+        return new OutputStream() {
             // to make sure that we won't write more than packetSize bytes
             int bufferedPlainTextOffset = 0;
-            int bufferedPlainTextSize = packetSize;
-            byte[] bufferedData = new byte[packetSize];
+            final byte[] bufferedData = new byte[packetSize];
+            final byte[] cipherText = new byte[packetSize + tagLength / 8];
 
-            BigInteger packetRound = BigInteger.valueOf(0);
-            BigInteger initV = new BigInteger(initialVector);
+            long packetRound = 0;
 
             @Override
             public void write(int b) throws IOException {
-                int freeData = bufferedPlainTextSize - bufferedPlainTextOffset;
-                if (freeData > 0) {
-                    bufferedData[bufferedPlainTextOffset] = (byte) b;
-                    bufferedPlainTextOffset++;
-                } else {
+                if (bufferedPlainTextOffset == packetSize) {
                     writePacket();
-                    write(b);
                 }
+                bufferedData[bufferedPlainTextOffset++] = (byte) b;
             }
 
             @Override
             public void write(byte[] b, int off, int len) throws IOException {
-                int freeData = bufferedPlainTextSize - bufferedPlainTextOffset;
-                if (freeData < len) {
-                    // not enough freeData
-                    // firstwrite all remaining data in the buffer
-                    if (freeData > 0)
-                        System.arraycopy(b, off, bufferedData, bufferedPlainTextOffset, freeData);
-                    bufferedPlainTextOffset = bufferedPlainTextOffset + freeData;
-                    // flush it in the outputstream
-                    writePacket();
-                    write(b, off + freeData, len - freeData);
-                } else {
-                    // we won't need another packet
-                    System.arraycopy(b, off, bufferedData, bufferedPlainTextOffset, len);
-                    bufferedPlainTextOffset = bufferedPlainTextOffset + len;
+                while (len > 0) {
+                    if (bufferedPlainTextOffset == packetSize) {
+                        // flush the full packet in the outputstream
+                        writePacket();
+                    }
+                    int amount = Math.min(packetSize - bufferedPlainTextOffset, len);
+                    System.arraycopy(b, off, bufferedData, bufferedPlainTextOffset, amount);
+                    bufferedPlainTextOffset += amount;
+                    off += amount;
+                    len -= amount;
                 }
-
             }
 
             @Override
@@ -442,48 +363,19 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
                 out.flush();
             }
 
-            private void writePacket() {
-                BigInteger initV_i = initV.add(packetRound);
-                // iv_i = iv + i
-                byte[] initialVector_i = initV_i.toByteArray();
-                // GCM iv
-                GCMParameterSpec gcmSpec = new GCMParameterSpec(tagLength, initialVector_i);
-                // reinit the cipher
+            private void writePacket() throws IOException {
                 try {
-                    // 16.09 mirkoj, fixes that the last package isnt filled up
-                    // with 0's
-                    if (bufferedPlainTextOffset != bufferedPlainTextSize) {
-                        byte[] tempData = new byte[bufferedPlainTextOffset];
-                        System.arraycopy(bufferedData, 0, tempData, 0, bufferedPlainTextOffset);
-                        bufferedData = new byte[bufferedPlainTextOffset];
-                        System.arraycopy(tempData, 0, bufferedData, 0, bufferedPlainTextOffset);
-                    }
-                    cipher.init(Cipher.ENCRYPT_MODE, keySpec, gcmSpec);
-
-                    // calculate the additional authenticated data
-                    byte[] packetRoundBytes = packetRound.toByteArray();
-                    byte[] aad = new byte[initialVector.length + packetRoundBytes.length];
-                    System.arraycopy(initialVector, 0, aad, 0, initialVector.length);
-                    System.arraycopy(packetRoundBytes, 0, aad, initialVector.length, packetRoundBytes.length);
-                    // init the cipher with aad before encrypting!
-                    cipher.updateAAD(aad);
-                    // encrypt
-                    byte[] cipherText = cipher.doFinal(bufferedData);
-                    out.write(cipherText, 0, cipherText.length);
-                    packetRound = packetRound.add(BigInteger.ONE);
-
-                    bufferedData = new byte[packetSize];
-                    bufferedPlainTextSize = packetSize;
-                    bufferedPlainTextOffset = 0;
-
-                } catch (InvalidKeyException | InvalidAlgorithmParameterException | IllegalBlockSizeException
-                        | BadPaddingException | IOException e) {
+                    int length = packetCipher.encryptPacket(packetRound, bufferedData, 0, bufferedPlainTextOffset,
+                            cipherText, 0);
+                    out.write(cipherText, 0, length);
+                } catch (GeneralSecurityException e) {
                     throw new RuntimeException(e);
                 }
+                packetRound++;
+                bufferedPlainTextOffset = 0;
             }
 
         };
-        return toReturn;
     }
 
     /**
@@ -503,145 +395,78 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
         ByteArrayImplementation symmetricKey = (ByteArrayImplementation) privateKey;
         symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
 
-        Cipher cipher;
-
-        in.read(initialVector);
+        byte[] iv = new byte[initialVectorLength / 8];
+        if (readFully(in, iv, 0, iv.length) != iv.length)
+            throw new IllegalArgumentException("Unable to read the IV from stream");
 
-        try {
-            cipher = Cipher.getInstance(transformation);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException e1) {
-            throw new RuntimeException(e1);
-        }
         // init the key
-        SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
+        GCMPacketCipher packetCipher = new GCMPacketCipher(new SecretKeySpec(symmetricKey.getData(), "AES"),
+                iv, tagLength, transformation);
 
         return new InputStream() {
+            /** Used to read the ciphertext of a packet */
+            final byte[] cipherText = new byte[packetSize + tagLength / 8];
             /** Used to buffer the data between two read calls */
-            byte[] bufferedPlainText;
+            final byte[] bufferedPlainText = new byte[packetSize];
             /** Amount of currently buffered data */
             int bufferedPlainTextSize = 0;
-            /** Offset in the bufferedCipherText */
+            /** Offset in the bufferedPlainText */
             int bufferedPlainTextOffset = 0;
 
-            int tagLengthInBytes = tagLength / 8;
-            int cipherPacketSize = packetSize + tagLengthInBytes;
-            /**
-             * Indicates how many bytes are already read, needed for
-             * transmitting the IV
-             */
-            @SuppressWarnings("unused")
-            int byteOffset = 0;
             /** The packet round */
-            BigInteger packetRound = BigInteger.valueOf(0);
-            /** InitalVector as BigInteger */
-            BigInteger initV = new BigInteger(initialVector);
+            long packetRound = 0;
 
             @Override
             public int read() throws IOException {
-
-                // the iv was read
-                if (bufferedPlainTextOffset == bufferedPlainTextSize) {
-                    int read = bufferPacket();
-                    if (read == -1) {
-                        // the underlying stream didnt give us any data
-                        return -1;
-                    }
+                if (bufferedPlainTextOffset == bufferedPlainTextSize && bufferPacket() == -1) {
+                    // the underlying stream didnt give us any data
+                    return -1;
                 }
-
-                // we have data now
-                byte toReturn = bufferedPlainText[bufferedPlainTextOffset];
-                bufferedPlainTextOffset++;
-                //byteOffset++;
                 // cast it to an unsigned int
-                return Byte.toUnsignedInt(toReturn);
+                return Byte.toUnsignedInt(bufferedPlainText[bufferedPlainTextOffset++]);
             }
 
             /**
-             * Writes a new packet in the bufferedCipherText.
+             * Decrypts a new packet into the bufferedPlainText.
              *
-             * @return the length of the ciphertext or -1 if the plaintext
+             * @return the length of the plaintext or -1 if the ciphertext
              *         inputstream could not provide any data
              */
-            public int bufferPacket() {
+            private int bufferPacket() throws IOException {
+                // read a full packet unless the ciphertext ends before
+                int read = readFully(in, cipherText, 0, cipherText.length);
+                if (read == 0) {
+                    // we couldn't read any ciphertext data
+                    return -1;
+                }
                 try {
-                    // we don't have any buffered data
-                    // start an encryption run
-                    byte[] cipherText = new byte[cipherPacketSize];
-                    int read = in.read(cipherText);
-                    if (read == -1) {
-                        // we couldn't read any plaintext data
-                        return -1;
-                    }
-                    // 16.09 mirkoj : we dont want the packet to be filled
-                    // up with 0's
-                    if (read != packetSize) {
-                        byte[] tempPlaintext = new byte[cipherPacketSize];
-                        System.arraycopy(cipherText, 0, tempPlaintext, 0, read);
-                        cipherText = new byte[read];
-                        System.arraycopy(tempPlaintext, 0, cipherText, 0, read);
-                    }
-                    BigInteger initV_i = initV.add(packetRound);
-                    // iv_i = iv + i
-                    byte[] initialVector_i = initV_i.toByteArray();
-                    // GCM iv
-                    GCMParameterSpec gcmSpec = new GCMParameterSpec(tagLength, initialVector_i);
-                    // reinit the cipher
-                    cipher.init(Cipher.DECRYPT_MODE, keySpec, gcmSpec);
-                    // calculate the additional authenticated data
-                    byte[] packetRoundBytes = packetRound.toByteArray();
-                    byte[] aad = new byte[initialVector.length + packetRoundBytes.length];
-                    System.arraycopy(initialVector, 0, aad, 0, initialVector.length);
-                    System.arraycopy(packetRoundBytes, 0, aad, initialVector.length, packetRoundBytes.length);
-                    // init the cipher with aad before encrypting!
-                    cipher.updateAAD(aad);
-                    // encrypt
-                    bufferedPlainText = cipher.doFinal(cipherText);
-                    bufferedPlainTextSize = bufferedPlainText.length;
-                    bufferedPlainTextOffset = 0;
-                    packetRound = packetRound.add(BigInteger.ONE);
-                    return bufferedPlainTextSize;
-                } catch (IOException | InvalidKeyException | InvalidAlgorithmParameterException
-                        | IllegalBlockSizeException | BadPaddingException e) {
+                    bufferedPlainTextSize =
+                            packetCipher.decryptPacket(packetRound, cipherText, 0, read, bufferedPlainText, 0);
+                } catch (GeneralSecurityException e) {
                     throw new RuntimeException(e);
                 }
-
+                bufferedPlainTextOffset = 0;
+                packetRound++;
+                return bufferedPlainTextSize;
             }
 
             @Override
             public int read(byte[] b, int off, int len) throws IOException {
-
-                // the IV was written
-                int remainingBytes = bufferedPlainTextSize - bufferedPlainTextOffset;
-                if (remainingBytes < len) {
-                    // we got not enough buffered bytes
-                    if (remainingBytes > 0) {
-                        // write the rest of the buffer
-                        System.arraycopy(bufferedPlainText, bufferedPlainTextOffset, b, off, remainingBytes);
-                        // 04.11.2016 mirkoj causes an integer overflow
-                        // byteOffset = byteOffset + remainingBytes;
-                        bufferedPlainTextOffset = bufferedPlainTextOffset + remainingBytes;
-                    }
-                    // encrypt a new package
-                    int read = bufferPacket();
-                    if (remainingBytes == 0 && read == -1) {
-                        // no data available and we didnt write anything
-                        return -1;
-                    }
-                    if (read == -1) {
-                        // no new data available but we wrote something
-                        return remainingBytes;
+                if (len == 0) {
+                    return 0;
+                }
+                int written = 0;
+                while (written < len) {
+                    if (bufferedPlainTextOffset == bufferedPlainTextSize && bufferPacket() == -1) {
+                        // no new data available
+                        break;
                     }
-                    return remainingBytes + read(b, off + remainingBytes, len - remainingBytes);
-
-                } else {
-                    // got enough buffered bytes
-                    System.arraycopy(bufferedPlainText, bufferedPlainTextOffset, b, off, len);
-                    // 04.11.2016 mirkoj causes an integer overflow
-                    // byteOffset = byteOffset + len;
-                    bufferedPlainTextOffset = bufferedPlainTextOffset + len;
-                    return len;
+                    int amount = Math.min(bufferedPlainTextSize - bufferedPlainTextOffset, len - written);
+                    System.arraycopy(bufferedPlainText, bufferedPlainTextOffset, b, off + written, amount);
+                    bufferedPlainTextOffset += amount;
+                    written += amount;
                 }
-
+                return written == 0 ? -1 : written;
             }
 
             @Override
@@ -676,129 +501,66 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
         symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
 
         SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
-        Cipher cipher;
-        try {
-            cipher = Cipher.getInstance(transformation);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException e1) {
-            throw new RuntimeException(e1);
-        }
 
         return new OutputStream() {
-            /** Describes how many bytes have been written */
+            /** Describes how many bytes of the IV have been written */
             int byteOffset = 0;
 
-            final int ivLengthInBytes = initialVector.length;
-            final int tagLengthInBytes = tagLength / 8;
-            final int cipherPacketSize = packetSize + tagLengthInBytes;
+            final int ivLengthInBytes = initialVectorLength / 8;
+            /** The IV of the ciphertext, received from the first bytes written */
+            final byte[] iv = new byte[ivLengthInBytes];
+            final int cipherPacketSize = packetSize + tagLength / 8;
 
             /** Specifies at which position in the buffer we are */
             int bufferedDataOffset = 0;
-            byte[] bufferedData = new byte[cipherPacketSize];
+            final byte[] bufferedData = new byte[cipherPacketSize];
+            final byte[] plainText = new byte[packetSize];
+            final byte[] singleByte = new byte[1];
 
-            BigInteger packetRound = BigInteger.valueOf(0);
-            BigInteger initV;
+            long packetRound = 0;
+            GCMPacketCipher packetCipher;
 
             @Override
             public void write(int b) throws IOException {
-                // receiving the IV
-                if (byteOffset < ivLengthInBytes) {
-                    initialVector[byteOffset] = (byte) b;
-                    // received the last byte of the iv
-                    if (byteOffset == ivLengthInBytes - 1) {
-                        initV = new BigInteger(initialVector);
-                    }
-                    // 04.11.2016 mirkoj needed since the counter down below is
-                    // disabled
-                    byteOffset++;
-                } else {
-                    bufferedData[bufferedDataOffset] = (byte) b;
-                    bufferedDataOffset++;
-
-                    if (bufferedDataOffset == cipherPacketSize) {
-                        writePacket();
-                    }
-
-                }
-                // count the received bytes
-                // 04.11.2016 mirkoj causes an integer overflow
-                // byteOffset++;
+                singleByte[0] = (byte) b;
+                write(singleByte, 0, 1);
             }
 
-            private void writePacket() {
-                BigInteger initV_i = initV.add(packetRound);
-                // iv_i = iv + i
-                byte[] initialVector_i = initV_i.toByteArray();
-                // GCM iv
-                GCMParameterSpec gcmSpec = new GCMParameterSpec(tagLength, initialVector_i);
-                // reinit the cipher
+            private void writePacket() throws IOException {
                 try {
-                    cipher.init(Cipher.DECRYPT_MODE, keySpec, gcmSpec);
-                    // 16.09 mirkoj: We dont want to encrypt a full package
-                    // here!
-                    if (bufferedData.length != bufferedDataOffset) {
-                        byte[] tempCiphertext = new byte[bufferedDataOffset];
-                        System.arraycopy(bufferedData, 0, tempCiphertext, 0, bufferedDataOffset);
-                        bufferedData = new byte[bufferedDataOffset];
-                        System.arraycopy(tempCiphertext, 0, bufferedData, 0, bufferedDataOffset);
-                    }
-                    // calculate the additional authenticated data
-                    byte[] packetRoundBytes = packetRound.toByteArray();
-                    byte[] aad = new byte[initialVector.length + packetRoundBytes.length];
-                    System.arraycopy(initialVector, 0, aad, 0, initialVector.length);
-                    System.arraycopy(packetRoundBytes, 0, aad, initialVector.length, packetRoundBytes.length);
-                    // init the cipher with aad before encrypting!
-                    cipher.updateAAD(aad);
-                    // encrypt
-                    byte[] plainText = cipher.doFinal(bufferedData);
-                    out.write(plainText, 0, bufferedDataOffset - tagLengthInBytes);
-
-                    bufferedData = new byte[cipherPacketSize];
-                    packetRound = packetRound.add(BigInteger.ONE);
-                } catch (InvalidKeyException | InvalidAlgorithmParameterException | IllegalBlockSizeException
-                        | BadPaddingException | IOException e) {
+                    int length = packetCipher.decryptPacket(packetRound, bufferedData, 0, bufferedDataOffset,
+                            plainText, 0);
+                    out.write(plainText, 0, length);
+                } catch (GeneralSecurityException e) {
                     throw new RuntimeException(e);
                 }
+                packetRound++;
                 bufferedDataOffset = 0;
             }
 
             @Override
             public void write(byte[] b, int off, int len) throws IOException {
-
-                if (byteOffset < ivLengthInBytes) {
-                    int remainingIVBytes = ivLengthInBytes - byteOffset;
-                    if (remainingIVBytes < len) {
-                        for (int i = off; i < off + remainingIVBytes; i++) {
-                            write(b[i]);
+                while (len > 0) {
+                    int amount;
+                    if (byteOffset < ivLengthInBytes) {
+                        // receiving the IV
+                        amount = Math.min(ivLengthInBytes - byteOffset, len);
+                        System.arraycopy(b, off, iv, byteOffset, amount);
+                        byteOffset += amount;
+                        if (byteOffset == ivLengthInBytes) {
+                            // received the last byte of the iv
+                            packetCipher = new GCMPacketCipher(keySpec, iv, tagLength, transformation);
                         }
-                        write(b, off + remainingIVBytes, len - remainingIVBytes);
                     } else {
-                        for (int i = off; i < off + len; i++) {
-                            write(b[i]);
+                        amount = Math.min(cipherPacketSize - bufferedDataOffset, len);
+                        System.arraycopy(b, off, bufferedData, bufferedDataOffset, amount);
+                        bufferedDataOffset += amount;
+                        if (bufferedDataOffset == cipherPacketSize) {
+                            writePacket();
                         }
                     }
-
-                } else {
-                    int freeData = bufferedData.length - bufferedDataOffset;
-                    // more data remaining than needed
-                    if (len < freeData) {
-                        // we won't need another packet
-                        if (len > 0)
-                            System.arraycopy(b, off, bufferedData, bufferedDataOffset, len);
-                        // 04.11.2016 mirkoj this causes the byteOffset Integer
-                        // overflow
-                        // byteOffset = byteOffset + len;
-                        bufferedDataOffset = bufferedDataOffset + (len);
-                    } else {
-                        // write the remaining data in the buffer
-                        System.arraycopy(b, off, bufferedData, bufferedDataOffset, freeData);
-                        bufferedDataOffset = bufferedDataOffset + freeData;
-                        // 04.11.2016 mirkoj this causes the byteOffset integer
-                        // overflow
-                        // byteOffset = byteOffset + freeData;
-                        writePacket();
-                        write(b, off + freeData, len - freeData);
-                    }
-
+                    off += amount;
+                    len -= amount;
                 }
             }
 
@@ -827,8 +589,374 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
 
     }
 
-    private void createRandomIV() {
-        initialVector = RandomGenerator.getRandomBytes(initialVectorLength / 8);
+    /**
+     * Returns an {@link OutputStream} that encrypts any bytes written to it like
+     * {@link #createEncryptor(OutputStream, EncryptionKey)}, but encrypts the packets in parallel on the given
+     * executor.
+     * <p>
+     * Since each packet is encrypted with its own IV, packets do not depend on each other. The encrypted packets
+     * are written to <code>out</code> in order, so the ciphertext is the same as the one of the sequential stream
+     * for the same IV. At most <code>maxInFlightPackets</code> packets are buffered at the same time; writing
+     * blocks until the oldest packet has been written if this limit is reached.
+     * <p>
+     * {@link OutputStream#flush()} will encrypt the currently buffered data as a packet and wait for all packets to
+     * be written.
+     *
+     * @param out                the stream to write the ciphertext to
+     * @param publicKey          the key to encrypt with
+     * @param executor           the executor to encrypt the packets on
+     * @param maxInFlightPackets the maximal number of packets buffered at the same time
+     * @return a stream that encrypts any input and writes the ciphertext to out
+     */
+    public OutputStream createParallelEncryptor(OutputStream out, EncryptionKey publicKey, ExecutorService executor,
+                                                int maxInFlightPackets) throws IOException {
+        if (!(publicKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Not a valid symmetric key for this scheme");
+        ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
+        symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
+
+        return createParallelEncryptor(out, symmetricKey, createRandomIV(), executor, maxInFlightPackets);
+    }
+
+    /**
+     * Returns an {@link OutputStream} that encrypts any bytes written to it in parallel using the given initial
+     * vector.
+     */
+    ParallelPacketOutputStream createParallelEncryptor(OutputStream out, ByteArrayImplementation symmetricKey,
+                                                       byte[] iv, ExecutorService executor,
+                                                       int maxInFlightPackets) throws IOException {
+        out.write(iv, 0, iv.length);
+        SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
+        return new ParallelPacketOutputStream(out, packetSize, 0,
+                header -> new GCMPacketCipher(keySpec, iv, tagLength, transformation)::encryptPacket,
+                executor, maxInFlightPackets);
+    }
+
+    /**
+     * Returns an {@link OutputStream} that decrypts any bytes written to it like
+     * {@link #createDecryptor(OutputStream, DecryptionKey)}, but decrypts the packets in parallel on the given
+     * executor.
+     * <p>
+     * The decrypted packets are written to <code>out</code> in order. Like for the sequential stream, a packet is
+     * only written after it has been verified. At most <code>maxInFlightPackets</code> packets are buffered at the
+     * same time; writing blocks until the oldest packet has been written if this limit is reached.
+     *
+     * @param out                the stream to write the plaintext to
+     * @param privateKey         the key to decrypt with
+     * @param executor           the executor to decrypt the packets on
+     * @param maxInFlightPackets the maximal number of packets buffered at the same time
+     * @return a stream that decrypts any input and writes the plaintext to out
+     */
+    public OutputStream createParallelDecryptor(OutputStream out, DecryptionKey privateKey, ExecutorService executor,
+                                                int maxInFlightPackets) {
+        return createParallelDecryptorStream(out, privateKey, executor, maxInFlightPackets);
+    }
+
+    private ParallelPacketOutputStream createParallelDecryptorStream(OutputStream out, DecryptionKey privateKey,
+                                                                     ExecutorService executor,
+                                                                     int maxInFlightPackets) {
+        if (!(privateKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Not a valid symmetric key for this scheme");
+        ByteArrayImplementation symmetricKey = (ByteArrayImplementation) privateKey;
+        symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
+        SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
+
+        return new ParallelPacketOutputStream(out, packetSize + tagLength / 8, initialVectorLength / 8,
+                iv -> new GCMPacketCipher(keySpec, iv, tagLength, transformation)::decryptPacket,
+                executor, maxInFlightPackets);
+    }
+
+    /**
+     * Reads and encrypts the bytes from <code>plainTextIn</code> and writes the ciphertext to
+     * <code>cipherTextOut</code>, encrypting the packets in parallel on the given executor.
+     * The ciphertext can be decrypted by all decryption methods of this scheme.
+     *
+     * @param plainTextIn        the stream to read the plaintext from
+     * @param cipherTextOut      the stream to write the ciphertext to
+     * @param publicKey          the key to encrypt with
+     * @param executor           the executor to encrypt the packets on
+     * @param maxInFlightPackets the maximal number of packets buffered at the same time
+     * @throws IOException if any of the streams throw an exception while reading/writing bytes
+     * @see #createParallelEncryptor(OutputStream, EncryptionKey, ExecutorService, int)
+     */
+    public void encryptParallel(InputStream plainTextIn, OutputStream cipherTextOut, EncryptionKey publicKey,
+                                ExecutorService executor, int maxInFlightPackets) throws IOException {
+        if (!(publicKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Not a valid symmetric key for this scheme");
+        ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
+        symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
+
+        ParallelPacketOutputStream encryptor =
+                createParallelEncryptor(cipherTextOut, symmetricKey, createRandomIV(), executor, maxInFlightPackets);
+        StreamUtil.copy(plainTextIn, encryptor, packetSize);
+        encryptor.finish();
+    }
+
+    /**
+     * Reads and decrypts a ciphertext from <code>cipherTextIn</code> and writes the resulting plaintext to
+     * <code>plainTextOut</code>, decrypting the packets in parallel on the given executor.
+     *
+     * @param cipherTextIn       the stream to read the ciphertext from
+     * @param plainTextOut       the stream to write the plaintext to
+     * @param privateKey         the key to decrypt with
+     * @param executor           the executor to decrypt the packets on
+     * @param maxInFlightPackets the maximal number of packets buffered at the same time
+     * @throws IOException if any of the streams throw an exception while reading/writing bytes
+     * @see #createParallelDecryptor(OutputStream, DecryptionKey, ExecutorService, int)
+     */
+    public void decryptParallel(InputStream cipherTextIn, OutputStream plainTextOut, DecryptionKey privateKey,
+                                ExecutorService executor, int maxInFlightPackets) throws IOException {
+        ParallelPacketOutputStream decryptor =
+                createParallelDecryptorStream(plainTextOut, privateKey, executor, maxInFlightPackets);
+        StreamUtil.copy(cipherTextIn, decryptor, packetSize + tagLength / 8);
+        decryptor.finish();
+    }
+
+    /**
+     * Returns the length of the ciphertext of a plaintext with the given length.
+     *
+     * @param plainTextLength the length of the plaintext in bytes
+     * @return the length of the ciphertext in bytes
+     */
+    public long getCipherTextLength(long plainTextLength) {
+        long packets = (plainTextLength + packetSize - 1) / packetSize;
+        return initialVectorLength / 8 + plainTextLength + packets * (tagLength / 8);
+    }
+
+    /**
+     * Returns the length of the plaintext of a ciphertext with the given length.
+     *
+     * @param cipherTextLength the length of the ciphertext in bytes
+     * @return the length of the plaintext in bytes
+     * @throws IllegalArgumentException if no ciphertext of this scheme has the given length
+     */
+    public long getPlainTextLength(long cipherTextLength) {
+        int tagLengthInBytes = tagLength / 8;
+        long packetBytes = cipherTextLength - initialVectorLength / 8;
+        long lastPacketSize = packetBytes % (packetSize + tagLengthInBytes);
+        if (packetBytes < 0 || (lastPacketSize != 0 && lastPacketSize < tagLengthInBytes))
+            throw new IllegalArgumentException("Not a valid cipher text for this scheme");
+        return packetBytes / (packetSize + tagLengthInBytes) * packetSize
+                + (lastPacketSize == 0 ? 0 : lastPacketSize - tagLengthInBytes);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Memory-maps <code>plainTextIn</code> in chunks of whole packets and
+     * encrypts each packet via {@link javax.crypto.Cipher#doFinal(ByteBuffer, ByteBuffer)}.
+     * The ciphertext is the same as the one written by the stream based methods.
+     */
+    @Override
+    public void encrypt(FileChannel plainTextIn, FileChannel cipherTextOut, EncryptionKey publicKey)
+            throws IOException {
+        if (!(publicKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Not a valid symmetric key for this scheme");
+        ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
+        symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
+
+        byte[] iv = createRandomIV();
+        ChannelUtil.writeFully(cipherTextOut, ByteBuffer.wrap(iv));
+        GCMPacketCipher packetCipher = new GCMPacketCipher(new SecretKeySpec(symmetricKey.getData(), "AES"),
+                iv, tagLength, transformation);
+        transformPackets(packetCipher, true, plainTextIn, cipherTextOut);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Memory-maps <code>cipherTextIn</code> in chunks of whole packets and
+     * decrypts each packet via {@link javax.crypto.Cipher#doFinal(ByteBuffer, ByteBuffer)}.
+     */
+    @Override
+    public void decrypt(FileChannel cipherTextIn, FileChannel plainTextOut, DecryptionKey privateKey)
+            throws IOException {
+        if (!(privateKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Not a valid symmetric key for this scheme");
+        ByteArrayImplementation symmetricKey = (ByteArrayImplementation) privateKey;
+        symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
+
+        byte[] iv = new byte[initialVectorLength / 8];
+        if (ChannelUtil.readFully(cipherTextIn, ByteBuffer.wrap(iv)) != iv.length)
+            throw new IllegalArgumentException("Unable to read the IV from the channel");
+        GCMPacketCipher packetCipher = new GCMPacketCipher(new SecretKeySpec(symmetricKey.getData(), "AES"),
+                iv, tagLength, transformation);
+        transformPackets(packetCipher, false, cipherTextIn, plainTextOut);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Encrypts each packet via {@link javax.crypto.Cipher#doFinal(ByteBuffer, ByteBuffer)}.
+     * <code>cipherText</code> needs to have {@link #getCipherTextLength(long)} bytes remaining.
+     */
+    @Override
+    public void encrypt(ByteBuffer plainText, ByteBuffer cipherText, EncryptionKey publicKey) {
+        if (!(publicKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Not a valid symmetric key for this scheme");
+        ByteArrayImplementation symmetricKey = (ByteArrayImplementation) publicKey;
+        symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
+        if (cipherText.remaining() < getCipherTextLength(plainText.remaining()))
+            throw new BufferOverflowException();
+
+        byte[] iv = createRandomIV();
+        cipherText.put(iv);
+        GCMPacketCipher packetCipher = new GCMPacketCipher(new SecretKeySpec(symmetricKey.getData(), "AES"),
+                iv, tagLength, transformation);
+        transformPackets(packetCipher, true, 0, plainText, cipherText);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Decrypts each packet via {@link javax.crypto.Cipher#doFinal(ByteBuffer, ByteBuffer)}.
+     * <code>plainText</code> needs to have {@link #getPlainTextLength(long)} bytes remaining.
+     */
+    @Override
+    public void decrypt(ByteBuffer cipherText, ByteBuffer plainText, DecryptionKey privateKey) {
+        if (!(privateKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Not a valid symmetric key for this scheme");
+        ByteArrayImplementation symmetricKey = (ByteArrayImplementation) privateKey;
+        symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
+        if (plainText.remaining() < getPlainTextLength(cipherText.remaining()))
+            throw new BufferOverflowException();
+
+        byte[] iv = new byte[initialVectorLength / 8];
+        cipherText.get(iv);
+        GCMPacketCipher packetCipher = new GCMPacketCipher(new SecretKeySpec(symmetricKey.getData(), "AES"),
+                iv, tagLength, transformation);
+        transformPackets(packetCipher, false, 0, cipherText, plainText);
+    }
+
+    /**
+     * Encrypts or decrypts the bytes of <code>in</code> from its current position to its end packet by packet and
+     * writes the result to <code>out</code>. The input is memory-mapped in chunks of whole packets.
+     */
+    private void transformPackets(GCMPacketCipher packetCipher, boolean encrypt, FileChannel in, FileChannel out)
+            throws IOException {
+        int inputPacketSize = encrypt ? packetSize : packetSize + tagLength / 8;
+        int outputPacketSize = encrypt ? packetSize + tagLength / 8 : packetSize;
+        int packetsPerChunk = Math.max(1, ChannelUtil.MAPPED_CHUNK_SIZE / inputPacketSize);
+        ByteBuffer output = ByteBuffer.allocateDirect(packetsPerChunk * outputPacketSize);
+
+        long position = in.position();
+        long size = in.size();
+        long packetIndex = 0;
+        while (position < size) {
+            int length = (int) Math.min((long) packetsPerChunk * inputPacketSize, size - position);
+            packetIndex = transformPackets(packetCipher, encrypt, packetIndex, ChannelUtil.map(in, position, length),
+                    output);
+            output.flip();
+            ChannelUtil.writeFully(out, output);
+            output.clear();
+            position += length;
+        }
+        in.position(position);
+    }
+
+    /**
+     * Encrypts or decrypts the remaining bytes of <code>input</code> packet by packet, starting with packet
+     * <code>packetIndex</code>, and puts the result into <code>output</code>.
+     *
+     * @return the index of the packet following the last transformed packet
+     */
+    private long transformPackets(GCMPacketCipher packetCipher, boolean encrypt, long packetIndex,
+                                  ByteBuffer input, ByteBuffer output) {
+        int inputPacketSize = encrypt ? packetSize : packetSize + tagLength / 8;
+        int limit = input.limit();
+        try {
+            while (input.hasRemaining()) {
+                input.limit(input.position() + Math.min(inputPacketSize, limit - input.position()));
+                if (encrypt) {
+                    packetCipher.encryptPacket(packetIndex, input, output);
+                } else {
+                    packetCipher.decryptPacket(packetIndex, input, output);
+                }
+                input.limit(limit);
+                packetIndex++;
+            }
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        } finally {
+            input.limit(limit);
+        }
+        return packetIndex;
+    }
+
+    /**
+     * Returns a read-only {@link SeekableByteChannel} over the plaintext of the ciphertext in the given channel.
+     * <p>
+     * Since each packet is authenticated on its own, any position of the plaintext can be read by only reading and
+     * decrypting the packets covering it. The returned channel reads the IV on creation and decrypts packets on
+     * demand; reading a packet that is not authentic throws a {@link RuntimeException}.
+     * {@link SeekableByteChannel#size()} returns the plaintext length derived from the ciphertext length.
+     * <p>
+     * Note that, as for the sequential decryption, a ciphertext truncated at a packet boundary cannot be detected.
+     * <p>
+     * The returned channel moves the position of <code>cipherText</code> and closes it when it is closed.
+     *
+     * @param cipherText the channel containing the ciphertext
+     * @param privateKey the key to decrypt with
+     * @return a channel containing the plaintext
+     * @throws IOException if reading the IV from <code>cipherText</code> fails
+     */
+    public SeekableByteChannel createSeekableDecryptor(SeekableByteChannel cipherText, DecryptionKey privateKey)
+            throws IOException {
+        if (!(privateKey instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Not a valid symmetric key for this scheme");
+        ByteArrayImplementation symmetricKey = (ByteArrayImplementation) privateKey;
+        symmetricKey = AbstractStreamingSymmetricScheme.updateKeyToLength(symmetricKey, symmetricKeyLength);
+        SecretKeySpec keySpec = new SecretKeySpec(symmetricKey.getData(), "AES");
+
+        return new SeekableDecryptingChannel(cipherText, packetSize, tagLength, initialVectorLength,
+                iv -> new GCMPacketCipher(keySpec, iv, tagLength, transformation));
+    }
+
+    /**
+     * Decrypts the plaintext bytes in the range [<code>offset</code>, <code>offset + length</code>) of the
+     * ciphertext in the given channel, only decrypting the packets covering this range.
+     *
+     * @param cipherText the channel containing the ciphertext
+     * @param offset     the position of the first plaintext byte to decrypt
+     * @param length     the number of plaintext bytes to decrypt
+     * @param privateKey the key to decrypt with
+     * @return the decrypted bytes; shorter than <code>length</code> if the plaintext ends before the end of the range
+     * @throws IOException if reading from <code>cipherText</code> fails
+     * @see #createSeekableDecryptor(SeekableByteChannel, DecryptionKey)
+     */
+    public byte[] decryptRange(SeekableByteChannel cipherText, long offset, int length, DecryptionKey privateKey)
+            throws IOException {
+        SeekableByteChannel plainText = createSeekableDecryptor(cipherText, privateKey);
+        ByteBuffer range = ByteBuffer.allocate((int) Math.max(0, Math.min(length, plainText.size() - offset)));
+        plainText.position(offset);
+        while (range.hasRemaining()) {
+            if (plainText.read(range) == -1)
+                break;
+        }
+        return range.array();
+    }
+
+    /**
+     * Reads from <code>in</code> until <code>len</code> bytes have been read or the stream ended.
+     *
+     * @return the number of bytes read
+     */
+    private static int readFully(InputStream in, byte[] b, int off, int len) throws IOException {
+        int read = 0;
+        while (read < len) {
+            int amount = in.read(b, off + read, len - read);
+            if (amount == -1)
+                break;
+            read += amount;
+        }
+        return read;
+    }
+
+    /**
+     * Returns a new random IV. IVs are never stored in this scheme, so concurrent operations do not interfere.
+     */
+    private byte[] createRandomIV() {
+        return RandomGenerator.getRandomBytes(initialVectorLength / 8);
     }
 
     /**
@@ -845,7 +973,6 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + Arrays.hashCode(initialVector);
         result = prime * result + initialVectorLength;
         result = prime * result + packetSize;
         result = prime * result + symmetricKeyLength;
@@ -863,8 +990,6 @@ public class StreamingGCMAESPacketMode implements StreamingEncryptionScheme {
         if (getClass() != obj.getClass())
             return false;
         StreamingGCMAESPacketMode other = (StreamingGCMAESPacketMode) obj;
-        if (!Arrays.equals(initialVector, other.initialVector))
-            return false;
         if (initialVectorLength != other.initialVectorLength)
             return false;
         if (packetSize != other.packetSize)
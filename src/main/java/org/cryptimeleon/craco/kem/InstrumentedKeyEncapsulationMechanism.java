@@ -0,0 +1,78 @@
+package org.cryptimeleon.craco.kem;
+
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
+import org.cryptimeleon.craco.enc.CipherText;
+import org.cryptimeleon.craco.enc.DecryptionKey;
+import org.cryptimeleon.craco.enc.EncryptionKey;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.serialization.annotations.ReprUtil;
+import org.cryptimeleon.math.serialization.annotations.Represented;
+
+/**
+ * Wraps a {@link KeyEncapsulationMechanism} and records metrics for {@code encaps} and {@code decaps}.
+ * <p>
+ * The representation contains the wrapped KEM. As the registry cannot be represented, a restored instance
+ * reports to {@link OperationMetricsRegistry#getDefault()}.
+ *
+ * @see KeyEncapsulationMechanism#instrument(KeyEncapsulationMechanism, OperationMetricsRegistry)
+ */
+public class InstrumentedKeyEncapsulationMechanism<T> implements KeyEncapsulationMechanism<T> {
+    @Represented
+    private KeyEncapsulationMechanism<T> kem;
+
+    private OperationMetricsRegistry registry;
+
+    InstrumentedKeyEncapsulationMechanism(KeyEncapsulationMechanism<T> kem, OperationMetricsRegistry registry) {
+        this.kem = kem;
+        this.registry = registry;
+    }
+
+    public InstrumentedKeyEncapsulationMechanism(Representation repr) {
+        new ReprUtil(this).deserialize(repr);
+        registry = OperationMetricsRegistry.getDefault();
+    }
+
+    @Override
+    public KeyAndCiphertext<T> encaps(EncryptionKey pk) {
+        return registry.measure(kem, "encaps", () -> kem.encaps(pk), OperationMetricsRegistry::computeSync);
+    }
+
+    @Override
+    public T decaps(CipherText encapsulatedKey, DecryptionKey sk) throws IllegalArgumentException {
+        return registry.measure(kem, "decaps", () -> kem.decaps(encapsulatedKey, sk),
+                OperationMetricsRegistry::computeSync);
+    }
+
+    @Override
+    public CipherText restoreEncapsulatedKey(Representation repr) {
+        return kem.restoreEncapsulatedKey(repr);
+    }
+
+    @Override
+    public EncryptionKey restoreEncapsulationKey(Representation repr) {
+        return kem.restoreEncapsulationKey(repr);
+    }
+
+    @Override
+    public DecryptionKey restoreDecapsulationKey(Representation repr) {
+        return kem.restoreDecapsulationKey(repr);
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        return ReprUtil.serialize(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InstrumentedKeyEncapsulationMechanism<?> that = (InstrumentedKeyEncapsulationMechanism<?>) o;
+        return kem.equals(that.kem);
+    }
+
+    @Override
+    public int hashCode() {
+        return kem.hashCode();
+    }
+}
@@ -1,5 +1,6 @@
 package org.cryptimeleon.craco.kem;
 
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
 import org.cryptimeleon.craco.enc.CipherText;
 import org.cryptimeleon.craco.enc.DecryptionKey;
 import org.cryptimeleon.craco.enc.EncryptionKey;
@@ -30,6 +31,23 @@ import java.lang.reflect.Type;
  * @param <T> type of the encapsulated key
  */
 public interface KeyEncapsulationMechanism<T> extends StandaloneRepresentable, RepresentationRestorer {
+    /**
+     * Wraps the given KEM such that metrics of each call to {@code encaps} and {@code decaps} are recorded
+     * by the given registry.
+     * <p>
+     * The returned KEM only implements {@code KeyEncapsulationMechanism}, even if {@code kem} implements
+     * sub-interfaces. It is restored from its representation with {@link OperationMetricsRegistry#getDefault()}.
+     *
+     * @param kem      the KEM to instrument
+     * @param registry the registry to report to
+     * @param <T>      the type of encapsulated keys
+     * @return the instrumented KEM
+     */
+    static <T> KeyEncapsulationMechanism<T> instrument(KeyEncapsulationMechanism<T> kem,
+                                                       OperationMetricsRegistry registry) {
+        return new InstrumentedKeyEncapsulationMechanism<>(kem, registry);
+    }
+
     class KeyAndCiphertext<T> {
         public T key;
         public CipherText encapsulatedKey;
@@ -1,29 +1,91 @@
 package org.cryptimeleon.craco.kem;
 
+import org.cryptimeleon.craco.common.ByteArrayImplementation;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.common.utils.StreamUtil;
 import org.cryptimeleon.craco.enc.*;
+import org.cryptimeleon.math.hash.impl.SHA256HashFunction;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
 import org.cryptimeleon.math.serialization.annotations.Represented;
+import org.cryptimeleon.math.serialization.converter.BinaryFormatConverter;
 import org.cryptimeleon.math.serialization.converter.JSONConverter;
 
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 /**
  * Class that supports streaming encryption using a KEM to encapsulate a
  * symmetric key.
+ * <p>
+ * Streamed ciphertexts consist of a header followed by the ciphertext of the symmetric scheme.
+ * The header is framed as
+ * <pre>
+ * magic (4 bytes) || version (1 byte) || scheme id (4 bytes) || length (4 bytes) || encapsulated key
+ * </pre>
+ * where the encapsulated key is serialized using the {@link BinaryFormatConverter}.
+ * Decryption also accepts the previous format, which only consists of the length and the JSON serialized
+ * encapsulated key.
+ * <p>
+ * A payload can also be encrypted for many recipients at once via
+ * {@link #encrypt(InputStream, Collection, ExecutorService)}. Then the payload is encrypted only once under a data
+ * key, which is encapsulated for each recipient in a table at the start of the ciphertext.
  */
 public class StreamingHybridEncryptionScheme implements StreamingEncryptionScheme {
 
+    /**
+     * Magic number at the start of each streamed ciphertext ("CRHY").
+     */
+    static final int MAGIC = 0x43524859;
+
+    /**
+     * Version of the header format.
+     */
+    static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Magic number at the start of each streamed multi-recipient ciphertext ("CRHM").
+     */
+    static final int MULTI_RECIPIENT_MAGIC = 0x4352484D;
+
+    private static final int PREFIX_LENGTH = 4;
+
+    private static final int HEADER_LENGTH = PREFIX_LENGTH + 1 + 4 + 4;
+
+    /**
+     * Upper bound on the length of encapsulated keys, which protects against allocating huge buffers when reading
+     * malformed ciphertexts.
+     */
+    private static final int MAX_ENCAPSULATED_KEY_LENGTH = 1 << 24;
+
+    /**
+     * Upper bound on the number of recipients of a multi-recipient ciphertext.
+     */
+    private static final int MAX_RECIPIENTS = 1 << 20;
+
+    /**
+     * Length of an entry in the slot table of a multi-recipient ciphertext: recipient id, slot offset and length.
+     */
+    private static final int SLOT_ENTRY_LENGTH = 8 + 4 + 4;
+
     @Represented
     private StreamingEncryptionScheme symmetricScheme;
 
     @Represented
     private KeyEncapsulationMechanism<SymmetricKey> kem;
 
+    /**
+     * Lazily computed result of {@link #getSchemeId()}; {@code null} if not computed yet.
+     */
+    private Integer schemeId;
+
     public static class HybridCipherText implements CipherText {
 
         @Represented(restorer = "Scheme")
@@ -102,18 +164,9 @@ public class StreamingHybridEncryptionScheme implements StreamingEncryptionSchem
         //Generate symmetric key and encapsulate it
         KeyEncapsulationMechanism.KeyAndCiphertext<SymmetricKey> keyAndCiphertext = kem.encaps(publicKey);
 
-        //Serialize the encapsulated key
-        byte[] encapsulatedKey = new JSONConverter().serialize(keyAndCiphertext.encapsulatedKey.getRepresentation())
-                .getBytes(StandardCharsets.UTF_8);
-
-        //Prepare the encapsulated key length as the first four bytes of the ciphertext. That ought to be enough for
-        // everybody.
-        byte[] keyLenBytes = ByteBuffer.allocate(4).putInt(encapsulatedKey.length).array();
-
-        //Return resulting stream that concatenates: keyLenBytes || encapsulatedKey || ciphertextFromSymmetricScheme
-        return new SequenceInputStream(new ByteArrayInputStream(keyLenBytes),
-                new SequenceInputStream(new ByteArrayInputStream(encapsulatedKey),
-                        symmetricScheme.encrypt(in, keyAndCiphertext.key)));
+        //Return resulting stream that concatenates: header || ciphertextFromSymmetricScheme
+        return new SequenceInputStream(new ByteArrayInputStream(createHeader(keyAndCiphertext.encapsulatedKey)),
+                symmetricScheme.encrypt(in, keyAndCiphertext.key));
     }
 
     @Override
@@ -121,17 +174,8 @@ public class StreamingHybridEncryptionScheme implements StreamingEncryptionSchem
         //Generate symmetric key and encapsulate it
         KeyEncapsulationMechanism.KeyAndCiphertext<SymmetricKey> keyAndCiphertext = kem.encaps(publicKey);
 
-        //Serialize the encapsulated key
-        byte[] encapsulatedKey = new JSONConverter().serialize(keyAndCiphertext.encapsulatedKey.getRepresentation())
-                .getBytes(StandardCharsets.UTF_8);
-
-        //Prepare the encapsulated key length as the first four bytes of the ciphertext. That ought to be enough for
-        // everybody.
-        byte[] keyLenBytes = ByteBuffer.allocate(4).putInt(encapsulatedKey.length).array();
-
-        //Write keyLenBytes || encapsulatedKey to stream
-        out.write(keyLenBytes);
-        out.write(encapsulatedKey);
+        //Write the header to stream
+        out.write(createHeader(keyAndCiphertext.encapsulatedKey));
 
         //Return resulting stream that symmetrically encrypts any input and writes the ciphertext to out
         return symmetricScheme.createEncryptor(out, keyAndCiphertext.key);
@@ -139,33 +183,25 @@ public class StreamingHybridEncryptionScheme implements StreamingEncryptionSchem
 
     @Override
     public InputStream decrypt(InputStream in, DecryptionKey privateKey) throws IOException {
-        //Read the first four bytes to retrieve the size of the encapsulated key
-        byte[] keyLenBytes = new byte[4];
-        int triesLeft = 10;
-        for (int i = 0; i < 4; i++) {
-            while (in.read(keyLenBytes, i, 1) < 1 && --triesLeft > 0) {
-                ;
-            }
+        //Read the header, the DataInputStream does not read ahead
+        DataInputStream dataIn = new DataInputStream(in);
+        byte[] header = new byte[PREFIX_LENGTH];
+        dataIn.readFully(header);
+        int prefix = ByteBuffer.wrap(header).getInt();
+        boolean legacy = isLegacyFormat(prefix);
+        int keyLen;
+        if (legacy) {
+            keyLen = checkKeyLength(prefix);
+        } else {
+            header = Arrays.copyOf(header, HEADER_LENGTH);
+            dataIn.readFully(header, PREFIX_LENGTH, HEADER_LENGTH - PREFIX_LENGTH);
+            keyLen = checkKeyLength(checkHeader(header));
         }
-        if (triesLeft == 0)
-            throw new IOException("didn't get keylen data from ciphertext");
-        int keyLen = ByteBuffer.wrap(keyLenBytes).getInt();
-
-        //Deserialize the encapsulated key
         byte[] encapsulatedKeyBytes = new byte[keyLen];
-        triesLeft = 10;
-        for (int i = 0; i < keyLen; i++) {
-            while (in.read(encapsulatedKeyBytes, i, 1) < 1 && --triesLeft > 0) {
-                ; //TODO: don't read byte by byte...
-            }
-        }
-        if (triesLeft == 0)
-            throw new IOException("couldn't read encapulated key from ciphertext");
-        CipherText encapsulatedKey =
-                kem.restoreEncapsulatedKey(new JSONConverter().deserialize(new String(encapsulatedKeyBytes)));
+        dataIn.readFully(encapsulatedKeyBytes);
 
         //decaps the encapsulated key
-        SymmetricKey symmetricKey = kem.decaps(encapsulatedKey, privateKey);
+        SymmetricKey symmetricKey = kem.decaps(restoreEncapsulatedKey(encapsulatedKeyBytes, legacy), privateKey);
 
         //Return a stream where caller can read the decrypted payload
         return symmetricScheme.decrypt(in, symmetricKey);
@@ -174,48 +210,65 @@ public class StreamingHybridEncryptionScheme implements StreamingEncryptionSchem
     @Override
     public OutputStream createDecryptor(OutputStream out, DecryptionKey privateKey) {
         return new OutputStream() {
-            int byteOffset = 0;
-            byte[] keyLenBytes = new byte[4];
-            int keyLen = 0;
-            byte[] encapsulatedKeyBytes = null;
+            /** Buffers the header part that is currently received */
+            byte[] header = new byte[PREFIX_LENGTH];
+            int headerOffset = 0;
+            /** Whether we are receiving the prefix, the rest of the header or the encapsulated key */
+            int state = 0;
+            boolean legacy = false;
+            final byte[] singleByte = new byte[1];
             OutputStream decryptedOut = null;
 
             @Override
             public void write(int b) throws IOException {
-                if (byteOffset < 4) { //we're still getting the keyLen portion of the ciphertext
-                    keyLenBytes[byteOffset] = (byte) b;
-                    if (byteOffset == 3) {
-                        keyLen = ByteBuffer.wrap(keyLenBytes).getInt();
-                        encapsulatedKeyBytes = new byte[keyLen];
-                    }
-                } else if (byteOffset < 4 + keyLen) { //we're still getting encapsulatedKeyBytes
-                    encapsulatedKeyBytes[byteOffset - 4] = (byte) b;
-                    if (byteOffset == 4 + keyLen - 1) { //last byte of encapsulated key read
-                        CipherText encapsulatedKey = kem.restoreEncapsulatedKey(new JSONConverter()
-                                .deserialize(new String(encapsulatedKeyBytes)));
-
-                        //decaps the encapsulated key
-                        SymmetricKey symmetricKey = kem.decaps(encapsulatedKey, privateKey);
-                        decryptedOut = symmetricScheme.createDecryptor(out, symmetricKey);
-                    }
-                } else { //we're done reading the encapsulation part and are now getting the symmetric scheme's
-                    // ciphertext
-                    decryptedOut.write(b);
-                }
-
-                byteOffset++;
+                singleByte[0] = (byte) b;
+                write(singleByte, 0, 1);
             }
 
             @Override
             public void write(byte[] b, int off, int len) throws IOException {
-                if (byteOffset < 4 + keyLen)
-                    for (int i = off; i < off + len; i++) {
-                        write(b[i]);
-                    }
-                else
+                //copy the header part by part
+                while (decryptedOut == null && len > 0) {
+                    int amount = Math.min(header.length - headerOffset, len);
+                    System.arraycopy(b, off, header, headerOffset, amount);
+                    headerOffset += amount;
+                    off += amount;
+                    len -= amount;
+                    if (headerOffset == header.length)
+                        headerPartReceived();
+                }
+                //we're done reading the header and are now getting the symmetric scheme's ciphertext
+                if (len > 0)
                     decryptedOut.write(b, off, len);
             }
 
+            private void headerPartReceived() throws IOException {
+                if (state == 0) {
+                    int prefix = ByteBuffer.wrap(header).getInt();
+                    legacy = isLegacyFormat(prefix);
+                    if (legacy) {
+                        startEncapsulatedKey(checkKeyLength(prefix));
+                    } else {
+                        state = 1;
+                        header = Arrays.copyOf(header, HEADER_LENGTH);
+                    }
+                } else if (state == 1) {
+                    startEncapsulatedKey(checkKeyLength(checkHeader(header)));
+                } else {
+                    //decaps the encapsulated key
+                    SymmetricKey symmetricKey = kem.decaps(restoreEncapsulatedKey(header, legacy), privateKey);
+                    decryptedOut = symmetricScheme.createDecryptor(out, symmetricKey);
+                }
+            }
+
+            private void startEncapsulatedKey(int keyLen) throws IOException {
+                state = 2;
+                header = new byte[keyLen];
+                headerOffset = 0;
+                if (keyLen == 0)
+                    headerPartReceived();
+            }
+
             @Override
             public void write(byte[] b) throws IOException {
                 write(b, 0, b.length);
@@ -236,6 +289,350 @@ public class StreamingHybridEncryptionScheme implements StreamingEncryptionSchem
         };
     }
 
+    /**
+     * Encrypts the plaintext read from {@code in} for all of the given recipients.
+     * <p>
+     * A single symmetric data key is generated and the plaintext is encrypted only once using it.
+     * The data key is encapsulated for each recipient in a table at the start of the ciphertext; the encapsulations
+     * run in parallel on the given executor.
+     * Each recipient decrypts the result using {@link #decryptMultiRecipient(InputStream, EncryptionKey, DecryptionKey)}.
+     *
+     * @param in         the plaintext
+     * @param publicKeys the public keys of the recipients
+     * @param executor   the executor to run the encapsulations on
+     * @return a stream containing the ciphertext
+     */
+    public InputStream encrypt(InputStream in, Collection<? extends EncryptionKey> publicKeys,
+                               ExecutorService executor) throws IOException {
+        MultiRecipientHeader header = createMultiRecipientHeader(publicKeys, executor);
+
+        //Return resulting stream that concatenates: header || ciphertextFromSymmetricScheme
+        return new SequenceInputStream(new ByteArrayInputStream(header.bytes),
+                symmetricScheme.encrypt(in, header.dataKey));
+    }
+
+    /**
+     * Creates an {@link OutputStream} that encrypts everything written to it for all of the given recipients and
+     * writes the ciphertext to {@code out}.
+     *
+     * @param out        the stream to write the ciphertext to
+     * @param publicKeys the public keys of the recipients
+     * @param executor   the executor to run the encapsulations on
+     * @return the encrypting stream
+     * @see #encrypt(InputStream, Collection, ExecutorService)
+     */
+    public OutputStream createEncryptor(OutputStream out, Collection<? extends EncryptionKey> publicKeys,
+                                        ExecutorService executor) throws IOException {
+        MultiRecipientHeader header = createMultiRecipientHeader(publicKeys, executor);
+        out.write(header.bytes);
+        return symmetricScheme.createEncryptor(out, header.dataKey);
+    }
+
+    /**
+     * Encrypts the plaintext read from {@code plainTextIn} for all of the given recipients and writes the ciphertext
+     * to {@code cipherTextOut}.
+     *
+     * @see #encrypt(InputStream, Collection, ExecutorService)
+     */
+    public void encrypt(InputStream plainTextIn, OutputStream cipherTextOut,
+                        Collection<? extends EncryptionKey> publicKeys, ExecutorService executor) throws IOException {
+        try (OutputStream encryptor = createEncryptor(cipherTextOut, publicKeys, executor)) {
+            StreamUtil.copy(plainTextIn, encryptor);
+        }
+    }
+
+    /**
+     * Decrypts a ciphertext created for multiple recipients.
+     * <p>
+     * The slot of the recipient is located by a binary search in the slot table, so only a single decapsulation is
+     * done regardless of the number of recipients.
+     *
+     * @param in         the ciphertext
+     * @param publicKey  the public key of the recipient, used to locate its slot
+     * @param privateKey the private key of the recipient
+     * @return a stream containing the plaintext
+     * @throws IllegalArgumentException if the ciphertext is not a multi-recipient ciphertext of this scheme or has
+     *                                  not been encrypted for the given public key
+     */
+    public InputStream decryptMultiRecipient(InputStream in, EncryptionKey publicKey, DecryptionKey privateKey)
+            throws IOException {
+        DataInputStream dataIn = new DataInputStream(in);
+        byte[] header = new byte[HEADER_LENGTH];
+        dataIn.readFully(header);
+        if (ByteBuffer.wrap(header).getInt() != MULTI_RECIPIENT_MAGIC)
+            throw new IllegalArgumentException("Not a multi-recipient cipher text");
+        int recipients = checkHeader(header);
+        if (recipients < 1 || recipients > MAX_RECIPIENTS)
+            throw new IOException("Invalid number of recipients " + recipients);
+
+        //Read the slot table and locate the recipient's slot
+        ByteBuffer table = ByteBuffer.allocate(recipients * SLOT_ENTRY_LENGTH);
+        dataIn.readFully(table.array());
+        long recipientId = getRecipientId(publicKey);
+        int low = 0;
+        int high = recipients - 1;
+        int slot = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compare(table.getLong(mid * SLOT_ENTRY_LENGTH), recipientId);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                slot = mid;
+                break;
+            }
+        }
+        if (slot == -1)
+            throw new IllegalArgumentException("Cipher text has not been encrypted for this public key");
+
+        //Skip to the slot, read it and skip the remaining slots
+        int slotOffset = table.getInt(slot * SLOT_ENTRY_LENGTH + 8);
+        int slotLength = table.getInt(slot * SLOT_ENTRY_LENGTH + 12);
+        int lastEntry = (recipients - 1) * SLOT_ENTRY_LENGTH;
+        long slotsLength = (long) table.getInt(lastEntry + 8) + table.getInt(lastEntry + 12);
+        if (slotOffset < 0 || slotLength < 4 || slotOffset + (long) slotLength > slotsLength
+                || slotsLength > (long) MAX_ENCAPSULATED_KEY_LENGTH * recipients)
+            throw new IOException("Invalid slot table");
+        skipFully(dataIn, slotOffset);
+        byte[] slotBytes = new byte[slotLength];
+        dataIn.readFully(slotBytes);
+        skipFully(dataIn, slotsLength - slotOffset - slotLength);
+
+        //decaps the recipient's key and unwrap the data key
+        ByteBuffer slotBuffer = ByteBuffer.wrap(slotBytes);
+        int keyLen = slotBuffer.getInt();
+        if (keyLen < 0 || keyLen > slotLength - 4)
+            throw new IOException("Invalid encapsulated key length " + keyLen);
+        byte[] encapsulatedKeyBytes = new byte[keyLen];
+        slotBuffer.get(encapsulatedKeyBytes);
+        byte[] wrappedDataKey = new byte[slotBuffer.remaining()];
+        slotBuffer.get(wrappedDataKey);
+        SymmetricKey recipientKey = kem.decaps(restoreEncapsulatedKey(encapsulatedKeyBytes, false), privateKey);
+        SymmetricKey dataKey = new ByteArrayImplementation(readAll(
+                symmetricScheme.decrypt(new ByteArrayInputStream(wrappedDataKey), recipientKey)));
+
+        //Return a stream where caller can read the decrypted payload
+        return symmetricScheme.decrypt(in, dataKey);
+    }
+
+    /**
+     * Header of a multi-recipient ciphertext together with the data key encapsulated in it.
+     */
+    private static class MultiRecipientHeader {
+        final byte[] bytes;
+        final SymmetricKey dataKey;
+
+        MultiRecipientHeader(byte[] bytes, SymmetricKey dataKey) {
+            this.bytes = bytes;
+            this.dataKey = dataKey;
+        }
+    }
+
+    /**
+     * Creates the header of a multi-recipient ciphertext
+     * <pre>
+     * magic || version || scheme id || n || (id_i || offset_i || length_i)_i || slot_1 || ... || slot_n
+     * </pre>
+     * where the table entries are sorted by recipient id and each slot contains the recipient's encapsulated key
+     * (prefixed by its length) followed by the data key, symmetrically encrypted under the encapsulated key.
+     * <p>
+     * The data key has the same length as the keys output by the KEM, since those are valid keys for the symmetric
+     * scheme as well.
+     */
+    private MultiRecipientHeader createMultiRecipientHeader(Collection<? extends EncryptionKey> publicKeys,
+                                                            ExecutorService executor) throws IOException {
+        //Sort the recipients by id, dropping duplicate keys
+        TreeMap<Long, EncryptionKey> recipients = new TreeMap<>();
+        for (EncryptionKey publicKey : publicKeys) {
+            EncryptionKey previous = recipients.put(getRecipientId(publicKey), publicKey);
+            if (previous != null && !previous.equals(publicKey))
+                throw new IllegalArgumentException("Recipient ids of two public keys collide");
+        }
+        if (recipients.isEmpty())
+            throw new IllegalArgumentException("At least one recipient is needed");
+        if (recipients.size() > MAX_RECIPIENTS)
+            throw new IllegalArgumentException("At most " + MAX_RECIPIENTS + " recipients are supported");
+
+        //Encapsulate a key for each recipient in parallel
+        List<KeyEncapsulationMechanism.KeyAndCiphertext<SymmetricKey>> encapsulations = invokeAll(executor,
+                recipients.values().stream()
+                        .map(publicKey -> (Callable<KeyEncapsulationMechanism.KeyAndCiphertext<SymmetricKey>>)
+                                () -> kem.encaps(publicKey))
+                        .collect(Collectors.toList()));
+
+        //Wrap a fresh data key with each recipient key
+        int dataKeyLength = toByteArrayImplementation(encapsulations.get(0).key).length();
+        ByteArrayImplementation dataKey = ByteArrayImplementation.fromRandom(dataKeyLength);
+        List<byte[]> slots = invokeAll(executor, encapsulations.stream()
+                .map(keyAndCiphertext -> (Callable<byte[]>) () -> {
+                    byte[] encapsulatedKeyBytes = serializeEncapsulatedKey(keyAndCiphertext.encapsulatedKey);
+                    byte[] wrappedDataKey = readAll(symmetricScheme.encrypt(
+                            new ByteArrayInputStream(dataKey.getData()), keyAndCiphertext.key));
+                    return ByteBuffer.allocate(4 + encapsulatedKeyBytes.length + wrappedDataKey.length)
+                            .putInt(encapsulatedKeyBytes.length)
+                            .put(encapsulatedKeyBytes)
+                            .put(wrappedDataKey)
+                            .array();
+                })
+                .collect(Collectors.toList()));
+
+        //Write header, table and slots
+        int slotsLength = slots.stream().mapToInt(slot -> slot.length).sum();
+        ByteBuffer header = putHeader(
+                ByteBuffer.allocate(HEADER_LENGTH + slots.size() * SLOT_ENTRY_LENGTH + slotsLength),
+                MULTI_RECIPIENT_MAGIC, slots.size());
+        int offset = 0;
+        int i = 0;
+        for (Long recipientId : recipients.keySet()) {
+            header.putLong(recipientId).putInt(offset).putInt(slots.get(i).length);
+            offset += slots.get(i).length;
+            i++;
+        }
+        slots.forEach(header::put);
+        return new MultiRecipientHeader(header.array(), dataKey);
+    }
+
+    /**
+     * Returns the id of the recipient with the given public key, which are the first eight bytes of the SHA-256 hash
+     * of the key's unique byte representation.
+     */
+    private static long getRecipientId(EncryptionKey publicKey) {
+        return ByteBuffer.wrap(new SHA256HashFunction().hash(publicKey)).getLong();
+    }
+
+    private static ByteArrayImplementation toByteArrayImplementation(SymmetricKey key) {
+        if (!(key instanceof ByteArrayImplementation))
+            throw new IllegalArgumentException("Multi-recipient encryption needs a KEM with byte array keys");
+        return (ByteArrayImplementation) key;
+    }
+
+    /**
+     * Runs the given tasks on the executor and returns their results in order.
+     */
+    private static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) throws IOException {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> result : executor.invokeAll(tasks)) {
+                results.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for encapsulations");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new RuntimeException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Reads the given stream completely and closes it.
+     */
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            StreamUtil.copy(stream, out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void skipFully(DataInputStream in, long n) throws IOException {
+        while (n > 0) {
+            int skipped = in.skipBytes((int) Math.min(n, Integer.MAX_VALUE));
+            if (skipped == 0) {
+                //skipBytes returns 0 at the end of the stream as well as if the stream does not support skipping
+                if (in.read() == -1)
+                    throw new EOFException();
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
+    /**
+     * Returns the identifier of this scheme written into the header of ciphertexts, which are the first four bytes of
+     * the SHA-256 hash of the JSON serialization of this scheme's representation.
+     * <p>
+     * Hence the id covers the symmetric scheme and the KEM including their parameters, so ciphertexts of a hybrid
+     * scheme using different building blocks are rejected before decapsulating. The {@link JSONConverter} is used
+     * since it serializes equal representations to the same text.
+     */
+    private int getSchemeId() {
+        Integer id = schemeId;
+        if (id == null) {
+            id = ByteBuffer.wrap(new SHA256HashFunction().hash(new JSONConverter().serialize(getRepresentation())))
+                    .getInt();
+            schemeId = id;
+        }
+        return id;
+    }
+
+    /**
+     * Creates the header of a ciphertext containing the given encapsulated key.
+     */
+    private byte[] createHeader(CipherText encapsulatedKey) {
+        byte[] encapsulatedKeyBytes = serializeEncapsulatedKey(encapsulatedKey);
+        return putHeader(ByteBuffer.allocate(HEADER_LENGTH + encapsulatedKeyBytes.length), MAGIC,
+                encapsulatedKeyBytes.length)
+                .put(encapsulatedKeyBytes)
+                .array();
+    }
+
+    /**
+     * Puts the fixed part of a header, which ends with the given length field, into the buffer.
+     */
+    private ByteBuffer putHeader(ByteBuffer buffer, int magic, int length) {
+        return buffer.putInt(magic)
+                .put(FORMAT_VERSION)
+                .putInt(getSchemeId())
+                .putInt(length);
+    }
+
+    /**
+     * Checks the fixed part of a header and returns its (unchecked) length field.
+     */
+    private int checkHeader(byte[] header) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(header, PREFIX_LENGTH, HEADER_LENGTH - PREFIX_LENGTH);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION)
+            throw new IOException("Unsupported ciphertext format version " + version);
+        if (buffer.getInt() != getSchemeId())
+            throw new IllegalArgumentException("Not a valid cipher text for this scheme");
+        return buffer.getInt();
+    }
+
+    /**
+     * Returns whether a single recipient ciphertext starting with the given four bytes is in the legacy format.
+     */
+    private static boolean isLegacyFormat(int prefix) {
+        if (prefix == MULTI_RECIPIENT_MAGIC)
+            throw new IllegalArgumentException("Multi-recipient cipher texts need to be decrypted using "
+                    + "decryptMultiRecipient(...)");
+        return prefix != MAGIC;
+    }
+
+    private static int checkKeyLength(int keyLen) throws IOException {
+        if (keyLen < 0 || keyLen > MAX_ENCAPSULATED_KEY_LENGTH)
+            throw new IOException("Invalid encapsulated key length " + keyLen);
+        return keyLen;
+    }
+
+    private static byte[] serializeEncapsulatedKey(CipherText encapsulatedKey) {
+        return new BinaryFormatConverter().serialize(encapsulatedKey.getRepresentation());
+    }
+
+    private CipherText restoreEncapsulatedKey(byte[] encapsulatedKeyBytes, boolean legacy) {
+        if (legacy)
+            return kem.restoreEncapsulatedKey(new JSONConverter()
+                    .deserialize(new String(encapsulatedKeyBytes, StandardCharsets.UTF_8)));
+        return kem.restoreEncapsulatedKey(new BinaryFormatConverter().deserialize(encapsulatedKeyBytes));
+    }
+
     public KeyEncapsulationMechanism<SymmetricKey> getKeyEncapsulationMechanism() {
         return kem;
     }
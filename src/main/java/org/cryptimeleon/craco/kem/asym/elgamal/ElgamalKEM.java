@@ -5,7 +5,10 @@ import org.cryptimeleon.craco.enc.*;
 import org.cryptimeleon.craco.enc.asym.elgamal.ElgamalCipherText;
 import org.cryptimeleon.craco.enc.asym.elgamal.ElgamalEncryption;
 import org.cryptimeleon.craco.enc.asym.elgamal.ElgamalPrivateKey;
+import org.cryptimeleon.craco.enc.asym.elgamal.ElgamalPublicKey;
+import org.cryptimeleon.craco.enc.asym.elgamal.PrecomputedElgamalPublicKey;
 import org.cryptimeleon.craco.common.ByteArrayImplementation;
+import org.cryptimeleon.craco.common.utils.ParallelUtil;
 import org.cryptimeleon.craco.kem.asym.AsymmetricKEM;
 import org.cryptimeleon.math.hash.HashFunction;
 import org.cryptimeleon.math.hash.impl.ByteArrayAccumulator;
@@ -15,9 +18,13 @@ import org.cryptimeleon.math.serialization.annotations.ReprUtil;
 import org.cryptimeleon.math.serialization.annotations.Represented;
 import org.cryptimeleon.math.structures.groups.Group;
 import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.rings.zn.Zn.ZnElement;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This class implements the Fujisaki Okamoto transformation (FOT) of an ElGamal
@@ -267,6 +274,104 @@ public class ElgamalKEM implements AsymmetricKEM<SymmetricKey> {
         }
     }
 
+    /**
+     * Generates {@code n} encapsulations for the given public key using the common {@link ForkJoinPool}.
+     *
+     * @see #encapsBatch(EncryptionKey, int, ExecutorService)
+     */
+    public List<KeyAndCiphertext<SymmetricKey>> encapsBatch(EncryptionKey pk, int n) {
+        return encapsBatch(pk, n, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates {@code n} encapsulations for the given public key.
+     * <p>
+     * The exponentiations use the fixed-base exponentiation tables for \(g\) and \(h\) of the public key returned by
+     * {@link ElgamalEncryption#getPrecomputedKey(ElgamalPublicKey, int)}, so the tables are computed at most once
+     * for all batches with large enough {@code n} and small batches use plain exponentiations unless the key has
+     * been precomputed already. The encapsulations run in parallel on the given executor.
+     * The result is distributed exactly as {@code n} calls of {@link #encaps(EncryptionKey)}.
+     *
+     * @param pk       the public key to use for encapsulation
+     * @param n        the number of encapsulations
+     * @param executor the executor to run the encapsulations on
+     * @return the resulting keys and ciphertexts
+     */
+    public List<KeyAndCiphertext<SymmetricKey>> encapsBatch(EncryptionKey pk, int n, ExecutorService executor) {
+        if (!(pk instanceof ElgamalPublicKey))
+            throw new IllegalArgumentException("The specified public key is invalid.");
+        if (n < 0)
+            throw new IllegalArgumentException("The number of encapsulations must not be negative.");
+        PrecomputedElgamalPublicKey precomputedPk = encryptionScheme.getPrecomputedKey((ElgamalPublicKey) pk, n);
+
+        return ParallelUtil.map(executor, n, i -> {
+            HashFunction md = messageDigest;
+            ByteArrayImplementation k = new ByteArrayImplementation(RandomGenerator.getRandomBytes(md.getOutputLength()));
+            GroupElement R = this.encryptionScheme.getGroup().getUniformlyRandomElement().computeSync();
+            BigInteger s = new BigInteger(computeNonceHash(md, R, k));
+
+            ElgamalCipherText c = new ElgamalCipherText(precomputedPk.powG(s).computeSync(),
+                    precomputedPk.powH(s).op(R).computeSync());
+            KeyAndCiphertext<SymmetricKey> result = new KeyAndCiphertext<>();
+            result.encapsulatedKey = new ElgamalKEMCiphertext(c, k.xor(new ByteArrayImplementation(md.hash(R))));
+            result.key = k;
+            return result;
+        });
+    }
+
+    /**
+     * Decapsulates all of the given encapsulated keys using the common {@link ForkJoinPool}.
+     *
+     * @see #decapsBatch(List, DecryptionKey, ExecutorService)
+     */
+    public List<ByteArrayImplementation> decapsBatch(List<? extends CipherText> encapsulatedKeys, DecryptionKey sk) {
+        return decapsBatch(encapsulatedKeys, sk, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Decapsulates all of the given encapsulated keys.
+     * <p>
+     * Since {@link #decaps(CipherText, DecryptionKey)} only compares \(C_2\), the re-encryption check of each
+     * decapsulation skips computing \(C_1\) and only needs \(h^s\). It uses the key returned by
+     * {@link ElgamalEncryption#getPrecomputedKey(ElgamalPublicKey, int)}, so only the table for \(h\) is computed,
+     * and only once for all large enough batches. The decapsulations run in parallel on the given executor.
+     *
+     * @param encapsulatedKeys the encapsulated keys
+     * @param sk               the private key to decapsulate with
+     * @param executor         the executor to run the decapsulations on
+     * @return the keys, in the order of {@code encapsulatedKeys}; as for {@link #decaps(CipherText, DecryptionKey)},
+     *         the key is empty if the check of the corresponding encapsulated key fails
+     */
+    public List<ByteArrayImplementation> decapsBatch(List<? extends CipherText> encapsulatedKeys, DecryptionKey sk,
+                                                     ExecutorService executor) {
+        if (!(sk instanceof ElgamalPrivateKey))
+            throw new IllegalArgumentException("The specified private key is invalid.");
+        for (CipherText encapsulatedKey : encapsulatedKeys) {
+            if (!(encapsulatedKey instanceof ElgamalKEMCiphertext))
+                throw new IllegalArgumentException("The specified ciphertext is invalid.");
+        }
+        ZnElement a = ((ElgamalPrivateKey) sk).getA();
+        PrecomputedElgamalPublicKey precomputedPk = encryptionScheme.getPrecomputedKey(
+                ((ElgamalPrivateKey) sk).getPublicKey(), encapsulatedKeys.size());
+
+        return ParallelUtil.map(executor, encapsulatedKeys.size(), i -> {
+            HashFunction md = messageDigest;
+            ElgamalKEMCiphertext C = (ElgamalKEMCiphertext) encapsulatedKeys.get(i);
+            GroupElement c2 = C.getElgamalCipherText().getC2();
+
+            // R = C_2 / C_1^a, k = C_3 xor H(R), s = H(R, k)
+            GroupElement R = C.getElgamalCipherText().getC1().pow(a).inv().op(c2).computeSync();
+            ByteArrayImplementation k = C.getSymmetricEncryption().xor(new ByteArrayImplementation(md.hash(R)));
+            BigInteger s = new BigInteger(computeNonceHash(md, R, k));
+
+            if (precomputedPk.powH(s).op(R).computeSync().equals(c2)) {
+                return k;
+            } else {
+                return new ByteArrayImplementation(new byte[0]);
+            }
+        });
+    }
+
     @Override
     public EncryptionKeyPair generateKeyPair() {
         return encryptionScheme.generateKeyPair();
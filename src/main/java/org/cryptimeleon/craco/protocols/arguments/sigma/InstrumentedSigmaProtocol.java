@@ -0,0 +1,102 @@
+package org.cryptimeleon.craco.protocols.arguments.sigma;
+
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
+import org.cryptimeleon.craco.protocols.CommonInput;
+import org.cryptimeleon.craco.protocols.SecretInput;
+import org.cryptimeleon.math.expressions.bool.BooleanExpression;
+import org.cryptimeleon.math.serialization.Representation;
+
+/**
+ * Wraps a {@link SigmaProtocol} and records metrics for the operations that do the actual work of proving and
+ * checking: {@code generateAnnouncement}, {@code generateResponse}, {@code checkTranscript} and
+ * {@code decompressTranscript} (which includes checking the transcript).
+ *
+ * @see SigmaProtocol#instrument(SigmaProtocol, OperationMetricsRegistry)
+ */
+class InstrumentedSigmaProtocol implements SigmaProtocol {
+    private final SigmaProtocol protocol;
+    private final OperationMetricsRegistry registry;
+
+    InstrumentedSigmaProtocol(SigmaProtocol protocol, OperationMetricsRegistry registry) {
+        this.protocol = protocol;
+        this.registry = registry;
+    }
+
+    @Override
+    public AnnouncementSecret generateAnnouncementSecret(CommonInput commonInput, SecretInput secretInput) {
+        return protocol.generateAnnouncementSecret(commonInput, secretInput);
+    }
+
+    @Override
+    public Announcement generateAnnouncement(CommonInput commonInput, SecretInput secretInput,
+                                             AnnouncementSecret announcementSecret) {
+        return registry.measure(protocol, "generateAnnouncement",
+                () -> protocol.generateAnnouncement(commonInput, secretInput, announcementSecret),
+                OperationMetricsRegistry::computeSync);
+    }
+
+    @Override
+    public Challenge generateChallenge(CommonInput commonInput) {
+        return protocol.generateChallenge(commonInput);
+    }
+
+    @Override
+    public ChallengeSpace getChallengeSpace(CommonInput commonInput) {
+        return protocol.getChallengeSpace(commonInput);
+    }
+
+    @Override
+    public Response generateResponse(CommonInput commonInput, SecretInput secretInput, Announcement announcement,
+                                     AnnouncementSecret announcementSecret, Challenge challenge) {
+        return registry.measure(protocol, "generateResponse", () -> protocol.generateResponse(commonInput,
+                secretInput, announcement, announcementSecret, challenge), OperationMetricsRegistry::computeSync);
+    }
+
+    @Override
+    public boolean checkTranscript(CommonInput commonInput, Announcement announcement, Challenge challenge,
+                                   Response response) {
+        return registry.measure(protocol, "checkTranscript",
+                () -> protocol.checkTranscript(commonInput, announcement, challenge, response));
+    }
+
+    @Override
+    public BooleanExpression checkTranscriptAsExpression(CommonInput commonInput, Announcement announcement,
+                                                         Challenge challenge, Response response) {
+        return protocol.checkTranscriptAsExpression(commonInput, announcement, challenge, response);
+    }
+
+    @Override
+    public Representation compressTranscript(CommonInput commonInput, SigmaProtocolTranscript transcript) {
+        return protocol.compressTranscript(commonInput, transcript);
+    }
+
+    @Override
+    public SigmaProtocolTranscript decompressTranscript(CommonInput commonInput, Challenge challenge,
+                                                        Representation compressedTranscript)
+            throws IllegalArgumentException {
+        return registry.measure(protocol, "decompressTranscript",
+                () -> protocol.decompressTranscript(commonInput, challenge, compressedTranscript),
+                OperationMetricsRegistry::computeSync);
+    }
+
+    @Override
+    public SigmaProtocolTranscript generateSimulatedTranscript(CommonInput commonInput, Challenge challenge) {
+        return protocol.generateSimulatedTranscript(commonInput, challenge);
+    }
+
+    @Override
+    public Announcement restoreAnnouncement(CommonInput commonInput, Representation repr) {
+        return protocol.restoreAnnouncement(commonInput, repr);
+    }
+
+    @Override
+    public Challenge restoreChallenge(CommonInput commonInput, Representation repr) {
+        return protocol.restoreChallenge(commonInput, repr);
+    }
+
+    @Override
+    public Response restoreResponse(CommonInput commonInput, Announcement announcement, Challenge challenge,
+                                    Representation repr) {
+        return protocol.restoreResponse(commonInput, announcement, challenge, repr);
+    }
+}
@@ -1,5 +1,6 @@
 package org.cryptimeleon.craco.protocols.arguments.sigma;
 
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
 import org.cryptimeleon.craco.protocols.CommonInput;
 import org.cryptimeleon.craco.protocols.SecretInput;
 import org.cryptimeleon.craco.protocols.arguments.InteractiveArgument;
@@ -34,6 +35,19 @@ import java.math.BigInteger;
  * </ol>
  */
 public interface SigmaProtocol extends InteractiveArgument {
+    /**
+     * Wraps the given protocol such that metrics of generating announcements and responses and of checking
+     * transcripts are recorded by the given registry.
+     * This includes proofs created and checked by a {@link FiatShamirProofSystem} for the returned protocol.
+     *
+     * @param protocol the protocol to instrument
+     * @param registry the registry to report to
+     * @return the instrumented protocol
+     */
+    static SigmaProtocol instrument(SigmaProtocol protocol, OperationMetricsRegistry registry) {
+        return new InstrumentedSigmaProtocol(protocol, registry);
+    }
+
     /**
      * Used by the prover to generate a secret value that will be input for future method calls.
      * <p>
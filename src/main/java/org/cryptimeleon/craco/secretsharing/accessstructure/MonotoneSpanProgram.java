@@ -2,15 +2,18 @@ package org.cryptimeleon.craco.secretsharing.accessstructure;
 
 import org.cryptimeleon.craco.common.policies.Policy;
 import org.cryptimeleon.craco.common.policies.PolicyFact;
+import org.cryptimeleon.craco.common.utils.LruCache;
 import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
 import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
 import org.cryptimeleon.craco.secretsharing.accessstructure.utils.ComparablePair;
+import org.cryptimeleon.craco.secretsharing.accessstructure.utils.SparseMatrix;
 import org.cryptimeleon.craco.secretsharing.accessstructure.utils.TreeNode;
 import org.cryptimeleon.craco.secretsharing.accessstructure.visitors.MinimalFulfillingSubsetVisitor;
 import org.cryptimeleon.craco.secretsharing.accessstructure.visitors.MonotoneSpanProgramGetMatrixVisitor;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 import org.cryptimeleon.math.structures.rings.zn.Zp.ZpElement;
 
+import java.math.BigInteger;
 import java.util.*;
 
 /**
@@ -18,10 +21,47 @@ import java.util.*;
  */
 public class MonotoneSpanProgram extends AccessStructure {
 
+    /**
+     * Maximal number of share sets whose solving vector is held by {@link #solvingVectorCache}.
+     */
+    private static final int SOLVING_VECTOR_CACHE_SIZE = 64;
+
+    /**
+     * The monotone span program matrix, generated on first use.
+     */
+    private volatile SparseMatrix matrix;
+
+    /**
+     * Solving vectors by the set of shares they combine. Computing a solving vector means searching a minimal
+     * fulfilling subset and eliminating its rows of the matrix, which is skipped for share sets used recently.
+     */
+    private final LruCache<Set<Integer>, Map<Integer, ZpElement>> solvingVectorCache =
+            new LruCache<>(SOLVING_VECTOR_CACHE_SIZE);
+
     public MonotoneSpanProgram(Policy policy, Zp field) {
         super(policy, field);
     }
 
+    /**
+     * Returns the monotone span program matrix given by this instance.
+     * <p>
+     * The matrix is generated from the threshold tree on first use and kept for subsequent calls. Row i belongs to
+     * the share with index i.
+     *
+     * @return the monotone span program matrix
+     * @throws WrongAccessStructureException if monotone span program matrix generation fails
+     */
+    public SparseMatrix getMatrix() throws WrongAccessStructureException {
+        SparseMatrix result = matrix;
+        if (result == null) {
+            ArrayList<ArrayList<ZpElement>> rows = new ArrayList<>();
+            int numberOfColumns = generateMatrix(rows);
+            result = new SparseMatrix(rows, numberOfColumns);
+            matrix = result;
+        }
+        return result;
+    }
+
     /**
      * Calculates shares for the given secret.
      *
@@ -31,26 +71,18 @@ public class MonotoneSpanProgram extends AccessStructure {
      */
     @Override
     public Map<Integer, ZpElement> getShares(ZpElement secret) throws WrongAccessStructureException {
-        ArrayList<ArrayList<ZpElement>> matrix = new ArrayList<>();
-        int size = generateMatrix(matrix);
-        ArrayList<ZpElement> randomVector = new ArrayList<>();
-        randomVector.add(secret);
+        SparseMatrix matrix = getMatrix();
+        BigInteger[] randomVector = new BigInteger[matrix.getNumberOfColumns()];
+        randomVector[0] = secret.getInteger();
 
-        for (int counter = 1; counter < size; counter++) {
-            randomVector.add(field.getUniformlyRandomElement());
+        for (int counter = 1; counter < randomVector.length; counter++) {
+            randomVector[counter] = field.getUniformlyRandomElement().getInteger();
         }
 
+        BigInteger[] shares = matrix.multiply(randomVector, field.size());
         HashMap<Integer, ZpElement> result = new HashMap<>();
-        int counter = 0;
-
-        for (ArrayList<ZpElement> row : matrix) {
-            Iterator<ZpElement> iteratorVector = randomVector.iterator();
-            ZpElement value = field.getZeroElement();
-            for (ZpElement entry : row) {
-                value = value.add(entry.mul(iteratorVector.next()));
-            }
-            result.put(counter, value);
-            counter++;
+        for (int counter = 0; counter < shares.length; counter++) {
+            result.put(counter, field.createZnElement(shares[counter]));
         }
 
         return result;
@@ -63,12 +95,14 @@ public class MonotoneSpanProgram extends AccessStructure {
      * @throws WrongAccessStructureException if monotone span program matrix generation fails
      */
     public int getNumberOfColumns() throws WrongAccessStructureException {
-        ArrayList<ArrayList<ZpElement>> convert = new ArrayList<>();
-        return generateMatrix(convert);
+        return getMatrix().getNumberOfColumns();
     }
 
     /**
      * Calculates set of solving secret shares for this monotone span program.
+     * <p>
+     * The solving vectors of the most recently used sets of shares are cached, as the same parties often reconstruct
+     * many secrets.
      *
      * @param setOfParties the set of share-holding parties to consider
      * @return a fulfilling map mapping each share index to the share field element
@@ -78,39 +112,37 @@ public class MonotoneSpanProgram extends AccessStructure {
     @Override
     public Map<Integer, ZpElement> getSolvingVector(
             Set<? extends PolicyFact> setOfParties) throws NoSatisfyingSet, WrongAccessStructureException {
+        Set<Integer> shares = getSharesOfReceivers(setOfParties);
+        Map<Integer, ZpElement> solvingVector = solvingVectorCache.get(shares);
+        if (solvingVector == null) {
+            solvingVector = solvingVectorCache.putIfAbsent(shares,
+                    Collections.unmodifiableMap(calculateSolvingVector(shares)));
+        }
+        return new HashMap<>(solvingVector);
+    }
 
+    /**
+     * Calculates the solving vector for the given set of shares.
+     */
+    private Map<Integer, ZpElement> calculateSolvingVector(Set<Integer> shares) throws NoSatisfyingSet,
+            WrongAccessStructureException {
         // at first identify the minimal number of rows that are necessary to
         // reconstruct the secret
-        MinimalFulfillingSubsetVisitor minimalSubsetVisitor =
-                new MinimalFulfillingSubsetVisitor(getSharesOfReceivers(setOfParties));
+        MinimalFulfillingSubsetVisitor minimalSubsetVisitor = new MinimalFulfillingSubsetVisitor(shares);
         TreeNode tree = thresholdTree;
         ComparablePair<Integer, ArrayList<Integer>> fulfillingSet = tree.performVisitor(minimalSubsetVisitor);
 
         if (fulfillingSet.getFirst() == 0)
             throw new NoSatisfyingSet("Given set does not satisfy the access structure");
 
-        int numberOfRows = fulfillingSet.getFirst();
-
-        ArrayList<ArrayList<ZpElement>> convert = new ArrayList<>();
-        ZpElement[][] matrix = convertRepresentationOfMatrix(generateMatrix(convert), convert);
-
-        // calculate the submatrix
-        ZpElement[][] submatrix = new ZpElement[numberOfRows][];
-        Integer[] labeling = new Integer[numberOfRows];
-
-        int counter = 0;
-        for (Integer id : fulfillingSet.getSecond()) {
-            labeling[counter] = id;
-            submatrix[counter++] = matrix[id];
-        }
-
-        ZpElement[] vector = calculateSolvingVector(submatrix);
+        int[] rows = fulfillingSet.getSecond().stream().mapToInt(Integer::intValue).toArray();
+        BigInteger[] vector = getMatrix().findCombinationForFirstUnitVector(rows, field.size());
+        if (vector == null)
+            throw new NoSatisfyingSet("Given set does not satisfy the access structure");
 
         HashMap<Integer, ZpElement> result = new HashMap<>();
-        int i = 0;
-        for (ZpElement ele : vector) {
-            result.put(labeling[i], ele);
-            i++;
+        for (int i = 0; i < rows.length; i++) {
+            result.put(rows[i], field.createZnElement(vector[i]));
         }
 
         return result;
@@ -126,129 +158,21 @@ public class MonotoneSpanProgram extends AccessStructure {
      * @throws WrongAccessStructureException if monotone span program matrix generation fails
      */
     public String toStringFor3DigitsGates() throws WrongAccessStructureException {
-        ArrayList<ArrayList<ZpElement>> matrix = new ArrayList<>();
-        int size = generateMatrix(matrix);
+        SparseMatrix matrix = getMatrix();
         String output = "";
 
-        int rowCounter = 0;
-        int columnCounter = 0;
-
-        for (ArrayList<ZpElement> row : matrix) {
-            columnCounter = 0;
+        for (int rowCounter = 0; rowCounter < matrix.getNumberOfRows(); rowCounter++) {
             output = output.concat("( ");
-            for (ZpElement entry : row) {
-                columnCounter++;
-                output = output.concat(String.format("%3d ", entry.getInteger().shortValue()));
+            for (BigInteger entry : matrix.getDenseRow(rowCounter)) {
+                output = output.concat(String.format("%3d ", entry.shortValue()));
             }
-
-            for (; columnCounter <= size; columnCounter++) {
-                output = output.concat(String.format("%3d ", 0));
-            }
-            output = output.concat(String.format(") %s\n", shareReceivers.get(rowCounter++).toString()));
+            output = output.concat(String.format("%3d ", 0));
+            output = output.concat(String.format(") %s\n", shareReceivers.get(rowCounter).toString()));
         }
 
         return output;
     }
 
-    /**
-     * This method gets a <code>matrix</code> and returns a vector v such that v
-     * * matrix = (1,0,...,0).
-     *
-     * @param matrix the matrix to calculate solving vector for
-     * @return the solving vector
-     * @throws NoSatisfyingSet if no such vector v exists
-     */
-    private ZpElement[] calculateSolvingVector(ZpElement[][] matrix) throws NoSatisfyingSet {
-        int numberOfRows = matrix.length;
-        int numberOfColumns = matrix[0].length;
-        int counterRows = 0;
-        int counterColumns = numberOfColumns - 1;
-
-        // vectors contains the combination of the different rows of the input
-        // matrix, that leads to the corresponding row in matrix
-        ZpElement[][] vectors = new ZpElement[numberOfRows][];
-
-        for (int i = 0; i < numberOfRows; i++) {
-            ZpElement[] vector = new ZpElement[numberOfRows];
-            for (int j = 0; j < numberOfRows; j++) {
-                if (j == i)
-                    vector[j] = field.getOneElement();
-                else
-                    vector[j] = field.getZeroElement();
-            }
-            vectors[i] = vector;
-        }
-
-        // Gauss is applied
-        while ((counterRows != numberOfRows) && (counterColumns != -1)) {
-
-            if (matrix[counterRows][counterColumns].equals(field.getZeroElement())) {
-                int i = counterRows + 1;
-                while (i < numberOfRows) {
-                    if (!matrix[i][counterColumns].equals(field.getZeroElement())) {
-                        break;
-                    }
-                    i++;
-                }
-                if (i == numberOfRows) {
-                    counterColumns--;
-                    continue;
-                }
-                swapRows(vectors, matrix, i, counterRows);
-            }
-
-            for (int j = (counterRows + 1); j < numberOfRows; j++) {
-                subtractRowIFromRowJ(vectors, matrix, counterColumns, counterRows, j);
-            }
-
-            counterColumns--;
-            counterRows++;
-        }
-
-        counterRows--;
-
-        if ((counterColumns != -1) || (matrix[counterRows][0].equals(field.getZeroElement())))
-            throw new NoSatisfyingSet("Given set does not satisfy the access structure");
-
-        for (int k = 0; k < vectors[0].length; k++) {
-            vectors[counterRows][k] = (ZpElement) vectors[counterRows][k].div(matrix[counterRows][0]);
-        }
-
-        return vectors[counterRows];
-
-    }
-
-    /**
-     * Change the representation of the matrix from a 2 dimensional {@code ArrayList} to
-     * a 2-dimensional array. Allows expanding the number of columns of the converted matrix.
-     * Added columns are filled with zeros.
-     *
-     * @param size number of columns of the resulting array
-     * @param matrix matrix to convert
-     * @return two dimensional array containing the elements of the given matrix with additional columns added using the
-     *         {@code size} parameter filled with zeros.
-     */
-    private ZpElement[][] convertRepresentationOfMatrix(int size, ArrayList<ArrayList<ZpElement>> matrix) {
-        int i = 0;
-        int j = 0;
-        ZpElement[][] result = new ZpElement[matrix.size()][size];
-        ZpElement zero = field.getZeroElement();
-
-        for (ArrayList<ZpElement> row : matrix) {
-            j = 0;
-            for (ZpElement entry : row) {
-                result[i][j] = entry;
-                j++;
-            }
-            for (; j < size; j++) {
-                zero = field.getZeroElement();
-                result[i][j] = zero;
-            }
-            i++;
-        }
-        return result;
-    }
-
     /**
      * Generates the matrix for the access structure represented by this instance.
      * The matrix is stored in the input parameter <code>matrix</code> and the
@@ -268,42 +192,6 @@ public class MonotoneSpanProgram extends AccessStructure {
         return visitor.getResultOfCurrentNode() + 1;
     }
 
-    /**
-     * Takes the given {@code matrix} and subtracts row {@code i} from row {@code j}.
-     * The subtrahend is scaled such that the resulting value in column {@code column} of row {@code j} is zero.
-     * For example, for {@code i = 0, j = 1, column = 2} and a matrix {@code A} with {@code A(0,2) = 3, A(1,2) = 6},
-     * the scaling factor is {@code 6/3 = 2}. Hence, the resulting matrix {@code A'} will have value
-     * {@code A'(1,2) = 6 - 2 * 3 = 0}.
-     * The same is done for the given {@code vectors} matrix although the scaling factor calculated from {@code matrix}
-     * is reused.
-     */
-    private void subtractRowIFromRowJ(ZpElement[][] vectors, ZpElement[][] matrix, int column, int i, int j) {
-        ZpElement factor = (ZpElement) field.getOneElement().div(matrix[i][column]).mul(matrix[j][column]);
-
-        for (int k = 0; k < vectors[0].length; k++) {
-            vectors[j][k] = (ZpElement) vectors[j][k].sub(factor.mul(vectors[i][k]));
-        }
-
-        for (int k = 0; k < matrix[0].length; k++) {
-            matrix[j][k] = (ZpElement) matrix[j][k].sub(factor.mul(matrix[i][k]));
-        }
-
-    }
-
-    /**
-     * Swap rows {@code i} and {@code j} in both {@code matrix} and {@code vectors}.
-     */
-    private void swapRows(ZpElement[][] vectors, ZpElement[][] matrix, int i, int j) {
-        ZpElement[] tempVector = vectors[i];
-        ZpElement[] tempRow = matrix[i];
-
-        vectors[i] = vectors[j];
-        matrix[i] = matrix[j];
-
-        vectors[j] = tempVector;
-        matrix[j] = tempRow;
-    }
-
     public HashMap<Integer, PolicyFact> getAttributes() {
         return shareReceivers;
     }
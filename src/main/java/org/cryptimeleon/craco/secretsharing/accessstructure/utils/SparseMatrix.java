@@ -0,0 +1,232 @@
+package org.cryptimeleon.craco.secretsharing.accessstructure.utils;
+
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable matrix over \(\mathbb{Z}_p\) in compressed sparse row (CSR) format.
+ * <p>
+ * Only the nonzero entries are stored. The entries of row i are at positions {@code rowOffsets[i]} (inclusive) to
+ * {@code rowOffsets[i + 1]} (exclusive) of {@code columnIndices} and {@code values}, ordered by column.
+ */
+public final class SparseMatrix {
+    private final int numberOfColumns;
+
+    private final int[] rowOffsets;
+
+    private final int[] columnIndices;
+
+    private final BigInteger[] values;
+
+    /**
+     * Creates a sparse matrix from the given rows.
+     * <p>
+     * Rows may be shorter than {@code numberOfColumns}, missing entries are zero.
+     *
+     * @param rows            the rows of the matrix
+     * @param numberOfColumns the number of columns of the matrix
+     */
+    public SparseMatrix(List<? extends List<? extends Zn.ZnElement>> rows, int numberOfColumns) {
+        this.numberOfColumns = numberOfColumns;
+        rowOffsets = new int[rows.size() + 1];
+        int numberOfNonZeroEntries = 0;
+        for (List<? extends Zn.ZnElement> row : rows) {
+            if (row.size() > numberOfColumns)
+                throw new IllegalArgumentException("Row has more than " + numberOfColumns + " columns");
+            for (Zn.ZnElement entry : row) {
+                if (!entry.isZero())
+                    numberOfNonZeroEntries++;
+            }
+        }
+
+        columnIndices = new int[numberOfNonZeroEntries];
+        values = new BigInteger[numberOfNonZeroEntries];
+        int offset = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            rowOffsets[i] = offset;
+            int column = 0;
+            for (Zn.ZnElement entry : rows.get(i)) {
+                if (!entry.isZero()) {
+                    columnIndices[offset] = column;
+                    values[offset] = entry.getInteger();
+                    offset++;
+                }
+                column++;
+            }
+        }
+        rowOffsets[rows.size()] = offset;
+    }
+
+    public int getNumberOfRows() {
+        return rowOffsets.length - 1;
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    /**
+     * Returns the number of entries that are not zero.
+     */
+    public int getNumberOfNonZeroEntries() {
+        return values.length;
+    }
+
+    /**
+     * Returns the entry in the given row and column.
+     *
+     * @param row    the row index
+     * @param column the column index
+     * @return the entry, as an integer in \([0, p)\)
+     */
+    public BigInteger get(int row, int column) {
+        if (column < 0 || column >= numberOfColumns)
+            throw new IndexOutOfBoundsException("Column " + column + " out of bounds");
+        int index = Arrays.binarySearch(columnIndices, rowOffsets[row], rowOffsets[row + 1], column);
+        return index >= 0 ? values[index] : BigInteger.ZERO;
+    }
+
+    /**
+     * Returns the given row with all of its entries, including zeros.
+     *
+     * @param row the row index
+     * @return the entries of the row, as integers in \([0, p)\)
+     */
+    public BigInteger[] getDenseRow(int row) {
+        BigInteger[] result = new BigInteger[numberOfColumns];
+        Arrays.fill(result, BigInteger.ZERO);
+        for (int k = rowOffsets[row]; k < rowOffsets[row + 1]; k++) {
+            result[columnIndices[k]] = values[k];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the product of this matrix with the given column vector.
+     * <p>
+     * Each entry of the result is reduced only once, after summing up the products of its row.
+     *
+     * @param vector  the vector, with one entry per column
+     * @param modulus the modulus p
+     * @return the product, with one entry per row
+     */
+    public BigInteger[] multiply(BigInteger[] vector, BigInteger modulus) {
+        if (vector.length != numberOfColumns)
+            throw new IllegalArgumentException("Vector length must match the number of columns");
+        BigInteger[] result = new BigInteger[getNumberOfRows()];
+        for (int i = 0; i < result.length; i++) {
+            BigInteger sum = BigInteger.ZERO;
+            for (int k = rowOffsets[i]; k < rowOffsets[i + 1]; k++) {
+                sum = sum.add(values[k].multiply(vector[columnIndices[k]]));
+            }
+            result[i] = sum.mod(modulus);
+        }
+        return result;
+    }
+
+    /**
+     * Finds a linear combination of the given rows that equals the first unit vector \((1, 0, \dots, 0)\).
+     * <p>
+     * The rows are added to an echelon basis one after the other, where each basis row is normalized such that its
+     * last nonzero entry (the pivot) is 1. A new row is reduced with the basis rows whose pivots match its last
+     * nonzero entry, which only touches the nonzero entries of both rows. If it does not vanish, it becomes a new
+     * basis row, which costs the only inversion needed for its pivot. The search stops as soon as a basis row with
+     * pivot in the first column, i.e. the first unit vector, is found.
+     *
+     * @param rows    the indices of the rows to combine
+     * @param modulus the modulus p
+     * @return the coefficients of the combination, where the j-th coefficient belongs to {@code rows[j]},
+     *         or null if the first unit vector is not in the span of the rows
+     */
+    public BigInteger[] findCombinationForFirstUnitVector(int[] rows, BigInteger modulus) {
+        // pivot column -> (entries, combination) of the basis row with that pivot
+        Map<Integer, SparseVector[]> basis = new HashMap<>();
+        for (int j = 0; j < rows.length; j++) {
+            SparseVector entries = new SparseVector();
+            for (int k = rowOffsets[rows[j]]; k < rowOffsets[rows[j] + 1]; k++) {
+                entries.set(columnIndices[k], values[k]);
+            }
+            SparseVector combination = new SparseVector();
+            combination.set(j, BigInteger.ONE);
+
+            while (!entries.isZero()) {
+                int pivotColumn = entries.getLastIndex();
+                BigInteger factor = entries.get(pivotColumn);
+                SparseVector[] basisRow = basis.get(pivotColumn);
+                if (basisRow == null) {
+                    BigInteger inverse = factor.modInverse(modulus);
+                    entries.scale(inverse, modulus);
+                    combination.scale(inverse, modulus);
+                    basis.put(pivotColumn, new SparseVector[]{entries, combination});
+                    break;
+                }
+                entries.subtract(factor, basisRow[0], modulus);
+                combination.subtract(factor, basisRow[1], modulus);
+            }
+
+            if (basis.containsKey(0)) {
+                BigInteger[] result = new BigInteger[rows.length];
+                Arrays.fill(result, BigInteger.ZERO);
+                basis.get(0)[1].forEach((index, coefficient) -> result[index] = coefficient);
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A sparse vector over \(\mathbb{Z}_p\), which only stores its nonzero entries by index.
+     */
+    private static final class SparseVector {
+        private final TreeMap<Integer, BigInteger> entries = new TreeMap<>();
+
+        /**
+         * Sets the entry at the given index, which must be nonzero.
+         */
+        void set(int index, BigInteger entry) {
+            entries.put(index, entry);
+        }
+
+        BigInteger get(int index) {
+            return entries.getOrDefault(index, BigInteger.ZERO);
+        }
+
+        boolean isZero() {
+            return entries.isEmpty();
+        }
+
+        /**
+         * Returns the largest index of a nonzero entry.
+         */
+        int getLastIndex() {
+            return entries.lastKey();
+        }
+
+        /**
+         * Applies the consumer to the nonzero entries in order of their indices.
+         */
+        void forEach(BiConsumer<Integer, BigInteger> consumer) {
+            entries.forEach(consumer);
+        }
+
+        void scale(BigInteger factor, BigInteger modulus) {
+            entries.replaceAll((index, entry) -> entry.multiply(factor).mod(modulus));
+        }
+
+        /**
+         * Subtracts {@code factor * other} from this vector.
+         */
+        void subtract(BigInteger factor, SparseVector other, BigInteger modulus) {
+            other.entries.forEach((index, entry) -> {
+                BigInteger difference = get(index).subtract(factor.multiply(entry)).mod(modulus);
+                if (difference.signum() == 0)
+                    entries.remove(index);
+                else
+                    entries.put(index, difference);
+            });
+        }
+    }
+}
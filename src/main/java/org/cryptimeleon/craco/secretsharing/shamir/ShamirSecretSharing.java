@@ -2,13 +2,16 @@ package org.cryptimeleon.craco.secretsharing.shamir;
 
 import org.cryptimeleon.craco.common.policies.Policy;
 import org.cryptimeleon.craco.common.policies.ThresholdPolicy;
+import org.cryptimeleon.craco.common.utils.LruCache;
+import org.cryptimeleon.craco.common.utils.PolynomialUtil;
+import org.cryptimeleon.craco.common.utils.ZnUtil;
 import org.cryptimeleon.craco.secretsharing.LinearSecretSharing;
 import org.cryptimeleon.craco.secretsharing.ThresholdTreeSecretSharing;
 import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
 import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
-import org.cryptimeleon.math.structures.rings.RingElement;
 import org.cryptimeleon.math.structures.rings.polynomial.PolynomialRing;
 import org.cryptimeleon.math.structures.rings.polynomial.PolynomialRing.Polynomial;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 
 import java.math.BigInteger;
@@ -33,9 +36,21 @@ import java.util.stream.IntStream;
  * {@link ThresholdTreeSecretSharing}.
  */
 public class ShamirSecretSharing implements LinearSecretSharing<Policy> {
+    /**
+     * Maximal number of index sets whose Lagrange coefficients are held by {@link #solvingVectorCache}.
+     */
+    private static final int SOLVING_VECTOR_CACHE_SIZE = 64;
+
     private ThresholdPolicy policy;
     private Zp field;
 
+    /**
+     * Lagrange coefficients of the quorums that reconstructed a secret most recently, so a quorum reconstructing
+     * again skips the inversion.
+     */
+    private final LruCache<Set<Integer>, Map<Integer, Zp.ZpElement>> solvingVectorCache =
+            new LruCache<>(SOLVING_VECTOR_CACHE_SIZE);
+
     /**
      * Create a new {@link ShamirSecretSharing} instance
      *
@@ -58,18 +73,19 @@ public class ShamirSecretSharing implements LinearSecretSharing<Policy> {
         //The Polynomial shall be reconstructed using t data points (shares).
         //Therefore we construct a polynomial of degree t-1 using t coefficients.
         //To ensure P(0)=s we fix the first data point (coeff for x^0) to s and choose the remaining at random.
-        RingElement[] coefficients = new RingElement[policy.getThreshold()];
-        coefficients[0] = secret;
+        BigInteger[] coefficients = new BigInteger[policy.getThreshold()];
+        coefficients[0] = secret.getInteger();
         for (int i = 1; i < coefficients.length; i++) {
-            coefficients[i] = field.getUniformlyRandomUnit();
+            coefficients[i] = field.getUniformlyRandomUnit().getInteger();
         }
-        PolynomialRing.Polynomial polynomial = PolynomialRing.getPoly(coefficients);
 
-        //The shares are determined by evaluating their respective share id on the constructed polynomial
+        //The shares are determined by evaluating their respective share id on the constructed polynomial.
+        //As the share ids are 1, ..., n, this is done via finite differences instead of evaluating at each id.
+        BigInteger[] values = PolynomialUtil.evaluateAtConsecutivePoints(coefficients, 1, numberOfChildren,
+                field.size());
         Map<Integer, Zp.ZpElement> shares = new HashMap<>(numberOfChildren);
         for (int i = 1; i <= numberOfChildren; i++) {
-            Zp.ZpElement element = field.createZnElement(BigInteger.valueOf(i));
-            shares.put(i, (Zp.ZpElement) polynomial.evaluate(element));
+            shares.put(i, field.createZnElement(values[i - 1]));
         }
 
         return shares;
@@ -97,26 +113,53 @@ public class ShamirSecretSharing implements LinearSecretSharing<Policy> {
      * <p>
      * for the a_i output by this function.
      * </p>
+     * <p>
+     * The coefficients are cached for the most recently used index sets, as the same quorum often reconstructs
+     * many secrets.
      *
      * @param shareReceiverIds index set of shares to use during interpolation
      * @return a mapping (i -> a_i) s.t. a_i = \prod\limits_{i \neq j}(\frac{-x_j}{x_i-x_j})
      */
     private Map<Integer, Zp.ZpElement> getSolvingVector(Collection<Integer> shareReceiverIds) throws NoSatisfyingSet,
             WrongAccessStructureException {
-        Map<Integer, Zp.ZpElement> solvingVector = new HashMap<>(shareReceiverIds.size());
-        for (int i : shareReceiverIds) {
-            Zp.ZpElement numerator = field.getOneElement();
-            Zp.ZpElement denominator = field.getOneElement();
-            for (int j : shareReceiverIds) {
+        Set<Integer> key = new HashSet<>(shareReceiverIds);
+        Map<Integer, Zp.ZpElement> solvingVector = solvingVectorCache.get(key);
+        if (solvingVector == null) {
+            solvingVector = solvingVectorCache.putIfAbsent(key,
+                    Collections.unmodifiableMap(computeSolvingVector(key)));
+        }
+        return new HashMap<>(solvingVector);
+    }
+
+    /**
+     * Computes the coefficients \(a_i = \prod_{j \neq i} x_j / (x_j - x_i) = N / (x_i \prod_{j \neq i} (x_j - x_i))\)
+     * with \(N = \prod_j x_j\). The denominators are inverted with a single inversion via
+     * {@link ZnUtil#batchInvert(Zn.ZnElement[])}.
+     */
+    private Map<Integer, Zp.ZpElement> computeSolvingVector(Set<Integer> shareReceiverIds) {
+        BigInteger p = field.size();
+        int[] ids = shareReceiverIds.stream().mapToInt(Integer::intValue).toArray();
+
+        BigInteger numerator = BigInteger.ONE;
+        Zn.ZnElement[] denominators = new Zn.ZnElement[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            numerator = numerator.multiply(BigInteger.valueOf(ids[i])).mod(p);
+            // the factors are small, so they are only reduced once the product gets large
+            BigInteger denominator = BigInteger.valueOf(ids[i]);
+            for (int j = 0; j < ids.length; j++) {
                 if (i == j)
                     continue;
-
-                Zp.ZpElement xi = field.createZnElement(BigInteger.valueOf(i));
-                Zp.ZpElement xj = field.createZnElement(BigInteger.valueOf(j));
-                numerator = numerator.mul(xj.neg());
-                denominator = denominator.mul(xi.add(xj.neg()));
+                denominator = denominator.multiply(BigInteger.valueOf((long) ids[j] - ids[i]));
+                if (denominator.bitLength() > 2 * p.bitLength())
+                    denominator = denominator.mod(p);
             }
-            solvingVector.put(i, numerator.mul(denominator.inv()));
+            denominators[i] = field.createZnElement(denominator.mod(p));
+        }
+
+        Zn.ZnElement[] inverses = ZnUtil.batchInvert(denominators);
+        Map<Integer, Zp.ZpElement> solvingVector = new HashMap<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            solvingVector.put(ids[i], field.createZnElement(numerator.multiply(inverses[i].getInteger()).mod(p)));
         }
         return solvingVector;
     }
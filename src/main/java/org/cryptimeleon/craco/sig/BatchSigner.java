@@ -0,0 +1,118 @@
+package org.cryptimeleon.craco.sig;
+
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Signs batches of message blocks under a single signing key in parallel.
+ * <p>
+ * A batch is split into chunks of at most {@code chunkSize} message blocks which are signed as independent tasks on
+ * the given {@link ExecutorService}. Each chunk is signed via
+ * {@link MultiMessageSignatureScheme#signMessageBlocks(List, SigningKey)}, which allows schemes to share work such as
+ * fixed-base precomputation or batched inversions across the signatures of a chunk.
+ * <p>
+ * Failures are reported per message block: if signing a chunk fails, its message blocks are signed one by one
+ * to determine which of them caused the failure.
+ */
+public class BatchSigner {
+    /**
+     * Default number of message blocks signed per task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    private final MultiMessageSignatureScheme scheme;
+    private final ExecutorService executor;
+    private final int chunkSize;
+
+    /**
+     * Creates a batch signer.
+     *
+     * @param scheme    the scheme to sign with
+     * @param executor  the executor to run signing tasks on
+     * @param chunkSize the maximal number of message blocks signed per task
+     */
+    public BatchSigner(MultiMessageSignatureScheme scheme, ExecutorService executor, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.scheme = scheme;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates a batch signer using chunks of {@link #DEFAULT_CHUNK_SIZE} message blocks.
+     *
+     * @param scheme   the scheme to sign with
+     * @param executor the executor to run signing tasks on
+     */
+    public BatchSigner(MultiMessageSignatureScheme scheme, ExecutorService executor) {
+        this(scheme, executor, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a batch signer running on the common {@link ForkJoinPool}.
+     *
+     * @param scheme the scheme to sign with
+     */
+    public BatchSigner(MultiMessageSignatureScheme scheme) {
+        this(scheme, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Signs each of the given message blocks using the given signing key.
+     *
+     * @param messageBlocks the message blocks to sign
+     * @param signingKey    the key to sign with
+     * @return one result per message block, in the order of {@code messageBlocks}
+     */
+    public List<BatchSigningResult> signBatch(List<? extends MessageBlock> messageBlocks, SigningKey signingKey) {
+        List<Future<List<BatchSigningResult>>> chunkResults = new ArrayList<>();
+        for (int start = 0; start < messageBlocks.size(); start += chunkSize) {
+            List<? extends MessageBlock> chunk =
+                    messageBlocks.subList(start, Math.min(start + chunkSize, messageBlocks.size()));
+            chunkResults.add(executor.submit(() -> signChunk(chunk, signingKey)));
+        }
+
+        List<BatchSigningResult> results = new ArrayList<>(messageBlocks.size());
+        for (Future<List<BatchSigningResult>> chunkResult : chunkResults) {
+            try {
+                results.addAll(chunkResult.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for batch signing", e);
+            } catch (ExecutionException e) {
+                // signChunk catches all failures of individual signing operations
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private List<BatchSigningResult> signChunk(List<? extends MessageBlock> chunk, SigningKey signingKey) {
+        List<BatchSigningResult> results = new ArrayList<>(chunk.size());
+        try {
+            for (Signature signature : scheme.signMessageBlocks(chunk, signingKey)) {
+                results.add(BatchSigningResult.success(signature));
+            }
+            return results;
+        } catch (RuntimeException e) {
+            // find out which message blocks cause the failure
+            results.clear();
+            for (MessageBlock messageBlock : chunk) {
+                try {
+                    results.add(BatchSigningResult.success(scheme.sign(messageBlock, signingKey)));
+                } catch (RuntimeException failure) {
+                    results.add(BatchSigningResult.failure(failure));
+                }
+            }
+            return results;
+        }
+    }
+}
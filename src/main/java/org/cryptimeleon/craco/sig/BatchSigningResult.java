@@ -0,0 +1,73 @@
+package org.cryptimeleon.craco.sig;
+
+import java.util.Objects;
+
+/**
+ * The result of signing a single message block as part of a batch via {@link BatchSigner}.
+ * Either contains the signature, or the exception that caused signing to fail.
+ */
+public class BatchSigningResult {
+
+    private final Signature signature;
+    private final RuntimeException failure;
+
+    private BatchSigningResult(Signature signature, RuntimeException failure) {
+        this.signature = signature;
+        this.failure = failure;
+    }
+
+    /**
+     * Creates the result of a successful signing operation.
+     *
+     * @param signature the resulting signature
+     */
+    public static BatchSigningResult success(Signature signature) {
+        return new BatchSigningResult(Objects.requireNonNull(signature), null);
+    }
+
+    /**
+     * Creates the result of a failed signing operation.
+     *
+     * @param failure the cause of the failure
+     */
+    public static BatchSigningResult failure(RuntimeException failure) {
+        return new BatchSigningResult(null, Objects.requireNonNull(failure));
+    }
+
+    /**
+     * Returns true if signing succeeded.
+     */
+    public boolean isSuccessful() {
+        return signature != null;
+    }
+
+    /**
+     * Returns the signature, or null if signing failed.
+     */
+    public Signature getSignature() {
+        return signature;
+    }
+
+    /**
+     * Returns the cause of the failure, or null if signing succeeded.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns the signature, or throws the cause of the failure if signing failed.
+     */
+    public Signature getSignatureOrThrow() {
+        if (failure != null) {
+            throw failure;
+        }
+        return signature;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccessful() ? "BatchSigningResult [signature=" + signature + "]"
+                : "BatchSigningResult [failure=" + failure + "]";
+    }
+}
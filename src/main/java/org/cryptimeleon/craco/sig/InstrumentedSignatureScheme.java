@@ -0,0 +1,96 @@
+package org.cryptimeleon.craco.sig;
+
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
+import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.math.serialization.Representation;
+import org.cryptimeleon.math.serialization.annotations.ReprUtil;
+import org.cryptimeleon.math.serialization.annotations.Represented;
+
+/**
+ * Wraps a {@link SignatureScheme} and records metrics for {@code sign} and {@code verify}.
+ * <p>
+ * The representation contains the wrapped scheme. As the registry cannot be represented, a restored instance
+ * reports to {@link OperationMetricsRegistry#getDefault()}.
+ *
+ * @see SignatureScheme#instrument(SignatureScheme, OperationMetricsRegistry)
+ */
+public class InstrumentedSignatureScheme implements SignatureScheme {
+    @Represented
+    private SignatureScheme scheme;
+
+    private OperationMetricsRegistry registry;
+
+    InstrumentedSignatureScheme(SignatureScheme scheme, OperationMetricsRegistry registry) {
+        this.scheme = scheme;
+        this.registry = registry;
+    }
+
+    public InstrumentedSignatureScheme(Representation repr) {
+        new ReprUtil(this).deserialize(repr);
+        registry = OperationMetricsRegistry.getDefault();
+    }
+
+    @Override
+    public Signature sign(PlainText plainText, SigningKey secretKey) {
+        return registry.measure(scheme, "sign", () -> scheme.sign(plainText, secretKey),
+                OperationMetricsRegistry::computeSync);
+    }
+
+    @Override
+    public Boolean verify(PlainText plainText, Signature signature, VerificationKey publicKey) {
+        return registry.measure(scheme, "verify", () -> scheme.verify(plainText, signature, publicKey));
+    }
+
+    @Override
+    public PlainText restorePlainText(Representation repr) {
+        return scheme.restorePlainText(repr);
+    }
+
+    @Override
+    public Signature restoreSignature(Representation repr) {
+        return scheme.restoreSignature(repr);
+    }
+
+    @Override
+    public SigningKey restoreSigningKey(Representation repr) {
+        return scheme.restoreSigningKey(repr);
+    }
+
+    @Override
+    public VerificationKey restoreVerificationKey(Representation repr) {
+        return scheme.restoreVerificationKey(repr);
+    }
+
+    @Override
+    public PlainText mapToPlaintext(byte[] bytes, VerificationKey pk) {
+        return scheme.mapToPlaintext(bytes, pk);
+    }
+
+    @Override
+    public PlainText mapToPlaintext(byte[] bytes, SigningKey sk) {
+        return scheme.mapToPlaintext(bytes, sk);
+    }
+
+    @Override
+    public int getMaxNumberOfBytesForMapToPlaintext() {
+        return scheme.getMaxNumberOfBytesForMapToPlaintext();
+    }
+
+    @Override
+    public Representation getRepresentation() {
+        return ReprUtil.serialize(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        InstrumentedSignatureScheme that = (InstrumentedSignatureScheme) o;
+        return scheme.equals(that.scheme);
+    }
+
+    @Override
+    public int hashCode() {
+        return scheme.hashCode();
+    }
+}
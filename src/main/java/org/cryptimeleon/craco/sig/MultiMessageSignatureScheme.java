@@ -4,6 +4,9 @@ import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
 import org.cryptimeleon.math.structures.cartesian.Vector;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A {@code MultiMessageSignatureScheme} is one where the sign and verify algorithms take a list of messages as input
  * instead of a single message.
@@ -56,4 +59,24 @@ public interface MultiMessageSignatureScheme extends SignatureScheme {
     default Boolean verify(VerificationKey publicKey, Signature signature, Vector<? extends PlainText> plainTexts) {
         return verify(new MessageBlock(plainTexts), signature, publicKey);
     }
+
+    /**
+     * Signs each of the given message blocks using the given signing key.
+     * <p>
+     * Schemes may override this to share work between the signatures, for example precomputation for fixed bases
+     * or batched inversions. The default implementation calls {@link #sign(PlainText, SigningKey)} for each block.
+     * This method is used by {@link BatchSigner} to sign chunks of a batch.
+     *
+     * @param messageBlocks the message blocks to sign
+     * @param secretKey     the key to sign with
+     * @return the signatures, in the order of {@code messageBlocks}
+     * @throws IllegalArgumentException if any of the message blocks cannot be signed with the given key
+     */
+    default List<Signature> signMessageBlocks(List<? extends MessageBlock> messageBlocks, SigningKey secretKey) {
+        List<Signature> signatures = new ArrayList<>(messageBlocks.size());
+        for (MessageBlock messageBlock : messageBlocks) {
+            signatures.add(sign(messageBlock, secretKey));
+        }
+        return signatures;
+    }
 }
@@ -0,0 +1,151 @@
+package org.cryptimeleon.craco.sig;
+
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearMap;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pairing product equation \(\prod_i e(a_i, b_i)^{c_i} = 1_{G_T}\) used to verify signatures.
+ * <p>
+ * Instead of computing both sides of a verification equation \(e(a,b) = e(c,d)\) separately and comparing them in
+ * \(G_T\), verification equations are rewritten as a single product \(e(a,b) \cdot e(c^{-1},d)\) that is checked
+ * against the neutral element.
+ * To keep the number of pairings low,
+ * <ul>
+ *     <li>exponents and inversions are moved into the first pairing argument, where group operations are
+ *     cheapest, i.e. \(e(a,b)^c\) is evaluated as \(e(a^c, b)\), and</li>
+ *     <li>terms with equal second argument are merged, i.e. \(e(a,b) \cdot e(c,b)\) is evaluated as
+ *     \(e(ac, b)\). The merged first arguments are computed as a single multi-exponentiation.</li>
+ * </ul>
+ * The remaining pairings are evaluated as one inner product via {@link BilinearMap#innerProduct}, so a bilinear
+ * map that supports multi-pairings can share Miller loops and the final exponentiation across all of them.
+ * <p>
+ * Effect on the verification algorithms of the schemes in this package (\(n\) denotes the message block length):
+ * <ul>
+ *     <li>{@code PSSignatureScheme}, {@code PS18SignatureScheme}, {@code PS18ROMSignatureScheme}: still two
+ *     pairings, but a single check against \(1_{G_T}\) instead of computing and comparing both sides.</li>
+ *     <li>{@code BBSBSignatureScheme}: two pairings; \(e(A, w \cdot g_2^x) = e(C, g_2)\) is checked as
+ *     \(e(A, w) \cdot e(A^x C^{-1}, g_2) = 1\), which replaces the exponentiation in \(G_2\) by one in the cheaper
+ *     group \(G_1\).</li>
+ *     <li>{@code SPSEQSignatureScheme}: both verification equations are combined with a random exponent, so the
+ *     pairings with \(\hat{Y}\) are merged. This reduces \(n + 3\) pairings and two checks in \(G_T\) to
+ *     \(n + 2\) pairings and a single check.</li>
+ * </ul>
+ * <p>
+ * Usage example (verification equation \(e(\sigma_1, \tilde{X}) = e(\sigma_2, \tilde{g})\)):
+ * <pre>
+ * return new PairingProductEquation(bilinearMap)
+ *         .multiply(sigma1, tildeX)
+ *         .divide(sigma2, tildeG)
+ *         .isSatisfied();
+ * </pre>
+ */
+public class PairingProductEquation {
+    private final BilinearMap bilinearMap;
+
+    /**
+     * Maps each distinct second pairing argument to the product of the first arguments paired with it.
+     */
+    private final Map<GroupElement, GroupElement> terms = new LinkedHashMap<>();
+
+    public PairingProductEquation(BilinearMap bilinearMap) {
+        this.bilinearMap = bilinearMap;
+    }
+
+    /**
+     * Multiplies the product with \(e(g1, g2)\).
+     *
+     * @param g1 the first pairing argument
+     * @param g2 the second pairing argument
+     * @return this equation
+     */
+    public PairingProductEquation multiply(GroupElement g1, GroupElement g2) {
+        terms.merge(g2, g1, GroupElement::op);
+        return this;
+    }
+
+    /**
+     * Multiplies the product with \(e(g1, g2)^\text{exponent}\).
+     *
+     * @param g1 the first pairing argument
+     * @param g2 the second pairing argument
+     * @param exponent the exponent to apply to the pairing result
+     * @return this equation
+     */
+    public PairingProductEquation multiply(GroupElement g1, GroupElement g2, Zn.ZnElement exponent) {
+        return multiply(g1.pow(exponent), g2);
+    }
+
+    /**
+     * Multiplies the product with \(e(g1, g2)^{-1}\).
+     *
+     * @param g1 the first pairing argument
+     * @param g2 the second pairing argument
+     * @return this equation
+     */
+    public PairingProductEquation divide(GroupElement g1, GroupElement g2) {
+        return multiply(g1.inv(), g2);
+    }
+
+    /**
+     * Multiplies the product with all terms of the given equation, i.e. the resulting equation
+     * is satisfied if both equations are.
+     * To combine two equations soundly, raise one of them to a random exponent before (see
+     * {@link #pow(Zn.ZnElement)}).
+     *
+     * @param other the equation whose terms to add
+     * @return this equation
+     */
+    public PairingProductEquation multiply(PairingProductEquation other) {
+        other.terms.forEach((g2, g1) -> multiply(g1, g2));
+        return this;
+    }
+
+    /**
+     * Raises the whole product to the given exponent.
+     *
+     * @param exponent the exponent
+     * @return this equation
+     */
+    public PairingProductEquation pow(Zn.ZnElement exponent) {
+        terms.replaceAll((g2, g1) -> g1.pow(exponent));
+        return this;
+    }
+
+    /**
+     * Returns the number of pairings needed to evaluate this product after merging terms.
+     */
+    public int getNumberOfPairings() {
+        return terms.size();
+    }
+
+    /**
+     * Evaluates the product \(\prod_i e(a_i, b_i)\).
+     *
+     * @return the resulting element of \(G_T\)
+     */
+    public GroupElement evaluate() {
+        List<GroupElement> firstArguments = new ArrayList<>(terms.size());
+        List<GroupElement> secondArguments = new ArrayList<>(terms.size());
+        terms.forEach((g2, g1) -> {
+            firstArguments.add(g1);
+            secondArguments.add(g2);
+        });
+        return bilinearMap.innerProduct(new GroupElementVector(firstArguments), new GroupElementVector(secondArguments));
+    }
+
+    /**
+     * Checks whether the product evaluates to the neutral element of \(G_T\).
+     *
+     * @return true if the equation holds, false otherwise
+     */
+    public boolean isSatisfied() {
+        return evaluate().isNeutralElement();
+    }
+}
@@ -1,5 +1,6 @@
 package org.cryptimeleon.craco.sig;
 
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
 import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
 import org.cryptimeleon.math.serialization.Representation;
@@ -29,6 +30,21 @@ import java.lang.reflect.Type;
  *
  */
 public interface SignatureScheme extends StandaloneRepresentable, RepresentationRestorer {
+    /**
+     * Wraps the given scheme such that metrics of each call to {@code sign} and {@code verify} are recorded
+     * by the given registry.
+     * <p>
+     * The returned scheme only implements {@code SignatureScheme}, even if {@code scheme} implements
+     * sub-interfaces. It is restored from its representation with {@link OperationMetricsRegistry#getDefault()}.
+     *
+     * @param scheme   the scheme to instrument
+     * @param registry the registry to report to
+     * @return the instrumented scheme
+     */
+    static SignatureScheme instrument(SignatureScheme scheme, OperationMetricsRegistry registry) {
+        return new InstrumentedSignatureScheme(scheme, registry);
+    }
+
     /**
      * Signs the giving plaintext using the given signing key. The signing key should contain all information
      * necessary to sign, therefore public key is not needed.
@@ -0,0 +1,118 @@
+package org.cryptimeleon.craco.sig;
+
+import org.cryptimeleon.craco.common.ByteArrayImplementation;
+import org.cryptimeleon.craco.common.utils.LruCache;
+import org.cryptimeleon.math.hash.UniqueByteRepresentable;
+import org.cryptimeleon.math.serialization.Representation;
+
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * A bounded, thread-safe cache of prepared verification keys.
+ * <p>
+ * Preparing a verification key means setting up everything that speeds up repeated verification under that key,
+ * e.g. computing its group elements and precomputing exponentiation tables via
+ * {@link org.cryptimeleon.math.structures.groups.GroupElement#precomputePow()}.
+ * Keys restored from a {@link Representation} lose such precomputations, so restoring and preparing the same key
+ * again for every verification is wasteful.
+ * <p>
+ * Cached keys are found either via their unique byte representation ({@link #get(VerificationKey)}) or via the
+ * representation they were restored from ({@link #restore(Representation, Function)}). The latter skips
+ * deserialization entirely on a cache hit.
+ * Both indices hold at most the maximal number of keys and evict their least recently used key when full.
+ *
+ * @param <VK> the type of verification keys cached
+ */
+public class VerificationKeyCache<VK extends VerificationKey & UniqueByteRepresentable> {
+    /**
+     * Default maximal number of keys held by a cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final UnaryOperator<VK> preparer;
+
+    /**
+     * Prepared keys indexed by their unique byte representation.
+     */
+    private final LruCache<ByteArrayImplementation, VK> keysByUniqueBytes;
+
+    /**
+     * Prepared keys indexed by the representation they were restored from.
+     */
+    private final LruCache<Representation, VK> keysByRepresentation;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize  the maximal number of keys to hold
+     * @param preparer prepares a key for verification and returns the prepared key
+     */
+    public VerificationKeyCache(int maxSize, UnaryOperator<VK> preparer) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.preparer = preparer;
+        this.keysByUniqueBytes = new LruCache<>(maxSize);
+        this.keysByRepresentation = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Creates a new cache holding at most {@link #DEFAULT_MAX_SIZE} keys.
+     *
+     * @param preparer prepares a key for verification and returns the prepared key
+     */
+    public VerificationKeyCache(UnaryOperator<VK> preparer) {
+        this(DEFAULT_MAX_SIZE, preparer);
+    }
+
+    /**
+     * Returns the prepared version of the given key.
+     * If a key with the same unique byte representation has been prepared before, the cached key is returned.
+     * Otherwise, the given key is prepared and cached.
+     *
+     * @param key the key to look up
+     * @return a prepared key equal to {@code key}
+     */
+    public VK get(VK key) {
+        ByteArrayImplementation uniqueBytes = new ByteArrayImplementation(key.getUniqueByteRepresentation());
+        VK cached = keysByUniqueBytes.get(uniqueBytes);
+        if (cached != null) {
+            return cached;
+        }
+        return keysByUniqueBytes.putIfAbsent(uniqueBytes, preparer.apply(key));
+    }
+
+    /**
+     * Returns the prepared key with the given representation.
+     * If a key has been restored from an equal representation before, the cached key is returned without
+     * deserializing {@code repr}.
+     * Otherwise, the key is restored using {@code restorer}, prepared and cached.
+     *
+     * @param repr     the representation of the key
+     * @param restorer restores a key from its representation
+     * @return the prepared key
+     */
+    public VK restore(Representation repr, Function<Representation, ? extends VK> restorer) {
+        VK cached = keysByRepresentation.get(repr);
+        if (cached != null) {
+            return cached;
+        }
+        return keysByRepresentation.putIfAbsent(repr, get(restorer.apply(repr)));
+    }
+
+    /**
+     * Returns the number of keys currently held by this cache.
+     */
+    public int size() {
+        return keysByUniqueBytes.size();
+    }
+
+    /**
+     * Removes all keys from this cache.
+     */
+    public void clear() {
+        keysByUniqueBytes.clear();
+        keysByRepresentation.clear();
+    }
+}
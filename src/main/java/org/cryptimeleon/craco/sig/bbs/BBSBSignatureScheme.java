@@ -3,6 +3,7 @@ package org.cryptimeleon.craco.sig.bbs;
 import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
 import org.cryptimeleon.craco.common.plaintexts.RingElementPlainText;
+import org.cryptimeleon.craco.common.utils.ZnUtil;
 import org.cryptimeleon.craco.sig.*;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.structures.groups.GroupElement;
@@ -11,7 +12,9 @@ import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 import org.cryptimeleon.math.structures.rings.zn.Zp.ZpElement;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -118,6 +121,57 @@ public class BBSBSignatureScheme implements StandardMultiMessageSignatureScheme
         return new BBSABSignature(signatureElementA, exponentX, exponentSPrime);
     }
 
+    /**
+     * Signs each of the given message blocks.
+     * <p>
+     * All exponents \(1/(x_i + \gamma)\) are computed with a single inversion (cf. {@link ZnUtil#batchInvert}), and
+     * each \(A_i\) is computed as a single fixed-base exponentiation
+     * \(g_1^{(1 + s_i z_0 + \sum_j z_j m_{i,j})/(x_i + \gamma)}\) using a precomputed table for \(g_1\).
+     */
+    @Override
+    public List<Signature> signMessageBlocks(List<? extends MessageBlock> messageBlocks, SigningKey secretKey) {
+        if (!(secretKey instanceof BBSBSigningKey)) {
+            throw new IllegalArgumentException("Not a valid signing key for this scheme");
+        }
+        BBSBSigningKey sk = (BBSBSigningKey) secretKey;
+        int numberOfSignatures = messageBlocks.size();
+
+        ZpElement[] exponentsX = new ZpElement[numberOfSignatures];
+        ZpElement[] exponentsSPrime = new ZpElement[numberOfSignatures];
+        ZpElement[] resultExponents = new ZpElement[numberOfSignatures];
+        Zn.ZnElement[] denominators = new Zn.ZnElement[numberOfSignatures];
+        for (int k = 0; k < numberOfSignatures; k++) {
+            MessageBlock messageBlock = messageBlocks.get(k);
+            if (messageBlock.length() != sk.getNumberOfMessages()) {
+                throw new IllegalArgumentException("Not a valid block size for this scheme");
+            }
+            do {
+                exponentsX[k] = pp.getZp().getUniformlyRandomElement();
+            } while (exponentsX[k].equals(sk.getExponentGamma().neg()));
+            exponentsSPrime[k] = pp.getZp().getUniformlyRandomElement();
+
+            // 1+s*z_0+Sum( zi*mi )
+            ZpElement resultExponent = pp.getZp().getOneElement().add(sk.getZiExponents()[0].mul(exponentsSPrime[k]));
+            for (int i = 1; i <= sk.getNumberOfMessages(); i++) {
+                resultExponent = resultExponent
+                        .add(sk.getZiExponents()[i]
+                                .mul((ZpElement) ((RingElementPlainText) messageBlock.get(i - 1)).getRingElement()));
+            }
+            resultExponents[k] = resultExponent;
+            denominators[k] = exponentsX[k].add(sk.getExponentGamma());
+        }
+
+        Zn.ZnElement[] inverses = ZnUtil.batchInvert(denominators); // 1/(x+gamma)
+        GroupElement g1 = pp.getG1().precomputePow();
+
+        List<Signature> signatures = new ArrayList<>(numberOfSignatures);
+        for (int k = 0; k < numberOfSignatures; k++) {
+            GroupElement signatureElementA = g1.pow(resultExponents[k].mul(inverses[k])).computeSync();
+            signatures.add(new BBSABSignature(signatureElementA, exponentsX[k], exponentsSPrime[k]));
+        }
+        return signatures;
+    }
+
     @Override
     public Boolean verify(PlainText plainText, Signature signature, VerificationKey publicKey) {
         if (!(plainText instanceof MessageBlock)) {
@@ -144,11 +198,13 @@ public class BBSBSignatureScheme implements StandardMultiMessageSignatureScheme
                     .pow((ZpElement) ((RingElementPlainText) messageBlock.get(i - 1)).getRingElement()));
         }
 
-        GroupElement g2 = pp.getG2();
-        GroupElement rightHandSide = pp.getBilinearMap().apply(rebuildC, g2);
-        GroupElement leftHandSide = pp.getBilinearMap().apply(sigma.getElementA(),
-                pk.getW().op(g2.pow(sigma.getExponentX())));
-        return leftHandSide.equals(rightHandSide);
+        // check e(A, w * g2^x) = e(rebuildC, g2), rewritten as e(A, w) * e(A^x * rebuildC^{-1}, g2) = 1_{G_T}
+        // so that the exponentiation by x happens in G1 instead of G2
+        return new PairingProductEquation(pp.getBilinearMap())
+                .multiply(sigma.getElementA(), pk.getW())
+                .multiply(sigma.getElementA(), pp.getG2(), sigma.getExponentX())
+                .divide(rebuildC, pp.getG2())
+                .isSatisfied();
     }
 
     @Override
@@ -85,6 +85,7 @@ public class PSExtendedSignatureScheme extends PSSignatureScheme{
     public PSExtendedVerificationKey restoreVerificationKey(Representation repr) {
         final BilinearMap bilinearMap = super.getPp().getBilinearMap();
         // Constructor for using the extended Verification key (enabling optional blinding/unblinding)
-        return new PSExtendedVerificationKey(bilinearMap.getG1(), bilinearMap.getG2(), repr);
+        return (PSExtendedVerificationKey) verificationKeyCache.restore(repr,
+                r -> new PSExtendedVerificationKey(bilinearMap.getG1(), bilinearMap.getG2(), r));
     }
 }
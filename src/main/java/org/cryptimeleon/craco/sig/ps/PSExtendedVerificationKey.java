@@ -5,8 +5,6 @@ import org.cryptimeleon.craco.protocols.CommonInput;
 import org.cryptimeleon.craco.sig.VerificationKey;
 import org.cryptimeleon.math.hash.ByteAccumulator;
 import org.cryptimeleon.math.hash.UniqueByteRepresentable;
-import org.cryptimeleon.math.hash.annotations.AnnotatedUbrUtil;
-import org.cryptimeleon.math.hash.annotations.UniqueByteRepresented;
 import org.cryptimeleon.math.hash.impl.ByteArrayAccumulator;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
@@ -37,12 +35,10 @@ public class PSExtendedVerificationKey extends PSVerificationKey
 
     // Added parameters to enable blindly signing messages in combination with the Pedersen commitment scheme
     // g for enabling optional blinding/unblinding
-    @UniqueByteRepresented
     @Represented(restorer = "G1")
     private GroupElement group1ElementG;
 
     // Y_i for enabling optional blinding/unblinding
-    @UniqueByteRepresented
     @Represented(restorer = "G1")
     private GroupElementVector group1ElementsYi;
 
@@ -108,7 +104,12 @@ public class PSExtendedVerificationKey extends PSVerificationKey
 
     @Override
     public ByteAccumulator updateAccumulator(ByteAccumulator byteAccumulator) {
-        return AnnotatedUbrUtil.autoAccumulate(byteAccumulator, this);
+        super.updateAccumulator(byteAccumulator);
+        byteAccumulator.escapeAndSeparate(group1ElementG);
+        for (int i = 0; i < group1ElementsYi.length(); i++) {
+            byteAccumulator.escapeAndSeparate(group1ElementsYi.get(i));
+        }
+        return byteAccumulator;
     }
 
     @Override
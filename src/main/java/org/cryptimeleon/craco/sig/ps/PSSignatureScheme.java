@@ -3,6 +3,7 @@ package org.cryptimeleon.craco.sig.ps;
 import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
 import org.cryptimeleon.craco.common.plaintexts.RingElementPlainText;
+import org.cryptimeleon.craco.common.utils.BatchVerificationUtil;
 import org.cryptimeleon.craco.sig.*;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
@@ -10,12 +11,14 @@ import org.cryptimeleon.math.serialization.annotations.Represented;
 import org.cryptimeleon.math.structures.groups.Group;
 import org.cryptimeleon.math.structures.groups.GroupElement;
 import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
+import org.cryptimeleon.math.structures.rings.RingElement;
 import org.cryptimeleon.math.structures.rings.cartesian.RingElementVector;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 import org.cryptimeleon.math.structures.rings.zn.Zp.ZpElement;
 
 import java.math.BigInteger;
-import java.util.Objects;
+import java.util.*;
 
 /**
  * Signature scheme that was originally presented in chapter 4.2 of [1] by Pointcheval and Sanders. The result is a
@@ -37,6 +40,18 @@ public class PSSignatureScheme implements StandardMultiMessageSignatureScheme {
     @Represented
     protected PSPublicParameters pp;
 
+    /**
+     * Cache of verification keys restored via {@link #restoreVerificationKey(Representation)}, together with their
+     * precomputed exponentiation tables.
+     */
+    protected final VerificationKeyCache<PSVerificationKey> verificationKeyCache =
+            new VerificationKeyCache<>(this::precomputeVerificationKey);
+
+    /**
+     * Generator of G_1 with precomputed exponentiation table, used by {@link #signMessageBlocks(List, SigningKey)}.
+     */
+    private volatile GroupElement precomputedGroup1Generator;
+
     public PSSignatureScheme(PSPublicParameters pp) {
         super();
         this.pp = pp;
@@ -68,10 +83,41 @@ public class PSSignatureScheme implements StandardMultiMessageSignatureScheme {
         PSSigningKey sk = new PSSigningKey(exponentX, exponentsYi);
 
         // Set public key ( verification key)
-        PSVerificationKey pk = new PSVerificationKey(group2ElementTildeG, group2ElementX, group2ElementsYi);
+        PSVerificationKey pk = precomputeVerificationKey(
+                new PSVerificationKey(group2ElementTildeG, group2ElementX, group2ElementsYi)
+        );
         return new SignatureKeyPair<>(pk, sk);
     }
 
+    /**
+     * Prepares the given verification key for repeated verification by precomputing exponentiation tables for
+     * the bases \(\tilde{X}, \tilde{Y}_i\) of the multi-exponentiation in {@link #verify}.
+     * The fixed pairing argument \(\tilde{g}\) is computed, such that it is not recomputed by every pairing.
+     *
+     * @param pk the key to prepare
+     * @return {@code pk}
+     */
+    protected <VK extends PSVerificationKey> VK precomputeVerificationKey(VK pk) {
+        pk.getGroup2ElementTildeG().compute();
+        pk.getGroup2ElementTildeX().precomputePow();
+        pk.getGroup2ElementsTildeYi().precomputePow();
+        return pk;
+    }
+
+    /**
+     * Returns a verification key equal to the given one with precomputed exponentiation tables.
+     * Keys are cached, so calling this repeatedly with the same key only sets up the tables once.
+     *
+     * @param publicKey the verification key
+     * @return the cached, precomputed verification key
+     */
+    public PSVerificationKey getPrecomputedVerificationKey(VerificationKey publicKey) {
+        if (!(publicKey instanceof PSVerificationKey)) {
+            throw new IllegalArgumentException("Not a valid public key for this scheme");
+        }
+        return verificationKeyCache.get((PSVerificationKey) publicKey);
+    }
+
     @Override
     public Signature sign(PlainText plainText, SigningKey secretKey) {
         if (plainText instanceof RingElementPlainText) {
@@ -107,6 +153,51 @@ public class PSSignatureScheme implements StandardMultiMessageSignatureScheme {
         return new PSSignature(group1ElementH, group1ElementSigma2);
     }
 
+    /**
+     * Signs each of the given message blocks.
+     * <p>
+     * Instead of drawing a fresh random \(\sigma_1 \in G_1 \setminus \{1\}\) for each signature, \(\sigma_1 = g^r\)
+     * is computed for a fixed generator g and uniformly random \(r \in \mathbb{Z}_p^*\), which has the same
+     * distribution.
+     * This way, both \(\sigma_1 = g^r\) and \(\sigma_2 = g^{r(x + \sum_j y_j m_j)}\) are fixed-base
+     * exponentiations which share a precomputed table for g.
+     */
+    @Override
+    public List<Signature> signMessageBlocks(List<? extends MessageBlock> messageBlocks, SigningKey secretKey) {
+        if (!(secretKey instanceof PSSigningKey)) {
+            throw new IllegalArgumentException("Not a valid signing key for this scheme");
+        }
+        PSSigningKey sk = (PSSigningKey) secretKey;
+        GroupElement generator = getPrecomputedGroup1Generator();
+
+        List<Signature> signatures = new ArrayList<>(messageBlocks.size());
+        for (MessageBlock messageBlock : messageBlocks) {
+            if (messageBlock.length() != sk.getNumberOfMessages()) {
+                throw new IllegalArgumentException("Not a valid block size for this scheme");
+            }
+            ZpElement exponentR = pp.getZp().getUniformlyRandomNonzeroElement();
+
+            // compute resultExponent = x + y_i * m_i
+            ZpElement resultExponent = sk.getExponentX().add(
+                    messageBlock.map(pt -> ((RingElementPlainText) pt).getRingElement(), RingElementVector::new)
+                            .innerProduct(sk.getExponentsYi())
+            );
+
+            signatures.add(new PSSignature(
+                    generator.pow(exponentR).computeSync(),
+                    generator.pow(exponentR.mul(resultExponent)).computeSync()
+            ));
+        }
+        return signatures;
+    }
+
+    private GroupElement getPrecomputedGroup1Generator() {
+        if (precomputedGroup1Generator == null) {
+            precomputedGroup1Generator = pp.getBilinearMap().getG1().getGenerator().precomputePow();
+        }
+        return precomputedGroup1Generator;
+    }
+
     @Override
     public Boolean verify(PlainText plainText, Signature signature, VerificationKey publicKey) {
         if (plainText instanceof RingElementPlainText) {
@@ -131,20 +222,123 @@ public class PSSignatureScheme implements StandardMultiMessageSignatureScheme {
         if (sigma.getGroup1ElementSigma1().isNeutralElement())
             return false;
 
-        // Check if verification equation of multi message signature scheme holds
-        GroupElement leftHandSide, rightHandSide;
-
-        // Compute right hand side of verification equation
-        rightHandSide = pp.getBilinearMap().apply(sigma.getGroup1ElementSigma2(), pk.getGroup2ElementTildeG());
-
-        // Compute left hand side of verification equation
+        // Check if verification equation of multi message signature scheme holds, i.e.
+        // e(sigma_1, group2Elem) * e(sigma_2, \tilde{g})^{-1} = 1_{G_T}
         GroupElement group2Elem = pk.getGroup2ElementTildeX().op(
                 pk.getGroup2ElementsTildeYi().innerProduct(messageBlock.map(pt -> ((RingElementPlainText) pt).getRingElement(), RingElementVector::new))
         ); // group2Elem = \tilde(X) * prod \tilde(Y)_j^{m_j}
 
-        leftHandSide = pp.getBilinearMap().apply(sigma.getGroup1ElementSigma1(), group2Elem);
+        return new PairingProductEquation(pp.getBilinearMap())
+                .multiply(sigma.getGroup1ElementSigma1(), group2Elem)
+                .divide(sigma.getGroup1ElementSigma2(), pk.getGroup2ElementTildeG())
+                .isSatisfied();
+    }
 
-        return leftHandSide.equals(rightHandSide);
+    /**
+     * Verifies a batch of signatures under a single verification key.
+     * <p>
+     * Equivalent to {@link #verifyBatch(List, List, List)} with {@code publicKey} used for every signature.
+     *
+     * @param plainTexts the plaintexts the signatures should validate against
+     * @param signatures the signatures to verify
+     * @param publicKey  the verification key to verify with
+     * @return the ascending indices of the invalid signatures; empty if all signatures are valid
+     */
+    public List<Integer> verifyBatch(List<? extends PlainText> plainTexts, List<? extends Signature> signatures,
+                                     VerificationKey publicKey) {
+        return verifyBatch(plainTexts, signatures, Collections.nCopies(signatures.size(), publicKey));
+    }
+
+    /**
+     * Verifies a batch of signatures, where the i-th signature is verified for the i-th plaintext under the
+     * i-th verification key.
+     * <p>
+     * All verification equations are merged into a single pairing product equation using random small exponents
+     * \(\delta_i\) (cf. {@link BatchVerificationUtil}). For each distinct verification key, the signatures
+     * under that key contribute
+     * \(e(\prod_i \sigma_{1,i}^{\delta_i}, \tilde{X}) \cdot \prod_j e(\prod_i \sigma_{1,i}^{\delta_i m_{i,j}}, \tilde{Y}_j)
+     * \cdot e(\prod_i \sigma_{2,i}^{-\delta_i}, \tilde{g})\),
+     * so a batch costs \(n+2\) pairings per distinct key (where n is the message block length)
+     * plus multi-exponentiations in \(\mathbb{G}_1\), independent of the number of signatures.
+     * <p>
+     * If the combined check fails, the batch is bisected to determine which signatures are invalid.
+     *
+     * @param plainTexts the plaintexts the signatures should validate against
+     * @param signatures the signatures to verify
+     * @param publicKeys the verification keys to verify with
+     * @return the ascending indices of the invalid signatures; empty if all signatures are valid
+     */
+    public List<Integer> verifyBatch(List<? extends PlainText> plainTexts, List<? extends Signature> signatures,
+                                     List<? extends VerificationKey> publicKeys) {
+        if (plainTexts.size() != signatures.size() || signatures.size() != publicKeys.size()) {
+            throw new IllegalArgumentException("Number of plaintexts, signatures and verification keys must match");
+        }
+
+        List<MessageBlock> messageBlocks = new ArrayList<>(plainTexts.size());
+        List<PSSignature> sigmas = new ArrayList<>(signatures.size());
+        List<PSVerificationKey> pks = new ArrayList<>(publicKeys.size());
+        for (int i = 0; i < signatures.size(); i++) {
+            PlainText plainText = plainTexts.get(i);
+            if (plainText instanceof RingElementPlainText) {
+                plainText = new MessageBlock(plainText);
+            }
+            if (!(plainText instanceof MessageBlock)) {
+                throw new IllegalArgumentException("Not a valid plain text for this scheme");
+            }
+            if (!(signatures.get(i) instanceof PSSignature)) {
+                throw new IllegalArgumentException("Not a valid signature for this scheme");
+            }
+            if (!(publicKeys.get(i) instanceof PSVerificationKey)) {
+                throw new IllegalArgumentException("Not a valid public key for this scheme");
+            }
+            messageBlocks.add((MessageBlock) plainText);
+            sigmas.add((PSSignature) signatures.get(i));
+            pks.add((PSVerificationKey) publicKeys.get(i));
+        }
+
+        // invalid signature if sigma_1 == 1_{G_1}, independent of the verification equation
+        List<Integer> invalid = new ArrayList<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < sigmas.size(); i++) {
+            if (sigmas.get(i).getGroup1ElementSigma1().isNeutralElement()) {
+                invalid.add(i);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        invalid.addAll(BatchVerificationUtil.findInvalidIndices(candidates,
+                batch -> checkBatchVerificationEquation(batch, messageBlocks, sigmas, pks)));
+        Collections.sort(invalid);
+        return invalid;
+    }
+
+    /**
+     * Checks the combined verification equation for the signatures at the given indices.
+     */
+    protected boolean checkBatchVerificationEquation(List<Integer> indices, List<MessageBlock> messageBlocks,
+                                                     List<PSSignature> sigmas, List<PSVerificationKey> pks) {
+        // pairings with the same key element are merged by the pairing product equation
+        PairingProductEquation ppe = new PairingProductEquation(pp.getBilinearMap());
+        for (Integer i : indices) {
+            MessageBlock messageBlock = messageBlocks.get(i);
+            PSVerificationKey pk = pks.get(i);
+            if (messageBlock.length() != pk.getNumberOfMessages()) {
+                return false;
+            }
+            Zn.ZnElement delta = BatchVerificationUtil.getRandomBatchExponent(pp.getZp());
+            GroupElement sigma1 = sigmas.get(i).getGroup1ElementSigma1();
+
+            // (e(sigma_1, \tilde{X}) * \prod e(sigma_1^{m_j}, \tilde{Y}_j) * e(sigma_2, \tilde{g})^{-1})^{delta_i}
+            ppe.multiply(sigma1, pk.getGroup2ElementTildeX(), delta);
+            for (int j = 0; j < messageBlock.length(); j++) {
+                RingElement message = ((RingElementPlainText) messageBlock.get(j)).getRingElement();
+                ppe.multiply(sigma1, pk.getGroup2ElementsTildeYi().get(j), delta.mul(message));
+            }
+            ppe.divide(sigmas.get(i).getGroup1ElementSigma2().pow(delta), pk.getGroup2ElementTildeG());
+        }
+
+        return ppe.isSatisfied();
     }
 
     @Override
@@ -167,9 +361,14 @@ public class PSSignatureScheme implements StandardMultiMessageSignatureScheme {
         return new PSSigningKey(repr, this.pp.getZp());
     }
 
+    /**
+     * Restores the verification key with the given representation.
+     * Restored keys are cached together with their precomputed exponentiation tables, so restoring the same key
+     * again skips deserialization and precomputation.
+     */
     @Override
     public PSVerificationKey restoreVerificationKey(Representation repr) {
-        return new PSVerificationKey(this.pp.getBilinearMap().getG2(), repr);
+        return verificationKeyCache.restore(repr, r -> new PSVerificationKey(this.pp.getBilinearMap().getG2(), r));
     }
 
     public PSPublicParameters getPp() {
@@ -1,6 +1,8 @@
 package org.cryptimeleon.craco.sig.ps;
 
 import org.cryptimeleon.craco.sig.VerificationKey;
+import org.cryptimeleon.math.hash.ByteAccumulator;
+import org.cryptimeleon.math.hash.UniqueByteRepresentable;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
 import org.cryptimeleon.math.serialization.annotations.Represented;
@@ -16,7 +18,7 @@ import java.util.Objects;
  *
  */
 
-public class PSVerificationKey implements VerificationKey {
+public class PSVerificationKey implements VerificationKey, UniqueByteRepresentable {
 
     /**
      * \tilde{g} \in G_2 in paper.
@@ -71,6 +73,16 @@ public class PSVerificationKey implements VerificationKey {
         return group2ElementsTildeYi.length();
     }
 
+    @Override
+    public ByteAccumulator updateAccumulator(ByteAccumulator accumulator) {
+        accumulator.escapeAndSeparate(group2ElementTildeG);
+        accumulator.escapeAndSeparate(group2ElementTildeX);
+        for (int i = 0; i < group2ElementsTildeYi.length(); i++) {
+            accumulator.escapeAndSeparate(group2ElementsTildeYi.get(i));
+        }
+        return accumulator;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,6 +3,7 @@ package org.cryptimeleon.craco.sig.ps18;
 import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
 import org.cryptimeleon.craco.common.plaintexts.RingElementPlainText;
+import org.cryptimeleon.craco.sig.PairingProductEquation;
 import org.cryptimeleon.craco.sig.Signature;
 import org.cryptimeleon.craco.sig.SigningKey;
 import org.cryptimeleon.craco.sig.VerificationKey;
@@ -99,19 +100,13 @@ public class PS18ROMSignatureScheme extends PS18SignatureScheme {
 
         Zp zp = pp.getZp();
 
-        // Check that bilinear pairing equation holds
-        GroupElement leftHandSide, rightHandSide;
-
-        rightHandSide = pp.getBilinearMap().apply(
-                sigma.getGroup1ElementSigma2(), pk.getGroup2ElementTildeG()
-        );
-
+        // Check that bilinear pairing equation e(sigma_1, leftGroup2Elem) * e(sigma_2, \tilde{g})^{-1} = 1_{G_T} holds
         PS18SignatureScheme ps18SigScheme = new PS18SignatureScheme(pp);
-        leftHandSide = ps18SigScheme.computeLeftHandSide(
-                messageBlock, pk, romHashIntoZp(messageBlock, zp), sigma.getGroup1ElementSigma1()
-        );
-
-        return leftHandSide.equals(rightHandSide);
+        return new PairingProductEquation(pp.getBilinearMap())
+                .multiply(sigma.getGroup1ElementSigma1(),
+                        ps18SigScheme.computeLeftGroup2Element(messageBlock, pk, romHashIntoZp(messageBlock, zp)))
+                .divide(sigma.getGroup1ElementSigma2(), pk.getGroup2ElementTildeG())
+                .isSatisfied();
     }
 
     @Override
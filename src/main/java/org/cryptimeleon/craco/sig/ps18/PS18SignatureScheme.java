@@ -22,6 +22,13 @@ public class PS18SignatureScheme implements SignatureScheme {
     @Represented
     PSPublicParameters pp;
 
+    /**
+     * Cache of verification keys restored via {@link #restoreVerificationKey(Representation)}, together with their
+     * precomputed exponentiation tables.
+     */
+    protected final VerificationKeyCache<PS18VerificationKey> verificationKeyCache =
+            new VerificationKeyCache<>(this::precomputeVerificationKey);
+
     public PS18SignatureScheme(PSPublicParameters pp) {
         this.pp = pp;
     }
@@ -56,23 +63,48 @@ public class PS18SignatureScheme implements SignatureScheme {
                 new GroupElementVector(exponentsYi.map(x -> group2ElementTildeG.pow((Zp.ZpElement) x).compute()));
 
 
-        // Precompute for bases in multi-exponentiation
-        group2ElementTildeX.precomputePow();
-        group2ElementsTildeYi.precomputePow();
-
         // Construct secret signing key
         PS18SigningKey sk = new PS18SigningKey(exponentX, exponentsYi);
 
-        // Construct public verification key
-        PS18VerificationKey pk = new PS18VerificationKey(
+        // Construct public verification key, precompute for bases in multi-exponentiation
+        PS18VerificationKey pk = precomputeVerificationKey(new PS18VerificationKey(
                 group2ElementTildeG,
                 group2ElementTildeX,
                 group2ElementsTildeYi
-        );
+        ));
 
         return new SignatureKeyPair<>(pk, sk);
     }
 
+    /**
+     * Prepares the given verification key for repeated verification by precomputing exponentiation tables for
+     * the bases \(\tilde{X}, \tilde{Y}_i\) of the multi-exponentiation in {@link #verify}.
+     * The fixed pairing argument \(\tilde{g}\) is computed, such that it is not recomputed by every pairing.
+     *
+     * @param pk the key to prepare
+     * @return {@code pk}
+     */
+    protected PS18VerificationKey precomputeVerificationKey(PS18VerificationKey pk) {
+        pk.getGroup2ElementTildeG().compute();
+        pk.getGroup2ElementTildeX().precomputePow();
+        pk.getGroup2ElementsTildeYi().precomputePow();
+        return pk;
+    }
+
+    /**
+     * Returns a verification key equal to the given one with precomputed exponentiation tables.
+     * Keys are cached, so calling this repeatedly with the same key only sets up the tables once.
+     *
+     * @param publicKey the verification key
+     * @return the cached, precomputed verification key
+     */
+    public PS18VerificationKey getPrecomputedVerificationKey(VerificationKey publicKey) {
+        if (!(publicKey instanceof PS18VerificationKey)) {
+            throw new IllegalArgumentException("Public key is not a 'PS18VerificationKey' instance.");
+        }
+        return verificationKeyCache.get((PS18VerificationKey) publicKey);
+    }
+
     @Override
     public Signature sign(PlainText plainText, SigningKey secretKey) {
         // A single message needs to be converted to message vector with one message
@@ -138,18 +170,12 @@ public class PS18SignatureScheme implements SignatureScheme {
         if (sigma.getGroup1ElementSigma1().isNeutralElement())
             return false;
 
-        // Check that bilinear pairing equation holds
-        GroupElement leftHandSide, rightHandSide;
-
-        rightHandSide = pp.getBilinearMap().apply(
-                sigma.getGroup1ElementSigma2(), pk.getGroup2ElementTildeG()
-        );
-
-        leftHandSide = computeLeftHandSide(
-                messageBlock, pk, sigma.getExponentPrimeM(), sigma.getGroup1ElementSigma1()
-        );
-
-        return leftHandSide.equals(rightHandSide);
+        // Check that bilinear pairing equation e(sigma_1, leftGroup2Elem) * e(sigma_2, \tilde{g})^{-1} = 1_{G_T} holds
+        return new PairingProductEquation(pp.getBilinearMap())
+                .multiply(sigma.getGroup1ElementSigma1(),
+                        computeLeftGroup2Element(messageBlock, pk, sigma.getExponentPrimeM()))
+                .divide(sigma.getGroup1ElementSigma2(), pk.getGroup2ElementTildeG())
+                .isSatisfied();
     }
 
     /**
@@ -209,6 +235,15 @@ public class PS18SignatureScheme implements SignatureScheme {
      */
     protected GroupElement computeLeftHandSide(MessageBlock messageBlock, PS18VerificationKey pk,
                                                Zp.ZpElement exponentPrimeM, GroupElement sigma1) {
+        return pp.getBilinearMap().apply(sigma1, computeLeftGroup2Element(messageBlock, pk, exponentPrimeM));
+    }
+
+    /**
+     * Computes the second pairing argument of the left hand side of the verification equation, i.e.
+     * \(\tilde{X} \cdot \prod_{i=1}^{r}{\tilde{Y}_i^{m_i}} \cdot \tilde{Y}_{r+1}^{m'}\).
+     */
+    protected GroupElement computeLeftGroup2Element(MessageBlock messageBlock, PS18VerificationKey pk,
+                                                    Zp.ZpElement exponentPrimeM) {
         // Computation of group element from G_2 for left hand side requires sum
         // \tilde{X} * \prod_{i=1}{r}{\tilde{Y}_i^{m_i}} * \tilde{Y}_{r+1}^{m'}
         // l = \tilde{X}
@@ -241,7 +276,7 @@ public class PS18SignatureScheme implements SignatureScheme {
                 pk.getGroup2ElementsTildeYi().get(pk.getNumberOfMessages()).pow(exponentPrimeM)
         );
 
-        return pp.getBilinearMap().apply(sigma1, leftGroup2Elem);
+        return leftGroup2Elem;
     }
 
     @Override
@@ -280,9 +315,14 @@ public class PS18SignatureScheme implements SignatureScheme {
         return new PS18SigningKey(repr, this.pp.getZp());
     }
 
+    /**
+     * Restores the verification key with the given representation.
+     * Restored keys are cached together with their precomputed exponentiation tables, so restoring the same key
+     * again skips deserialization and precomputation.
+     */
     @Override
     public VerificationKey restoreVerificationKey(Representation repr) {
-        return new PS18VerificationKey(repr, this.pp.getBilinearMap().getG2());
+        return verificationKeyCache.restore(repr, r -> new PS18VerificationKey(r, this.pp.getBilinearMap().getG2()));
     }
 
     public PSPublicParameters getPp() {
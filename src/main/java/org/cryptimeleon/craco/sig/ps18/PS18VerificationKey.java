@@ -1,6 +1,8 @@
 package org.cryptimeleon.craco.sig.ps18;
 
 import org.cryptimeleon.craco.sig.VerificationKey;
+import org.cryptimeleon.math.hash.ByteAccumulator;
+import org.cryptimeleon.math.hash.UniqueByteRepresentable;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
 import org.cryptimeleon.math.serialization.annotations.Represented;
@@ -10,7 +12,7 @@ import org.cryptimeleon.math.structures.groups.cartesian.GroupElementVector;
 
 import java.util.Objects;
 
-public class PS18VerificationKey implements VerificationKey {
+public class PS18VerificationKey implements VerificationKey, UniqueByteRepresentable {
 
     /**
      * \tilde{g} in paper.
@@ -69,6 +71,16 @@ public class PS18VerificationKey implements VerificationKey {
         return group2ElementsTildeYi.length() - 1;
     }
 
+    @Override
+    public ByteAccumulator updateAccumulator(ByteAccumulator accumulator) {
+        accumulator.escapeAndSeparate(group2ElementTildeG);
+        accumulator.escapeAndSeparate(group2ElementTildeX);
+        for (int i = 0; i < group2ElementsTildeYi.length(); i++) {
+            accumulator.escapeAndSeparate(group2ElementsTildeYi.get(i));
+        }
+        return accumulator;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -3,6 +3,7 @@ package org.cryptimeleon.craco.sig.sps.eq;
 import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
 import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.common.utils.BatchVerificationUtil;
 import org.cryptimeleon.craco.sig.*;
 import org.cryptimeleon.math.serialization.Representation;
 import org.cryptimeleon.math.serialization.annotations.ReprUtil;
@@ -12,7 +13,10 @@ import org.cryptimeleon.math.structures.rings.zn.Zn;
 import org.cryptimeleon.math.structures.rings.zn.Zp;
 import org.cryptimeleon.math.structures.rings.zn.Zp.ZpElement;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -158,34 +162,115 @@ public class SPSEQSignatureScheme implements StructurePreservingSignatureEQSchem
 
         // Check if verification equation of multi message signature scheme holds
         // First pairing product equation: e(Z,\hat{Y})^{-1} * \prod_{i \in [l]} e(M_i,\hat{X}_i) = 1_{G_T}
-        GroupElement firstPPE = pp.getBilinearMap()
-                .apply(sigma.getGroup1ElementSigma1Z(), sigma.getGroup1ElementSigma3HatY())
-                .inv();
+        PairingProductEquation firstPPE = new PairingProductEquation(pp.getBilinearMap())
+                .divide(sigma.getGroup1ElementSigma1Z(), sigma.getGroup1ElementSigma3HatY());
         for (int i = 0; i < pk.getNumberOfMessages(); i++) {
-            firstPPE = firstPPE.op(
-                    pp.getBilinearMap().apply(
-                            ((GroupElementPlainText) messageBlock.get(i)).get(),
-                            pk.getGroup2ElementsHatXi()[i]
-                    )
-            );
+            firstPPE.multiply(((GroupElementPlainText) messageBlock.get(i)).get(), pk.getGroup2ElementsHatXi()[i]);
         }
-        firstPPE.compute();
 
         // Second pairing product equation: e(P,\hat{Y})^{-1} * e(Y,\hat{P}) = 1_{G_T}
-        GroupElement secondPPE = pp.getBilinearMap()
-                .apply(pp.getGroup1ElementP(), sigma.getGroup1ElementSigma3HatY())
-                .inv();
-        secondPPE = secondPPE.op(
-                pp.getBilinearMap().apply(
-                        sigma.getGroup1ElementSigma2Y(),
-                        pp.getGroup2ElementHatP()
-                )
-        );
-        secondPPE.compute();
+        PairingProductEquation secondPPE = new PairingProductEquation(pp.getBilinearMap())
+                .divide(pp.getGroup1ElementP(), sigma.getGroup1ElementSigma3HatY())
+                .multiply(sigma.getGroup1ElementSigma2Y(), pp.getGroup2ElementHatP());
+
+        // Both equations are combined via a random exponent, so the pairings with \hat{Y} are merged into one
+        return firstPPE
+                .multiply(secondPPE.pow(BatchVerificationUtil.getRandomBatchExponent(pp.getZp())))
+                .isSatisfied();
+    }
+
+    /**
+     * Verifies a batch of signatures under a single verification key, where the i-th signature is verified for the
+     * i-th plaintext.
+     * <p>
+     * Both verification equations of all signatures are merged into a single pairing product equation using random
+     * small exponents \(\delta_j, \varepsilon_j\) (cf. {@link BatchVerificationUtil}):
+     * \[\prod_{i \in [l]} e(\prod_j M_{j,i}^{\delta_j}, \hat{X}_i)
+     * \cdot \prod_j e(Z_j^{\delta_j} P^{\varepsilon_j}, \hat{Y}_j)^{-1}
+     * \cdot e(\prod_j Y_j^{\varepsilon_j}, \hat{P}) = 1_{G_T}\]
+     * The pairings with the fixed \(\hat{X}_i\) and \(\hat{P}\) are shared by the whole batch, so a batch of
+     * \(k\) signatures costs \(l + 1 + k\) pairings instead of \(k(l + 2)\), plus multi-exponentiations in
+     * \(\mathbb{G}_1\).
+     * <p>
+     * If the combined check fails, the batch is bisected to determine which signatures are invalid.
+     *
+     * @param plainTexts the plaintexts the signatures should validate against
+     * @param signatures the signatures to verify
+     * @param publicKey  the verification key to verify with
+     * @return the ascending indices of the invalid signatures; empty if all signatures are valid
+     */
+    public List<Integer> verifyBatch(List<? extends PlainText> plainTexts, List<? extends Signature> signatures,
+                                     VerificationKey publicKey) {
+        if (plainTexts.size() != signatures.size()) {
+            throw new IllegalArgumentException("Number of plaintexts and signatures must match");
+        }
+        if (!(publicKey instanceof SPSEQVerificationKey)) {
+            throw new IllegalArgumentException("Not a valid public key for this scheme");
+        }
+        SPSEQVerificationKey pk = (SPSEQVerificationKey) publicKey;
+
+        List<MessageBlock> messageBlocks = new ArrayList<>(plainTexts.size());
+        List<SPSEQSignature> sigmas = new ArrayList<>(signatures.size());
+        for (int j = 0; j < signatures.size(); j++) {
+            PlainText plainText = plainTexts.get(j);
+            if (plainText instanceof GroupElementPlainText) {
+                plainText = new MessageBlock(plainText);
+            }
+            if (!(plainText instanceof MessageBlock)) {
+                throw new IllegalArgumentException("Not a valid plain text for this scheme");
+            }
+            if (!(signatures.get(j) instanceof SPSEQSignature)) {
+                throw new IllegalArgumentException("Not a valid signature for this scheme");
+            }
+            messageBlocks.add((MessageBlock) plainText);
+            sigmas.add((SPSEQSignature) signatures.get(j));
+        }
 
-        GroupElement neutral = pp.getBilinearMap().getGT().getNeutralElement();
+        // invalid signature if sigma_2_Y == 1_{G_1} or if sigma_2_hat_Y == 1_{G_2}, independent of the equations
+        List<Integer> invalid = new ArrayList<>();
+        List<Integer> candidates = new ArrayList<>();
+        for (int j = 0; j < sigmas.size(); j++) {
+            SPSEQSignature sigma = sigmas.get(j);
+            if (sigma.getGroup1ElementSigma2Y().isNeutralElement()
+                    || sigma.getGroup1ElementSigma3HatY().isNeutralElement()
+                    || messageBlocks.get(j).length() != pk.getNumberOfMessages()) {
+                invalid.add(j);
+            } else {
+                candidates.add(j);
+            }
+        }
+
+        invalid.addAll(BatchVerificationUtil.findInvalidIndices(candidates,
+                batch -> checkBatchVerificationEquation(batch, messageBlocks, sigmas, pk)));
+        Collections.sort(invalid);
+        return invalid;
+    }
+
+    /**
+     * Checks the combined verification equation for the signatures at the given indices.
+     */
+    protected boolean checkBatchVerificationEquation(List<Integer> indices, List<MessageBlock> messageBlocks,
+                                                     List<SPSEQSignature> sigmas, SPSEQVerificationKey pk) {
+        // pairings with \hat{X}_i and \hat{P} are merged across the batch by the pairing product equation
+        PairingProductEquation ppe = new PairingProductEquation(pp.getBilinearMap());
+        for (Integer j : indices) {
+            MessageBlock messageBlock = messageBlocks.get(j);
+            SPSEQSignature sigma = sigmas.get(j);
+            Zn.ZnElement delta = BatchVerificationUtil.getRandomBatchExponent(pp.getZp());
+            Zn.ZnElement epsilon = BatchVerificationUtil.getRandomBatchExponent(pp.getZp());
+
+            // first equation raised to delta_j: \prod_i e(M_i,\hat{X}_i)^{delta_j} * e(Z,\hat{Y})^{-delta_j}
+            for (int i = 0; i < pk.getNumberOfMessages(); i++) {
+                ppe.multiply(((GroupElementPlainText) messageBlock.get(i)).get(), pk.getGroup2ElementsHatXi()[i],
+                        delta);
+            }
+            // second equation raised to epsilon_j: e(P,\hat{Y})^{-epsilon_j} * e(Y,\hat{P})^{epsilon_j}
+            ppe.divide(sigma.getGroup1ElementSigma1Z().pow(delta).op(pp.getGroup1ElementP().pow(epsilon)),
+                    sigma.getGroup1ElementSigma3HatY());
+            ppe.multiply(sigma.getGroup1ElementSigma2Y(), pp.getGroup2ElementHatP(), epsilon);
+        }
 
-        return firstPPE.equals(neutral) && secondPPE.equals(neutral);
+        return ppe.isSatisfied();
     }
 
     @Override
@@ -222,6 +307,38 @@ public class SPSEQSignatureScheme implements StructurePreservingSignatureEQSchem
         return chgRep(signature, mu, publicKey);
     }
 
+    /**
+     * Batch version of {@link #chgRepWithVerify(PlainText, Signature, Zn.ZnElement, VerificationKey)}.
+     * <p>
+     * All input signatures are verified at once via {@link #verifyBatch(List, List, VerificationKey)}, then the
+     * representative of each valid signature is changed using the corresponding {@code mu}.
+     *
+     * @param plainTexts the plaintexts the signatures should validate against
+     * @param signatures the signatures to verify and change the representative of
+     * @param mus        the elements to change the representatives with
+     * @param publicKey  the verification key to verify with
+     * @return the changed signatures in input order, with {@code null} at the positions of invalid input signatures
+     */
+    public List<Signature> chgRepWithVerifyBatch(List<? extends PlainText> plainTexts,
+                                                 List<? extends Signature> signatures,
+                                                 List<? extends Zn.ZnElement> mus, VerificationKey publicKey) {
+        if (mus.size() != signatures.size()) {
+            throw new IllegalArgumentException("Number of signatures and elements 'mu' must match");
+        }
+        List<Integer> invalid = verifyBatch(plainTexts, signatures, publicKey);
+
+        List<Signature> result = new ArrayList<>(signatures.size());
+        for (int j = 0; j < signatures.size(); j++) {
+            // invalid is sorted, so a binary search suffices
+            if (Collections.binarySearch(invalid, j) >= 0) {
+                result.add(null);
+            } else {
+                result.add(chgRep(signatures.get(j), mus.get(j), publicKey));
+            }
+        }
+        return result;
+    }
+
     @Override
     public PlainText chgRepMessage(PlainText plainText, Zn.ZnElement mu) {
         if (plainText instanceof GroupElementPlainText) {
@@ -82,6 +82,25 @@ public class NguyenAccumulatorTest {
         assertTrue(scheme.verify(newAcc, singleValue, newWitness));
     }
 
+    @Test
+    public void testWitnessForInsertedValue() {
+        Set<Zn.ZnElement> oldSet = multipleIdentities;
+        NguyenDigest oldAcc = scheme.createDigest(oldSet);
+
+        Zn.ZnElement additionalValue;
+        do {
+            additionalValue = zn.getUniformlyRandomElement();
+        } while (oldSet.contains(additionalValue));
+        NguyenDigest newAcc = (NguyenDigest) scheme.insert(oldAcc, oldSet, additionalValue);
+        HashSet<Zn.ZnElement> newSet = new HashSet<>(oldSet);
+        newSet.add(additionalValue);
+
+        // the inserted value has no old witness, its new witness is the old digest
+        NguyenWitness newWitness = scheme.updateWitness(oldAcc, newAcc, oldSet, newSet, additionalValue, null);
+        assertEquals(oldAcc.getDigest(), newWitness.getWitness());
+        assertTrue(scheme.verify(newAcc, additionalValue, newWitness));
+    }
+
     @Test
     public void testDelete() {
         Set<Zn.ZnElement> oldSet = multipleIdentities;
@@ -104,4 +123,165 @@ public class NguyenAccumulatorTest {
         assertNotNull(newWitness);
         assertTrue(scheme.verify(newAcc, singleValue, newWitness));
     }
+
+    @Test
+    public void testReplace() {
+        List<Zn.ZnElement> oldSet = new ArrayList<>(multipleIdentities);
+        Set<Zn.ZnElement> newSet = new HashSet<>(oldSet);
+        newSet.remove(oldSet.get(1));
+        newSet.add(zn.getUniformlyRandomElement());
+
+        NguyenWitness newWitness = scheme.updateWitness(scheme.createDigest(oldSet), scheme.createDigest(newSet),
+                oldSet, newSet, singleValue, scheme.createWitness(oldSet, singleValue));
+        assertEquals(scheme.createWitness(newSet, singleValue), newWitness);
+    }
+
+    /**
+     * Test with more values than fit into a single multi-exponentiation chunk
+     */
+    @Test
+    public void testLargeSet() {
+        BilinearGroup group = new DebugBilinearGroup(128, BilinearGroup.Type.TYPE_3);
+        NguyenAccumulatorScheme largeScheme = NguyenAccumulatorScheme.setup(group, 1100);
+        Set<Zn.ZnElement> values = new LinkedHashSet<>();
+        while (values.size() < 1100) {
+            values.add(group.getZn().getUniformlyRandomElement());
+        }
+        Zn.ZnElement value = values.iterator().next();
+
+        NguyenDigest digest = largeScheme.createDigest(values);
+        NguyenWitness witness = largeScheme.createWitness(digest, values, value);
+        assertTrue(largeScheme.verify(digest, value, witness));
+        assertFalse(largeScheme.verify(digest, group.getZn().getUniformlyRandomElement(), witness));
+    }
+
+    @Test
+    public void testCreateAllWitnesses() {
+        AccumulatorDigest digest = scheme.createDigest(multipleIdentities);
+        Map<Zn.ZnElement, NguyenWitness> witnesses = scheme.createAllWitnesses(multipleIdentities);
+        assertEquals(new ArrayList<>(multipleIdentities), new ArrayList<>(witnesses.keySet()));
+        for (Zn.ZnElement value : multipleIdentities) {
+            assertEquals(scheme.createWitness(digest, multipleIdentities, value), witnesses.get(value));
+            assertTrue(scheme.verify(digest, value, witnesses.get(value)));
+        }
+
+        assertEquals(Collections.singletonMap(singleValue, scheme.createWitness(singleIdentitySet, singleValue)),
+                scheme.createAllWitnesses(singleIdentitySet));
+        assertTrue(scheme.createAllWitnesses(Collections.emptySet()).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateAllWitnessesWithDuplicates() {
+        scheme.createAllWitnesses(Arrays.asList(singleValue, singleValue));
+    }
+
+    @Test
+    public void testUpdateWitnesses() {
+        List<Zn.ZnElement> oldSet = new ArrayList<>(multipleIdentities);
+        List<Zn.ZnElement> removed = oldSet.subList(oldSet.size() - 3, oldSet.size());
+        List<Zn.ZnElement> added = Stream.generate(zn::getUniformlyRandomElement).limit(5).collect(Collectors.toList());
+        Set<Zn.ZnElement> newSet = new LinkedHashSet<>(oldSet);
+        newSet.removeAll(removed);
+        newSet.addAll(added);
+        AccumulatorDigest newDigest = scheme.createDigest(newSet);
+
+        List<Zn.ZnElement> values = oldSet.subList(0, 4);
+        List<NguyenWitness> oldWitnesses = values.stream()
+                .map(value -> scheme.createWitness(oldSet, value))
+                .collect(Collectors.toList());
+        List<NguyenWitness> newWitnesses = scheme.updateWitnesses(oldSet, added, removed, values, oldWitnesses);
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(scheme.createWitness(newSet, values.get(i)), newWitnesses.get(i));
+            assertTrue(scheme.verify(newDigest, values.get(i), newWitnesses.get(i)));
+        }
+
+        // more removed than added values, recomputed by the single witness update
+        AccumulatorDigest oldDigest = scheme.createDigest(oldSet);
+        Set<Zn.ZnElement> smallerSet = new HashSet<>(oldSet);
+        smallerSet.removeAll(removed);
+        smallerSet.add(added.get(0));
+        NguyenWitness witness = scheme.updateWitness(oldDigest, scheme.createDigest(smallerSet), oldSet, smallerSet,
+                singleValue, scheme.createWitness(oldSet, singleValue));
+        assertEquals(scheme.createWitness(smallerSet, singleValue), witness);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateWitnessesForRemovedValue() {
+        List<Zn.ZnElement> oldSet = new ArrayList<>(multipleIdentities);
+        scheme.updateWitness(oldSet, Collections.emptySet(), Arrays.asList(singleValue, oldSet.get(1)), singleValue,
+                scheme.createWitness(oldSet, singleValue));
+    }
+
+    @Test
+    public void testState() {
+        NguyenAccumulatorState state = new NguyenAccumulatorState(scheme);
+        assertEquals(scheme.createDigest(Collections.emptySet()), state.getDigest());
+        for (Zn.ZnElement value : multipleIdentities) {
+            assertTrue(state.add(value));
+        }
+        assertFalse(state.add(singleValue));
+        assertEquals(scheme.createDigest(multipleIdentities), state.getDigest());
+
+        Zn.ZnElement valueToRemove = multipleIdentities.stream().skip(1).findFirst().get();
+        assertTrue(state.remove(valueToRemove));
+        assertFalse(state.remove(valueToRemove));
+        Set<Zn.ZnElement> newSet = new LinkedHashSet<>(multipleIdentities);
+        newSet.remove(valueToRemove);
+        assertEquals(newSet, state.getValues());
+        assertEquals(scheme.createDigest(newSet), state.getDigest());
+        assertTrue(scheme.verify(state.getDigest(), singleValue, scheme.createWitness(newSet, singleValue)));
+
+        NguyenAccumulatorState restored = new NguyenAccumulatorState(scheme, state.getRepresentation(), null);
+        assertEquals(state, restored);
+        assertEquals(state.getDigest(), restored.getDigest());
+        assertTrue(restored.remove(singleValue));
+        newSet.remove(singleValue);
+        assertEquals(scheme.createDigest(newSet), restored.getDigest());
+    }
+
+    @Test
+    public void testStateWithTrapdoor() {
+        BilinearGroup group = new DebugBilinearGroup(128, BilinearGroup.Type.TYPE_3);
+        Zn.ZnElement trapdoor = group.getZn().getUniformlyRandomElement();
+        NguyenAccumulatorScheme trapdoorScheme = NguyenAccumulatorScheme.setup(group, 100, trapdoor);
+        List<Zn.ZnElement> values = Stream.generate(group.getZn()::getUniformlyRandomElement).limit(10)
+                .collect(Collectors.toList());
+
+        NguyenAccumulatorState state = new NguyenAccumulatorState(trapdoorScheme, values.subList(0, 5), trapdoor);
+        values.subList(5, 10).forEach(state::add);
+        assertTrue(state.remove(values.get(0)));
+        assertEquals(trapdoorScheme.createDigest(values.subList(1, 10)), state.getDigest());
+
+        NguyenAccumulatorState restored = new NguyenAccumulatorState(trapdoorScheme, state.getRepresentation(),
+                trapdoor);
+        assertTrue(restored.remove(values.get(1)));
+        assertEquals(trapdoorScheme.createDigest(values.subList(2, 10)), restored.getDigest());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStateWithWrongTrapdoor() {
+        new NguyenAccumulatorState(scheme, multipleIdentities, zn.getUniformlyRandomElement());
+    }
+
+    @Test
+    public void testVerifyBatch() {
+        NguyenDigest digest = scheme.createDigest(multipleIdentities);
+        List<Zn.ZnElement> values = new ArrayList<>(multipleIdentities);
+        List<NguyenWitness> witnesses = new ArrayList<>(scheme.createAllWitnesses(multipleIdentities).values());
+        assertEquals(Collections.emptyList(), scheme.verifyBatch(digest, values, witnesses));
+        assertEquals(Collections.emptyList(),
+                scheme.verifyBatch(digest, Collections.emptyList(), Collections.emptyList()));
+
+        // witnesses for wrong values and swapped witnesses
+        values.set(3, zn.getUniformlyRandomElement());
+        Collections.swap(witnesses, 10, 20);
+        assertEquals(Arrays.asList(3, 10, 20), scheme.verifyBatch(digest, values, witnesses));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifyBatchWithMismatchedSizes() {
+        NguyenDigest digest = scheme.createDigest(singleIdentitySet);
+        scheme.verifyBatch(digest, Arrays.asList(singleValue, singleValue),
+                Collections.singletonList(scheme.createWitness(singleIdentitySet, singleValue)));
+    }
 }
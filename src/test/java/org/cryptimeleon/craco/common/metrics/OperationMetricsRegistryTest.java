@@ -0,0 +1,120 @@
+package org.cryptimeleon.craco.common.metrics;
+
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.common.plaintexts.RingElementPlainText;
+import org.cryptimeleon.craco.protocols.CommonInput;
+import org.cryptimeleon.craco.protocols.ProtocolsTest;
+import org.cryptimeleon.craco.protocols.arguments.fiatshamir.FiatShamirProof;
+import org.cryptimeleon.craco.protocols.arguments.fiatshamir.FiatShamirProofSystem;
+import org.cryptimeleon.craco.protocols.arguments.sigma.SigmaProtocol;
+import org.cryptimeleon.craco.sig.Signature;
+import org.cryptimeleon.craco.sig.SignatureKeyPair;
+import org.cryptimeleon.craco.sig.SignatureScheme;
+import org.cryptimeleon.craco.sig.ps.PSPublicParameters;
+import org.cryptimeleon.craco.sig.ps.PSSignatureScheme;
+import org.cryptimeleon.craco.sig.ps.PSSigningKey;
+import org.cryptimeleon.craco.sig.ps.PSVerificationKey;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.debug.DebugBilinearGroup;
+import org.cryptimeleon.math.structures.groups.elliptic.BilinearGroup;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class OperationMetricsRegistryTest {
+    private DebugBilinearGroup group;
+    private PSSignatureScheme psScheme;
+    private OperationMetricsRegistry registry;
+    private List<OperationMetrics> recorded;
+
+    @Before
+    public void setUp() {
+        group = new DebugBilinearGroup(128, BilinearGroup.Type.TYPE_3);
+        psScheme = new PSSignatureScheme(new PSPublicParameters(group));
+        registry = new OperationMetricsRegistry();
+        recorded = new ArrayList<>();
+    }
+
+    @Test
+    public void testSignAndVerifyAreRecorded() {
+        registry.addCounter(new DebugGroupOperationCounter(group));
+        registry.addListener(recorded::add);
+        SignatureScheme scheme = SignatureScheme.instrument(psScheme, registry);
+
+        SignatureKeyPair<? extends PSVerificationKey, ? extends PSSigningKey> keyPair = psScheme.generateKeyPair(2);
+        MessageBlock messageBlock = new MessageBlock(
+                new RingElementPlainText(group.getZn().getUniformlyRandomElement()),
+                new RingElementPlainText(group.getZn().getUniformlyRandomElement()));
+        Signature signature = scheme.sign(messageBlock, keyPair.getSigningKey());
+        assertTrue(scheme.verify(messageBlock, signature, keyPair.getVerificationKey()));
+
+        assertEquals(2, recorded.size());
+        OperationMetrics sign = recorded.get(0);
+        assertSame(psScheme, sign.getSource());
+        assertEquals("sign", sign.getOperation());
+        assertEquals(0, sign.getCount(OperationMetrics.PAIRINGS));
+
+        OperationMetrics verify = recorded.get(1);
+        assertEquals("verify", verify.getOperation());
+        assertEquals(2, verify.getCount(OperationMetrics.PAIRINGS));
+        assertTrue(verify.getDurationNanos() > 0);
+    }
+
+    @Test
+    public void testNothingIsRecordedWithoutListener() {
+        GroupOperationCounter counter = () -> {
+            throw new AssertionError("counter should not be read");
+        };
+        registry.addCounter(counter);
+        assertFalse(registry.isEnabled());
+        assertEquals("result", registry.measure(psScheme, "operation", () -> "result"));
+    }
+
+    @Test
+    public void testCountsAreOmittedWithoutCounter() {
+        registry.addListener(recorded::add);
+        registry.measure(psScheme, "operation", () -> group.getG1().getUniformlyRandomElement().pow(2));
+
+        assertEquals(1, recorded.size());
+        assertTrue(recorded.get(0).getCounts().isEmpty());
+    }
+
+    @Test
+    public void testResultIsComputed() {
+        registry.addCounter(new DebugGroupOperationCounter(group));
+        registry.addListener(recorded::add);
+        GroupElement base = group.getG1().getUniformlyRandomElement().computeSync();
+        BigInteger exponent = group.getZn().getUniformlyRandomElement().getInteger();
+
+        // the group element is only reachable via the fields of the plaintexts
+        registry.measure(psScheme, "operation",
+                () -> new MessageBlock(new GroupElementPlainText(base.pow(exponent))),
+                OperationMetricsRegistry::computeSync);
+
+        assertEquals(1, recorded.get(0).getCount(OperationMetrics.EXPONENTIATIONS));
+        assertEquals(0, recorded.get(0).getCount(OperationMetrics.RETRIEVED_REPRESENTATIONS));
+    }
+
+    @Test
+    public void testSigmaProtocolIsRecorded() {
+        registry.addListener(recorded::add);
+        FiatShamirProofSystem proofSystem = new FiatShamirProofSystem(
+                SigmaProtocol.instrument(ProtocolsTest.getSimpleSchnorrProof(), registry));
+
+        FiatShamirProof proof = proofSystem.createProof(CommonInput.EMPTY,
+                ProtocolsTest.getSimpleSchnorrProofWitness());
+        assertTrue(proofSystem.checkProof(CommonInput.EMPTY, proof));
+
+        List<String> operations = recorded.stream().map(OperationMetrics::getOperation).collect(Collectors.toList());
+        assertTrue(operations.contains("generateAnnouncement"));
+        assertTrue(operations.contains("generateResponse"));
+        assertTrue(operations.contains("decompressTranscript"));
+    }
+}
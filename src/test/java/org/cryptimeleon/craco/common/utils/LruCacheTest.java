@@ -0,0 +1,46 @@
+package org.cryptimeleon.craco.common.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LruCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() {
+        LruCache<Integer, String> cache = new LruCache<>(2);
+        assertEquals("one", cache.putIfAbsent(1, "one"));
+        assertEquals("two", cache.putIfAbsent(2, "two"));
+        assertEquals("one", cache.putIfAbsent(1, "uno"));
+
+        // 2 is the least recently used key now
+        cache.putIfAbsent(3, "three");
+        assertEquals(2, cache.size());
+        assertNull(cache.get(2));
+        assertEquals("one", cache.get(1));
+        assertEquals("three", cache.get(3));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testWeight() {
+        LruCache<Integer, String> cache = new LruCache<>(5, String::length);
+        cache.putIfAbsent(1, "ab");
+        cache.putIfAbsent(2, "cde");
+        assertEquals(5, cache.getWeight());
+
+        cache.putIfAbsent(3, "f");
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getWeight());
+        assertNull(cache.get(1));
+
+        // the most recently used entry is kept even if it exceeds the capacity
+        cache.putIfAbsent(4, "ghijkl");
+        assertEquals(1, cache.size());
+        assertEquals(6, cache.getWeight());
+        assertEquals("ghijkl", cache.get(4));
+    }
+}
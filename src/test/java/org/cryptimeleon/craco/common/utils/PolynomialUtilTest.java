@@ -0,0 +1,101 @@
+package org.cryptimeleon.craco.common.utils;
+
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.rings.RingElement;
+import org.cryptimeleon.math.structures.rings.polynomial.PolynomialRing;
+import org.cryptimeleon.math.structures.rings.zn.Zn;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PolynomialUtilTest {
+
+    private final BigInteger modulus = RandomGenerator.getRandomPrime(128);
+
+    private final Zn zn = new Zn(modulus);
+
+    private final PolynomialRing polynomialRing = new PolynomialRing(zn);
+
+    private BigInteger[] randomPolynomial(int length) {
+        BigInteger[] polynomial = new BigInteger[length];
+        for (int i = 0; i < length; i++) {
+            polynomial[i] = RandomGenerator.getRandomNumber(modulus);
+        }
+        polynomial[length - 1] = BigInteger.ONE; // avoid leading zeros
+        return polynomial;
+    }
+
+    private PolynomialRing.Polynomial toPolynomial(BigInteger[] coefficients) {
+        return polynomialRing.new Polynomial(Arrays.stream(coefficients).map(zn::valueOf).toArray(RingElement[]::new));
+    }
+
+    private BigInteger[] toCoefficients(PolynomialRing.Polynomial polynomial) {
+        return Arrays.stream(polynomial.getCoefficients())
+                .map(c -> ((Zn.ZnElement) c).getInteger())
+                .toArray(BigInteger[]::new);
+    }
+
+    @Test
+    public void testMultiply() {
+        // small sizes use the schoolbook method, large sizes Kronecker substitution
+        for (int[] lengths : new int[][]{{1, 1}, {3, 20}, {33, 40}, {100, 257}}) {
+            BigInteger[] a = randomPolynomial(lengths[0]);
+            BigInteger[] b = randomPolynomial(lengths[1]);
+            assertArrayEquals(toCoefficients(toPolynomial(a).mul(toPolynomial(b))),
+                    PolynomialUtil.multiply(a, b, modulus));
+        }
+        assertEquals(0, PolynomialUtil.multiply(new BigInteger[0], randomPolynomial(40), modulus).length);
+    }
+
+    @Test
+    public void testProductOfLinearFactors() {
+        BigInteger[] values = new BigInteger[600];
+        PolynomialRing.Polynomial expected = polynomialRing.getOneElement();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = RandomGenerator.getRandomNumber(modulus);
+            expected = expected.mul(polynomialRing.getX().add(zn.valueOf(values[i])));
+        }
+        BigInteger[] product = PolynomialUtil.productOfLinearFactors(values, modulus);
+        assertArrayEquals(toCoefficients(expected), product);
+
+        BigInteger x = RandomGenerator.getRandomNumber(modulus);
+        BigInteger expectedValue = BigInteger.ONE;
+        for (BigInteger value : values) {
+            expectedValue = expectedValue.multiply(x.add(value)).mod(modulus);
+        }
+        assertEquals(expectedValue, PolynomialUtil.evaluate(product, x, modulus));
+        assertArrayEquals(new BigInteger[]{BigInteger.ONE},
+                PolynomialUtil.productOfLinearFactors(new BigInteger[0], modulus));
+    }
+
+    @Test
+    public void testDivideByLinearFactor() {
+        BigInteger[] polynomial = randomPolynomial(40);
+        BigInteger value = RandomGenerator.getRandomNumber(modulus);
+        BigInteger[] quotient = PolynomialUtil.divideByLinearFactor(polynomial, value, modulus);
+        BigInteger remainder = PolynomialUtil.evaluate(polynomial, value.negate().mod(modulus), modulus);
+
+        // polynomial = quotient * (X + value) + remainder
+        BigInteger[] product = PolynomialUtil.multiply(quotient, new BigInteger[]{value, BigInteger.ONE}, modulus);
+        product[0] = product[0].add(remainder).mod(modulus);
+        assertArrayEquals(polynomial, product);
+    }
+
+    @Test
+    public void testEvaluateAtConsecutivePoints() {
+        for (int length : new int[]{0, 1, 2, 10}) {
+            BigInteger[] polynomial = length == 0 ? new BigInteger[0] : randomPolynomial(length);
+            for (int count : new int[]{0, 1, 5, 30}) {
+                BigInteger[] values = PolynomialUtil.evaluateAtConsecutivePoints(polynomial, -3, count, modulus);
+                assertEquals(count, values.length);
+                for (int k = 0; k < count; k++) {
+                    assertEquals(PolynomialUtil.evaluate(polynomial, BigInteger.valueOf(k - 3).mod(modulus), modulus),
+                            values[k]);
+                }
+            }
+        }
+    }
+}
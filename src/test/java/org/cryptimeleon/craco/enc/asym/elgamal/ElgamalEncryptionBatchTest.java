@@ -0,0 +1,81 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.enc.CipherText;
+import org.cryptimeleon.craco.enc.EncryptionKeyPair;
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroup;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ElgamalEncryptionBatchTest {
+
+    private static final int BATCH_SIZE = 20;
+
+    private Group group;
+
+    private ElgamalEncryption scheme;
+
+    private EncryptionKeyPair keyPair;
+
+    private List<PlainText> plainTexts;
+
+    private List<CipherText> cipherTexts;
+
+    @Before
+    public void setUp() {
+        // large enough that rerandomized ciphertexts differ
+        group = new DebugGroup("testgroup", RandomGenerator.getRandomPrime(128));
+        scheme = new ElgamalEncryption(group);
+        keyPair = scheme.generateKeyPair();
+        plainTexts = new ArrayList<>();
+        cipherTexts = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            PlainText plainText = new GroupElementPlainText(group.getUniformlyRandomElement());
+            plainTexts.add(plainText);
+            cipherTexts.add(scheme.encrypt(plainText, keyPair.getPk()));
+        }
+    }
+
+    @Test
+    public void testDecryptAll() {
+        assertEquals(plainTexts, scheme.decryptAll(cipherTexts, keyPair.getSk()));
+    }
+
+    @Test
+    public void testMultiplyCiphertexts() {
+        List<CipherText> reversed = new ArrayList<>(cipherTexts);
+        Collections.reverse(reversed);
+        List<PlainText> products = scheme.decryptAll(scheme.multiplyCiphertexts(cipherTexts, reversed),
+                keyPair.getSk());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            assertEquals(((GroupElementPlainText) plainTexts.get(i)).get()
+                            .op(((GroupElementPlainText) plainTexts.get(BATCH_SIZE - 1 - i)).get()),
+                    ((GroupElementPlainText) products.get(i)).get());
+        }
+    }
+
+    @Test
+    public void testRerandomize() {
+        List<CipherText> rerandomized = scheme.rerandomize(cipherTexts, keyPair.getPk());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            assertNotEquals(cipherTexts.get(i), rerandomized.get(i));
+        }
+        assertEquals(plainTexts, scheme.decryptAll(rerandomized, keyPair.getSk()));
+    }
+
+    @Test
+    public void testRerandomizeSingleCiphertext() {
+        List<CipherText> rerandomized = scheme.rerandomize(cipherTexts.subList(0, 1), keyPair.getPk());
+        assertNotEquals(cipherTexts.get(0), rerandomized.get(0));
+        assertEquals(plainTexts.subList(0, 1), scheme.decryptAll(rerandomized, keyPair.getSk()));
+    }
+}
@@ -0,0 +1,110 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.enc.EncryptionKeyPair;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroup;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.*;
+
+public class ElgamalPublicKeyCacheTest {
+
+    private Group group;
+
+    private ElgamalEncryption scheme;
+
+    private EncryptionKeyPair keyPair;
+
+    private ElgamalPublicKey pk;
+
+    @Before
+    public void setUp() {
+        group = new DebugGroup("testgroup", 128);
+        scheme = new ElgamalEncryption(group);
+        keyPair = scheme.generateKeyPair();
+        pk = (ElgamalPublicKey) keyPair.getPk();
+    }
+
+    @Test
+    public void testPrecomputedKey() {
+        PrecomputedElgamalPublicKey precomputed = new PrecomputedElgamalPublicKey(pk);
+        assertEquals(PrecomputedElgamalPublicKey.DEFAULT_WINDOW_SIZE, precomputed.getWindowSize());
+        assertEquals(pk, precomputed);
+        assertEquals(precomputed, pk);
+        assertEquals(pk.hashCode(), precomputed.hashCode());
+        assertEquals(pk, scheme.restoreEncryptionKey(precomputed.getRepresentation()));
+
+        GroupElementPlainText plainText = new GroupElementPlainText(group.getUniformlyRandomElement());
+        assertEquals(plainText, scheme.decrypt(scheme.encrypt(plainText, precomputed), keyPair.getSk()));
+    }
+
+    @Test
+    public void testFixedBaseTable() {
+        BigInteger groupOrder = group.size();
+        BigInteger[] exponents = {BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(-5),
+                groupOrder.subtract(BigInteger.ONE),
+                groupOrder.add(BigInteger.TEN), group.getZn().getUniformlyRandomElement().getInteger()};
+        for (int windowSize : new int[]{1, 3, 8}) {
+            FixedBaseTable table = new FixedBaseTable(pk.getH(), windowSize);
+            for (BigInteger exponent : exponents) {
+                assertEquals(pk.getH().pow(exponent), table.pow(exponent));
+            }
+        }
+    }
+
+    @Test
+    public void testWindowSizeForBudget() {
+        assertEquals(0, new PrecomputedElgamalPublicKey(pk, 0).getWindowSize());
+        PrecomputedElgamalPublicKey precomputed = new PrecomputedElgamalPublicKey(pk, 1000);
+        assertTrue(precomputed.getWindowSize() > 0);
+        assertTrue(precomputed.getMemoryEstimate() <= 1000);
+        assertTrue(PrecomputedElgamalPublicKey.getWindowSize(pk, 10 * precomputed.getMemoryEstimate())
+                > precomputed.getWindowSize());
+    }
+
+    @Test
+    public void testCache() {
+        long keyBudget = new PrecomputedElgamalPublicKey(pk, 1000).getMemoryEstimate();
+        ElgamalPublicKeyCache cache = new ElgamalPublicKeyCache(3 * keyBudget, keyBudget);
+
+        assertNull(cache.getIfPresent(pk));
+        PrecomputedElgamalPublicKey precomputed = cache.get(pk);
+        assertSame(precomputed, cache.get(pk));
+        assertSame(precomputed, cache.getIfPresent(pk));
+        assertSame(precomputed, cache.restore(pk.getRepresentation(), scheme::restoreEncryptionKey));
+        assertEquals(keyBudget, cache.getMemoryUsed());
+
+        // three more keys exceed the budget, so the least recently used key is evicted
+        for (int i = 0; i < 3; i++) {
+            cache.get((ElgamalPublicKey) scheme.generateKeyPair().getPk());
+        }
+        assertEquals(3, cache.size());
+        assertEquals(3 * keyBudget, cache.getMemoryUsed());
+        assertNotSame(precomputed, cache.get(pk));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getMemoryUsed());
+    }
+
+    @Test
+    public void testGetPrecomputedKey() {
+        // few exponentiations do not pay off precomputing tables
+        assertEquals(0, scheme.getPrecomputedKey(pk, 1).getWindowSize());
+
+        PrecomputedElgamalPublicKey precomputed =
+                scheme.getPrecomputedKey(pk, ElgamalEncryption.PRECOMPUTATION_THRESHOLD);
+        assertTrue(precomputed.getWindowSize() > 0);
+        assertSame(precomputed, scheme.getPrecomputedKey(pk, ElgamalEncryption.PRECOMPUTATION_THRESHOLD));
+        assertSame(precomputed, scheme.getPrecomputedKey(scheme.restoreEncryptionKey(pk.getRepresentation()), 1));
+        assertSame(precomputed, scheme.getPrecomputedKey(precomputed, 1));
+
+        BigInteger exponent = group.getZn().getUniformlyRandomElement().getInteger();
+        assertEquals(pk.getH().pow(exponent), precomputed.powH(exponent));
+        assertEquals(pk.getG().pow(exponent), precomputed.powG(exponent));
+    }
+}
@@ -0,0 +1,93 @@
+package org.cryptimeleon.craco.enc.asym.elgamal;
+
+import org.cryptimeleon.craco.common.attributes.StringAttribute;
+import org.cryptimeleon.craco.common.plaintexts.GroupElementPlainText;
+import org.cryptimeleon.craco.common.plaintexts.PlainText;
+import org.cryptimeleon.craco.common.policies.Policy;
+import org.cryptimeleon.craco.common.policies.ThresholdPolicy;
+import org.cryptimeleon.craco.enc.CipherText;
+import org.cryptimeleon.craco.enc.EncryptionKeyPair;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
+import org.cryptimeleon.craco.secretsharing.shamir.ShamirSecretSharing;
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.groups.Group;
+import org.cryptimeleon.math.structures.groups.GroupElement;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroup;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ThresholdElgamalDecryptionTest {
+
+    private static final int NUMBER_OF_NODES = 5;
+
+    private static final int THRESHOLD = 3;
+
+    private static final int BATCH_SIZE = 10;
+
+    private ElgamalEncryption scheme;
+
+    private ThresholdElgamalDecryption thresholdDecryption;
+
+    private Map<Integer, ElgamalPrivateKey> keyShares;
+
+    private List<PlainText> plainTexts;
+
+    private List<CipherText> cipherTexts;
+
+    @Before
+    public void setUp() throws WrongAccessStructureException {
+        Group group = new DebugGroup("testgroup", RandomGenerator.getRandomPrime(128));
+        scheme = new ElgamalEncryption(group);
+        EncryptionKeyPair keyPair = scheme.generateKeyPair();
+
+        List<Policy> nodes = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_NODES; i++) {
+            nodes.add(new StringAttribute("node" + i));
+        }
+        ShamirSecretSharing secretSharing =
+                new ShamirSecretSharing(new ThresholdPolicy(THRESHOLD, nodes), new Zp(group.size()));
+        thresholdDecryption = new ThresholdElgamalDecryption(scheme, secretSharing);
+        keyShares = thresholdDecryption.shareKey((ElgamalPrivateKey) keyPair.getSk());
+
+        plainTexts = new ArrayList<>();
+        cipherTexts = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            PlainText plainText = new GroupElementPlainText(group.getUniformlyRandomElement());
+            plainTexts.add(plainText);
+            cipherTexts.add(scheme.encrypt(plainText, keyPair.getPk()));
+        }
+    }
+
+    @Test
+    public void testCombine() throws NoSatisfyingSet, WrongAccessStructureException {
+        Map<Integer, GroupElement> partialDecryptions = new HashMap<>();
+        for (int i : Arrays.asList(2, 4, 5)) {
+            partialDecryptions.put(i, thresholdDecryption.partialDecrypt(cipherTexts.get(0), keyShares.get(i)));
+        }
+        assertEquals(plainTexts.get(0), thresholdDecryption.combine(cipherTexts.get(0), partialDecryptions));
+    }
+
+    @Test
+    public void testCombineAll() throws NoSatisfyingSet, WrongAccessStructureException {
+        Map<Integer, List<GroupElement>> partialDecryptions = new HashMap<>();
+        for (int i : Arrays.asList(1, 3, 4, 5)) {
+            partialDecryptions.put(i, thresholdDecryption.partialDecryptAll(cipherTexts, keyShares.get(i)));
+        }
+        assertEquals(plainTexts, thresholdDecryption.combineAll(cipherTexts, partialDecryptions));
+    }
+
+    @Test(expected = NoSatisfyingSet.class)
+    public void testCombineWithTooFewPartialDecryptions() throws NoSatisfyingSet, WrongAccessStructureException {
+        Map<Integer, List<GroupElement>> partialDecryptions = new HashMap<>();
+        for (int i : Arrays.asList(1, 2)) {
+            partialDecryptions.put(i, thresholdDecryption.partialDecryptAll(cipherTexts, keyShares.get(i)));
+        }
+        thresholdDecryption.combineAll(cipherTexts, partialDecryptions);
+    }
+}
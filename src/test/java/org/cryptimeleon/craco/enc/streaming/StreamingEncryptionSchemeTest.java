@@ -4,18 +4,24 @@ import org.cryptimeleon.craco.common.utils.StreamUtil;
 import org.cryptimeleon.craco.enc.EncryptionKeyPair;
 import org.cryptimeleon.craco.enc.StreamingEncryptionScheme;
 import org.cryptimeleon.craco.enc.streaming.params.StreamingAESParams;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 @RunWith(value = Parameterized.class)
@@ -25,6 +31,9 @@ public class StreamingEncryptionSchemeTest {
 
     private static int LENGTH = 18 * 1024;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private StreamingEncryptionScheme encryptionScheme;
 
     private EncryptionKeyPair keyPair;
@@ -123,6 +132,92 @@ public class StreamingEncryptionSchemeTest {
         }
     }
 
+    @Test
+    public void testFileEncryptDecrypt() throws IOException {
+        // the second length spans several memory-mapped chunks
+        for (int length : new int[]{LENGTH, 9 * 1024 * 1024 + 100}) {
+            byte[] randomBytes = new byte[length];
+            RANDOM.nextBytes(randomBytes);
+            Path plainFile = folder.newFile().toPath();
+            Path cipherFile = folder.newFile().toPath();
+            Path decryptedFile = folder.newFile().toPath();
+            Files.write(plainFile, randomBytes);
+
+            encryptionScheme.encrypt(plainFile, cipherFile, keyPair.getPk());
+            encryptionScheme.decrypt(cipherFile, decryptedFile, keyPair.getSk());
+            assertArrayEquals(randomBytes, Files.readAllBytes(decryptedFile));
+
+            // the ciphertext can be decrypted by the stream based methods
+            ByteArrayOutputStream plainOut = new ByteArrayOutputStream(length);
+            try (InputStream cipherIn = Files.newInputStream(cipherFile)) {
+                encryptionScheme.decrypt(cipherIn, plainOut, keyPair.getSk());
+            }
+            assertArrayEquals(randomBytes, plainOut.toByteArray());
+        }
+    }
+
+    @Test
+    public void testByteBufferEncryptDecrypt() throws IOException {
+        byte[] randomBytes = new byte[LENGTH];
+        RANDOM.nextBytes(randomBytes);
+        ByteBuffer plainText = ByteBuffer.allocateDirect(LENGTH);
+        plainText.put(randomBytes).flip();
+        ByteBuffer cipherText = ByteBuffer.allocateDirect(2 * LENGTH);
+
+        encryptionScheme.encrypt(plainText, cipherText, keyPair.getPk());
+        cipherText.flip();
+        byte[] cipherBytes = new byte[cipherText.remaining()];
+        cipherText.duplicate().get(cipherBytes);
+
+        ByteBuffer decrypted = ByteBuffer.allocateDirect(2 * LENGTH);
+        encryptionScheme.decrypt(cipherText, decrypted, keyPair.getSk());
+        decrypted.flip();
+        byte[] decryptedBytes = new byte[decrypted.remaining()];
+        decrypted.get(decryptedBytes);
+        assertArrayEquals(randomBytes, decryptedBytes);
+
+        // the ciphertext can be decrypted by the stream based methods
+        ByteArrayOutputStream plainOut = new ByteArrayOutputStream(LENGTH);
+        encryptionScheme.decrypt(new ByteArrayInputStream(cipherBytes), plainOut, keyPair.getSk());
+        assertArrayEquals(randomBytes, plainOut.toByteArray());
+    }
+
+    @Test
+    public void testInterleavedDecryptors() throws IOException {
+        byte[][] randomBytes = new byte[2][LENGTH];
+        byte[][] cipherBytes = new byte[2][];
+        for (int i = 0; i < 2; i++) {
+            RANDOM.nextBytes(randomBytes[i]);
+            ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+            try (OutputStream encryptingOut = encryptionScheme.createEncryptor(cipherOut, keyPair.getPk())) {
+                encryptingOut.write(randomBytes[i]);
+            }
+            cipherBytes[i] = cipherOut.toByteArray();
+        }
+
+        // the second decryptor receives its IV while the first one has only received part of its IV
+        ByteArrayOutputStream firstPlainOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream secondPlainOut = new ByteArrayOutputStream();
+        try (OutputStream firstOut = encryptionScheme.createDecryptor(firstPlainOut, keyPair.getSk());
+             OutputStream secondOut = encryptionScheme.createDecryptor(secondPlainOut, keyPair.getSk())) {
+            firstOut.write(cipherBytes[0], 0, 5);
+            secondOut.write(cipherBytes[1]);
+            firstOut.write(cipherBytes[0], 5, cipherBytes[0].length - 5);
+        }
+        assertArrayEquals(randomBytes[0], firstPlainOut.toByteArray());
+        assertArrayEquals(randomBytes[1], secondPlainOut.toByteArray());
+    }
+
+    @Test
+    public void testEncryptionDoesNotChangeScheme() throws IOException {
+        int hashCode = encryptionScheme.hashCode();
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        encryptionScheme.encrypt(new ByteArrayInputStream(new byte[LENGTH]), cipherOut, keyPair.getPk());
+        encryptionScheme.decrypt(new ByteArrayInputStream(cipherOut.toByteArray()), new ByteArrayOutputStream(),
+                keyPair.getSk());
+        assertEquals(hashCode, encryptionScheme.hashCode());
+    }
+
     @Parameters(name = "{index}: {0}")
     public static Collection<StreamingEncryptionSchemeParams> data() {
         ArrayList<StreamingEncryptionSchemeParams> toReturn = new ArrayList<>();
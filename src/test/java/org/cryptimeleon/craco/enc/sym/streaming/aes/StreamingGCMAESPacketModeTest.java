@@ -0,0 +1,293 @@
+package org.cryptimeleon.craco.enc.sym.streaming.aes;
+
+import org.cryptimeleon.craco.common.ByteArrayImplementation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class StreamingGCMAESPacketModeTest {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final int PACKET_SIZE = 1024;
+
+    private static final int LENGTH = 10 * PACKET_SIZE + 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StreamingGCMAESPacketMode scheme;
+
+    private ByteArrayImplementation key;
+
+    private byte[] plainText;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        scheme = new StreamingGCMAESPacketMode(PACKET_SIZE);
+        key = (ByteArrayImplementation) scheme.generateSymmetricKey();
+        plainText = new byte[LENGTH];
+        RANDOM.nextBytes(plainText);
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelEncryptionIsByteIdentical() throws IOException {
+        byte[] randomIV = new byte[12];
+        RANDOM.nextBytes(randomIV);
+        // iv + i changes the length of the IV's two's complement representation
+        byte[] overflowingIV = new byte[12];
+        Arrays.fill(overflowingIV, (byte) 0xff);
+        overflowingIV[0] = 0x7f;
+
+        for (byte[] iv : new byte[][]{randomIV, overflowingIV}) {
+            ByteArrayOutputStream sequentialOut = new ByteArrayOutputStream();
+            try (OutputStream encryptor = scheme.createEncryptor(sequentialOut, key, iv.clone())) {
+                encryptor.write(plainText);
+            }
+
+            ByteArrayOutputStream parallelOut = new ByteArrayOutputStream();
+            try (OutputStream encryptor = scheme.createParallelEncryptor(parallelOut, key, iv.clone(), executor, 2)) {
+                writeInChunks(encryptor, plainText, 700);
+            }
+
+            assertArrayEquals(sequentialOut.toByteArray(), parallelOut.toByteArray());
+        }
+    }
+
+    @Test
+    public void testEncryptionDoesNotChangeScheme() throws IOException {
+        StreamingGCMAESPacketMode fresh = new StreamingGCMAESPacketMode(PACKET_SIZE);
+        byte[] iv = new byte[12];
+        RANDOM.nextBytes(iv);
+        scheme.createEncryptor(new ByteArrayOutputStream(), key, iv).close();
+        scheme.createParallelEncryptor(new ByteArrayOutputStream(), key, executor, 2).close();
+        scheme.encryptParallel(new ByteArrayInputStream(plainText), new ByteArrayOutputStream(), key, executor, 2);
+
+        assertEquals(fresh, scheme);
+        assertEquals(fresh.hashCode(), scheme.hashCode());
+    }
+
+    @Test
+    public void testPacketIVAndAADEncoding() throws GeneralSecurityException {
+        SecretKeySpec keySpec = new SecretKeySpec(key.getData(), "AES");
+        byte[] packet = Arrays.copyOf(plainText, 100);
+        byte[] cipherText = new byte[packet.length + 16];
+
+        byte[][] ivs = new byte[6][12];
+        RANDOM.nextBytes(ivs[0]);
+        Arrays.fill(ivs[1], (byte) 0xff);
+        ivs[1][0] = 0x7f;
+        Arrays.fill(ivs[2], (byte) 0xff);
+        ivs[3][0] = (byte) 0x80;
+        Arrays.fill(ivs[5], 1, 12, (byte) 0xff);
+        long[] packetIndices = {0, 1, 127, 128, 255, 256, 65535, Integer.MAX_VALUE, Long.MAX_VALUE};
+
+        for (byte[] iv : ivs) {
+            GCMPacketCipher packetCipher = new GCMPacketCipher(keySpec, iv, 128, "AES/GCM/NoPadding");
+            for (long packetIndex : packetIndices) {
+                int length = packetCipher.encryptPacket(packetIndex, packet, 0, packet.length, cipherText, 0);
+                assertArrayEquals(encryptPacketWithBigIntegers(keySpec, iv, packetIndex, packet),
+                        Arrays.copyOf(cipherText, length));
+            }
+        }
+    }
+
+    /**
+     * Encrypts a packet by computing IV and AAD using {@link BigInteger}s, as the original implementation did.
+     */
+    private static byte[] encryptPacketWithBigIntegers(SecretKeySpec keySpec, byte[] iv, long packetIndex,
+                                                       byte[] packet) throws GeneralSecurityException {
+        BigInteger packetRound = BigInteger.valueOf(packetIndex);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec,
+                new GCMParameterSpec(128, new BigInteger(iv).add(packetRound).toByteArray()));
+        byte[] packetRoundBytes = packetRound.toByteArray();
+        byte[] aad = Arrays.copyOf(iv, iv.length + packetRoundBytes.length);
+        System.arraycopy(packetRoundBytes, 0, aad, iv.length, packetRoundBytes.length);
+        cipher.updateAAD(aad);
+        return cipher.doFinal(packet);
+    }
+
+    @Test
+    public void testParallelDecryptionOfSequentialCiphertext() throws IOException {
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        try (OutputStream encryptor = scheme.createEncryptor(cipherOut, key)) {
+            encryptor.write(plainText);
+        }
+        byte[] cipherText = cipherOut.toByteArray();
+
+        ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+        scheme.decryptParallel(new ByteArrayInputStream(cipherText), plainOut, key, executor, 3);
+        assertArrayEquals(plainText, plainOut.toByteArray());
+
+        plainOut = new ByteArrayOutputStream();
+        try (OutputStream decryptor = scheme.createParallelDecryptor(plainOut, key, executor, 1)) {
+            writeInChunks(decryptor, cipherText, 5);
+        }
+        assertArrayEquals(plainText, plainOut.toByteArray());
+    }
+
+    @Test
+    public void testSequentialDecryptionOfParallelCiphertext() throws IOException {
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        scheme.encryptParallel(new ByteArrayInputStream(plainText), cipherOut, key, executor, 4);
+
+        ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+        scheme.decrypt(new ByteArrayInputStream(cipherOut.toByteArray()), plainOut, key);
+        assertArrayEquals(plainText, plainOut.toByteArray());
+    }
+
+    @Test
+    public void testParallelDecryptionRejectsModifiedPacket() throws IOException {
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        scheme.encryptParallel(new ByteArrayInputStream(plainText), cipherOut, key, executor, 4);
+        byte[] cipherText = cipherOut.toByteArray();
+        // modify the third packet
+        cipherText[12 + 2 * (PACKET_SIZE + 16) + 5] ^= 1;
+
+        ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+        try {
+            scheme.decryptParallel(new ByteArrayInputStream(cipherText), plainOut, key, executor, 4);
+            fail("Modified ciphertext was decrypted");
+        } catch (RuntimeException e) {
+            // expected; only the packets before the modified one have been written
+            assertArrayEquals(Arrays.copyOf(plainText, 2 * PACKET_SIZE), plainOut.toByteArray());
+        }
+    }
+
+    @Test
+    public void testCipherTextLength() throws IOException {
+        for (int length : new int[]{0, 1, PACKET_SIZE, PACKET_SIZE + 1, LENGTH}) {
+            ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+            try (OutputStream encryptor = scheme.createEncryptor(cipherOut, key)) {
+                encryptor.write(plainText, 0, length);
+            }
+            assertEquals(cipherOut.size(), scheme.getCipherTextLength(length));
+            assertEquals(length, scheme.getPlainTextLength(cipherOut.size()));
+        }
+
+        ByteBuffer tooSmall = ByteBuffer.allocate((int) scheme.getCipherTextLength(LENGTH) - 1);
+        try {
+            scheme.encrypt(ByteBuffer.wrap(plainText), tooSmall, key);
+            fail("Encrypted into a too small buffer");
+        } catch (BufferOverflowException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testConcurrentBufferEncryption() throws Exception {
+        List<Future<byte[]>> results = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            results.add(executor.submit(() -> {
+                ByteBuffer cipherText = ByteBuffer.allocate((int) scheme.getCipherTextLength(LENGTH));
+                scheme.encrypt(ByteBuffer.wrap(plainText), cipherText, key);
+                cipherText.flip();
+                ByteBuffer decrypted = ByteBuffer.allocate(LENGTH);
+                scheme.decrypt(cipherText, decrypted, key);
+                return decrypted.array();
+            }));
+        }
+        for (Future<byte[]> result : results) {
+            assertArrayEquals(plainText, result.get());
+        }
+    }
+
+    @Test
+    public void testSeekableDecryption() throws IOException {
+        Path cipherTextFile = encryptToFile(plainText);
+
+        try (SeekableByteChannel cipherText = Files.newByteChannel(cipherTextFile)) {
+            long[][] ranges = {{0, 10}, {PACKET_SIZE - 5, 10}, {3 * PACKET_SIZE, 2 * PACKET_SIZE + 3},
+                    {LENGTH - 50, 100}, {LENGTH + 10, 5}};
+            for (long[] range : ranges) {
+                int offset = (int) range[0];
+                int end = (int) Math.min(LENGTH, range[0] + range[1]);
+                byte[] expected = Arrays.copyOfRange(plainText, Math.min(offset, end), end);
+                assertArrayEquals(expected, scheme.decryptRange(cipherText, offset, (int) range[1], key));
+            }
+        }
+
+        try (SeekableByteChannel plainTextChannel =
+                     scheme.createSeekableDecryptor(Files.newByteChannel(cipherTextFile), key)) {
+            assertEquals(LENGTH, plainTextChannel.size());
+            ByteBuffer buffer = ByteBuffer.allocate(PACKET_SIZE + 1);
+            plainTextChannel.position(LENGTH - PACKET_SIZE);
+            assertEquals(PACKET_SIZE, plainTextChannel.read(buffer));
+            assertArrayEquals(Arrays.copyOfRange(plainText, LENGTH - PACKET_SIZE, LENGTH),
+                    Arrays.copyOf(buffer.array(), PACKET_SIZE));
+            assertEquals(-1, plainTextChannel.read(buffer));
+        }
+    }
+
+    @Test
+    public void testSeekableDecryptionRejectsModifiedPacket() throws IOException {
+        Path cipherTextFile = encryptToFile(plainText);
+        byte[] cipherText = Files.readAllBytes(cipherTextFile);
+        // modify the fifth packet
+        cipherText[12 + 4 * (PACKET_SIZE + 16) + 5] ^= 1;
+        Files.write(cipherTextFile, cipherText);
+
+        try (SeekableByteChannel cipherTextChannel = Files.newByteChannel(cipherTextFile)) {
+            // other packets can still be decrypted
+            assertArrayEquals(Arrays.copyOfRange(plainText, PACKET_SIZE, 2 * PACKET_SIZE),
+                    scheme.decryptRange(cipherTextChannel, PACKET_SIZE, PACKET_SIZE, key));
+            try {
+                scheme.decryptRange(cipherTextChannel, 4 * PACKET_SIZE + 10, 1, key);
+                fail("Modified packet was decrypted");
+            } catch (RuntimeException e) {
+                // expected
+            }
+        }
+    }
+
+    private Path encryptToFile(byte[] data) throws IOException {
+        Path file = folder.newFile().toPath();
+        try (OutputStream encryptor = scheme.createEncryptor(Files.newOutputStream(file), key)) {
+            encryptor.write(data);
+        }
+        return file;
+    }
+
+    private static void writeInChunks(OutputStream out, byte[] data, int chunkSize) throws IOException {
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            out.write(data, offset, Math.min(chunkSize, data.length - offset));
+        }
+    }
+}
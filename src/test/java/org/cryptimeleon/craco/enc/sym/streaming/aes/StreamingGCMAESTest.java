@@ -0,0 +1,95 @@
+package org.cryptimeleon.craco.enc.sym.streaming.aes;
+
+import org.cryptimeleon.craco.enc.SymmetricKey;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StreamingGCMAESTest {
+
+    // spans several memory-mapped chunks
+    private static final int LENGTH = 2 * ChannelUtil.MAPPED_CHUNK_SIZE + 100;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StreamingGCMAES scheme;
+
+    private SymmetricKey key;
+
+    private byte[] plainText;
+
+    @Before
+    public void setUp() {
+        scheme = new StreamingGCMAES();
+        key = scheme.generateSymmetricKey();
+        plainText = new byte[LENGTH];
+        new Random(0).nextBytes(plainText);
+    }
+
+    @Test
+    public void testFileChannelDecrypt() throws IOException {
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        scheme.encrypt(new ByteArrayInputStream(plainText), cipherOut, key);
+        Path cipherFile = folder.newFile().toPath();
+        Files.write(cipherFile, cipherOut.toByteArray());
+        Path plainFile = folder.newFile().toPath();
+
+        try (FileChannel cipherIn = FileChannel.open(cipherFile, StandardOpenOption.READ);
+             FileChannel plainOut = FileChannel.open(plainFile, StandardOpenOption.WRITE)) {
+            scheme.decrypt(cipherIn, plainOut, key);
+            assertEquals(cipherIn.size(), cipherIn.position());
+        }
+        assertArrayEquals(plainText, Files.readAllBytes(plainFile));
+    }
+
+    @Test
+    public void testFileChannelDecryptRejectsModifiedCipherText() throws IOException {
+        Path plainFile = folder.newFile().toPath();
+        Path cipherFile = folder.newFile().toPath();
+        Files.write(plainFile, plainText);
+        scheme.encrypt(plainFile, cipherFile, key);
+        byte[] cipherText = Files.readAllBytes(cipherFile);
+        cipherText[LENGTH / 2] ^= 1;
+        Files.write(cipherFile, cipherText);
+
+        Path decryptedFile = folder.newFile().toPath();
+        try {
+            scheme.decrypt(cipherFile, decryptedFile, key);
+            fail("Modified ciphertext was decrypted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        // no unauthenticated plaintext has been written
+        assertEquals(0, Files.size(decryptedFile));
+    }
+
+    @Test
+    public void testFileChannelDecryptRejectsLargeCipherText() throws IOException {
+        Path cipherFile = folder.newFile().toPath();
+        try (RandomAccessFile file = new RandomAccessFile(cipherFile.toFile(), "rw")) {
+            // sparse file, IV followed by more ciphertext than can be decrypted at once
+            file.setLength(12 + ChannelUtil.MAX_BUFFERED_LENGTH + 1L);
+        }
+        Path plainFile = folder.newFile().toPath();
+        try {
+            scheme.decrypt(cipherFile, plainFile, key);
+            fail("Ciphertext larger than the maximum was decrypted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.cryptimeleon.craco.kem;
 
+import org.cryptimeleon.craco.enc.CipherText;
 import org.cryptimeleon.craco.enc.EncryptionKeyPair;
 import org.cryptimeleon.craco.enc.SymmetricKey;
 import org.cryptimeleon.craco.enc.asym.elgamal.ElgamalPrivateKey;
@@ -16,6 +17,8 @@ import org.junit.Test;
 
 import java.math.BigInteger;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -85,5 +88,32 @@ public class ElgamalKEMTest {
         ByteArrayImplementation kprime = kem.decaps(Cprime, sk);
         assertTrue(kprime.equals(new ByteArrayImplementation(new byte[0])));
     }
-}
 
+    @Test
+    public void testBatch() {
+        List<KeyAndCiphertext<SymmetricKey>> encapsulations = kem.encapsBatch(sk.getPublicKey(), 10);
+        assertEquals(10, encapsulations.size());
+
+        List<CipherText> encapsulatedKeys = new ArrayList<>();
+        for (KeyAndCiphertext<SymmetricKey> encapsulation : encapsulations) {
+            /*batch encapsulations can be decapsulated one by one*/
+            assertEquals(encapsulation.key, kem.decaps(encapsulation.encapsulatedKey, sk));
+            encapsulatedKeys.add(encapsulation.encapsulatedKey);
+        }
+        /*single encapsulations can be decapsulated in a batch*/
+        KeyAndCiphertext<SymmetricKey> single = kem.encaps(sk.getPublicKey());
+        encapsulatedKeys.add(single.encapsulatedKey);
+
+        /*modify symmetric part of the first encapsulation by one bit*/
+        ElgamalKEMCiphertext C = (ElgamalKEMCiphertext) encapsulatedKeys.get(0);
+        encapsulatedKeys.set(0, new ElgamalKEMCiphertext(C.getElgamalCipherText(),
+                C.getSymmetricEncryption().xor(new ByteArrayImplementation(new byte[]{1}))));
+
+        List<ByteArrayImplementation> keys = kem.decapsBatch(encapsulatedKeys, sk);
+        assertEquals(new ByteArrayImplementation(new byte[0]), keys.get(0));
+        for (int i = 1; i < 10; i++) {
+            assertEquals(encapsulations.get(i).key, keys.get(i));
+        }
+        assertEquals(single.key, keys.get(10));
+    }
+}
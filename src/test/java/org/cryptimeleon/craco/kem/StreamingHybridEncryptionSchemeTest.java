@@ -0,0 +1,222 @@
+package org.cryptimeleon.craco.kem;
+
+import org.cryptimeleon.craco.enc.EncryptionKey;
+import org.cryptimeleon.craco.enc.EncryptionKeyPair;
+import org.cryptimeleon.craco.enc.SymmetricKey;
+import org.cryptimeleon.craco.enc.sym.streaming.aes.StreamingCBCAES;
+import org.cryptimeleon.craco.enc.sym.streaming.aes.StreamingGCMAESPacketMode;
+import org.cryptimeleon.craco.kem.asym.elgamal.ElgamalKEM;
+import org.cryptimeleon.math.hash.impl.SHA256HashFunction;
+import org.cryptimeleon.math.serialization.converter.JSONConverter;
+import org.cryptimeleon.math.structures.groups.debug.DebugGroup;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class StreamingHybridEncryptionSchemeTest {
+
+    private static final int LENGTH = 5000;
+
+    private ElgamalKEM kem;
+
+    private StreamingGCMAESPacketMode symmetricScheme;
+
+    private StreamingHybridEncryptionScheme scheme;
+
+    private EncryptionKeyPair keyPair;
+
+    private byte[] plainText;
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        kem = new ElgamalKEM(new DebugGroup("testgroup", 128), new SHA256HashFunction());
+        symmetricScheme = new StreamingGCMAESPacketMode(1024);
+        scheme = new StreamingHybridEncryptionScheme(symmetricScheme, kem);
+        keyPair = kem.generateKeyPair();
+        plainText = new byte[LENGTH];
+        new Random(0).nextBytes(plainText);
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testHeaderFormat() throws IOException {
+        byte[] cipherText = encrypt(plainText);
+        ByteBuffer header = ByteBuffer.wrap(cipherText);
+        assertEquals(StreamingHybridEncryptionScheme.MAGIC, header.getInt());
+        assertEquals(StreamingHybridEncryptionScheme.FORMAT_VERSION, header.get());
+    }
+
+    @Test
+    public void testDecryptorWithSmallWrites() throws IOException {
+        byte[] cipherText = encrypt(plainText);
+        for (int chunkSize : new int[]{1, 3, 4, 13, 100, cipherText.length}) {
+            ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+            try (OutputStream decryptor = scheme.createDecryptor(plainOut, keyPair.getSk())) {
+                for (int offset = 0; offset < cipherText.length; offset += chunkSize) {
+                    decryptor.write(cipherText, offset, Math.min(chunkSize, cipherText.length - offset));
+                }
+            }
+            assertArrayEquals(plainText, plainOut.toByteArray());
+        }
+    }
+
+    @Test
+    public void testDecryptLegacyFormat() throws IOException {
+        // length || JSON encapsulated key || symmetric ciphertext
+        KeyEncapsulationMechanism.KeyAndCiphertext<SymmetricKey> keyAndCiphertext = kem.encaps(keyPair.getPk());
+        byte[] encapsulatedKey = new JSONConverter().serialize(keyAndCiphertext.encapsulatedKey.getRepresentation())
+                .getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        cipherOut.write(ByteBuffer.allocate(4).putInt(encapsulatedKey.length).array());
+        cipherOut.write(encapsulatedKey);
+        try (OutputStream encryptor = symmetricScheme.createEncryptor(cipherOut, keyAndCiphertext.key)) {
+            encryptor.write(plainText);
+        }
+        byte[] legacyCipherText = cipherOut.toByteArray();
+
+        assertArrayEquals(plainText, decrypt(legacyCipherText));
+        ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+        try (OutputStream decryptor = scheme.createDecryptor(plainOut, keyPair.getSk())) {
+            decryptor.write(legacyCipherText);
+        }
+        assertArrayEquals(plainText, plainOut.toByteArray());
+
+        // the binary header is more compact than the JSON one
+        assertTrue(encrypt(plainText).length < legacyCipherText.length);
+    }
+
+    @Test
+    public void testRejectsOtherScheme() throws IOException {
+        StreamingHybridEncryptionScheme otherScheme = new StreamingHybridEncryptionScheme(new StreamingCBCAES(), kem);
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        otherScheme.encrypt(new ByteArrayInputStream(plainText), cipherOut, keyPair.getPk());
+        try {
+            decrypt(cipherOut.toByteArray());
+            fail("Ciphertext of another scheme was decrypted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRejectsOtherParameters() throws IOException {
+        StreamingHybridEncryptionScheme otherScheme =
+                new StreamingHybridEncryptionScheme(new StreamingGCMAESPacketMode(2048), kem);
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        otherScheme.encrypt(new ByteArrayInputStream(plainText), cipherOut, keyPair.getPk());
+        try {
+            decrypt(cipherOut.toByteArray());
+            fail("Ciphertext of a scheme with other parameters was decrypted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRestoredSchemeDecrypts() throws IOException {
+        byte[] cipherText = encrypt(plainText);
+        StreamingHybridEncryptionScheme restoredScheme = new StreamingHybridEncryptionScheme(
+                new JSONConverter().deserialize(new JSONConverter().serialize(scheme.getRepresentation())));
+        ByteArrayOutputStream plainOut = new ByteArrayOutputStream();
+        try (OutputStream decryptor = restoredScheme.createDecryptor(plainOut, keyPair.getSk())) {
+            decryptor.write(cipherText);
+        }
+        assertArrayEquals(plainText, plainOut.toByteArray());
+    }
+
+    @Test
+    public void testMultiRecipient() throws IOException {
+        List<EncryptionKeyPair> recipients = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            recipients.add(kem.generateKeyPair());
+        }
+        List<EncryptionKey> publicKeys = new ArrayList<>();
+        recipients.forEach(recipient -> publicKeys.add(recipient.getPk()));
+
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        scheme.encrypt(new ByteArrayInputStream(plainText), cipherOut, publicKeys, executor);
+        byte[] cipherText = cipherOut.toByteArray();
+        // the payload is only encrypted once
+        assertTrue(cipherText.length < encrypt(plainText).length + 10 * 1000);
+
+        for (EncryptionKeyPair recipient : recipients) {
+            assertArrayEquals(plainText, readAll(scheme.decryptMultiRecipient(new ByteArrayInputStream(cipherText),
+                    recipient.getPk(), recipient.getSk())));
+        }
+
+        // streamed encryption yields a ciphertext in the same format
+        cipherOut = new ByteArrayOutputStream();
+        try (OutputStream encryptor = scheme.createEncryptor(cipherOut, publicKeys, executor)) {
+            encryptor.write(plainText);
+        }
+        assertArrayEquals(plainText, readAll(scheme.decryptMultiRecipient(
+                new ByteArrayInputStream(cipherOut.toByteArray()), recipients.get(3).getPk(),
+                recipients.get(3).getSk())));
+    }
+
+    @Test
+    public void testMultiRecipientRejectsOtherRecipient() throws IOException {
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        scheme.encrypt(new ByteArrayInputStream(plainText), cipherOut, Collections.singletonList(keyPair.getPk()),
+                executor);
+        EncryptionKeyPair other = kem.generateKeyPair();
+        try {
+            scheme.decryptMultiRecipient(new ByteArrayInputStream(cipherOut.toByteArray()), other.getPk(),
+                    other.getSk());
+            fail("Ciphertext was decrypted by another recipient");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            decrypt(cipherOut.toByteArray());
+            fail("Multi-recipient ciphertext was decrypted as single recipient ciphertext");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private byte[] encrypt(byte[] data) throws IOException {
+        ByteArrayOutputStream cipherOut = new ByteArrayOutputStream();
+        scheme.encrypt(new ByteArrayInputStream(data), cipherOut, keyPair.getPk());
+        return cipherOut.toByteArray();
+    }
+
+    private byte[] decrypt(byte[] cipherText) throws IOException {
+        return readAll(scheme.decrypt(new ByteArrayInputStream(cipherText), keyPair.getSk()));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream stream = in) {
+            int read;
+            byte[] buffer = new byte[1000];
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+}
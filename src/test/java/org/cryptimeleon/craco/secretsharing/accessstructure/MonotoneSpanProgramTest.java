@@ -0,0 +1,96 @@
+package org.cryptimeleon.craco.secretsharing.accessstructure;
+
+import org.cryptimeleon.craco.common.attributes.StringAttribute;
+import org.cryptimeleon.craco.common.policies.Policy;
+import org.cryptimeleon.craco.common.policies.ThresholdPolicy;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
+import org.cryptimeleon.craco.secretsharing.accessstructure.utils.SparseMatrix;
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MonotoneSpanProgramTest {
+
+    private Zp zp;
+
+    private List<StringAttribute> attributes;
+
+    private MonotoneSpanProgram msp;
+
+    @Before
+    public void setup() {
+        zp = new Zp(RandomGenerator.getRandomPrime(128));
+        // (2 of A0, A1, A2) and (1 of A3, A4) and A5
+        attributes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            attributes.add(new StringAttribute("A" + i));
+        }
+        Policy policy = new ThresholdPolicy(3,
+                new ThresholdPolicy(2, attributes.subList(0, 3)),
+                new ThresholdPolicy(1, attributes.subList(3, 5)),
+                attributes.get(5));
+        msp = new MonotoneSpanProgram(policy, zp);
+    }
+
+    @Test
+    public void testMatrix() throws WrongAccessStructureException {
+        SparseMatrix matrix = msp.getMatrix();
+        assertSame(matrix, msp.getMatrix());
+        assertEquals(6, matrix.getNumberOfRows());
+        assertEquals(matrix.getNumberOfColumns(), msp.getNumberOfColumns());
+        assertTrue(matrix.getNumberOfNonZeroEntries() < matrix.getNumberOfRows() * matrix.getNumberOfColumns());
+    }
+
+    @Test
+    public void testReconstruct() throws WrongAccessStructureException, NoSatisfyingSet {
+        Zp.ZpElement secret = zp.getUniformlyRandomElement();
+        Map<Integer, Zp.ZpElement> shares = msp.getShares(secret);
+        assertEquals(6, shares.size());
+
+        Set<StringAttribute> parties = new HashSet<>(Arrays.asList(attributes.get(0), attributes.get(2),
+                attributes.get(4), attributes.get(5)));
+        assertTrue(msp.isQualified(parties));
+        Map<Integer, Zp.ZpElement> solvingVector = msp.getSolvingVector(parties);
+        Zp.ZpElement reconstructed = zp.getZeroElement();
+        for (Map.Entry<Integer, Zp.ZpElement> entry : solvingVector.entrySet()) {
+            reconstructed = reconstructed.add(entry.getValue().mul(shares.get(entry.getKey())));
+        }
+        assertEquals(secret, reconstructed);
+    }
+
+    @Test(expected = NoSatisfyingSet.class)
+    public void testUnqualifiedSet() throws WrongAccessStructureException, NoSatisfyingSet {
+        msp.getSolvingVector(new HashSet<>(Arrays.asList(attributes.get(0), attributes.get(3), attributes.get(5))));
+    }
+
+    @Test
+    public void testReconstructFromAllQualifiedSets() throws WrongAccessStructureException, NoSatisfyingSet {
+        Zp.ZpElement secret = zp.getUniformlyRandomElement();
+        Map<Integer, Zp.ZpElement> shares = msp.getShares(secret);
+        for (int subset = 0; subset < 1 << attributes.size(); subset++) {
+            Set<StringAttribute> parties = new HashSet<>();
+            for (int i = 0; i < attributes.size(); i++) {
+                if ((subset & 1 << i) != 0)
+                    parties.add(attributes.get(i));
+            }
+            if (!msp.isQualified(parties))
+                continue;
+            // the second call is answered from the cache
+            for (int repetition = 0; repetition < 2; repetition++) {
+                Map<Integer, Zp.ZpElement> solvingVector = msp.getSolvingVector(parties);
+                Zp.ZpElement reconstructed = zp.getZeroElement();
+                for (Map.Entry<Integer, Zp.ZpElement> entry : solvingVector.entrySet()) {
+                    reconstructed = reconstructed.add(entry.getValue().mul(shares.get(entry.getKey())));
+                }
+                assertEquals(secret, reconstructed);
+                solvingVector.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.cryptimeleon.craco.secretsharing.accessstructure.utils;
+
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SparseMatrixTest {
+
+    private final Zp zp = new Zp(BigInteger.valueOf(101));
+
+    @Test
+    public void testMatrix() {
+        List<List<Zp.ZpElement>> rows = Arrays.asList(
+                Arrays.asList(zp.valueOf(1), zp.valueOf(0), zp.valueOf(5)),
+                Collections.emptyList(),
+                Arrays.asList(zp.valueOf(0), zp.valueOf(100)));
+        SparseMatrix matrix = new SparseMatrix(rows, 4);
+        assertEquals(3, matrix.getNumberOfRows());
+        assertEquals(4, matrix.getNumberOfColumns());
+        assertEquals(3, matrix.getNumberOfNonZeroEntries());
+
+        assertEquals(BigInteger.valueOf(5), matrix.get(0, 2));
+        assertEquals(BigInteger.ZERO, matrix.get(0, 1));
+        assertEquals(BigInteger.ZERO, matrix.get(1, 3));
+        assertEquals(BigInteger.valueOf(100), matrix.get(2, 1));
+        assertArrayEquals(new BigInteger[]{BigInteger.ZERO, BigInteger.valueOf(100), BigInteger.ZERO, BigInteger.ZERO},
+                matrix.getDenseRow(2));
+
+        BigInteger[] vector = {BigInteger.valueOf(2), BigInteger.valueOf(3), BigInteger.valueOf(40),
+                BigInteger.valueOf(7)};
+        // (2 + 5 * 40, 0, 100 * 3) mod 101
+        assertArrayEquals(new BigInteger[]{BigInteger.valueOf(0), BigInteger.ZERO, BigInteger.valueOf(98)},
+                matrix.multiply(vector, zp.size()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRowTooLong() {
+        new SparseMatrix(Collections.singletonList(Arrays.asList(zp.valueOf(1), zp.valueOf(2))), 1);
+    }
+
+    @Test
+    public void testFindCombinationForFirstUnitVector() {
+        // rows (1, 1, 0), (1, 2, 0), (0, 0, 3), (2, 2, 0)
+        List<List<Zp.ZpElement>> rows = Arrays.asList(
+                Arrays.asList(zp.valueOf(1), zp.valueOf(1)),
+                Arrays.asList(zp.valueOf(1), zp.valueOf(2)),
+                Arrays.asList(zp.valueOf(0), zp.valueOf(0), zp.valueOf(3)),
+                Arrays.asList(zp.valueOf(2), zp.valueOf(2)));
+        SparseMatrix matrix = new SparseMatrix(rows, 3);
+
+        // 2 * (1, 1, 0) - (1, 2, 0) = (1, 0, 0)
+        assertArrayEquals(new BigInteger[]{BigInteger.valueOf(2), BigInteger.ZERO, BigInteger.valueOf(100)},
+                matrix.findCombinationForFirstUnitVector(new int[]{0, 2, 1}, zp.size()));
+        assertNull(matrix.findCombinationForFirstUnitVector(new int[]{0, 3, 2}, zp.size()));
+        assertNull(matrix.findCombinationForFirstUnitVector(new int[0], zp.size()));
+    }
+}
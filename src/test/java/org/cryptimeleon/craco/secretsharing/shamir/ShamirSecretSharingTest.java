@@ -0,0 +1,100 @@
+package org.cryptimeleon.craco.secretsharing.shamir;
+
+import org.cryptimeleon.craco.common.attributes.StringAttribute;
+import org.cryptimeleon.craco.common.policies.Policy;
+import org.cryptimeleon.craco.common.policies.ThresholdPolicy;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.NoSatisfyingSet;
+import org.cryptimeleon.craco.secretsharing.accessstructure.exceptions.WrongAccessStructureException;
+import org.cryptimeleon.math.random.RandomGenerator;
+import org.cryptimeleon.math.structures.rings.zn.Zp;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ShamirSecretSharingTest {
+
+    private static final int NUMBER_OF_SHARES = 20;
+
+    private static final int THRESHOLD = 7;
+
+    private Zp zp;
+
+    private List<Policy> shareReceivers;
+
+    private ShamirSecretSharing secretSharing;
+
+    @Before
+    public void setup() {
+        zp = new Zp(RandomGenerator.getRandomPrime(128));
+        shareReceivers = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_SHARES; i++) {
+            shareReceivers.add(new StringAttribute("A" + i));
+        }
+        secretSharing = new ShamirSecretSharing(new ThresholdPolicy(THRESHOLD, shareReceivers), zp);
+    }
+
+    @Test
+    public void testShares() throws WrongAccessStructureException {
+        Zp.ZpElement secret = zp.getUniformlyRandomElement();
+        Map<Integer, Zp.ZpElement> shares = secretSharing.getShares(secret);
+        assertEquals(NUMBER_OF_SHARES, shares.size());
+        assertTrue(secretSharing.checkShareConsistency(secret, shares));
+
+        Map<Integer, Zp.ZpElement> inconsistentShares = new HashMap<>(shares);
+        inconsistentShares.put(NUMBER_OF_SHARES, shares.get(NUMBER_OF_SHARES).add(zp.getOneElement()));
+        assertFalse(secretSharing.checkShareConsistency(secret, inconsistentShares));
+    }
+
+    @Test
+    public void testReconstruct() throws WrongAccessStructureException, NoSatisfyingSet {
+        Zp.ZpElement secret = zp.getUniformlyRandomElement();
+        Map<Integer, Zp.ZpElement> shares = secretSharing.getShares(secret);
+
+        for (int[] indices : new int[][]{{1, 2, 3, 4, 5, 6, 7}, {20, 3, 17, 8, 11, 2, 14}, {1, 2, 3, 4, 5, 6, 7, 8}}) {
+            Map<Integer, Zp.ZpElement> qualifiedShares = new HashMap<>();
+            for (int i : indices) {
+                qualifiedShares.put(i, shares.get(i));
+            }
+            // the second reconstruction uses the cached solving vector
+            assertEquals(secret, secretSharing.reconstruct(qualifiedShares));
+            assertEquals(secret, secretSharing.reconstruct(qualifiedShares));
+        }
+
+        Zp.ZpElement otherSecret = zp.getUniformlyRandomElement();
+        Map<Integer, Zp.ZpElement> otherShares = secretSharing.getShares(otherSecret);
+        otherShares.keySet().retainAll(Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+        assertEquals(otherSecret, secretSharing.reconstruct(otherShares));
+    }
+
+    @Test
+    public void testSolvingVector() throws WrongAccessStructureException, NoSatisfyingSet {
+        Set<Policy> receivers = new HashSet<>(shareReceivers.subList(5, 5 + THRESHOLD));
+        Map<Integer, Zp.ZpElement> solvingVector = secretSharing.getSolvingVector(receivers);
+        assertEquals(THRESHOLD, solvingVector.size());
+        for (Map.Entry<Integer, Zp.ZpElement> entry : solvingVector.entrySet()) {
+            // a_i = prod_{j != i} x_j / (x_j - x_i)
+            Zp.ZpElement expected = zp.getOneElement();
+            for (int j : solvingVector.keySet()) {
+                if (j != entry.getKey()) {
+                    expected = expected.mul(zp.valueOf(j)).div(zp.valueOf(BigInteger.valueOf(j - entry.getKey())));
+                }
+            }
+            assertEquals(expected, entry.getValue());
+        }
+
+        // modifying the result does not affect the cache
+        solvingVector.clear();
+        assertEquals(THRESHOLD, secretSharing.getSolvingVector(receivers).size());
+    }
+
+    @Test(expected = NoSatisfyingSet.class)
+    public void testReconstructWithTooFewShares() throws WrongAccessStructureException, NoSatisfyingSet {
+        Map<Integer, Zp.ZpElement> shares = secretSharing.getShares(zp.getUniformlyRandomElement());
+        shares.keySet().retainAll(Arrays.asList(1, 2, 3));
+        secretSharing.reconstruct(shares);
+    }
+}
@@ -1,7 +1,10 @@
 package org.cryptimeleon.craco.ser.standalone.params;
 
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
+import org.cryptimeleon.craco.enc.EncryptionScheme;
 import org.cryptimeleon.craco.enc.asym.elgamal.ElgamalEncryption;
 import org.cryptimeleon.craco.enc.sym.streaming.aes.StreamingCBCAES;
+import org.cryptimeleon.craco.kem.KeyEncapsulationMechanism;
 import org.cryptimeleon.craco.kem.StreamingHybridEncryptionScheme;
 import org.cryptimeleon.craco.kem.asym.elgamal.ElgamalKEM;
 import org.cryptimeleon.math.serialization.standalone.StandaloneReprSubTest;
@@ -21,4 +24,10 @@ public class EncryptionStandaloneReprTests extends StandaloneReprSubTest {
     public void testStreamingHybrid() {
         test(new StreamingHybridEncryptionScheme(new StreamingCBCAES(), elgamalKEM));
     }
+
+    public void testInstrumented() {
+        OperationMetricsRegistry registry = new OperationMetricsRegistry();
+        test(EncryptionScheme.instrument(new ElgamalEncryption(group), registry));
+        test(KeyEncapsulationMechanism.instrument(elgamalKEM, registry));
+    }
 }
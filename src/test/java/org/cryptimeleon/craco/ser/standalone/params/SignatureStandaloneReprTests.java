@@ -1,6 +1,8 @@
 package org.cryptimeleon.craco.ser.standalone.params;
 
+import org.cryptimeleon.craco.common.metrics.OperationMetricsRegistry;
 import org.cryptimeleon.math.serialization.standalone.StandaloneReprSubTest;
+import org.cryptimeleon.craco.sig.SignatureScheme;
 import org.cryptimeleon.craco.sig.bbs.BBSBKeyGen;
 import org.cryptimeleon.craco.sig.bbs.BBSBPublicParameter;
 import org.cryptimeleon.craco.sig.bbs.BBSBSignatureScheme;
@@ -37,6 +39,10 @@ public class SignatureStandaloneReprTests extends StandaloneReprSubTest {
                         .getZp().size().bitLength() - 1) / 8), new PSSignatureScheme(pp)));
     }
 
+    public void testInstrumented() {
+        test(SignatureScheme.instrument(new PSSignatureScheme(pp), new OperationMetricsRegistry()));
+    }
+
     public void testBBS() {
         BBSBKeyGen setup = new BBSBKeyGen();
         BBSBPublicParameter pp = setup.doKeyGen(80, true);
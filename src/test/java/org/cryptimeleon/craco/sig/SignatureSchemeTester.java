@@ -1,10 +1,15 @@
 package org.cryptimeleon.craco.sig;
 
+import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
 import org.cryptimeleon.craco.common.plaintexts.PlainText;
 import org.cryptimeleon.math.random.RandomGenerator;
 import org.cryptimeleon.math.serialization.Representation;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.*;
 
@@ -144,4 +149,43 @@ public class SignatureSchemeTester {
         assertEquals(sig.mapToPlaintext(randomBytes, keyPair.getVerificationKey()),
                 sig.mapToPlaintext(randomBytes, keyPair.getSigningKey()));
     }
+
+    /**
+     * Test checking that a batch of message blocks signed via {@link BatchSigner} yields valid signatures in the
+     * right order, and that a message block that cannot be signed only fails its own result.
+     *
+     * @param signatureScheme   {@link MultiMessageSignatureScheme} to be checked
+     * @param messageBlock      valid {@link MessageBlock} to be signed
+     * @param wrongMessageBlock another valid {@link MessageBlock}, different from {@code messageBlock}
+     * @param verificationKey   {@link VerificationKey} fitting {@code signingKey}
+     * @param signingKey        {@link SigningKey} to sign with
+     */
+    public static void testBatchSigning(MultiMessageSignatureScheme signatureScheme, MessageBlock messageBlock,
+                                        MessageBlock wrongMessageBlock, VerificationKey verificationKey,
+                                        SigningKey signingKey) {
+        List<MessageBlock> messageBlocks = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            messageBlocks.add(i % 3 == 0 ? wrongMessageBlock : messageBlock);
+        }
+        // a block of wrong length cannot be signed
+        messageBlocks.add(3, new MessageBlock(messageBlock.append(messageBlock.get(0))));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<BatchSigningResult> results = new BatchSigner(signatureScheme, executor, 2)
+                    .signBatch(messageBlocks, signingKey);
+            assertEquals(messageBlocks.size(), results.size());
+            for (int i = 0; i < messageBlocks.size(); i++) {
+                if (i == 3) {
+                    assertFalse(results.get(i).isSuccessful());
+                    assertTrue(results.get(i).getFailure() instanceof IllegalArgumentException);
+                } else {
+                    assertTrue(signatureScheme.verify(messageBlocks.get(i), results.get(i).getSignature(),
+                            verificationKey));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -70,4 +70,9 @@ public class BBSBSignatureSchemeTest {
         SignatureSchemeTester.testMapToPlainTextContract(bbsScheme, keys);
     }
 
+    @Test
+    public void testBatchSigning() {
+        SignatureSchemeTester.testBatchSigning(bbsScheme, messageBlock, wrongMessageBlock, keys.getVerificationKey(),
+                keys.getSigningKey());
+    }
 }
@@ -1,11 +1,19 @@
 package org.cryptimeleon.craco.sig.ps;
 
 import org.cryptimeleon.craco.common.plaintexts.MessageBlock;
+import org.cryptimeleon.craco.common.plaintexts.PlainText;
 import org.cryptimeleon.craco.sig.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * JUnit test for the Pointcheval Sanders signature scheme.
@@ -77,4 +85,57 @@ public class PSSignatureSchemeTest {
     public void testMapToPlaintextContract() {
         SignatureSchemeTester.testMapToPlainTextContract(psScheme, keyPair);
     }
+
+    @Test
+    public void testBatchVerify() {
+        List<PlainText> messages = new ArrayList<>();
+        List<Signature> signatures = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            messages.add(i % 2 == 0 ? messageBlock : wrongMessageBlock);
+            signatures.add(psScheme.sign(messages.get(i), keyPair.getSigningKey()));
+        }
+        assertEquals(Collections.emptyList(),
+                psScheme.verifyBatch(messages, signatures, keyPair.getVerificationKey()));
+
+        // swap in signatures on the wrong message at two positions
+        signatures.set(2, psScheme.sign(wrongMessageBlock, keyPair.getSigningKey()));
+        signatures.set(5, psScheme.sign(messageBlock, keyPair.getSigningKey()));
+        assertEquals(Arrays.asList(2, 5), psScheme.verifyBatch(messages, signatures, keyPair.getVerificationKey()));
+    }
+
+    @Test
+    public void testBatchVerifyMultipleKeys() {
+        List<PlainText> messages = new ArrayList<>();
+        List<Signature> signatures = new ArrayList<>();
+        List<VerificationKey> keys = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            SignatureKeyPair<? extends VerificationKey, ? extends SigningKey> signingPair =
+                    i % 3 == 0 ? wrongKeyPair : keyPair;
+            messages.add(messageBlock);
+            signatures.add(psScheme.sign(messageBlock, signingPair.getSigningKey()));
+            keys.add(signingPair.getVerificationKey());
+        }
+        assertEquals(Collections.emptyList(), psScheme.verifyBatch(messages, signatures, keys));
+
+        // verify one signature under the other key
+        keys.set(4, wrongKeyPair.getVerificationKey());
+        assertEquals(Collections.singletonList(4), psScheme.verifyBatch(messages, signatures, keys));
+    }
+
+    @Test
+    public void testRestoredVerificationKeyIsCached() {
+        PSVerificationKey restored = psScheme.restoreVerificationKey(keyPair.getVerificationKey().getRepresentation());
+        assertEquals(keyPair.getVerificationKey(), restored);
+        assertSame(restored, psScheme.restoreVerificationKey(keyPair.getVerificationKey().getRepresentation()));
+        assertSame(restored, psScheme.getPrecomputedVerificationKey(keyPair.getVerificationKey()));
+
+        Signature signature = psScheme.sign(messageBlock, keyPair.getSigningKey());
+        assertTrue(psScheme.verify(messageBlock, signature, restored));
+    }
+
+    @Test
+    public void testBatchSigning() {
+        SignatureSchemeTester.testBatchSigning(psScheme, messageBlock, wrongMessageBlock, keyPair.getVerificationKey(),
+                keyPair.getSigningKey());
+    }
 }
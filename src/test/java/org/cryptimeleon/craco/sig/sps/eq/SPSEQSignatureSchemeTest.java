@@ -8,10 +8,13 @@ import org.cryptimeleon.math.structures.rings.zn.Zp;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * JUnit test for the SPS-EQ scheme
@@ -78,6 +81,53 @@ public class SPSEQSignatureSchemeTest {
         }
     }
 
+    @Test
+    public void testBatchVerify() {
+        List<PlainText> messages = new ArrayList<>();
+        List<Signature> signatures = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            messages.add(i % 2 == 0 ? messageBlock : wrongMessageBlock);
+            signatures.add(spseqScheme.sign(messages.get(i), keyPair.getSigningKey()));
+        }
+        assertEquals(Collections.emptyList(),
+                spseqScheme.verifyBatch(messages, signatures, keyPair.getVerificationKey()));
+
+        // swap in a signature on the wrong message and one under the wrong key
+        signatures.set(1, spseqScheme.sign(messageBlock, keyPair.getSigningKey()));
+        signatures.set(6, spseqScheme.sign(messageBlock, wrongKeyPair.getSigningKey()));
+        assertEquals(Arrays.asList(1, 6),
+                spseqScheme.verifyBatch(messages, signatures, keyPair.getVerificationKey()));
+    }
+
+    @Test
+    public void testBatchVerifyChgRepOutputs() {
+        List<PlainText> messages = new ArrayList<>();
+        List<Signature> signatures = new ArrayList<>();
+        List<Zp.ZpElement> mus = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            messages.add(i % 2 == 0 ? messageBlock : wrongMessageBlock);
+            signatures.add(spseqScheme.sign(messages.get(i), keyPair.getSigningKey()));
+            mus.add(pp.getZp().getUniformlyRandomUnit());
+        }
+        signatures.set(3, spseqScheme.sign(messageBlock, keyPair.getSigningKey()));
+
+        List<Signature> changed =
+                spseqScheme.chgRepWithVerifyBatch(messages, signatures, mus, keyPair.getVerificationKey());
+        assertNull(changed.get(3));
+
+        // the outputs of chgRep can be batch verified for the changed messages, too
+        List<PlainText> changedMessages = new ArrayList<>();
+        List<Signature> changedSignatures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            if (i != 3) {
+                changedMessages.add(spseqScheme.chgRepMessage(messages.get(i), mus.get(i)));
+                changedSignatures.add(changed.get(i));
+            }
+        }
+        assertEquals(Collections.emptyList(),
+                spseqScheme.verifyBatch(changedMessages, changedSignatures, keyPair.getVerificationKey()));
+    }
+
     @Test
     public void testSPSEQSignatureSchemeRepresentationText() {
         // Test standard signature scheme representations